@@ -3,6 +3,7 @@ package com.iflytek.astron.console.commons.aspect;
 import com.iflytek.astron.console.commons.annotation.RateLimit;
 import com.iflytek.astron.console.commons.constant.ResponseEnum;
 import com.iflytek.astron.console.commons.exception.BusinessException;
+import com.iflytek.astron.console.commons.service.ratelimit.HybridRateLimiter;
 import com.iflytek.astron.console.commons.util.RequestContextUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -11,10 +12,6 @@ import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.redisson.api.RRateLimiter;
-import org.redisson.api.RateIntervalUnit;
-import org.redisson.api.RateType;
-import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -31,8 +28,8 @@ import java.lang.reflect.Method;
 @Slf4j
 public class RateLimitAspect {
 
-    @Autowired(required = false)
-    private RedissonClient redissonClient;
+    @Autowired
+    private HybridRateLimiter hybridRateLimiter;
 
     // Read unified rate limit config from application properties
     @Value("${rate-limit.window:60}")
@@ -43,7 +40,7 @@ public class RateLimitAspect {
 
     @Before("@annotation(com.iflytek.astron.console.commons.annotation.RateLimit)")
     public void checkRateLimit(JoinPoint joinPoint) {
-        if (redissonClient == null) {
+        if (!hybridRateLimiter.isAvailable()) {
             log.warn("RedissonClient not available, rate limiting disabled");
             return;
         }
@@ -73,10 +70,7 @@ public class RateLimitAspect {
     }
 
     private void checkAndApplyRateLimit(String key, RateLimitConfig config) {
-        RRateLimiter rateLimiter = redissonClient.getRateLimiter(key);
-        rateLimiter.trySetRate(RateType.OVERALL, config.limit, config.window, RateIntervalUnit.SECONDS);
-
-        if (!rateLimiter.tryAcquire()) {
+        if (!hybridRateLimiter.tryAcquire(key, config.limit, config.window)) {
             log.warn("Rate limit exceeded for key: {}, limit: {}/{} seconds", key, config.limit, config.window);
             throw new BusinessException(ResponseEnum.TOO_MANY_REQUESTS);
         }
@@ -0,0 +1,142 @@
+package com.iflytek.astron.console.commons.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.iflytek.astron.console.commons.data.UserInfoDataService;
+import com.iflytek.astron.console.commons.entity.user.UserInfo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolved users of authenticated requests keyed by uid and token issue time. Concurrent first
+ * requests of a uid share one resolution, entries are refreshed in the background after the refresh
+ * interval and callers keep the previous value meanwhile. Invalidations are broadcast on a Redis
+ * channel so every node drops the user, the refresh interval bounds staleness if one is lost.
+ */
+@Slf4j
+@Component
+public class UserInfoCache {
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private static final String INVALIDATE_CHANNEL = "user_info_invalidate";
+
+    private static final ExecutorService REFRESH_EXECUTOR = Executors.newFixedThreadPool(2,
+            Thread.ofPlatform().name("user-info-refresh-", 0).daemon(true).factory());
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    /**
+     * Resolved lazily, the data service itself invalidates this cache on updates
+     */
+    @Autowired
+    private ObjectProvider<UserInfoDataService> userInfoDataServiceProvider;
+
+    @Value("${user-info-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user-info-cache.maximum-size:50000}")
+    private long maximumSize;
+
+    @Value("${user-info-cache.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    @Value("${user-info-cache.expire-seconds:900}")
+    private long expireSeconds;
+
+    private LoadingCache<String, UserInfo> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshSeconds, TimeUnit.SECONDS)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build(CacheLoader.asyncReloading(new CacheLoader<>() {
+                    @Override
+                    public UserInfo load(String key) {
+                        String uid = key.substring(0, key.lastIndexOf(KEY_SEPARATOR));
+                        return userInfoDataServiceProvider.getObject()
+                                .findByUid(uid)
+                                .orElseThrow(() -> new IllegalStateException("User no longer exists: " + uid));
+                    }
+                }, REFRESH_EXECUTOR));
+        redissonClient.getTopic(INVALIDATE_CHANNEL).addListener(String.class, (channel, msg) -> {
+            int index = msg.indexOf(KEY_SEPARATOR);
+            if (index > 0 && !nodeId.equals(msg.substring(0, index))) {
+                invalidateLocal(msg.substring(index + 1));
+            }
+        });
+    }
+
+    /**
+     * Get the user of a token, resolving it once per uid and issue time
+     *
+     * @param uid User ID
+     * @param issuedAt Token issue time in epoch seconds, 0 when absent
+     * @param resolver Resolves, and creates if needed, the user on a miss
+     * @return Copy of the cached user, safe to modify within the request
+     */
+    public UserInfo get(String uid, long issuedAt, Callable<UserInfo> resolver) {
+        try {
+            UserInfo userInfo = enabled ? cache.get(uid + KEY_SEPARATOR + issuedAt, resolver) : resolver.call();
+            return copyOf(userInfo);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to resolve user " + uid, e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to resolve user " + uid, e);
+        }
+    }
+
+    /**
+     * Drop every cached token of a user on every node after the user record changed
+     *
+     * @param uid User ID
+     */
+    public void invalidate(String uid) {
+        if (uid == null || cache == null) {
+            return;
+        }
+        invalidateLocal(uid);
+        try {
+            redissonClient.getTopic(INVALIDATE_CHANNEL).publish(nodeId + KEY_SEPARATOR + uid);
+        } catch (Exception e) {
+            // Other nodes pick up the change on their next refresh
+            log.warn("Failed to broadcast user info invalidation, uid: {}", uid, e);
+        }
+    }
+
+    private void invalidateLocal(String uid) {
+        String prefix = uid + KEY_SEPARATOR;
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static UserInfo copyOf(UserInfo userInfo) {
+        UserInfo copy = new UserInfo();
+        BeanUtils.copyProperties(userInfo, copy);
+        return copy;
+    }
+}
@@ -1,5 +1,6 @@
 package com.iflytek.astron.console.commons.config;
 
+import com.iflytek.astron.console.commons.cache.UserInfoCache;
 import com.iflytek.astron.console.commons.data.UserInfoDataService;
 import com.iflytek.astron.console.commons.dto.user.JwtInfoDto;
 import com.iflytek.astron.console.commons.entity.user.UserInfo;
@@ -22,6 +23,7 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class JwtClaimsFilter extends OncePerRequestFilter {
     private final UserInfoDataService userInfoDataService;
+    private final UserInfoCache userInfoCache;
 
     // Constant definitions
     public static final String USER_ID_ATTRIBUTE = "X-User-Id";
@@ -56,7 +58,9 @@ public class JwtClaimsFilter extends OncePerRequestFilter {
                 mobile = jwt.getClaim("phone").toString();
             }
             JwtInfoDto jwtInfoDto = new JwtInfoDto(userId, username, avatar, mobile);
-            UserInfo userInfo = createOrGetUserFromJwt(jwtInfoDto);
+            // Resolved once per token, later requests of the same token skip the user lookup
+            long issuedAt = jwt.getIssuedAt() == null ? 0 : jwt.getIssuedAt().getEpochSecond();
+            UserInfo userInfo = userInfoCache.get(userId, issuedAt, () -> createOrGetUserFromJwt(jwtInfoDto));
 
             // Set complete user information as request attribute
             request.setAttribute(USER_INFO_ATTRIBUTE, userInfo);
@@ -84,7 +88,7 @@ public class JwtClaimsFilter extends OncePerRequestFilter {
         userInfo.setUpdateTime(LocalDateTime.now());
         userInfo.setDeleted(DEFAULT_DELETED);
 
-        // Let createOrGetUser handle all existence checks and creation logic with distributed lock
+        // Let createOrGetUser handle all existence checks and creation logic
         return userInfoDataService.createOrGetUser(userInfo);
     }
 }
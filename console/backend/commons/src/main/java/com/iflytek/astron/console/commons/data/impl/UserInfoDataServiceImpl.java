@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.iflytek.astron.console.commons.cache.UserInfoCache;
 import com.iflytek.astron.console.commons.constant.ResponseEnum;
 import com.iflytek.astron.console.commons.data.UserInfoDataService;
 import com.iflytek.astron.console.commons.entity.user.UserInfo;
@@ -15,15 +16,13 @@ import com.iflytek.astron.console.commons.util.I18nUtil;
 import com.iflytek.astron.console.commons.event.UserNicknameUpdatedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -54,7 +53,7 @@ public class UserInfoDataServiceImpl implements UserInfoDataService {
     @Autowired
     private UserInfoMapper userInfoMapper;
     @Autowired
-    private RedissonClient redissonClient;
+    private UserInfoCache userInfoCache;
     @Autowired
     private ApplicationEventPublisher eventPublisher;
 
@@ -160,61 +159,38 @@ public class UserInfoDataServiceImpl implements UserInfoDataService {
             throw new IllegalArgumentException("User UID cannot be null");
         }
 
-        // First check: fail fast to avoid unnecessary lock contention
+        // Fast path: the user already exists
         Optional<UserInfo> existingUser = findByUid(userInfo.getUid());
         if (existingUser.isPresent()) {
             return existingUser.get();
         }
 
-        String lockKey = "user:create:uid:" + userInfo.getUid();
-        RLock lock = redissonClient.getLock(lockKey);
+        // Set default values
+        LocalDateTime now = LocalDateTime.now();
+        if (userInfo.getCreateTime() == null) {
+            userInfo.setCreateTime(now);
+        }
+        if (userInfo.getUpdateTime() == null) {
+            userInfo.setUpdateTime(now);
+        }
+        if (userInfo.getDeleted() == null) {
+            userInfo.setDeleted(0);
+        }
+        if (StringUtils.isBlank(userInfo.getNickname())) {
+            userInfo.setNickname(generateRandomNickname());
+        }
+        userInfo.setId(null);
 
+        // The unique uid index arbitrates concurrent first logins across nodes, the loser reads the
+        // winner's row instead of waiting on a lock
         try {
-            // Attempt to acquire the lock: wait up to 5s, hold up to 10s
-            boolean acquired = lock.tryLock(5, 10, TimeUnit.SECONDS);
-
-            if (!acquired) {
-                throw new IllegalStateException("Timed out acquiring distributed lock, please try again later");
-            }
-
-            try {
-                // Second check: re-validate whether UID exists inside the lock
-                Optional<UserInfo> existingUserInLock = findByUid(userInfo.getUid());
-                if (existingUserInLock.isPresent()) {
-                    return existingUserInLock.get();
-                }
-
-                // Set default values
-                LocalDateTime now = LocalDateTime.now();
-                if (userInfo.getCreateTime() == null) {
-                    userInfo.setCreateTime(now);
-                }
-                if (userInfo.getUpdateTime() == null) {
-                    userInfo.setUpdateTime(now);
-                }
-                if (userInfo.getDeleted() == null) {
-                    userInfo.setDeleted(0);
-                }
-                if (StringUtils.isBlank(userInfo.getNickname())) {
-                    userInfo.setNickname(generateRandomNickname());
-                }
-                userInfo.setId(null);
-
-                userInfoMapper.insert(userInfo);
-                log.info("Created new user: uid={}, username={}", userInfo.getUid(), userInfo.getUsername());
-                return userInfo;
-
-            } finally {
-                // Release the lock
-                if (lock.isHeldByCurrentThread()) {
-                    lock.unlock();
-                }
-            }
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("Interrupted while acquiring distributed lock", e);
+            userInfoMapper.insert(userInfo);
+        } catch (DuplicateKeyException e) {
+            return findByUid(userInfo.getUid())
+                    .orElseThrow(() -> new IllegalStateException("User creation conflicted but user was not found: " + userInfo.getUid(), e));
         }
+        log.info("Created new user: uid={}, username={}", userInfo.getUid(), userInfo.getUsername());
+        return userInfo;
     }
 
     private String generateRandomNickname() {
@@ -250,7 +226,9 @@ public class UserInfoDataServiceImpl implements UserInfoDataService {
         LambdaUpdateWrapper<UserInfo> wrapper = new LambdaUpdateWrapper<>();
         wrapper.eq(UserInfo::getUid, uid)
                 .set(UserInfo::getAccountStatus, accountStatus);
-        return userInfoMapper.update(null, wrapper) > 0;
+        boolean updated = userInfoMapper.update(null, wrapper) > 0;
+        userInfoCache.invalidate(uid);
+        return updated;
     }
 
     @Override
@@ -261,7 +239,9 @@ public class UserInfoDataServiceImpl implements UserInfoDataService {
         LambdaUpdateWrapper<UserInfo> wrapper = new LambdaUpdateWrapper<>();
         wrapper.eq(UserInfo::getUid, uid)
                 .set(UserInfo::getUserAgreement, userAgreement);
-        return userInfoMapper.update(null, wrapper) > 0;
+        boolean updated = userInfoMapper.update(null, wrapper) > 0;
+        userInfoCache.invalidate(uid);
+        return updated;
     }
 
     @Override
@@ -393,6 +373,7 @@ public class UserInfoDataServiceImpl implements UserInfoDataService {
         }
         userInfo.setUpdateTime(LocalDateTime.now());
         userInfoMapper.updateById(userInfo);
+        userInfoCache.invalidate(userInfo.getUid());
 
         // If the nickname has changed, publish an event
         if (StringUtils.isNotBlank(nickname) && !nickname.equals(oldNickname)) {
@@ -424,6 +405,7 @@ public class UserInfoDataServiceImpl implements UserInfoDataService {
         }
         userInfo.setUpdateTime(LocalDateTime.now());
         userInfoMapper.updateById(userInfo);
+        userInfoCache.invalidate(userInfo.getUid());
 
         // If the nickname has changed, publish an event
         if (StringUtils.isNotBlank(nickname) && !nickname.equals(oldNickname)) {
@@ -449,7 +431,9 @@ public class UserInfoDataServiceImpl implements UserInfoDataService {
         LambdaUpdateWrapper<UserInfo> wrapper = new LambdaUpdateWrapper<>();
         wrapper.eq(UserInfo::getUid, uid)
                 .set(UserInfo::getEnterpriseServiceType, serviceType);
-        return userInfoMapper.update(null, wrapper) > 0;
+        boolean updated = userInfoMapper.update(null, wrapper) > 0;
+        userInfoCache.invalidate(uid);
+        return updated;
     }
 
     @Override
@@ -1,5 +1,7 @@
 package com.iflytek.astron.console.commons.dto.llm;
 
+import com.alibaba.fastjson2.annotation.JSONField;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -43,5 +45,13 @@ public class SparkChatRequest {
         @Schema(description = "Message content")
         @NotBlank(message = "Message content cannot be empty")
         private String content;
+
+        /**
+         * Id of the persisted message, only used to cache its token count and never sent to the model
+         */
+        @Schema(hidden = true)
+        @JsonIgnore
+        @JSONField(serialize = false, deserialize = false)
+        private String messageId;
     }
 }
@@ -47,4 +47,12 @@ public class Workflow {
 
     Long spaceId;
     Integer type;
+
+    /**
+     * Summary of data maintained on write, so list queries never read data
+     */
+    String ioSummary;
+    Integer nodeCount;
+    String ioDigest;
+    Boolean hasQaNode;
 }
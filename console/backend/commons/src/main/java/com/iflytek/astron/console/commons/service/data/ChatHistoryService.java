@@ -31,6 +31,15 @@ public interface ChatHistoryService {
      */
     ChatRequestDtoList getHistory(String uid, Long chatId, List<ChatReqModelDto> reqList);
 
+    /**
+     * Get chat history records of the latest context, served from the per-chat context cache
+     *
+     * @param uid User ID
+     * @param chatId Chat ID
+     * @return Chat request list
+     */
+    ChatRequestDtoList getHistory(String uid, Long chatId);
+
     /**
      * Convert URL to large model multimodal protocol content array
      *
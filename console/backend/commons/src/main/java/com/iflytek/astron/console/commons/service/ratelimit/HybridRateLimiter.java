@@ -0,0 +1,165 @@
+package com.iflytek.astron.console.commons.service.ratelimit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateLimiterConfig;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Distributed rate limiter that leases permit batches from Redis and serves them from a local bucket.
+ * Only a drained or expired lease goes back to Redis, and keys whose limit is too small to batch are
+ * checked exactly on every call. A node can admit at most one unexpired lease beyond the exact
+ * distributed rate, so over-admission is bounded by nodes * lease size per lease period.
+ *
+ * <p>
+ * Unused leased permits are lost when the lease expires, so a key is only leased once this node has
+ * seen enough calls of it within a lease period, and never more permits than those calls. Sparse
+ * callers are checked exactly and can use their full limit.
+ */
+@Slf4j
+@Component
+public class HybridRateLimiter {
+
+    @Autowired(required = false)
+    private RedissonClient redissonClient;
+
+    /**
+     * Share of the limit leased by one node at a time
+     */
+    @Value("${rate-limit.lease-fraction:0.1}")
+    private double leaseFraction;
+
+    @Value("${rate-limit.max-lease:50}")
+    private int maxLease;
+
+    /**
+     * Leased permits not used within this period are dropped, capped by the rate window
+     */
+    @Value("${rate-limit.lease-millis:1000}")
+    private long leaseMillis;
+
+    /**
+     * Calls of a key within one lease period before permits are leased for it
+     */
+    @Value("${rate-limit.lease-min-hits:4}")
+    private int leaseMinHits;
+
+    @Value("${rate-limit.local-maximum-size:100000}")
+    private long localMaximumSize;
+
+    private Cache<String, LocalBucket> buckets;
+
+    private LongSupplier clock = System::nanoTime;
+
+    @PostConstruct
+    public void init() {
+        buckets = CacheBuilder.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build();
+    }
+
+    public boolean isAvailable() {
+        return redissonClient != null;
+    }
+
+    /**
+     * Try to take one permit of a key
+     *
+     * @param key Rate limit key
+     * @param limit Permits per window
+     * @param windowSeconds Window length in seconds
+     * @return Whether the call is admitted
+     */
+    public boolean tryAcquire(String key, int limit, int windowSeconds) {
+        LocalBucket bucket;
+        try {
+            bucket = buckets.get(key, LocalBucket::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        // Serialize per key so one node never leases the same key twice concurrently
+        synchronized (bucket) {
+            long now = clock.getAsLong();
+            long leaseNanos = TimeUnit.MILLISECONDS.toNanos(Math.min(leaseMillis, windowSeconds * 1000L));
+            int demand = bucket.hit(now, leaseNanos);
+            if (bucket.remaining > 0 && now < bucket.expiresAt) {
+                bucket.remaining--;
+                return true;
+            }
+            bucket.remaining = 0;
+
+            RRateLimiter rateLimiter = redissonClient.getRateLimiter(key);
+            registerRate(bucket, rateLimiter, limit, windowSeconds);
+
+            // Lease no more than recent demand, permits left at expiry would be lost to the caller
+            int leaseSize = demand >= leaseMinHits ? Math.min(leaseSize(limit), demand) : 1;
+            if (leaseSize > 1 && rateLimiter.tryAcquire(leaseSize)) {
+                bucket.remaining = leaseSize - 1;
+                bucket.expiresAt = now + leaseNanos;
+                return true;
+            }
+            // Lease not available, fall back to the exact distributed check
+            return rateLimiter.tryAcquire();
+        }
+    }
+
+    /**
+     * Store the rate in Redis once per key and node, and overwrite it when the configuration changed
+     */
+    private void registerRate(LocalBucket bucket, RRateLimiter rateLimiter, int limit, int windowSeconds) {
+        long rateKey = ((long) limit << 32) | windowSeconds;
+        if (bucket.registeredRate == rateKey) {
+            return;
+        }
+        if (!rateLimiter.trySetRate(RateType.OVERALL, limit, windowSeconds, RateIntervalUnit.SECONDS)) {
+            RateLimiterConfig config = rateLimiter.getConfig();
+            if (config.getRate() != limit || config.getRateInterval() != windowSeconds * 1000L) {
+                log.info("Rate limit config changed for key: {}, new limit: {}/{} seconds", rateLimiter.getName(), limit, windowSeconds);
+                rateLimiter.setRate(RateType.OVERALL, limit, windowSeconds, RateIntervalUnit.SECONDS);
+            }
+        }
+        bucket.registeredRate = rateKey;
+    }
+
+    private int leaseSize(int limit) {
+        return (int) Math.max(1, Math.min(maxLease, (long) (limit * leaseFraction)));
+    }
+
+    private static final class LocalBucket {
+        private long registeredRate = -1;
+        private int remaining;
+        private long expiresAt;
+        private long periodStart;
+        private int hits;
+        private int previousHits;
+
+        /**
+         * Count a call
+         *
+         * @return Calls in the current or the previous lease period, whichever is more
+         */
+        int hit(long now, long periodNanos) {
+            long elapsed = now - periodStart;
+            if (hits == 0 || elapsed >= periodNanos) {
+                previousHits = hits > 0 && elapsed < 2 * periodNanos ? hits : 0;
+                periodStart = now;
+                hits = 0;
+            }
+            hits++;
+            return Math.max(hits, previousHits);
+        }
+    }
+}
@@ -25,4 +25,6 @@ public interface EnterpriseSpaceService {
 
     boolean checkSpaceExpired(Long spaceId);
 
+    void clearSpaceCache(Long spaceId);
+
 }
@@ -7,6 +7,7 @@ import com.iflytek.astron.console.commons.util.space.OrderInfoUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -115,4 +116,13 @@ public class EnterpriseSpaceServiceImpl implements EnterpriseSpaceService {
         }
         return false;
     }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = "space:space_expired", key = "#spaceId", cacheManager = "cacheManager10s"),
+            @CacheEvict(value = "space:space_payer", key = "#spaceId", cacheManager = "cacheManager10s")
+    })
+    public void clearSpaceCache(Long spaceId) {
+
+    }
 }
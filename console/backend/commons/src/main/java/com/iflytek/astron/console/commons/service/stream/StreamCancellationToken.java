@@ -0,0 +1,52 @@
+package com.iflytek.astron.console.commons.service.stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cancellation token of a stream owned by the current node. Reading the state is a single volatile
+ * read, so generation loops can check it on every frame at no cost.
+ */
+@Slf4j
+public final class StreamCancellationToken {
+
+    private final String streamId;
+
+    private final Runnable onCancel;
+
+    private volatile boolean cancelled;
+
+    public StreamCancellationToken(String streamId, Runnable onCancel) {
+        this.streamId = streamId;
+        this.onCancel = onCancel;
+    }
+
+    public String getStreamId() {
+        return streamId;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancel the stream and run the cancel hook once, e.g. to abort the blocking upstream read
+     *
+     * @return true if this call cancelled the stream, false if it was already cancelled
+     */
+    public boolean cancel() {
+        synchronized (this) {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+        }
+        if (onCancel != null) {
+            try {
+                onCancel.run();
+            } catch (Exception e) {
+                log.warn("Stream cancel hook failed, streamId: {}", streamId, e);
+            }
+        }
+        return true;
+    }
+}
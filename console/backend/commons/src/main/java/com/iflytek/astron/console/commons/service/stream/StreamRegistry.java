@@ -0,0 +1,30 @@
+package com.iflytek.astron.console.commons.service.stream;
+
+/**
+ * Registry of generation streams, records which node owns each stream and routes stop commands to it
+ */
+public interface StreamRegistry {
+
+    /**
+     * Register a stream owned by the current node
+     *
+     * @param streamId Stream ID
+     * @param onCancel Hook run once when the stream is stopped, may be null
+     * @return Cancellation token of the stream
+     */
+    StreamCancellationToken register(String streamId, Runnable onCancel);
+
+    /**
+     * Release a stream after generation has finished
+     *
+     * @param streamId Stream ID
+     */
+    void unregister(String streamId);
+
+    /**
+     * Stop a stream, wherever it is running
+     *
+     * @param streamId Stream ID
+     */
+    void stop(String streamId);
+}
@@ -0,0 +1,31 @@
+package com.iflytek.astron.console.commons.service.stream.impl;
+
+import com.iflytek.astron.console.commons.service.stream.StreamCancellationToken;
+import com.iflytek.astron.console.commons.service.stream.StreamRegistry;
+import com.iflytek.astron.console.commons.util.SseEmitterUtil;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single-node stream registry, stop commands only reach streams of the current node. Used for
+ * standalone deployments and tests.
+ */
+@Service
+@ConditionalOnProperty(name = "stream-registry.type", havingValue = "memory")
+public class InMemoryStreamRegistry implements StreamRegistry {
+
+    @Override
+    public StreamCancellationToken register(String streamId, Runnable onCancel) {
+        return SseEmitterUtil.registerStream(streamId, onCancel);
+    }
+
+    @Override
+    public void unregister(String streamId) {
+        SseEmitterUtil.unregisterStream(streamId);
+    }
+
+    @Override
+    public void stop(String streamId) {
+        SseEmitterUtil.stopStream(streamId);
+    }
+}
@@ -0,0 +1,100 @@
+package com.iflytek.astron.console.commons.service.stream.impl;
+
+import com.iflytek.astron.console.commons.service.stream.StreamCancellationToken;
+import com.iflytek.astron.console.commons.service.stream.StreamRegistry;
+import com.iflytek.astron.console.commons.util.SseEmitterUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Cluster-wide stream registry. The owning node of each stream is leased in Redis, stop commands
+ * are published only to the owner's channel and fall back to a broadcast when the owner is unknown.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "stream-registry.type", havingValue = "redis", matchIfMissing = true)
+public class RedisStreamRegistry implements StreamRegistry {
+
+    /**
+     * Broadcast channel, received by every node
+     */
+    public static final String STOP_GENERATE_SUBSCRIBE_PUBLISH_CHANNEL = "stop_generate_sub_pub";
+
+    private static final String OWNER_KEY_PREFIX = "stream_owner:";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    /**
+     * Owner lease, must outlive the SSE timeout so a running stream never loses its owner record
+     */
+    @Value("${stream-registry.lease-seconds:600}")
+    private long leaseSeconds;
+
+    @PostConstruct
+    public void subscribe() {
+        redissonClient.getTopic(STOP_GENERATE_SUBSCRIBE_PUBLISH_CHANNEL)
+                .addListener(String.class, (channel, streamId) -> SseEmitterUtil.stopStream(streamId));
+        redissonClient.getTopic(nodeChannel(nodeId))
+                .addListener(String.class, (channel, streamId) -> SseEmitterUtil.stopStream(streamId));
+        log.info("Stream registry subscribed, nodeId: {}", nodeId);
+    }
+
+    @Override
+    public StreamCancellationToken register(String streamId, Runnable onCancel) {
+        StreamCancellationToken token = SseEmitterUtil.registerStream(streamId, onCancel);
+        try {
+            ownerBucket(streamId).set(nodeId, Duration.ofSeconds(leaseSeconds));
+        } catch (Exception e) {
+            // Stop still works through the broadcast channel
+            log.warn("Failed to record stream owner, streamId: {}", streamId, e);
+        }
+        return token;
+    }
+
+    @Override
+    public void unregister(String streamId) {
+        SseEmitterUtil.unregisterStream(streamId);
+        try {
+            ownerBucket(streamId).compareAndSet(nodeId, null);
+        } catch (Exception e) {
+            log.warn("Failed to release stream owner, streamId: {}", streamId, e);
+        }
+    }
+
+    @Override
+    public void stop(String streamId) {
+        if (SseEmitterUtil.isStreamRegistered(streamId)) {
+            SseEmitterUtil.stopStream(streamId);
+            return;
+        }
+        String owner = null;
+        try {
+            owner = ownerBucket(streamId).get();
+        } catch (Exception e) {
+            log.warn("Failed to read stream owner, streamId: {}", streamId, e);
+        }
+        String channel = owner == null ? STOP_GENERATE_SUBSCRIBE_PUBLISH_CHANNEL : nodeChannel(owner);
+        redissonClient.getTopic(channel).publish(streamId);
+        log.debug("Stop command published, streamId: {}, channel: {}", streamId, channel);
+    }
+
+    private RBucket<String> ownerBucket(String streamId) {
+        return redissonClient.getBucket(OWNER_KEY_PREFIX + streamId);
+    }
+
+    private static String nodeChannel(String nodeId) {
+        return STOP_GENERATE_SUBSCRIBE_PUBLISH_CHANNEL + ":" + nodeId;
+    }
+}
@@ -6,7 +6,6 @@ import com.alibaba.fastjson2.JSONObject;
 import com.iflytek.astron.console.commons.constant.RedisKeyConstant;
 import com.iflytek.astron.console.commons.constant.ResponseEnum;
 import com.iflytek.astron.console.commons.dto.chat.ChatModelMeta;
-import com.iflytek.astron.console.commons.dto.chat.ChatReqModelDto;
 import com.iflytek.astron.console.commons.dto.chat.ChatRequestDto;
 import com.iflytek.astron.console.commons.dto.chat.ChatRequestDtoList;
 import com.iflytek.astron.console.commons.entity.bot.ChatBotMarket;
@@ -134,8 +133,7 @@ public class WorkflowBotChatServiceImpl implements WorkflowBotChatService {
         }
 
         // Get multimodal chat records for current chat question
-        List<ChatReqModelDto> reqList = chatDataService.getReqModelBotHistoryByChatId(uid, chatId);
-        ChatRequestDtoList requestDtoList = chatHistoryService.getHistory(uid, chatId, reqList);
+        ChatRequestDtoList requestDtoList = chatHistoryService.getHistory(uid, chatId);
         filterContent(requestDtoList);
         WorkflowApiRequest workflowApiRequest = new WorkflowApiRequest(flowId, uid, inputs, requestDtoList.getMessages(), workflowVersion);
         log.info("workflowApiRequest:{}", workflowApiRequest);
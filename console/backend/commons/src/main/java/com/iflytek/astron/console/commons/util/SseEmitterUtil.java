@@ -1,9 +1,9 @@
 package com.iflytek.astron.console.commons.util;
 
-import cn.hutool.core.thread.ThreadUtil;
 import com.alibaba.fastjson2.JSON;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.iflytek.astron.console.commons.service.stream.StreamCancellationToken;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.sse.EventSource;
 import org.apache.logging.log4j.util.Base64Util;
@@ -15,7 +15,10 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -30,6 +33,14 @@ public class SseEmitterUtil {
 
     private static final long DEFAULT_SSE_TIMEOUT_MS = 8 * 60 * 1000L;
     private static final String END_DATA = "{\"end\":true,\"timestamp\":" + System.currentTimeMillis() + "}";
+    private static final int DEFAULT_TYPEWRITER_CHUNK_SIZE = 4;
+
+    /**
+     * Shared scheduler for typewriter output, tasks only occupy a thread while sending one chunk
+     */
+    private static final ScheduledExecutorService TYPEWRITER_SCHEDULER = Executors.newScheduledThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
+            Thread.ofPlatform().name("sse-typewriter-", 0).daemon(true).factory());
 
     private static final Cache<String, Boolean> streamStopSignalSet = CacheBuilder.newBuilder()
             .expireAfterWrite(16, TimeUnit.SECONDS)
@@ -42,6 +53,11 @@ public class SseEmitterUtil {
 
     public static final Map<String, EventSource> EVENTSOURCE_MAP = new ConcurrentHashMap<>(256);
 
+    /**
+     * Cancellation tokens of streams registered on this node
+     */
+    private static final Map<String, StreamCancellationToken> STREAM_TOKEN_MAP = new ConcurrentHashMap<>(256);
+
     public static SseEmitter get(String sseId) {
         return SESSION_MAP.get(sseId);
     }
@@ -51,32 +67,32 @@ public class SseEmitterUtil {
     }
 
     /**
-     * SSE response
+     * SSE response, released in chunks by the shared typewriter scheduler
      */
     public static void sendMsgLikeTypeWriter(String content, String sseId, Long interval) {
-        try {
-            // String contains no English letters, output character by character
-            for (int j = 0; j < content.length(); j++) {
-                // Send character by character through SSE
-                SseEmitterUtil.sendMessage(sseId, Base64Util.encode(String.valueOf(content.charAt(j))));
-                char codePoint = content.charAt(j);
-                if ((codePoint >= 65 && codePoint <= 90)
-                        || (codePoint >= 97 && codePoint <= 122)) {
-                    ThreadUtil.sleep(1);
-                } else {
-                    if (interval > 0) {
-                        ThreadUtil.sleep(interval);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // Close WS
-            if (e instanceof IllegalStateException) {
-                log.error("Expired send content, SSE already closed");
-            } else {
-                log.error("SSE send exception", e);
-            }
-        }
+        sendMsgLikeTypeWriter(content, sseId, interval, DEFAULT_TYPEWRITER_CHUNK_SIZE);
+    }
+
+    /**
+     * Send content like a typewriter without holding the calling thread. Each tick sends up to
+     * {@code chunkSize} code points as one Base64 message, and the stop signal is checked between ticks.
+     *
+     * @param content Content to send
+     * @param sseId SSE connection ID
+     * @param interval Interval between ticks in milliseconds
+     * @param chunkSize Number of code points released per tick
+     * @return Future completed when all content is sent, the stream is stopped or the connection closes
+     */
+    public static CompletableFuture<Void> sendMsgLikeTypeWriter(String content, String sseId, Long interval, int chunkSize) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (content == null || content.isEmpty()) {
+            future.complete(null);
+            return future;
+        }
+        long period = interval != null && interval > 0 ? interval : 1L;
+        TypeWriterTask task = new TypeWriterTask(content, sseId, period, Math.max(1, chunkSize), future);
+        TYPEWRITER_SCHEDULER.execute(task);
+        return future;
     }
 
     /**
@@ -280,12 +296,59 @@ public class SseEmitterUtil {
      * @param streamId Stream ID to stop
      */
     public static void stopStream(String streamId) {
+        if (streamId == null) {
+            return;
+        }
+        StreamCancellationToken token = STREAM_TOKEN_MAP.get(streamId);
+        if (token != null) {
+            token.cancel();
+            log.debug("Stream token cancelled for streamId: {}", streamId);
+            return;
+        }
+        // Stream not registered on this node, keep a short-lived signal for polling loops
+        streamStopSignalSet.put(streamId, true);
+        log.debug("Stream stop signal set for streamId: {}", streamId);
+    }
+
+    /**
+     * Register a stream running on this node, stop commands then cancel its token directly
+     *
+     * @param streamId Stream ID
+     * @param onCancel Hook run once when the stream is stopped, may be null
+     * @return Cancellation token of the stream
+     */
+    public static StreamCancellationToken registerStream(String streamId, Runnable onCancel) {
+        StreamCancellationToken token = new StreamCancellationToken(streamId, onCancel);
+        STREAM_TOKEN_MAP.put(streamId, token);
+        // A stop that arrived before registration must not be lost
+        if (streamStopSignalSet.getIfPresent(streamId) != null) {
+            streamStopSignalSet.invalidate(streamId);
+            token.cancel();
+        }
+        return token;
+    }
+
+    /**
+     * Remove the cancellation token of a finished stream
+     *
+     * @param streamId Stream ID
+     */
+    public static void unregisterStream(String streamId) {
         if (streamId != null) {
-            streamStopSignalSet.put(streamId, true);
-            log.debug("Stream stop signal set for streamId: {}", streamId);
+            STREAM_TOKEN_MAP.remove(streamId);
         }
     }
 
+    /**
+     * Check whether the stream is registered on this node
+     *
+     * @param streamId Stream ID
+     * @return true if the stream runs on this node
+     */
+    public static boolean isStreamRegistered(String streamId) {
+        return streamId != null && STREAM_TOKEN_MAP.containsKey(streamId);
+    }
+
     /**
      * Asynchronously send data stream and close SseEmitter
      *
@@ -602,6 +665,11 @@ public class SseEmitterUtil {
             return false;
         }
 
+        StreamCancellationToken token = STREAM_TOKEN_MAP.get(streamId);
+        if (token != null) {
+            return token.isCancelled();
+        }
+
         Boolean stopped = streamStopSignalSet.getIfPresent(streamId);
         if (stopped != null && stopped) {
             streamStopSignalSet.invalidate(streamId);
@@ -628,6 +696,52 @@ public class SseEmitterUtil {
         sendData(emitter, content);
     }
 
+    /**
+     * Self-rescheduling task that releases one chunk of code points per tick
+     */
+    private static final class TypeWriterTask implements Runnable {
+        private final String content;
+        private final String sseId;
+        private final long period;
+        private final int chunkSize;
+        private final CompletableFuture<Void> future;
+        private int offset;
+
+        private TypeWriterTask(String content, String sseId, long period, int chunkSize, CompletableFuture<Void> future) {
+            this.content = content;
+            this.sseId = sseId;
+            this.period = period;
+            this.chunkSize = chunkSize;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (isStreamStopped(sseId) || !exist(sseId)) {
+                    log.info("SSE[{}] typewriter stopped before completion", sseId);
+                    future.complete(null);
+                    return;
+                }
+                int remaining = content.codePointCount(offset, content.length());
+                int end = content.offsetByCodePoints(offset, Math.min(chunkSize, remaining));
+                sendMessage(sseId, Base64Util.encode(content.substring(offset, end)));
+                offset = end;
+                if (offset >= content.length()) {
+                    future.complete(null);
+                } else {
+                    TYPEWRITER_SCHEDULER.schedule(this, period, TimeUnit.MILLISECONDS);
+                }
+            } catch (IllegalStateException e) {
+                log.error("Expired send content, SSE already closed");
+                future.complete(null);
+            } catch (Exception e) {
+                log.error("SSE send exception", e);
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
     public static class StreamProcessor<T> {
         private final SseEmitter emitter;
         private final String streamId;
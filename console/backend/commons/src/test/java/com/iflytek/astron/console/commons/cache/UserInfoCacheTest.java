@@ -0,0 +1,143 @@
+package com.iflytek.astron.console.commons.cache;
+
+import com.iflytek.astron.console.commons.entity.user.UserInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserInfoCacheTest {
+
+    private UserInfoCache userInfoCache;
+
+    private final AtomicInteger resolved = new AtomicInteger();
+
+    private final RTopic topic = mock(RTopic.class);
+
+    private MessageListener<String> listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic("user_info_invalidate")).thenReturn(topic);
+        userInfoCache = new UserInfoCache();
+        ReflectionTestUtils.setField(userInfoCache, "redissonClient", redissonClient);
+        ReflectionTestUtils.setField(userInfoCache, "enabled", true);
+        ReflectionTestUtils.setField(userInfoCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(userInfoCache, "refreshSeconds", 60L);
+        ReflectionTestUtils.setField(userInfoCache, "expireSeconds", 600L);
+        userInfoCache.init();
+
+        ArgumentCaptor<MessageListener<String>> captor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(String.class), captor.capture());
+        listener = captor.getValue();
+    }
+
+    private UserInfo resolve(String uid) {
+        resolved.incrementAndGet();
+        UserInfo userInfo = new UserInfo();
+        userInfo.setUid(uid);
+        userInfo.setNickname("nick");
+        return userInfo;
+    }
+
+    @Test
+    void testGet_ConcurrentFirstRequestsResolveOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<UserInfo>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return userInfoCache.get("uid-1", 1000L, () -> {
+                        Thread.sleep(50);
+                        return resolve("uid-1");
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<UserInfo> future : futures) {
+                assertEquals("uid-1", future.get(5, TimeUnit.SECONDS).getUid());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, resolved.get());
+    }
+
+    @Test
+    void testGet_NewTokenResolvesAgain() {
+        userInfoCache.get("uid-1", 1000L, () -> resolve("uid-1"));
+        userInfoCache.get("uid-1", 1000L, () -> resolve("uid-1"));
+        userInfoCache.get("uid-1", 2000L, () -> resolve("uid-1"));
+
+        assertEquals(2, resolved.get());
+    }
+
+    @Test
+    void testGet_ReturnsIsolatedCopies() {
+        UserInfo first = userInfoCache.get("uid-1", 1000L, () -> resolve("uid-1"));
+        first.setNickname("changed in request");
+
+        assertEquals("nick", userInfoCache.get("uid-1", 1000L, () -> resolve("uid-1")).getNickname());
+    }
+
+    @Test
+    void testInvalidate_DropsEveryTokenOfUser() {
+        userInfoCache.get("uid-1", 1000L, () -> resolve("uid-1"));
+        userInfoCache.get("uid-1", 2000L, () -> resolve("uid-1"));
+        userInfoCache.get("uid-2", 1000L, () -> resolve("uid-2"));
+
+        userInfoCache.invalidate("uid-1");
+        userInfoCache.get("uid-1", 1000L, () -> resolve("uid-1"));
+        userInfoCache.get("uid-2", 1000L, () -> resolve("uid-2"));
+
+        assertEquals(4, resolved.get());
+    }
+
+    @Test
+    void testInvalidate_BroadcastsToOtherNodes() {
+        userInfoCache.invalidate("uid-1");
+
+        ArgumentCaptor<String> msg = ArgumentCaptor.forClass(String.class);
+        verify(topic).publish(msg.capture());
+        assertTrue(msg.getValue().endsWith("|uid-1"));
+    }
+
+    @Test
+    void testInvalidate_FromAnotherNodeDropsUser() {
+        userInfoCache.get("uid-1", 1000L, () -> resolve("uid-1"));
+
+        listener.onMessage("user_info_invalidate", "other-node|uid-1");
+        userInfoCache.get("uid-1", 1000L, () -> resolve("uid-1"));
+
+        assertEquals(2, resolved.get());
+    }
+
+    @Test
+    void testGet_ResolverExceptionPropagates() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userInfoCache.get(null, 0L, () -> {
+                    throw new IllegalArgumentException("JWT info or user ID cannot be null");
+                }));
+    }
+}
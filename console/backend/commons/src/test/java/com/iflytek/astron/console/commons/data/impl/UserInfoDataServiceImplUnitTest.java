@@ -1,6 +1,7 @@
 package com.iflytek.astron.console.commons.data.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.iflytek.astron.console.commons.cache.UserInfoCache;
 import com.iflytek.astron.console.commons.entity.user.UserInfo;
 import com.iflytek.astron.console.commons.event.UserNicknameUpdatedEvent;
 import com.iflytek.astron.console.commons.exception.BusinessException;
@@ -17,15 +18,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -43,14 +42,11 @@ class UserInfoDataServiceImplUnitTest {
     private UserInfoMapper userInfoMapper;
 
     @Mock
-    private RedissonClient redissonClient;
+    private UserInfoCache userInfoCache;
 
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
-    @Mock
-    private RLock rLock;
-
     @InjectMocks
     private UserInfoDataServiceImpl userInfoDataService;
 
@@ -245,7 +241,7 @@ class UserInfoDataServiceImplUnitTest {
 
             // Then
             assertThat(result).isEqualTo(testUser);
-            verify(redissonClient, never()).getLock(anyString());
+            verify(userInfoMapper, never()).insert(any(UserInfo.class));
         }
 
         @Test
@@ -271,18 +267,13 @@ class UserInfoDataServiceImplUnitTest {
 
         @Test
         @DisplayName("Create or get user - Successfully create new user")
-        void createOrGetUser_CreateNewUser() throws InterruptedException {
+        void createOrGetUser_CreateNewUser() {
             // Given
             UserInfo newUser = new UserInfo();
             newUser.setUid(testUid);
             newUser.setUsername(testUsername);
 
-            when(userInfoMapper.selectOne(any(LambdaQueryWrapper.class)))
-                    .thenReturn(null) // First check: not found
-                    .thenReturn(null); // Second check in lock: still not found
-            when(redissonClient.getLock(anyString())).thenReturn(rLock);
-            when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
-            when(rLock.isHeldByCurrentThread()).thenReturn(true);
+            when(userInfoMapper.selectOne(any(LambdaQueryWrapper.class))).thenReturn(null);
             when(userInfoMapper.insert(any(UserInfo.class))).thenReturn(1);
 
             try (MockedStatic<I18nUtil> i18nUtilMocked = mockStatic(I18nUtil.class)) {
@@ -299,68 +290,45 @@ class UserInfoDataServiceImplUnitTest {
                 assertThat(result.getDeleted()).isZero();
                 assertThat(result.getNickname()).isNotBlank();
 
-                verify(rLock).tryLock(5, 10, TimeUnit.SECONDS);
-                verify(rLock).unlock();
                 verify(userInfoMapper).insert(any(UserInfo.class));
             }
         }
 
         @Test
-        @DisplayName("Create or get user - User exists in lock")
-        void createOrGetUser_UserExistsInLock() throws InterruptedException {
+        @DisplayName("Create or get user - Concurrent creation wins on unique key")
+        void createOrGetUser_ConcurrentCreation() {
             // Given
             UserInfo newUser = new UserInfo();
             newUser.setUid(testUid);
+            newUser.setNickname(testNickname);
 
             when(userInfoMapper.selectOne(any(LambdaQueryWrapper.class)))
                     .thenReturn(null) // First check: not found
-                    .thenReturn(testUser); // Second check in lock: found
-            when(redissonClient.getLock(anyString())).thenReturn(rLock);
-            when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
-            when(rLock.isHeldByCurrentThread()).thenReturn(true);
+                    .thenReturn(testUser); // After the duplicate key: created by another request
+            when(userInfoMapper.insert(any(UserInfo.class))).thenThrow(new DuplicateKeyException("uid_unique_index"));
 
             // When
             UserInfo result = userInfoDataService.createOrGetUser(newUser);
 
             // Then
             assertThat(result).isEqualTo(testUser);
-            verify(userInfoMapper, never()).insert(any(UserInfo.class));
-            verify(rLock).unlock();
-        }
-
-        @Test
-        @DisplayName("Create or get user - Lock acquisition timeout")
-        void createOrGetUser_LockTimeout() throws InterruptedException {
-            // Given
-            UserInfo newUser = new UserInfo();
-            newUser.setUid(testUid);
-
-            when(userInfoMapper.selectOne(any(LambdaQueryWrapper.class))).thenReturn(null);
-            when(redissonClient.getLock(anyString())).thenReturn(rLock);
-            when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(false);
-
-            // When & Then
-            assertThatThrownBy(() -> userInfoDataService.createOrGetUser(newUser))
-                    .isInstanceOf(IllegalStateException.class)
-                    .hasMessage("Timed out acquiring distributed lock, please try again later");
         }
 
         @Test
-        @DisplayName("Create or get user - Thread interrupted")
-        void createOrGetUser_InterruptedException() throws InterruptedException {
+        @DisplayName("Create or get user - Duplicate key but user missing")
+        void createOrGetUser_DuplicateKeyUserMissing() {
             // Given
             UserInfo newUser = new UserInfo();
             newUser.setUid(testUid);
+            newUser.setNickname(testNickname);
 
             when(userInfoMapper.selectOne(any(LambdaQueryWrapper.class))).thenReturn(null);
-            when(redissonClient.getLock(anyString())).thenReturn(rLock);
-            when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class)))
-                    .thenThrow(new InterruptedException("Test interrupt"));
+            when(userInfoMapper.insert(any(UserInfo.class))).thenThrow(new DuplicateKeyException("uid_unique_index"));
 
             // When & Then
             assertThatThrownBy(() -> userInfoDataService.createOrGetUser(newUser))
                     .isInstanceOf(IllegalStateException.class)
-                    .hasMessage("Interrupted while acquiring distributed lock");
+                    .hasCauseInstanceOf(DuplicateKeyException.class);
         }
     }
 
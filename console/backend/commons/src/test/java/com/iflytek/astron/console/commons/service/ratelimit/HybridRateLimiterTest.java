@@ -0,0 +1,125 @@
+package com.iflytek.astron.console.commons.service.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateLimiterConfig;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HybridRateLimiterTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RRateLimiter rateLimiter;
+
+    @InjectMocks
+    private HybridRateLimiter hybridRateLimiter;
+
+    private final AtomicLong now = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hybridRateLimiter, "leaseFraction", 0.1);
+        ReflectionTestUtils.setField(hybridRateLimiter, "maxLease", 50);
+        ReflectionTestUtils.setField(hybridRateLimiter, "leaseMillis", 1000L);
+        ReflectionTestUtils.setField(hybridRateLimiter, "leaseMinHits", 4);
+        ReflectionTestUtils.setField(hybridRateLimiter, "localMaximumSize", 100L);
+        ReflectionTestUtils.setField(hybridRateLimiter, "clock", (LongSupplier) now::get);
+        hybridRateLimiter.init();
+        when(redissonClient.getRateLimiter(anyString())).thenReturn(rateLimiter);
+    }
+
+    @Test
+    void testTryAcquire_ServesLeasedPermitsLocally() {
+        when(rateLimiter.trySetRate(RateType.OVERALL, 100, 60, RateIntervalUnit.SECONDS)).thenReturn(true);
+        when(rateLimiter.tryAcquire()).thenReturn(true);
+        when(rateLimiter.tryAcquire(anyLong())).thenReturn(true);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(hybridRateLimiter.tryAcquire("rate_limit:k:user:1", 100, 60));
+        }
+
+        // A burst starts exact, then leases grow with the observed demand up to the lease size
+        verify(rateLimiter, times(3)).tryAcquire();
+        verify(rateLimiter, times(1)).tryAcquire(4L);
+        verify(rateLimiter, times(1)).tryAcquire(8L);
+        verify(rateLimiter, times(9)).tryAcquire(10L);
+        verify(rateLimiter, times(1)).trySetRate(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void testTryAcquire_SparseCallsGetFullLimit() {
+        when(rateLimiter.trySetRate(any(), anyLong(), anyLong(), any())).thenReturn(true);
+        // Exact distributed bucket of 100 permits for the whole test
+        AtomicInteger permits = new AtomicInteger(100);
+        when(rateLimiter.tryAcquire()).thenAnswer(invocation -> permits.getAndUpdate(p -> Math.max(0, p - 1)) > 0);
+        lenient().when(rateLimiter.tryAcquire(anyLong())).thenAnswer(invocation -> {
+            long n = invocation.getArgument(0);
+            return permits.getAndUpdate(p -> p >= n ? (int) (p - n) : p) >= n;
+        });
+
+        int admitted = 0;
+        for (int i = 0; i < 101; i++) {
+            now.addAndGet(TimeUnit.SECONDS.toNanos(3));
+            if (hybridRateLimiter.tryAcquire("rate_limit:k:user:1", 100, 600)) {
+                admitted++;
+            }
+        }
+
+        assertEquals(100, admitted);
+        verify(rateLimiter, never()).tryAcquire(anyLong());
+    }
+
+    @Test
+    void testTryAcquire_FallsBackToExactCheckWhenLeaseUnavailable() {
+        when(rateLimiter.trySetRate(any(), anyLong(), anyLong(), any())).thenReturn(true);
+        when(rateLimiter.tryAcquire(4L)).thenReturn(false);
+        when(rateLimiter.tryAcquire()).thenReturn(true, true, true, false);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(hybridRateLimiter.tryAcquire("rate_limit:k:user:1", 100, 60));
+        }
+        assertFalse(hybridRateLimiter.tryAcquire("rate_limit:k:user:1", 100, 60));
+    }
+
+    @Test
+    void testTryAcquire_SmallLimitIsCheckedExactly() {
+        when(rateLimiter.trySetRate(any(), anyLong(), anyLong(), any())).thenReturn(true);
+        when(rateLimiter.tryAcquire()).thenReturn(true, false);
+
+        assertTrue(hybridRateLimiter.tryAcquire("rate_limit:k:user:1", 1, 1));
+        assertFalse(hybridRateLimiter.tryAcquire("rate_limit:k:user:1", 1, 1));
+        verify(rateLimiter, never()).tryAcquire(anyLong());
+    }
+
+    @Test
+    void testTryAcquire_OverwritesChangedRate() {
+        RateLimiterConfig config = new RateLimiterConfig(RateType.OVERALL, 60000L, 30L);
+        when(rateLimiter.trySetRate(any(), anyLong(), anyLong(), any())).thenReturn(false);
+        when(rateLimiter.getConfig()).thenReturn(config);
+        when(rateLimiter.tryAcquire()).thenReturn(true);
+
+        assertTrue(hybridRateLimiter.tryAcquire("rate_limit:k:user:1", 50, 60));
+
+        verify(rateLimiter).setRate(RateType.OVERALL, 50, 60, RateIntervalUnit.SECONDS);
+    }
+}
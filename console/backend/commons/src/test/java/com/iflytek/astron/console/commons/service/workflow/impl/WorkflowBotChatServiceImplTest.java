@@ -3,7 +3,6 @@ package com.iflytek.astron.console.commons.service.workflow.impl;
 import com.alibaba.fastjson2.JSON;
 import com.iflytek.astron.console.commons.constant.ResponseEnum;
 import com.iflytek.astron.console.commons.dto.chat.ChatModelMeta;
-import com.iflytek.astron.console.commons.dto.chat.ChatReqModelDto;
 import com.iflytek.astron.console.commons.dto.chat.ChatRequestDto;
 import com.iflytek.astron.console.commons.dto.chat.ChatRequestDtoList;
 import com.iflytek.astron.console.commons.entity.bot.ChatBotMarket;
@@ -121,12 +120,9 @@ class WorkflowBotChatServiceImplTest {
         when(chatDataService.createRequest(any(ChatReqRecords.class))).thenReturn(chatReqRecords);
         when(workflowBotParamService.handleMultiFileParam(anyString(), anyLong(), isNull(), any(), any(), anyLong())).thenReturn(false);
 
-        List<ChatReqModelDto> reqList = new ArrayList<>();
-        when(chatDataService.getReqModelBotHistoryByChatId("testUser", 123L)).thenReturn(reqList);
-
         ChatRequestDtoList requestDtoList = new ChatRequestDtoList();
         requestDtoList.setMessages(new LinkedList<>());
-        when(chatHistoryService.getHistory("testUser", 123L, reqList)).thenReturn(requestDtoList);
+        when(chatHistoryService.getHistory("testUser", 123L)).thenReturn(requestDtoList);
 
         when(chatBotDataService.findMarketBotByBotId(456)).thenReturn(null); // No market bot, use debug
 
@@ -154,12 +150,9 @@ class WorkflowBotChatServiceImplTest {
         when(chatDataService.createRequest(any(ChatReqRecords.class))).thenReturn(chatReqRecords);
         when(workflowBotParamService.handleMultiFileParam(anyString(), anyLong(), isNull(), any(), any(), anyLong())).thenReturn(false);
 
-        List<ChatReqModelDto> reqList = new ArrayList<>();
-        when(chatDataService.getReqModelBotHistoryByChatId("testUser", 123L)).thenReturn(reqList);
-
         ChatRequestDtoList requestDtoList = new ChatRequestDtoList();
         requestDtoList.setMessages(new LinkedList<>());
-        when(chatHistoryService.getHistory("testUser", 123L, reqList)).thenReturn(requestDtoList);
+        when(chatHistoryService.getHistory("testUser", 123L)).thenReturn(requestDtoList);
 
         // Market bot exists and is on shelf
         ChatBotMarket market = new ChatBotMarket();
@@ -188,12 +181,9 @@ class WorkflowBotChatServiceImplTest {
         when(chatDataService.createRequest(any(ChatReqRecords.class))).thenReturn(chatReqRecords);
         when(workflowBotParamService.handleMultiFileParam(anyString(), anyLong(), isNull(), any(), any(), anyLong())).thenReturn(false);
 
-        List<ChatReqModelDto> reqList = new ArrayList<>();
-        when(chatDataService.getReqModelBotHistoryByChatId("testUser", 123L)).thenReturn(reqList);
-
         ChatRequestDtoList requestDtoList = new ChatRequestDtoList();
         requestDtoList.setMessages(new LinkedList<>());
-        when(chatHistoryService.getHistory("testUser", 123L, reqList)).thenReturn(requestDtoList);
+        when(chatHistoryService.getHistory("testUser", 123L)).thenReturn(requestDtoList);
 
         when(chatBotDataService.findMarketBotByBotId(456)).thenReturn(null);
 
@@ -242,12 +232,9 @@ class WorkflowBotChatServiceImplTest {
         when(chatDataService.createRequest(any(ChatReqRecords.class))).thenReturn(chatReqRecords);
         when(workflowBotParamService.handleMultiFileParam(anyString(), anyLong(), isNull(), any(), any(), anyLong())).thenReturn(true);
 
-        List<ChatReqModelDto> reqList = new ArrayList<>();
-        when(chatDataService.getReqModelBotHistoryByChatId("testUser", 123L)).thenReturn(reqList);
-
         ChatRequestDtoList requestDtoList = new ChatRequestDtoList();
         requestDtoList.setMessages(new LinkedList<>());
-        when(chatHistoryService.getHistory("testUser", 123L, reqList)).thenReturn(requestDtoList);
+        when(chatHistoryService.getHistory("testUser", 123L)).thenReturn(requestDtoList);
 
         when(chatBotDataService.findMarketBotByBotId(456)).thenReturn(null);
 
@@ -383,12 +370,9 @@ class WorkflowBotChatServiceImplTest {
         when(chatDataService.createRequest(any(ChatReqRecords.class))).thenReturn(chatReqRecords);
         when(workflowBotParamService.handleMultiFileParam(anyString(), anyLong(), isNull(), any(), any(), anyLong())).thenReturn(false);
 
-        List<ChatReqModelDto> reqList = new ArrayList<>();
-        when(chatDataService.getReqModelBotHistoryByChatId("testUser", 123L)).thenReturn(reqList);
-
         ChatRequestDtoList requestDtoList = new ChatRequestDtoList();
         requestDtoList.setMessages(new LinkedList<>());
-        when(chatHistoryService.getHistory("testUser", 123L, reqList)).thenReturn(requestDtoList);
+        when(chatHistoryService.getHistory("testUser", 123L)).thenReturn(requestDtoList);
 
         when(chatBotDataService.findMarketBotByBotId(456)).thenReturn(null);
 
@@ -1,5 +1,6 @@
 package com.iflytek.astron.console.commons.util;
 
+import com.iflytek.astron.console.commons.service.stream.StreamCancellationToken;
 import okhttp3.sse.EventSource;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -153,6 +156,71 @@ class SseEmitterUtilTest {
         assertDoesNotThrow(() -> SseEmitterUtil.sendMessage("non-existent-id", TEST_MESSAGE));
     }
 
+    @Test
+    void testSendMsgLikeTypeWriter_SendsChunks() throws Exception {
+        SseEmitter emitter = mock(SseEmitter.class);
+        getSessionMap().put(TEST_SSE_ID, emitter);
+
+        SseEmitterUtil.sendMsgLikeTypeWriter("\uD83D\uDE00ab\u4F60\u597D", TEST_SSE_ID, 1L, 2).get(5, TimeUnit.SECONDS);
+
+        // 5 code points in chunks of 2, surrogate pair kept together
+        verify(emitter, times(3)).send(any(Object.class));
+        verify(emitter).send(Base64.getEncoder().encodeToString("\uD83D\uDE00a".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testSendMsgLikeTypeWriter_StopSignal() throws Exception {
+        // Separate id, the stop signal cache is static and would leak into other tests
+        String stoppedId = "typewriter-stopped-id";
+        SseEmitter emitter = mock(SseEmitter.class);
+        getSessionMap().put(stoppedId, emitter);
+        SseEmitterUtil.stopStream(stoppedId);
+
+        SseEmitterUtil.sendMsgLikeTypeWriter(TEST_MESSAGE, stoppedId, 1L, 1).get(5, TimeUnit.SECONDS);
+
+        verify(emitter, never()).send(any(Object.class));
+    }
+
+    @Test
+    void testSendMsgLikeTypeWriter_NonExistent() {
+        assertDoesNotThrow(() -> SseEmitterUtil.sendMsgLikeTypeWriter(TEST_MESSAGE, "non-existent-id", 0L));
+    }
+
+    @Test
+    void testStopStream_CancelsRegisteredToken() {
+        String streamId = "registered-stream-id";
+        AtomicInteger hookCalls = new AtomicInteger();
+        StreamCancellationToken token = SseEmitterUtil.registerStream(streamId, hookCalls::incrementAndGet);
+        try {
+            assertFalse(SseEmitterUtil.isStreamStopped(streamId));
+
+            SseEmitterUtil.stopStream(streamId);
+            SseEmitterUtil.stopStream(streamId);
+
+            assertTrue(token.isCancelled());
+            assertTrue(SseEmitterUtil.isStreamStopped(streamId));
+            // Token stays cancelled, the hook runs only once
+            assertTrue(SseEmitterUtil.isStreamStopped(streamId));
+            assertEquals(1, hookCalls.get());
+        } finally {
+            SseEmitterUtil.unregisterStream(streamId);
+        }
+        assertFalse(SseEmitterUtil.isStreamRegistered(streamId));
+    }
+
+    @Test
+    void testRegisterStream_StopBeforeRegister() {
+        String streamId = "early-stopped-stream-id";
+        SseEmitterUtil.stopStream(streamId);
+
+        StreamCancellationToken token = SseEmitterUtil.registerStream(streamId, null);
+        try {
+            assertTrue(token.isCancelled());
+        } finally {
+            SseEmitterUtil.unregisterStream(streamId);
+        }
+    }
+
     @Test
     void testSendData_WithValidEmitter() {
         SseEmitter emitter = new SseEmitter(10000L);
@@ -0,0 +1,162 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.google.common.collect.Lists;
+import com.iflytek.astron.console.hub.dto.notification.BroadcastReader;
+import com.iflytek.astron.console.hub.mapper.notification.UserBroadcastReadMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBitSetAsync;
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read state of broadcast notifications as one Redis bitmap per broadcast, bit n set when the user
+ * with user_info.id n has read it. Checking any number of broadcasts for a user is a single pipelined
+ * round trip.
+ *
+ * <p>
+ * user_broadcast_read stays the source of truth. Bit 0 marks a bitmap as loaded, a bitmap without it
+ * (older broadcast, expired key, Redis restart) is rebuilt from the table on first use, with one query
+ * for all bitmaps missing from a lookup. Keys expire with their broadcast, or after the configured TTL
+ * at the latest.
+ */
+@Slf4j
+@Component
+public class BroadcastReadBitmap {
+
+    private static final String KEY_PREFIX = "notification:broadcast_read:";
+
+    private static final long LOADED_BIT = 0;
+
+    /**
+     * Broadcasts rebuilt per query
+     */
+    private static final int LOAD_BATCH = 100;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private UserBroadcastReadMapper userBroadcastReadMapper;
+
+    @Value("${notification.broadcast-read.ttl-days:30}")
+    private long ttlDays;
+
+    /**
+     * Start an empty, loaded bitmap for a new broadcast, nobody can have read it yet
+     */
+    public void init(Long broadcastId, LocalDateTime expireAt) {
+        RBatch batch = redissonClient.createBatch();
+        RBitSetAsync bits = batch.getBitSet(key(broadcastId));
+        bits.setAsync(LOADED_BIT);
+        bits.expireAsync(expiry(expireAt));
+        batch.execute();
+    }
+
+    /**
+     * @param userIndex user_info.id of the reader
+     * @return The given broadcasts the user has read
+     */
+    public Set<Long> readOf(long userIndex, Collection<Long> broadcastIds) {
+        Set<Long> read = new HashSet<>();
+        if (broadcastIds.isEmpty()) {
+            return read;
+        }
+        RBatch batch = redissonClient.createBatch();
+        Map<Long, RFuture<Boolean>> loaded = new LinkedHashMap<>();
+        Map<Long, RFuture<Boolean>> bits = new LinkedHashMap<>();
+        for (Long id : broadcastIds) {
+            RBitSetAsync bitSet = batch.getBitSet(key(id));
+            loaded.put(id, bitSet.getAsync(LOADED_BIT));
+            bits.put(id, bitSet.getAsync(userIndex));
+        }
+        batch.execute();
+
+        List<Long> missing = new ArrayList<>();
+        loaded.forEach((id, future) -> {
+            if (!Boolean.TRUE.equals(future.getNow())) {
+                missing.add(id);
+            } else if (Boolean.TRUE.equals(bits.get(id).getNow())) {
+                read.add(id);
+            }
+        });
+        for (List<Long> ids : Lists.partition(missing, LOAD_BATCH)) {
+            load(ids).forEach((id, readers) -> {
+                if (readers.contains(userIndex)) {
+                    read.add(id);
+                }
+            });
+        }
+        return read;
+    }
+
+    /**
+     * Set the user's bit on the given broadcasts, callers write user_broadcast_read first
+     */
+    public void markRead(long userIndex, Collection<Long> broadcastIds) {
+        if (broadcastIds.isEmpty()) {
+            return;
+        }
+        RBatch batch = redissonClient.createBatch();
+        for (Long id : broadcastIds) {
+            RBitSetAsync bits = batch.getBitSet(key(id));
+            bits.setAsync(userIndex);
+            // A bitmap that expired in between is recreated without its loaded bit, give it a TTL as well
+            bits.expireIfNotSetAsync(expiry(null));
+        }
+        batch.execute();
+    }
+
+    /**
+     * Rebuild bitmaps from user_broadcast_read, one query and one pipeline for all of them
+     *
+     * @return user_info.id of the readers by broadcast
+     */
+    private Map<Long, Set<Long>> load(List<Long> broadcastIds) {
+        Map<Long, Set<Long>> readers = new LinkedHashMap<>();
+        broadcastIds.forEach(id -> readers.put(id, new HashSet<>()));
+        for (BroadcastReader reader : userBroadcastReadMapper.selectReaders(broadcastIds)) {
+            readers.computeIfAbsent(reader.getNotificationId(), id -> new HashSet<>()).add(reader.getUserId());
+        }
+        RBatch batch = redissonClient.createBatch();
+        readers.forEach((id, users) -> {
+            RBitSetAsync bits = batch.getBitSet(key(id));
+            for (Long user : users) {
+                bits.setAsync(user);
+            }
+            bits.setAsync(LOADED_BIT);
+            bits.expireAsync(expiry(null));
+        });
+        batch.execute();
+        log.debug("Loaded broadcast read bitmaps, broadcasts: {}", broadcastIds.size());
+        return readers;
+    }
+
+    private Instant expiry(LocalDateTime expireAt) {
+        Instant latest = Instant.now().plus(Duration.ofDays(Math.max(1, ttlDays)));
+        if (expireAt == null) {
+            return latest;
+        }
+        Instant expire = expireAt.atZone(ZoneId.systemDefault()).toInstant();
+        return expire.isBefore(latest) ? expire : latest;
+    }
+
+    private static String key(Long broadcastId) {
+        return KEY_PREFIX + broadcastId;
+    }
+}
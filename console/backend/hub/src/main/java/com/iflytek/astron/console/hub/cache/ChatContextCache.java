@@ -0,0 +1,264 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.iflytek.astron.console.commons.dto.chat.ChatReqModelDto;
+import com.iflytek.astron.console.commons.dto.chat.ChatRespModelDto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RList;
+import org.redisson.api.RListAsync;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-chat conversation context cache. The local tier holds trimmed windows in memory and every
+ * change is broadcast so other nodes drop their copy and reload it. The optional Redis tier shares
+ * the windows across nodes, one list of turns per chat, oldest first, appended and trimmed in place.
+ */
+@Slf4j
+@Component
+public class ChatContextCache {
+
+    private static final String REDIS_KEY_PREFIX = "chat_context:";
+
+    private static final String INVALIDATE_CHANNEL = "chat_context_invalidate";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Value("${chat.context-cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Character budget of a cached window, must not be smaller than any history budget reading it
+     */
+    @Value("${chat.context-cache.max-chars:32000}")
+    private int maxChars;
+
+    @Value("${chat.context-cache.max-turns:500}")
+    private int maxTurns;
+
+    @Value("${chat.context-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${chat.context-cache.expire-minutes:30}")
+    private long expireMinutes;
+
+    @Value("${chat.context-cache.redis-enabled:false}")
+    private boolean redisEnabled;
+
+    private Cache<String, ChatContextWindow> localCache;
+
+    @PostConstruct
+    public void init() {
+        localCache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireMinutes, TimeUnit.MINUTES)
+                .build();
+        if (enabled) {
+            // Subscribed with or without the Redis tier, a local copy is only valid until another node changes the chat
+            redissonClient.getTopic(INVALIDATE_CHANNEL).addListener(String.class, (channel, msg) -> {
+                int index = msg.indexOf('|');
+                if (index > 0 && !nodeId.equals(msg.substring(0, index))) {
+                    localCache.invalidate(msg.substring(index + 1));
+                }
+            });
+        }
+    }
+
+    public int getMaxChars() {
+        return maxChars;
+    }
+
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    /**
+     * Get the cached window of a chat
+     *
+     * @return Cached window, or null if the chat must be loaded from the database
+     */
+    public ChatContextWindow get(String uid, Long chatId) {
+        if (!enabled) {
+            return null;
+        }
+        String key = key(uid, chatId);
+        ChatContextWindow window = localCache.getIfPresent(key);
+        if (window == null && redisEnabled) {
+            try {
+                List<String> stored = list(key).readAll();
+                if (!stored.isEmpty()) {
+                    List<ChatContextWindow.Turn> turns = new ArrayList<>(stored.size());
+                    for (String json : stored) {
+                        turns.add(JSON.parseObject(json, ChatContextWindow.Turn.class));
+                    }
+                    window = ChatContextWindow.ofTurns(Lists.reverse(turns));
+                    localCache.put(key, window);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to read chat context from Redis, key: {}", key, e);
+            }
+        }
+        return window;
+    }
+
+    /**
+     * Cache a window loaded from the database
+     */
+    public void put(String uid, Long chatId, ChatContextWindow window) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(uid, chatId);
+        localCache.put(key, window);
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            writeAll(key, window.snapshot());
+        } catch (Exception e) {
+            log.warn("Failed to write chat context to Redis, key: {}", key, e);
+        }
+    }
+
+    /**
+     * Append a persisted request to a cached window, chats that are not cached are only invalidated
+     * on the other nodes
+     */
+    public void appendRequest(String uid, Long chatId, ChatReqModelDto req) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(uid, chatId);
+        ChatContextWindow window = get(uid, chatId);
+        if (window == null) {
+            publishInvalidate(key);
+            return;
+        }
+        window.addRequest(req, maxChars, maxTurns);
+        writeTurn(key, window, 0, true);
+    }
+
+    /**
+     * Attach a persisted response to a cached window
+     */
+    public void appendResponse(String uid, Long chatId, ChatRespModelDto resp) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(uid, chatId);
+        ChatContextWindow window = get(uid, chatId);
+        if (window == null) {
+            publishInvalidate(key);
+            return;
+        }
+        if (window.attachResponse(resp, maxChars, maxTurns)) {
+            writeTurn(key, window, window.indexOf(resp.getReqId()), false);
+        } else {
+            invalidate(uid, chatId);
+        }
+    }
+
+    /**
+     * Drop the cached window, used when history is rewritten (re-answer, delete, new context, branch)
+     */
+    public void invalidate(String uid, Long chatId) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(uid, chatId);
+        localCache.invalidate(key);
+        if (redisEnabled) {
+            try {
+                list(key).delete();
+            } catch (Exception e) {
+                log.warn("Failed to invalidate chat context in Redis, key: {}", key, e);
+            }
+        }
+        publishInvalidate(key);
+    }
+
+    /**
+     * Write one changed turn to the Redis list and trim it to the local window, then tell the other
+     * nodes to drop their copy. A list that expired or diverged is rewritten from the local window.
+     *
+     * @param index Position of the changed turn counted from the newest, -1 if it was trimmed out
+     * @param added Whether the turn is a new request to append
+     */
+    private void writeTurn(String key, ChatContextWindow window, int index, boolean added) {
+        if (redisEnabled) {
+            List<ChatContextWindow.Turn> turns = window.snapshot();
+            try {
+                RBatch batch = redissonClient.createBatch();
+                RListAsync<String> list = batch.getList(REDIS_KEY_PREFIX + key);
+                if (added) {
+                    list.addAsync(JSON.toJSONString(turns.get(index)));
+                } else if (index >= 0) {
+                    list.fastSetAsync(-1 - index, JSON.toJSONString(turns.get(index)));
+                }
+                list.trimAsync(-turns.size(), -1);
+                list.expireAsync(Duration.ofMinutes(expireMinutes));
+                RFuture<Integer> size = list.sizeAsync();
+                batch.execute();
+                if (size.getNow() != turns.size()) {
+                    writeAll(key, turns);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to write chat context to Redis, key: {}", key, e);
+                localCache.invalidate(key);
+                try {
+                    list(key).delete();
+                } catch (Exception ignored) {
+                    // Expires on its own
+                }
+            }
+        }
+        publishInvalidate(key);
+    }
+
+    /**
+     * Replace the Redis list with the given turns, newest first
+     */
+    private void writeAll(String key, List<ChatContextWindow.Turn> turns) {
+        RBatch batch = redissonClient.createBatch();
+        RListAsync<String> list = batch.getList(REDIS_KEY_PREFIX + key);
+        list.deleteAsync();
+        for (ChatContextWindow.Turn turn : Lists.reverse(turns)) {
+            list.addAsync(JSON.toJSONString(turn));
+        }
+        list.expireAsync(Duration.ofMinutes(expireMinutes));
+        batch.execute();
+    }
+
+    private void publishInvalidate(String key) {
+        try {
+            redissonClient.getTopic(INVALIDATE_CHANNEL).publish(nodeId + "|" + key);
+        } catch (Exception e) {
+            log.warn("Failed to publish chat context invalidation, key: {}", key, e);
+        }
+    }
+
+    private RList<String> list(String key) {
+        return redissonClient.getList(REDIS_KEY_PREFIX + key);
+    }
+
+    private static String key(String uid, Long chatId) {
+        return uid + ":" + chatId;
+    }
+}
@@ -0,0 +1,164 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.iflytek.astron.console.commons.dto.chat.ChatReqModelDto;
+import com.iflytek.astron.console.commons.dto.chat.ChatRespModelDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trimmed conversation window of one chat, turns are ordered newest first. The window keeps turns
+ * until their weighted length exceeds the character budget, including the turn that crosses it, so
+ * any consumer with a smaller budget sees the same history as when reading from the database.
+ */
+@Data
+@NoArgsConstructor
+public class ChatContextWindow {
+
+    /**
+     * Weight of a multimodal answer, matches the history length rule of ChatHistoryServiceImpl
+     */
+    private static final int MULTIMODAL_ANSWER_WEIGHT = 200;
+
+    /**
+     * Weight of an image question, matches the history length rule of ChatHistoryServiceImpl
+     */
+    private static final int IMAGE_ASK_WEIGHT = 800;
+
+    private LinkedList<Turn> turns = new LinkedList<>();
+
+    private int totalWeight;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Turn {
+        private ChatReqModelDto req;
+        private ChatRespModelDto resp;
+        private int weight;
+    }
+
+    /**
+     * Build a window from history loaded from the database
+     *
+     * @param reqList Requests ordered newest first
+     * @param respMap Responses grouped by request ID
+     * @param maxChars Character budget
+     * @param maxTurns Maximum number of turns
+     * @return Trimmed window
+     */
+    public static ChatContextWindow of(List<ChatReqModelDto> reqList, Map<Long, ChatRespModelDto> respMap, int maxChars, int maxTurns) {
+        ChatContextWindow window = new ChatContextWindow();
+        for (ChatReqModelDto req : reqList) {
+            ChatRespModelDto resp = respMap.get(req.getId());
+            int weight = weightOf(req, resp);
+            window.turns.addLast(new Turn(req, resp, weight));
+            window.totalWeight += weight;
+            if (window.totalWeight > maxChars || window.turns.size() >= maxTurns) {
+                break;
+            }
+        }
+        return window;
+    }
+
+    /**
+     * Rebuild a window from turns stored in Redis
+     *
+     * @param turnsNewestFirst Turns ordered newest first, already trimmed
+     */
+    public static ChatContextWindow ofTurns(List<Turn> turnsNewestFirst) {
+        ChatContextWindow window = new ChatContextWindow();
+        for (Turn turn : turnsNewestFirst) {
+            window.turns.addLast(turn);
+            window.totalWeight += turn.getWeight();
+        }
+        return window;
+    }
+
+    /**
+     * Append a newly persisted request as the newest turn
+     */
+    public synchronized void addRequest(ChatReqModelDto req, int maxChars, int maxTurns) {
+        int weight = weightOf(req, null);
+        turns.addFirst(new Turn(req, null, weight));
+        totalWeight += weight;
+        trim(maxChars, maxTurns);
+    }
+
+    /**
+     * Attach a newly persisted response to its request
+     *
+     * @return false if the request is not part of the window
+     */
+    public synchronized boolean attachResponse(ChatRespModelDto resp, int maxChars, int maxTurns) {
+        for (Turn turn : turns) {
+            if (turn.getReq().getId().equals(resp.getReqId())) {
+                // Keep the first response of a request, as the database read path does
+                if (turn.getResp() == null) {
+                    int weight = weightOf(turn.getReq(), resp);
+                    totalWeight += weight - turn.getWeight();
+                    turn.setResp(resp);
+                    turn.setWeight(weight);
+                    trim(maxChars, maxTurns);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Position of the request's turn counted from the newest, or -1 if it is not in the window
+     */
+    public synchronized int indexOf(Long reqId) {
+        int index = 0;
+        for (Turn turn : turns) {
+            if (turn.getReq().getId().equals(reqId)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    public synchronized int size() {
+        return turns.size();
+    }
+
+    /**
+     * Copy of the turns, newest first
+     */
+    public synchronized List<Turn> snapshot() {
+        return new ArrayList<>(turns);
+    }
+
+    private void trim(int maxChars, int maxTurns) {
+        while (turns.size() > 1
+                && (turns.size() > maxTurns || totalWeight - turns.getLast().getWeight() > maxChars)) {
+            totalWeight -= turns.removeLast().getWeight();
+        }
+    }
+
+    private static int weightOf(ChatReqModelDto req, ChatRespModelDto resp) {
+        String ask = req.getMessage();
+        int weight = ask == null ? 0 : ask.length();
+        if (StringUtils.isNotBlank(req.getUrl())) {
+            weight = Math.max(weight, IMAGE_ASK_WEIGHT);
+        }
+        if (resp != null) {
+            String answer = resp.getMessage();
+            int answerWeight = answer == null ? 0 : answer.length();
+            if (StringUtils.isNotBlank(resp.getContent())) {
+                answerWeight = Math.max(answerWeight, MULTIMODAL_ANSWER_WEIGHT);
+            }
+            weight += answerWeight;
+        }
+        return weight;
+    }
+}
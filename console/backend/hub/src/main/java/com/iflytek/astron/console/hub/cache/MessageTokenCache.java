@@ -0,0 +1,74 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.iflytek.astron.console.commons.dto.llm.SparkChatRequest;
+import com.iflytek.astron.console.hub.service.chat.token.TokenCounter;
+import jakarta.annotation.PostConstruct;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token counts of persisted messages keyed by message id, so a history message is tokenized once
+ * instead of on every turn that replays it. The content hash is kept with the count, an edited or
+ * knowledge-enhanced message with the same id is simply recounted.
+ */
+@Component
+public class MessageTokenCache {
+
+    @Autowired
+    private TokenCounter tokenCounter;
+
+    @Value("${chat.tokenizer.cache.maximum-size:200000}")
+    private long maximumSize;
+
+    @Value("${chat.tokenizer.cache.expire-hours:24}")
+    private long expireHours;
+
+    private Cache<String, CachedCount> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireHours, TimeUnit.HOURS)
+                .build();
+    }
+
+    /**
+     * Count tokens of a message, using the cached count when the message has an id
+     *
+     * @param message Chat message
+     * @return Token count
+     */
+    public int count(SparkChatRequest.MessageDto message) {
+        String content = message.getContent();
+        if (StringUtils.isEmpty(message.getMessageId()) || StringUtils.isEmpty(content)) {
+            return count(content);
+        }
+        int contentHash = content.hashCode();
+        CachedCount cached = cache.getIfPresent(message.getMessageId());
+        if (cached != null && cached.contentHash() == contentHash) {
+            return cached.tokens();
+        }
+        int tokens = tokenCounter.count(content);
+        cache.put(message.getMessageId(), new CachedCount(contentHash, tokens));
+        return tokens;
+    }
+
+    /**
+     * Count tokens of text that has no stable id, such as prompts and the current question
+     *
+     * @param text Text content
+     * @return Token count
+     */
+    public int count(String text) {
+        return tokenCounter.count(text);
+    }
+
+    private record CachedCount(int contentHash, int tokens) {}
+}
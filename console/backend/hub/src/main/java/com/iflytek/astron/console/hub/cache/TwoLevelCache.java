@@ -0,0 +1,115 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiConsumer;
+
+/**
+ * Spring cache with a local Guava tier in front of a shared delegate. Reads are served locally while
+ * the entry is fresh, writes go to both tiers, and evictions are broadcast so other nodes drop their
+ * local copy. Local keys are normalized to strings so broadcast keys match them.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final Cache delegate;
+
+    private final com.google.common.cache.Cache<String, ValueWrapper> local;
+
+    /**
+     * Publishes (cacheName, key) on evict, a null key means clear
+     */
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    public TwoLevelCache(Cache delegate, com.google.common.cache.Cache<String, ValueWrapper> local,
+            BiConsumer<String, String> invalidationPublisher) {
+        this.delegate = delegate;
+        this.local = local;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = String.valueOf(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            return wrapper;
+        }
+        wrapper = delegate.get(key);
+        if (wrapper != null) {
+            // Copy the value so the local tier never pins a delegate-specific wrapper
+            wrapper = new SimpleValueWrapper(wrapper.get());
+            local.put(localKey, wrapper);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        try {
+            ValueWrapper wrapper = local.get(String.valueOf(key),
+                    () -> new SimpleValueWrapper(delegate.get(key, valueLoader)));
+            return (T) wrapper.get();
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        local.put(String.valueOf(key), new SimpleValueWrapper(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        local.invalidate(String.valueOf(key));
+        invalidationPublisher.accept(getName(), String.valueOf(key));
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        local.invalidateAll();
+        invalidationPublisher.accept(getName(), null);
+    }
+
+    /**
+     * Drop local entries on an invalidation broadcast from another node
+     *
+     * @param key Cache key, null drops every local entry
+     */
+    public void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+}
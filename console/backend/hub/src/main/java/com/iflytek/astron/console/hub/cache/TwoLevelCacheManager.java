@@ -0,0 +1,106 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.google.common.cache.CacheBuilder;
+import com.iflytek.astron.console.hub.properties.LocalCacheProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps a shared cache manager with a per-node local tier. Evictions are published on a Redis channel
+ * and every other node drops the matching local entry, the local expiry is the upper bound of
+ * staleness if a broadcast is lost.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, InitializingBean {
+
+    private static final String INVALIDATE_CHANNEL = "local_cache_invalidate";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final CacheManager delegate;
+
+    private final RedissonClient redissonClient;
+
+    private final LocalCacheProperties properties;
+
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager delegate, RedissonClient redissonClient, LocalCacheProperties properties) {
+        this.delegate = delegate;
+        this.redissonClient = redissonClient;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (delegate instanceof InitializingBean initializingBean) {
+            initializingBean.afterPropertiesSet();
+        }
+        redissonClient.getTopic(INVALIDATE_CHANNEL).addListener(String.class, (channel, msg) -> {
+            Invalidation invalidation = JSON.parseObject(msg, Invalidation.class);
+            if (invalidation == null || nodeId.equals(invalidation.getNodeId())) {
+                return;
+            }
+            TwoLevelCache cache = caches.get(invalidation.getCacheName());
+            if (cache != null) {
+                cache.invalidateLocal(invalidation.getKey());
+            }
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache cache = delegate.getCache(cacheName);
+            if (cache == null) {
+                return null;
+            }
+            LocalCacheProperties.Spec spec = properties.getSpec(cacheName);
+            return new TwoLevelCache(cache,
+                    CacheBuilder.newBuilder()
+                            .maximumSize(spec.getMaximumSize())
+                            .expireAfterWrite(spec.getExpireSeconds(), TimeUnit.SECONDS)
+                            .build(),
+                    this::publish);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            redissonClient.getTopic(INVALIDATE_CHANNEL).publish(JSON.toJSONString(new Invalidation(nodeId, cacheName, key)));
+        } catch (Exception e) {
+            // Other nodes fall back to the local expiry
+            log.warn("Failed to broadcast local cache invalidation, cache: {}, key: {}", cacheName, key, e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Invalidation {
+        private String nodeId;
+        private String cacheName;
+        /**
+         * Null clears the whole cache
+         */
+        private String key;
+    }
+}
@@ -0,0 +1,113 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.iflytek.astron.console.hub.entity.notification.Notification;
+import com.iflytek.astron.console.hub.mapper.notification.UserBroadcastReadMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broadcast notifications read by one user as a Redis sorted set per user, scored by the expiry time
+ * of the broadcast. Counting the read broadcasts that are still live is a single ZCOUNT, whatever the
+ * number of live broadcasts, and expired ones drop out of the count on their own.
+ *
+ * <p>
+ * user_broadcast_read stays the source of truth. A member with an infinite score marks a set as
+ * loaded, a set without it (expired key, Redis restart) is rebuilt from the table with one query on
+ * first use. Keys expire after the configured TTL and are rebuilt then.
+ */
+@Slf4j
+@Component
+public class UserBroadcastReadSet {
+
+    private static final String KEY_PREFIX = "notification:user_broadcast_read:";
+
+    private static final String LOADED = "loaded";
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private UserBroadcastReadMapper userBroadcastReadMapper;
+
+    @Value("${notification.broadcast-read.ttl-days:30}")
+    private long ttlDays;
+
+    /**
+     * @param userIndex user_info.id of the reader
+     * @param receiverUid UID of the reader, used to rebuild the set
+     * @param registeredAt Registration time of the reader, broadcasts created before it are not counted
+     * @return Number of live broadcasts the user has read
+     */
+    public long countLive(long userIndex, String receiverUid, LocalDateTime registeredAt) {
+        RBatch batch = redissonClient.createBatch();
+        RScoredSortedSetAsync<String> reads = batch.getScoredSortedSet(key(userIndex));
+        RFuture<Double> loaded = reads.getScoreAsync(LOADED);
+        RFuture<Integer> live = reads.countAsync(System.currentTimeMillis(), false, Double.POSITIVE_INFINITY, true);
+        batch.execute();
+        if (loaded.getNow() != null) {
+            return live.getNow() - 1;
+        }
+        return load(userIndex, receiverUid, registeredAt);
+    }
+
+    /**
+     * Add broadcasts the user has read, callers write user_broadcast_read first
+     *
+     * @param broadcasts Read broadcasts with id and expireAt
+     */
+    public void markRead(long userIndex, List<Notification> broadcasts) {
+        if (broadcasts.isEmpty()) {
+            return;
+        }
+        Map<String, Double> members = new HashMap<>();
+        broadcasts.forEach(broadcast -> members.put(String.valueOf(broadcast.getId()), scoreOf(broadcast.getExpireAt())));
+        RBatch batch = redissonClient.createBatch();
+        RScoredSortedSetAsync<String> reads = batch.getScoredSortedSet(key(userIndex));
+        reads.addAllAsync(members);
+        reads.removeRangeByScoreAsync(Double.NEGATIVE_INFINITY, true, System.currentTimeMillis(), true);
+        // A set that is not loaded yet only gets a TTL here, it is rebuilt on its next count
+        reads.expireIfNotSetAsync(Duration.ofDays(Math.max(1, ttlDays)));
+        batch.execute();
+    }
+
+    /**
+     * Rebuild the set of a user from user_broadcast_read
+     *
+     * @return Number of live broadcasts the user has read
+     */
+    private long load(long userIndex, String receiverUid, LocalDateTime registeredAt) {
+        List<Notification> broadcasts = userBroadcastReadMapper.selectReadLiveBroadcasts(receiverUid, registeredAt);
+        Map<String, Double> members = new HashMap<>();
+        broadcasts.forEach(broadcast -> members.put(String.valueOf(broadcast.getId()), scoreOf(broadcast.getExpireAt())));
+        members.put(LOADED, Double.POSITIVE_INFINITY);
+        RBatch batch = redissonClient.createBatch();
+        RScoredSortedSetAsync<String> reads = batch.getScoredSortedSet(key(userIndex));
+        // Added to rather than replaced, reads marked while the query ran are kept
+        reads.addAllAsync(members);
+        reads.expireAsync(Duration.ofDays(Math.max(1, ttlDays)));
+        batch.execute();
+        log.debug("Loaded broadcast read set, userIndex: {}, read: {}", userIndex, broadcasts.size());
+        return broadcasts.size();
+    }
+
+    private static double scoreOf(LocalDateTime expireAt) {
+        return expireAt == null ? Double.POSITIVE_INFINITY : expireAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String key(long userIndex) {
+        return KEY_PREFIX + userIndex;
+    }
+}
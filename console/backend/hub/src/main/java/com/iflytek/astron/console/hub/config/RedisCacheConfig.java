@@ -3,7 +3,10 @@ package com.iflytek.astron.console.hub.config;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.iflytek.astron.console.hub.cache.TwoLevelCacheManager;
+import com.iflytek.astron.console.hub.properties.LocalCacheProperties;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
@@ -40,10 +43,19 @@ public class RedisCacheConfig implements CachingConfigurer {
         return RedisCacheManager.builder(redisConnectionFactory).cacheDefaults(config).build();
     }
 
+    /**
+     * Short-lived caches read on every space-scoped request, fronted by a local tier so hot keys skip
+     * the Redis round trip and deserialization
+     */
     @Bean("cacheManager10s")
-    public CacheManager cacheManager10s(RedisConnectionFactory redisConnectionFactory) {
+    public CacheManager cacheManager10s(RedisConnectionFactory redisConnectionFactory, RedissonClient redissonClient,
+            LocalCacheProperties localCacheProperties) {
         RedisCacheConfiguration config = createBaseCacheConfiguration(Duration.ofSeconds(10));
-        return RedisCacheManager.builder(redisConnectionFactory).cacheDefaults(config).build();
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory).cacheDefaults(config).build();
+        if (!localCacheProperties.isEnabled()) {
+            return redisCacheManager;
+        }
+        return new TwoLevelCacheManager(redisCacheManager, redissonClient, localCacheProperties);
     }
 
     @Bean("cacheManager5min")
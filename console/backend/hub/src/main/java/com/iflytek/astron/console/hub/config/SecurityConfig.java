@@ -72,6 +72,8 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(List.of("*"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        // Let the frontend read the row-limit flag of database exports
+        configuration.setExposedHeaders(List.of("X-Export-Truncated"));
         // Set to false for OAuth2 Bearer token authentication
         // Bearer tokens are sent via Authorization header, not cookies
         // allowCredentials is only needed for cookie-based authentication
@@ -0,0 +1,46 @@
+package com.iflytek.astron.console.hub.config;
+
+import com.iflytek.astron.console.hub.service.chat.token.BpeTokenCounter;
+import com.iflytek.astron.console.hub.service.chat.token.HeuristicTokenCounter;
+import com.iflytek.astron.console.hub.service.chat.token.TokenCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+
+/**
+ * Token counter configuration. The character heuristic is the default, the BPE counter is used when
+ * {@code chat.tokenizer.type} is bpe and its vocabulary has been added to the classpath.
+ */
+@Slf4j
+@Configuration
+public class TokenCounterConfig {
+
+    @Value("${chat.tokenizer.type:heuristic}")
+    private String type;
+
+    @Value("${chat.tokenizer.vocab:tokenizer/cl100k_base.tiktoken}")
+    private String vocab;
+
+    @Bean
+    public TokenCounter tokenCounter() {
+        if ("bpe".equalsIgnoreCase(type)) {
+            ClassPathResource resource = new ClassPathResource(vocab);
+            if (resource.exists()) {
+                try (InputStream in = resource.getInputStream()) {
+                    TokenCounter counter = BpeTokenCounter.load(vocab, in);
+                    log.info("Loaded BPE token counter from {}", vocab);
+                    return counter;
+                } catch (Exception e) {
+                    log.warn("Failed to load BPE vocabulary {}, falling back to heuristic counter", vocab, e);
+                }
+            } else {
+                log.warn("BPE vocabulary {} not found on classpath, falling back to heuristic counter", vocab);
+            }
+        }
+        return new HeuristicTokenCounter();
+    }
+}
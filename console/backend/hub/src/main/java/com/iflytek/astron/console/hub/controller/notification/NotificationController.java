@@ -6,6 +6,7 @@ import com.iflytek.astron.console.hub.dto.notification.MarkReadRequest;
 import com.iflytek.astron.console.hub.dto.notification.NotificationPageResponse;
 import com.iflytek.astron.console.hub.dto.notification.NotificationQueryRequest;
 import com.iflytek.astron.console.hub.service.notification.NotificationService;
+import com.iflytek.astron.console.hub.service.notification.NotificationStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,6 +14,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/notifications")
@@ -22,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
 
     @GetMapping("/list")
     @Operation(summary = "Query current user's notification list", description = "Paginated query of current user's notification message list")
@@ -51,6 +54,15 @@ public class NotificationController {
         return ApiResult.success(unreadCount);
     }
 
+    @GetMapping(path = "/stream", produces = "text/event-stream;charset=UTF-8")
+    @Operation(summary = "Subscribe to current user's notifications", description = "Server-sent event stream, starts with the unread count and pushes new notifications as they are sent")
+    public SseEmitter streamNotifications() {
+        String currentUserUid = RequestContextUtil.getUID();
+        log.debug("Open notification stream: uid={}", currentUserUid);
+
+        return notificationStreamService.connect(currentUserUid);
+    }
+
     @PostMapping("/mark-read")
     @Operation(summary = "Mark notifications as read", description = "Mark specified notification messages as read status")
     public ApiResult<Boolean> markNotificationsAsRead(@Valid @RequestBody MarkReadRequest request) {
@@ -9,6 +9,7 @@ import com.iflytek.astron.console.hub.entity.notification.UserNotification;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Notification data service interface
@@ -82,7 +83,7 @@ public interface NotificationDataService {
     /**
      * Batch check the list of broadcast message IDs that user has read
      */
-    List<Long> getUserReadBroadcastIds(String receiverUid, List<Long> notificationIds);
+    Set<Long> getUserReadBroadcastIds(String receiverUid, List<Long> notificationIds);
 
     // ==================== Update Operations ====================
 
@@ -109,8 +110,7 @@ public interface NotificationDataService {
     int deleteUserNotification(String receiverUid, Long notificationId);
 
     /**
-     * Get the count of broadcast messages visible to user (broadcasts after user registration) This
-     * method needs to be exposed for self-proxy calls to support caching
+     * Get the count of broadcast messages visible to user (broadcasts after user registration)
      */
     long getUserVisibleBroadcastCount(String receiverUid);
 }
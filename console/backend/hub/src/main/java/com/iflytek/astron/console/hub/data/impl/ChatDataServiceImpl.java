@@ -16,6 +16,7 @@ import com.iflytek.astron.console.commons.exception.BusinessException;
 import com.iflytek.astron.console.commons.mapper.chat.ChatListMapper;
 import com.iflytek.astron.console.commons.mapper.chat.ChatTreeIndexMapper;
 import com.iflytek.astron.console.commons.service.data.ChatDataService;
+import com.iflytek.astron.console.hub.cache.ChatContextCache;
 import com.iflytek.astron.console.hub.enums.LongContextStatusEnum;
 import com.iflytek.astron.console.hub.mapper.*;
 
@@ -67,6 +68,9 @@ public class ChatDataServiceImpl implements ChatDataService {
     @Autowired
     private BotChatFileParamMapper botChatFileParamMapper;
 
+    @Autowired
+    private ChatContextCache chatContextCache;
+
     public static final int MatHistoryNumbers = 8000;
 
     @Override
@@ -97,6 +101,13 @@ public class ChatDataServiceImpl implements ChatDataService {
         }
 
         chatReqRecordsMapper.insert(chatReqRecords);
+        if (Integer.valueOf(0).equals(chatReqRecords.getNewContext())) {
+            chatContextCache.invalidate(chatReqRecords.getUid(), chatReqRecords.getChatId());
+        } else {
+            ChatReqModelDto reqModelDto = new ChatReqModelDto();
+            BeanUtil.copyProperties(chatReqRecords, reqModelDto);
+            chatContextCache.appendRequest(chatReqRecords.getUid(), chatReqRecords.getChatId(), reqModelDto);
+        }
 
         LambdaUpdateWrapper<ChatList> updateWrapper = Wrappers.lambdaUpdate(ChatList.class);
         updateWrapper.eq(ChatList::getId, chatReqRecords.getChatId());
@@ -134,6 +145,9 @@ public class ChatDataServiceImpl implements ChatDataService {
     @Override
     public ChatRespRecords createResponse(ChatRespRecords chatRespRecords) {
         chatRespRecordsMapper.insert(chatRespRecords);
+        ChatRespModelDto respModelDto = new ChatRespModelDto();
+        BeanUtils.copyProperties(chatRespRecords, respModelDto);
+        chatContextCache.appendResponse(chatRespRecords.getUid(), chatRespRecords.getChatId(), respModelDto);
         return chatRespRecords;
     }
 
@@ -306,7 +320,10 @@ public class ChatDataServiceImpl implements ChatDataService {
         updateWrapper.eq(ChatRespRecords::getUid, chatRespRecords.getUid());
         updateWrapper.eq(ChatRespRecords::getChatId, chatRespRecords.getChatId());
         updateWrapper.eq(ChatRespRecords::getReqId, chatRespRecords.getReqId());
-        return chatRespRecordsMapper.update(chatRespRecords, updateWrapper);
+        Integer updated = chatRespRecordsMapper.update(chatRespRecords, updateWrapper);
+        // Re-answer rewrites history
+        chatContextCache.invalidate(chatRespRecords.getUid(), chatRespRecords.getChatId());
+        return updated;
     }
 
     /**
@@ -381,7 +398,9 @@ public class ChatDataServiceImpl implements ChatDataService {
         updateWrapper.eq(ChatReqRecords::getUid, uid);
         updateWrapper.eq(ChatReqRecords::getChatId, chatId);
         updateWrapper.set(ChatReqRecords::getNewContext, 1);
-        return chatReqRecordsMapper.update(null, updateWrapper);
+        Integer updated = chatReqRecordsMapper.update(null, updateWrapper);
+        chatContextCache.invalidate(uid, chatId);
+        return updated;
     }
 
     @Override
@@ -455,6 +474,8 @@ public class ChatDataServiceImpl implements ChatDataService {
     @Override
     public ChatReqModel createChatReqModel(ChatReqModel chatReqModel) {
         chatReqModelMapper.insert(chatReqModel);
+        // Multimodal fields of a request are only known after this insert
+        chatContextCache.invalidate(chatReqModel.getUid(), chatReqModel.getChatId());
         return chatReqModel;
     }
 
@@ -3,7 +3,12 @@ package com.iflytek.astron.console.hub.data.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.iflytek.astron.console.commons.data.UserInfoDataService;
+import com.iflytek.astron.console.commons.entity.user.UserInfo;
+import com.iflytek.astron.console.hub.cache.BroadcastReadBitmap;
+import com.iflytek.astron.console.hub.cache.UserBroadcastReadSet;
 import com.iflytek.astron.console.hub.data.NotificationDataService;
 import com.iflytek.astron.console.hub.dto.notification.NotificationDto;
 import com.iflytek.astron.console.hub.dto.notification.NotificationQueryRequest;
@@ -19,32 +24,40 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.CacheManager;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class NotificationDataServiceImpl implements NotificationDataService {
     // Cache key constants
-    private static final String USER_UNREAD_COUNT_CACHE = "user_unread_count";
-    private static final String USER_TOTAL_COUNT_CACHE = "user_total_count";
     private static final String BROADCAST_COUNT_INTERNAL_CACHE = "broadcast_count_internal";
-    private static final String USER_VISIBLE_BROADCAST_COUNT_CACHE = "user_visible_broadcast_count";
 
     private final NotificationMapper notificationMapper;
     private final UserNotificationMapper userNotificationMapper;
     private final UserBroadcastReadMapper userBroadcastReadMapper;
     private final CacheManager cacheManager;
     private final UserInfoDataService userInfoDataService;
+    private final BroadcastReadBitmap broadcastReadBitmap;
+    private final UserBroadcastReadSet userBroadcastReadSet;
 
-    // Inject self proxy to solve @Cacheable internal call failure problem
-    @Lazy
-    private final NotificationDataService self;
+    /**
+     * user_info.id and registration time of receivers, both never change once the user exists
+     */
+    private final Cache<String, UserRef> userRefs = CacheBuilder.newBuilder()
+            .maximumSize(50000)
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
 
     public NotificationDataServiceImpl(
             NotificationMapper notificationMapper,
@@ -52,13 +65,15 @@ public class NotificationDataServiceImpl implements NotificationDataService {
             UserBroadcastReadMapper userBroadcastReadMapper,
             @Qualifier("cacheManager5min") CacheManager cacheManager,
             UserInfoDataService userInfoDataService,
-            @Lazy NotificationDataService self) {
+            BroadcastReadBitmap broadcastReadBitmap,
+            UserBroadcastReadSet userBroadcastReadSet) {
         this.notificationMapper = notificationMapper;
         this.userNotificationMapper = userNotificationMapper;
         this.userBroadcastReadMapper = userBroadcastReadMapper;
         this.cacheManager = cacheManager;
         this.userInfoDataService = userInfoDataService;
-        this.self = self;
+        this.broadcastReadBitmap = broadcastReadBitmap;
+        this.userBroadcastReadSet = userBroadcastReadSet;
     }
 
     @Override
@@ -75,9 +90,9 @@ public class NotificationDataServiceImpl implements NotificationDataService {
         if (notification.getType() != null && NotificationType.BROADCAST.getCode().equals(notification.getType())) {
             // Broadcast message: evict internal broadcast count cache
             evictBroadcastCountInternalCache();
+            initBroadcastReadBitmap(notification);
             log.debug("Created broadcast notification: {}", notification.getId());
         }
-        // Personal messages do not evict cache here, evict when sent to specific users
 
         return notification;
     }
@@ -95,12 +110,6 @@ public class NotificationDataServiceImpl implements NotificationDataService {
                 throw new IllegalStateException("Batch insert of user notifications incomplete");
             }
 
-            // Precisely evict cache for affected users
-            userNotifications.stream()
-                    .map(UserNotification::getReceiverUid)
-                    .distinct()
-                    .forEach(this::evictUserCountCaches);
-
             log.debug("Batch created {} user notifications successfully", userNotifications.size());
             return result;
         } catch (Exception e) {
@@ -112,7 +121,9 @@ public class NotificationDataServiceImpl implements NotificationDataService {
     @Override
     public int createBroadcastReadRecord(UserBroadcastRead readRecord) {
         readRecord.setReadAt(LocalDateTime.now());
-        return userBroadcastReadMapper.insert(readRecord);
+        int inserted = userBroadcastReadMapper.insert(readRecord);
+        markBroadcastBitsRead(readRecord.getReceiverUid(), List.of(readRecord.getNotificationId()));
+        return inserted;
     }
 
     @Override
@@ -124,11 +135,10 @@ public class NotificationDataServiceImpl implements NotificationDataService {
         readRecords.forEach(r -> r.setReadAt(LocalDateTime.now()));
         int batchInsertCount = userBroadcastReadMapper.batchInsert(readRecords);
 
-        // Precisely evict unread count cache for affected users
         readRecords.stream()
-                .map(UserBroadcastRead::getReceiverUid)
-                .distinct()
-                .forEach(this::evictUserUnreadCountCache);
+                .collect(Collectors.groupingBy(UserBroadcastRead::getReceiverUid,
+                        Collectors.mapping(UserBroadcastRead::getNotificationId, Collectors.toList())))
+                .forEach(this::markBroadcastBitsRead);
 
         return batchInsertCount;
     }
@@ -159,22 +169,24 @@ public class NotificationDataServiceImpl implements NotificationDataService {
     }
 
     @Override
-    @Cacheable(value = USER_UNREAD_COUNT_CACHE, key = "#receiverUid", cacheManager = "cacheManager5min")
     public long countUserUnreadNotifications(String receiverUid) {
         try {
             // Count personal unread messages
             int unreadPersonalCount = userNotificationMapper.countUnreadByUid(receiverUid);
 
-            // Get total visible broadcast messages for user (broadcast messages after registration)
-            // Call through self proxy to enable caching
-            long userVisibleBroadcastCount = self.getUserVisibleBroadcastCount(receiverUid);
-            if (userVisibleBroadcastCount == 0) {
+            // Broadcast messages visible to user (broadcast messages after registration)
+            UserRef user = userRef(receiverUid);
+            if (user == null) {
+                return unreadPersonalCount;
+            }
+            long visibleBroadcastCount = notificationMapper.countBroadcastMessagesAfter(user.createTime());
+            if (visibleBroadcastCount == 0) {
                 return unreadPersonalCount;
             }
 
-            // Count user's read broadcast messages
-            long readBroadcastCount = userBroadcastReadMapper.countUserReadBroadcastMessages(receiverUid);
-            long unreadBroadcastCount = Math.max(0, userVisibleBroadcastCount - readBroadcastCount);
+            // Read ones are counted in the user's read set, whatever the number of live broadcasts
+            long readBroadcastCount = countReadBroadcasts(receiverUid, user);
+            long unreadBroadcastCount = Math.max(0, visibleBroadcastCount - readBroadcastCount);
 
             return unreadPersonalCount + unreadBroadcastCount;
         } catch (Exception e) {
@@ -184,15 +196,13 @@ public class NotificationDataServiceImpl implements NotificationDataService {
     }
 
     @Override
-    @Cacheable(value = USER_TOTAL_COUNT_CACHE, key = "#receiverUid", cacheManager = "cacheManager5min")
     public long countUserAllNotifications(String receiverUid) {
         // Count total personal messages
         long personalCount = userNotificationMapper.selectCount(
                 new QueryWrapper<UserNotification>().eq("receiver_uid", receiverUid));
 
         // Get total visible broadcast messages for user (broadcast messages after registration)
-        // Call through self proxy to enable caching
-        long userVisibleBroadcastCount = self.getUserVisibleBroadcastCount(receiverUid);
+        long userVisibleBroadcastCount = getUserVisibleBroadcastCount(receiverUid);
 
         long totalCount = personalCount + userVisibleBroadcastCount;
         log.debug("Counted all notifications for user {}: personal={}, visible_broadcast={}, total={}",
@@ -220,37 +230,26 @@ public class NotificationDataServiceImpl implements NotificationDataService {
     }
 
     @Override
-    public List<Long> getUserReadBroadcastIds(String receiverUid, List<Long> notificationIds) {
-        if (notificationIds.isEmpty()) {
-            return new ArrayList<>();
-        }
-        return userBroadcastReadMapper.selectReadBroadcastIds(receiverUid, notificationIds);
+    public Set<Long> getUserReadBroadcastIds(String receiverUid, List<Long> notificationIds) {
+        return readBroadcastIds(receiverUid, notificationIds);
     }
 
     @Override
     public int markUserNotificationsAsRead(String receiverUid, List<Long> notificationIds) {
-        int result = userNotificationMapper.batchMarkAsRead(receiverUid, notificationIds);
-        if (result > 0) {
-            evictUserUnreadCountCache(receiverUid);
-        }
-        return result;
+        return userNotificationMapper.batchMarkAsRead(receiverUid, notificationIds);
     }
 
     @Override
     public int markAllUserNotificationsAsRead(String receiverUid) {
-        int result = userNotificationMapper.markAllAsRead(receiverUid);
-        if (result > 0) {
-            evictUserUnreadCountCache(receiverUid);
-        }
-        return result;
+        return userNotificationMapper.markAllAsRead(receiverUid);
     }
 
     @Override
     public int deleteExpiredNotifications(LocalDateTime expireTime) {
         int result = notificationMapper.deleteExpiredMessages(expireTime);
         if (result > 0) {
-            // Expiry deletion affects all caches, but frequency is low
-            evictAllCaches();
+            // Broadcast read bitmaps expire together with their broadcast, read sets count live ones only
+            evictBroadcastCountInternalCache();
         }
         return result;
     }
@@ -260,11 +259,7 @@ public class NotificationDataServiceImpl implements NotificationDataService {
         QueryWrapper<UserNotification> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("receiver_uid", receiverUid)
                 .eq("notification_id", notificationId);
-        int result = userNotificationMapper.delete(queryWrapper);
-        if (result > 0) {
-            evictUserCountCaches(receiverUid);
-        }
-        return result;
+        return userNotificationMapper.delete(queryWrapper);
     }
 
     // ==================== Private Helper Methods ====================
@@ -317,7 +312,7 @@ public class NotificationDataServiceImpl implements NotificationDataService {
         List<Long> broadcastIds = broadcastNotifications.stream()
                 .map(Notification::getId)
                 .toList();
-        List<Long> readBroadcastIds = userBroadcastReadMapper.selectReadBroadcastIds(receiverUid, broadcastIds);
+        Set<Long> readBroadcastIds = readBroadcastIds(receiverUid, broadcastIds);
 
         List<NotificationDto> result = new ArrayList<>();
         for (Notification broadcast : broadcastNotifications) {
@@ -363,29 +358,20 @@ public class NotificationDataServiceImpl implements NotificationDataService {
     }
 
     /**
-     * Get count of broadcast messages visible to user (broadcast messages after user registration) -
-     * based on user-level cache
+     * Get count of broadcast messages visible to user (broadcast messages after user registration)
      */
-    @Cacheable(value = USER_VISIBLE_BROADCAST_COUNT_CACHE, key = "#receiverUid", cacheManager = "cacheManager5min")
+    @Override
     public long getUserVisibleBroadcastCount(String receiverUid) {
         try {
-            // Get user creation time
-            var userInfoOpt = userInfoDataService.findByUid(receiverUid);
-            if (userInfoOpt.isEmpty()) {
-                log.warn("User not found for uid: {}", receiverUid);
-                return 0L;
-            }
-
-            LocalDateTime userCreateTime = userInfoOpt.get().getCreateTime();
-            if (userCreateTime == null) {
-                log.warn("User create time is null for uid: {}", receiverUid);
+            UserRef user = userRef(receiverUid);
+            if (user == null) {
                 return 0L;
             }
 
             // Count broadcast messages after user registration
-            long count = notificationMapper.countBroadcastMessagesAfter(userCreateTime);
+            long count = notificationMapper.countBroadcastMessagesAfter(user.createTime());
             log.debug("User {} can see {} broadcast messages (created after {})",
-                    receiverUid, count, userCreateTime);
+                    receiverUid, count, user.createTime());
             return count;
         } catch (Exception e) {
             log.error("Failed to get user visible broadcast count for user: {}", receiverUid, e);
@@ -394,101 +380,131 @@ public class NotificationDataServiceImpl implements NotificationDataService {
     }
 
     /**
-     * Evict user unread count cache
+     * Evict internal broadcast count cache
      */
-    private void evictUserUnreadCountCache(String userId) {
+    private void evictBroadcastCountInternalCache() {
         try {
-            var cache = cacheManager.getCache(USER_UNREAD_COUNT_CACHE);
+            var cache = cacheManager.getCache(BROADCAST_COUNT_INTERNAL_CACHE);
             if (cache != null) {
-                cache.evict(userId);
-                log.debug("Evicted user unread count cache for user: {}", userId);
+                cache.evict("total");
+                log.debug("Evicted internal broadcast count cache");
             }
         } catch (Exception e) {
-            log.warn("Failed to evict user unread count cache for user: {}", userId, e);
+            log.warn("Failed to evict internal broadcast count cache", e);
         }
     }
 
-    /**
-     * Evict all user count caches
-     */
-    private void evictUserCountCaches(String userId) {
-        evictUserUnreadCountCache(userId);
-        evictUserTotalCountCache(userId);
-        evictUserVisibleBroadcastCountCache(userId);
-    }
+    // ==================== Broadcast Read State Helper Methods ====================
 
     /**
-     * Evict user total count cache
+     * Read broadcast messages among the given ones, from the read bitmaps, or from the database when the
+     * user is unknown or Redis is unavailable
      */
-    private void evictUserTotalCountCache(String userId) {
-        try {
-            var cache = cacheManager.getCache(USER_TOTAL_COUNT_CACHE);
-            if (cache != null) {
-                cache.evict(userId);
-                log.debug("Evicted user total count cache for user: {}", userId);
+    private Set<Long> readBroadcastIds(String receiverUid, List<Long> broadcastIds) {
+        if (broadcastIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        UserRef user = userRef(receiverUid);
+        if (user != null) {
+            try {
+                return broadcastReadBitmap.readOf(user.index(), broadcastIds);
+            } catch (Exception e) {
+                log.warn("Failed to read broadcast read bitmaps for user: {}, falling back to database", receiverUid, e);
             }
-        } catch (Exception e) {
-            log.warn("Failed to evict user total count cache for user: {}", userId, e);
         }
+        return new HashSet<>(userBroadcastReadMapper.selectReadBroadcastIds(receiverUid, broadcastIds));
     }
 
     /**
-     * Evict user visible broadcast count cache
+     * Live broadcasts the user has read, from the user's read set, or from the database when Redis is
+     * unavailable
      */
-    private void evictUserVisibleBroadcastCountCache(String userId) {
+    private long countReadBroadcasts(String receiverUid, UserRef user) {
         try {
-            var cache = cacheManager.getCache(USER_VISIBLE_BROADCAST_COUNT_CACHE);
-            if (cache != null) {
-                cache.evict(userId);
-                log.debug("Evicted user visible broadcast count cache for user: {}", userId);
-            }
+            return userBroadcastReadSet.countLive(user.index(), receiverUid, user.createTime());
         } catch (Exception e) {
-            log.warn("Failed to evict user visible broadcast count cache for user: {}", userId, e);
+            log.warn("Failed to count broadcast read set for user: {}, falling back to database", receiverUid, e);
         }
+        return userBroadcastReadMapper.selectReadLiveBroadcasts(receiverUid, user.createTime()).size();
     }
 
     /**
-     * Evict internal broadcast count cache
+     * Set the read bits and add to the user's read set once the read records are committed, a rolled
+     * back mark-read must not show as read
      */
-    private void evictBroadcastCountInternalCache() {
-        try {
-            var cache = cacheManager.getCache(BROADCAST_COUNT_INTERNAL_CACHE);
-            if (cache != null) {
-                cache.evict("total");
-                log.debug("Evicted internal broadcast count cache");
-            }
-        } catch (Exception e) {
-            log.warn("Failed to evict internal broadcast count cache", e);
+    private void markBroadcastBitsRead(String receiverUid, List<Long> broadcastIds) {
+        UserRef user = userRef(receiverUid);
+        if (user == null) {
+            return;
         }
+        afterCommit(() -> {
+            try {
+                broadcastReadBitmap.markRead(user.index(), broadcastIds);
+                userBroadcastReadSet.markRead(user.index(), visibleBroadcasts(user, broadcastIds));
+            } catch (Exception e) {
+                // The rows are written, marking them again sets the bits
+                log.warn("Failed to set broadcast read bits for user: {}, broadcastIds: {}", receiverUid, broadcastIds, e);
+            }
+        });
     }
 
     /**
-     * Evict all caches (for batch operations such as expiry cleanup)
+     * Id and expiry of the given broadcasts that count for the user, those created after registration
      */
-    private void evictAllCaches() {
-        try {
-            // Clear all user-related caches
-            var unreadCache = cacheManager.getCache(USER_UNREAD_COUNT_CACHE);
-            if (unreadCache != null) {
-                unreadCache.clear();
-            }
+    private List<Notification> visibleBroadcasts(UserRef user, List<Long> broadcastIds) {
+        return notificationMapper.selectList(Wrappers.lambdaQuery(Notification.class)
+                .select(Notification::getId, Notification::getExpireAt)
+                .in(Notification::getId, broadcastIds)
+                .eq(Notification::getType, NotificationType.BROADCAST.getCode())
+                .ge(Notification::getCreatedAt, user.createTime()));
+    }
 
-            var totalCache = cacheManager.getCache(USER_TOTAL_COUNT_CACHE);
-            if (totalCache != null) {
-                totalCache.clear();
+    private void initBroadcastReadBitmap(Notification notification) {
+        afterCommit(() -> {
+            try {
+                broadcastReadBitmap.init(notification.getId(), notification.getExpireAt());
+            } catch (Exception e) {
+                // The bitmap is loaded from the database on first use instead
+                log.warn("Failed to init broadcast read bitmap, notificationId: {}", notification.getId(), e);
             }
+        });
+    }
 
-            var visibleBroadcastCache = cacheManager.getCache(USER_VISIBLE_BROADCAST_COUNT_CACHE);
-            if (visibleBroadcastCache != null) {
-                visibleBroadcastCache.clear();
+    /**
+     * Run once the current transaction commits, or right away outside of one
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
             }
+        });
+    }
 
-            // Clear internal broadcast count cache
-            evictBroadcastCountInternalCache();
-
-            log.info("Evicted all notification caches");
-        } catch (Exception e) {
-            log.warn("Failed to evict all notification caches", e);
+    private UserRef userRef(String receiverUid) {
+        UserRef cached = userRefs.getIfPresent(receiverUid);
+        if (cached != null) {
+            return cached;
         }
+        Optional<UserInfo> userInfo = userInfoDataService.findByUid(receiverUid);
+        if (userInfo.isEmpty()) {
+            log.warn("User not found for uid: {}", receiverUid);
+            return null;
+        }
+        if (userInfo.get().getId() == null || userInfo.get().getCreateTime() == null) {
+            log.warn("User id or create time is null for uid: {}", receiverUid);
+            return null;
+        }
+        UserRef user = new UserRef(userInfo.get().getId(), userInfo.get().getCreateTime());
+        userRefs.put(receiverUid, user);
+        return user;
+    }
+
+    private record UserRef(long index, LocalDateTime createTime) {
     }
 }
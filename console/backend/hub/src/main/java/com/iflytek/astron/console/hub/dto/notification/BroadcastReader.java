@@ -0,0 +1,14 @@
+package com.iflytek.astron.console.hub.dto.notification;
+
+import lombok.Data;
+
+/**
+ * A user who has read a broadcast message, by user_info.id
+ */
+@Data
+public class BroadcastReader {
+
+    private Long notificationId;
+
+    private Long userId;
+}
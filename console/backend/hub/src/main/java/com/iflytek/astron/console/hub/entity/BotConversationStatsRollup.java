@@ -0,0 +1,40 @@
+package com.iflytek.astron.console.hub.entity;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated bot conversation statistics of one bucket. Corresponds to
+ * bot_conversation_stats_hourly (bucketHour set) and bot_conversation_stats_daily (statDate set)
+ */
+@Data
+public class BotConversationStatsRollup {
+
+    private Integer botId;
+
+    /**
+     * Start of the hour, hourly rollups only
+     */
+    private LocalDateTime bucketHour;
+
+    /**
+     * Day, daily rollups only
+     */
+    private LocalDate statDate;
+
+    private Long messageCount;
+
+    private Long tokenCount;
+
+    /**
+     * Serialized HyperLogLog of the distinct users
+     */
+    private byte[] userSketch;
+
+    /**
+     * Serialized HyperLogLog of the distinct chats
+     */
+    private byte[] chatSketch;
+}
@@ -43,4 +43,12 @@ public interface BotConversationStatsMapper extends BaseMapper<BotConversationSt
             @Param("startDate") LocalDate startDate,
             @Param("uid") String uid,
             @Param("spaceId") Long spaceId);
+
+    /**
+     * Insert statistics rows in one statement
+     *
+     * @param rows rows to insert
+     * @return inserted rows
+     */
+    int insertBatch(@Param("rows") List<BotConversationStats> rows);
 }
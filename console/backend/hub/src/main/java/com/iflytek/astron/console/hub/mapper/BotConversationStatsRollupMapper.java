@@ -0,0 +1,61 @@
+package com.iflytek.astron.console.hub.mapper;
+
+import com.iflytek.astron.console.hub.entity.BotConversationStats;
+import com.iflytek.astron.console.hub.entity.BotConversationStatsRollup;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hourly and daily rollups of bot_conversation_stats
+ */
+@Mapper
+public interface BotConversationStatsRollupMapper {
+
+    /**
+     * Start of the latest hourly bucket, null before the first rollup
+     */
+    LocalDateTime selectLastHourlyBucket();
+
+    /**
+     * Creation time of the first raw row at or after {@code from} (all rows when null)
+     */
+    LocalDateTime selectFirstRawTime(@Param("from") LocalDateTime from);
+
+    /**
+     * Stream the raw rows created in [start, end), only bot id, uid, chat id, tokens and create time
+     * are filled
+     */
+    void scanRaw(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            ResultHandler<BotConversationStats> handler);
+
+    /**
+     * Insert or replace hourly buckets, rerunning a bucket overwrites it
+     */
+    int upsertHourly(@Param("rows") List<BotConversationStatsRollup> rows);
+
+    List<BotConversationStatsRollup> selectHourly(@Param("botIds") Collection<Integer> botIds,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Insert or replace daily buckets, rerunning a bucket overwrites it
+     */
+    int upsertDaily(@Param("rows") List<BotConversationStatsRollup> rows);
+
+    /**
+     * Daily buckets of a bot from {@code startDate} (all days when null), ascending
+     */
+    List<BotConversationStatsRollup> selectDaily(@Param("botId") Integer botId,
+            @Param("startDate") LocalDate startDate);
+
+    int deleteHourlyBefore(@Param("before") LocalDateTime before);
+
+    int deleteRawBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -1,10 +1,14 @@
 package com.iflytek.astron.console.hub.mapper.notification;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.iflytek.astron.console.hub.dto.notification.BroadcastReader;
+import com.iflytek.astron.console.hub.entity.notification.Notification;
 import com.iflytek.astron.console.hub.entity.notification.UserBroadcastRead;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -31,4 +35,16 @@ public interface UserBroadcastReadMapper extends BaseMapper<UserBroadcastRead> {
      * Count total broadcast messages read by user
      */
     long countUserReadBroadcastMessages(@Param("receiverUid") String receiverUid);
+
+    /**
+     * Query id and expiry of the unexpired broadcast messages created after specified time that the user
+     * has read
+     */
+    List<Notification> selectReadLiveBroadcasts(@Param("receiverUid") String receiverUid,
+            @Param("afterTime") LocalDateTime afterTime);
+
+    /**
+     * Query the users who have read any of the given broadcast messages, by user_info.id
+     */
+    List<BroadcastReader> selectReaders(@Param("notificationIds") Collection<Long> notificationIds);
 }
@@ -0,0 +1,38 @@
+package com.iflytek.astron.console.hub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-process tier placed in front of the short-lived Redis caches. The local expiry bounds how long a
+ * node may serve a value after a missed invalidation, the maximum size bounds memory and hit ratio.
+ */
+@ConfigurationProperties(prefix = "cache.local")
+@Data
+@Component
+public class LocalCacheProperties {
+
+    private boolean enabled = true;
+
+    private Spec defaults = new Spec();
+
+    /**
+     * Overrides keyed by cache name, e.g. {@code "[space:space_user]"}
+     */
+    private Map<String, Spec> caches = new HashMap<>();
+
+    public Spec getSpec(String cacheName) {
+        return caches.getOrDefault(cacheName, defaults);
+    }
+
+    @Data
+    public static class Spec {
+        private long maximumSize = 10000;
+
+        private long expireSeconds = 5;
+    }
+}
@@ -0,0 +1,29 @@
+package com.iflytek.astron.console.hub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Server-sent event streams pushing new notifications to connected users
+ */
+@ConfigurationProperties(prefix = "notification.stream")
+@Data
+@Component
+public class NotificationStreamProperties {
+
+    /**
+     * Stream lifetime, clients reconnect afterwards
+     */
+    private long timeoutMillis = 1800000;
+
+    /**
+     * Interval of the keep-alive comment, also drops connections closed by the client
+     */
+    private long heartbeatSeconds = 25;
+
+    /**
+     * Open streams per user on one node, the oldest is closed beyond that
+     */
+    private int maxConnectionsPerUser = 5;
+}
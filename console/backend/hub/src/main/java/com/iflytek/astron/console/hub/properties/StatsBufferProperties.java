@@ -0,0 +1,29 @@
+package com.iflytek.astron.console.hub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory buffer in front of bot_conversation_stats inserts. Rows are written when a batch is full
+ * or the flush interval has passed since its first row, whichever comes first.
+ */
+@ConfigurationProperties(prefix = "stats.buffer")
+@Data
+@Component
+public class StatsBufferProperties {
+
+    /**
+     * Rows held at most, further rows are dropped and counted
+     */
+    private int capacity = 10000;
+
+    private int batchSize = 500;
+
+    private long flushIntervalMillis = 1000;
+
+    /**
+     * How long shutdown waits for the buffer to drain
+     */
+    private long shutdownTimeoutMillis = 5000;
+}
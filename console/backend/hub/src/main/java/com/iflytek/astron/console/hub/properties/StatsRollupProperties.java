@@ -0,0 +1,38 @@
+package com.iflytek.astron.console.hub.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hourly and daily rollups of bot conversation statistics. Once the rollups have caught up with the raw
+ * rows, the dashboards trail them by at most one rollup interval plus the run time; until then the
+ * dashboards read the raw rows. The retention settings bound how long raw and hourly rows are kept.
+ */
+@ConfigurationProperties(prefix = "stats.rollup")
+@Data
+@Component
+public class StatsRollupProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Raw hours folded per run, bounds the work of a run while catching up on history
+     */
+    private int hoursPerRun = 24;
+
+    /**
+     * Rollup rows written per statement
+     */
+    private int writeBatchSize = 500;
+
+    /**
+     * Hourly rollups older than this are deleted, 0 keeps them
+     */
+    private int hourlyRetentionDays = 35;
+
+    /**
+     * Raw statistics rows older than this are deleted once rolled up, 0 keeps them
+     */
+    private int rawRetentionDays = 0;
+}
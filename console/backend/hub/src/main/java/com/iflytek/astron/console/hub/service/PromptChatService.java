@@ -7,6 +7,7 @@ import com.iflytek.astron.console.commons.util.SseEmitterUtil;
 import com.iflytek.astron.console.commons.entity.chat.ChatReqRecords;
 import com.iflytek.astron.console.commons.entity.chat.ChatTraceSource;
 import com.iflytek.astron.console.commons.service.ChatRecordModelService;
+import com.iflytek.astron.console.commons.service.stream.StreamRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
@@ -33,6 +34,9 @@ public class PromptChatService {
     @Autowired
     private ChatRecordModelService chatRecordModelService;
 
+    @Autowired
+    private StreamRegistry streamRegistry;
+
     /**
      * Function to handle chat stream requests
      *
@@ -110,7 +114,13 @@ public class PromptChatService {
 
                 ResponseBody body = response.body();
                 if (body != null) {
-                    processSSEStream(body, emitter, streamId, chatReqRecords, edit, isDebug);
+                    // Stop cancels the upstream call, so a blocked read returns immediately
+                    streamRegistry.register(streamId, call::cancel);
+                    try {
+                        processSSEStream(body, emitter, streamId, chatReqRecords, edit, isDebug);
+                    } finally {
+                        streamRegistry.unregister(streamId);
+                    }
                 } else {
                     SseEmitterUtil.completeWithError(emitter, "Response body is empty");
                 }
@@ -166,6 +176,11 @@ public class PromptChatService {
                     }
                 }
             } catch (IOException e) {
+                if (SseEmitterUtil.isStreamStopped(streamId)) {
+                    log.info("Upstream call cancelled by stop signal, saving collected data, streamId: {}", streamId);
+                    handleStreamInterrupted(emitter, streamId, finalResult, thinkingResult, chatReqRecords, sid, traceResult, edit, isDebug);
+                    return;
+                }
                 log.error("Exception reading SSE stream data, saving collected data, streamId: {}", streamId, e);
                 // Save collected data even when exception occurs
                 handleStreamInterrupted(emitter, streamId, finalResult, thinkingResult, chatReqRecords, sid, traceResult, edit, isDebug);
@@ -14,7 +14,11 @@ import com.iflytek.astron.console.commons.dto.llm.SparkChatRequest;
 import com.iflytek.astron.console.commons.entity.chat.ChatReqRecords;
 import com.iflytek.astron.console.commons.entity.chat.ChatTraceSource;
 import com.iflytek.astron.console.commons.service.ChatRecordModelService;
+import com.iflytek.astron.console.commons.service.stream.StreamRegistry;
 import com.iflytek.astron.console.commons.util.SseEmitterUtil;
+import com.iflytek.astron.console.hub.util.KeyedClientPool;
+import com.iflytek.astron.console.hub.util.SparkChatClientPool;
+import com.iflytek.astron.console.hub.util.SparkFrameScanner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
@@ -39,12 +43,24 @@ public class SparkChatService {
     @Value("${spark.api.password}")
     private String apiPassword;
 
+    /**
+     * Forward ordinary frames as the original upstream text instead of re-serializing them
+     */
+    @Value("${spark.chat.passthrough-relay:false}")
+    private boolean passthroughRelay;
+
     @Autowired
     private ChatDataService chatDataService;
 
     @Autowired
     private ChatRecordModelService chatRecordModelService;
 
+    @Autowired
+    private StreamRegistry streamRegistry;
+
+    @Autowired
+    private SparkChatClientPool sparkChatClientPool;
+
     /**
      * Create and return an SseEmitter object for handling chat room streaming requests
      *
@@ -71,14 +87,17 @@ public class SparkChatService {
             SseEmitterUtil.completeWithError(emitter, "Message is empty");
             return;
         }
+        KeyedClientPool.Lease<SparkChatClient> lease = null;
         try {
             SparkModel sparkModel = getSparkModel(request.getModel());
-            SparkChatClient client = new SparkChatClient.Builder().signatureHttp(apiPassword, sparkModel).build();
+            // Clients are shared per model, the lease holds one of its stream slots until the stream ends
+            lease = sparkChatClientPool.acquire(apiPassword, sparkModel);
+            KeyedClientPool.Lease<SparkChatClient> streamLease = lease;
 
             SparkChatParam sendParam = buildSparkChatParam(request);
             log.info("request:{}", request);
 
-            client.send(sendParam, new Callback() {
+            lease.client().send(sendParam, new Callback() {
                 /**
                  * Callback method when SSE connection fails
                  *
@@ -87,6 +106,7 @@ public class SparkChatService {
                  */
                 @Override
                 public void onFailure(Call call, IOException e) {
+                    streamLease.close();
                     log.error("SSE connection failed, streamId: {}, error: {}", streamId, e.getMessage());
                     SseEmitterUtil.completeWithError(emitter, "Connection failed: " + e.getMessage());
                 }
@@ -99,22 +119,35 @@ public class SparkChatService {
                  */
                 @Override
                 public void onResponse(Call call, Response response) {
-                    if (!response.isSuccessful()) {
-                        log.error("Request failed, streamId: {}, status code: {}, reason: {}", streamId, response.code(), response.message());
-                        SseEmitterUtil.completeWithError(emitter, "Request failed: " + response.message());
-                        return;
-                    }
+                    try {
+                        if (!response.isSuccessful()) {
+                            log.error("Request failed, streamId: {}, status code: {}, reason: {}", streamId, response.code(), response.message());
+                            SseEmitterUtil.completeWithError(emitter, "Request failed: " + response.message());
+                            return;
+                        }
 
-                    ResponseBody body = response.body();
-                    if (body != null) {
-                        processSSEStream(body, emitter, streamId, chatReqRecords, edit, isDebug);
-                    } else {
-                        SseEmitterUtil.completeWithError(emitter, "Response body is empty");
+                        ResponseBody body = response.body();
+                        if (body != null) {
+                            // Stop cancels the upstream call, so a blocked read returns immediately
+                            streamRegistry.register(streamId, call::cancel);
+                            try {
+                                processSSEStream(body, emitter, streamId, chatReqRecords, edit, isDebug);
+                            } finally {
+                                streamRegistry.unregister(streamId);
+                            }
+                        } else {
+                            SseEmitterUtil.completeWithError(emitter, "Response body is empty");
+                        }
+                    } finally {
+                        streamLease.close();
                     }
                 }
             });
 
         } catch (Exception e) {
+            if (lease != null) {
+                lease.close();
+            }
             log.error("Exception occurred while creating Spark chat stream, streamId: {}", streamId, e);
             SseEmitterUtil.completeWithError(emitter, "Failed to create chat stream: " + e.getMessage());
         }
@@ -205,7 +238,11 @@ public class SparkChatService {
                         }
 
                         String data = line.substring(5).trim();
-                        parseSSEContent(data, emitter, streamId, finalResult, thinkingResult, sid, traceResult);
+                        if (passthroughRelay) {
+                            relaySSEContent(data, emitter, streamId, finalResult, thinkingResult, sid, traceResult);
+                        } else {
+                            parseSSEContent(data, emitter, streamId, finalResult, thinkingResult, sid, traceResult);
+                        }
 
                         // Check stop signal again after processing each data
                         if (SseEmitterUtil.isStreamStopped(streamId)) {
@@ -216,6 +253,11 @@ public class SparkChatService {
                     }
                 }
             } catch (IOException e) {
+                if (SseEmitterUtil.isStreamStopped(streamId)) {
+                    log.info("Upstream call cancelled by stop signal, saving collected data, streamId: {}", streamId);
+                    handleStreamInterrupted(emitter, streamId, finalResult, thinkingResult, chatReqRecords, sid, traceResult, edit, isDebug);
+                    return;
+                }
                 log.error("Exception reading SSE stream data, saving collected data, streamId: {}", streamId, e);
                 // Save collected data even when exception occurs
                 handleStreamInterrupted(emitter, streamId, finalResult, thinkingResult, chatReqRecords, sid, traceResult, edit, isDebug);
@@ -284,6 +326,43 @@ public class SparkChatService {
         }
     }
 
+    /**
+     * Relay SSE content without building a JSON tree. Frames that need rewriting (error codes, tool
+     * calls) fall back to {@link #parseSSEContent}.
+     *
+     * @param data SSE data string
+     * @param emitter SseEmitter object for sending data to client
+     * @param streamId Stream identifier
+     * @param finalResult Final result StringBuffer object
+     * @param thinkingResult Thinking process result StringBuffer object
+     * @param sid Session identifier StringBuffer object
+     * @param traceResult Trace result StringBuffer object
+     */
+    private void relaySSEContent(String data, SseEmitter emitter, String streamId, StringBuffer finalResult, StringBuffer thinkingResult, StringBuffer sid, StringBuffer traceResult) {
+        SparkFrameScanner.Frame frame = SparkFrameScanner.scan(data);
+        if (frame.isRewriteRequired()) {
+            parseSSEContent(data, emitter, streamId, finalResult, thinkingResult, sid, traceResult);
+            return;
+        }
+
+        boolean clientConnected = tryServeSSEData(emitter, data, streamId);
+
+        if (sid.isEmpty() && frame.getSid() != null && !frame.getSid().trim().isEmpty()) {
+            sid.append(frame.getSid());
+            log.debug("Set sid: {}, streamId: {}", frame.getSid(), streamId);
+        }
+        if (frame.getContent() != null) {
+            finalResult.append(frame.getContent());
+        }
+        if (frame.getReasoningContent() != null) {
+            thinkingResult.append(frame.getReasoningContent());
+        }
+
+        if (!clientConnected) {
+            log.info("Client disconnected, but continue processing data to ensure completeness, streamId: {}", streamId);
+        }
+    }
+
     /**
      * Try to send SSE data, detect client connection status
      *
@@ -297,9 +376,24 @@ public class SparkChatService {
             log.warn("SseEmitter is null, cannot send data, streamId: {}", streamId);
             return false;
         }
+        return tryServeSSEData(emitter, dataObj.toJSONString(), streamId);
+    }
+
+    /**
+     * Try to send serialized SSE data, detect client connection status
+     *
+     * @param emitter SseEmitter object
+     * @param jsonData Serialized data to be sent
+     * @param streamId Stream identifier
+     * @return true if client is still connected, false if client has disconnected
+     */
+    private boolean tryServeSSEData(SseEmitter emitter, String jsonData, String streamId) {
+        if (emitter == null) {
+            log.warn("SseEmitter is null, cannot send data, streamId: {}", streamId);
+            return false;
+        }
 
         try {
-            String jsonData = dataObj.toJSONString();
             emitter.send(SseEmitter.event().name("data").data(jsonData));
             return true;
         } catch (org.springframework.web.context.request.async.AsyncRequestNotUsableException e) {
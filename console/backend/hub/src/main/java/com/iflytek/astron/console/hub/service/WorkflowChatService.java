@@ -11,6 +11,7 @@ import com.iflytek.astron.console.commons.dto.workflow.WorkflowChatRequest;
 import com.iflytek.astron.console.commons.dto.workflow.WorkflowEventData;
 import com.iflytek.astron.console.commons.dto.workflow.WorkflowResumeReq;
 import com.iflytek.astron.console.commons.entity.chat.ChatReqRecords;
+import com.iflytek.astron.console.commons.service.stream.StreamRegistry;
 import com.iflytek.astron.console.commons.util.SseEmitterUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +44,8 @@ public class WorkflowChatService {
 
     private final ChatDataService chatDataService;
 
+    private final StreamRegistry streamRegistry;
+
     /**
      * Create workflow conversation stream
      *
@@ -185,7 +188,13 @@ public class WorkflowChatService {
 
             ResponseBody body = response.body();
             if (body != null) {
-                processWorkflowSSEStream(body, emitter, streamId, chatReqRecords, edit);
+                // Stop cancels the upstream call, so a blocked read returns immediately
+                streamRegistry.register(streamId, call::cancel);
+                try {
+                    processWorkflowSSEStream(body, emitter, streamId, chatReqRecords, edit);
+                } finally {
+                    streamRegistry.unregister(streamId);
+                }
             } else {
                 SseEmitterUtil.completeWithError(emitter, "Response body is empty");
             }
@@ -239,6 +248,12 @@ public class WorkflowChatService {
                     }
                 }
             } catch (IOException e) {
+                if (SseEmitterUtil.isStreamStopped(streamId)) {
+                    log.info("Upstream call cancelled by stop signal, saving collected data, streamId: {}", streamId);
+                    handleWorkflowStreamInterrupted(emitter, streamId, finalResult, thinkingResult,
+                            chatReqRecords, sid, traceResult, edit);
+                    return;
+                }
                 log.error("Exception reading workflow SSE stream data, saving collected data, streamId: {}", streamId, e);
                 handleWorkflowStreamInterrupted(emitter, streamId, finalResult, thinkingResult,
                         chatReqRecords, sid, traceResult, edit);
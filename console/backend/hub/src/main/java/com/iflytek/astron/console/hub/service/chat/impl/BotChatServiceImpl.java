@@ -25,6 +25,7 @@ import com.iflytek.astron.console.commons.service.workflow.WorkflowBotChatServic
 import com.iflytek.astron.console.commons.util.I18nUtil;
 import com.iflytek.astron.console.commons.util.SseEmitterUtil;
 import com.iflytek.astron.console.commons.util.space.SpaceInfoUtil;
+import com.iflytek.astron.console.hub.cache.MessageTokenCache;
 import com.iflytek.astron.console.hub.data.ReqKnowledgeRecordsDataService;
 import com.iflytek.astron.console.hub.entity.ReqKnowledgeRecords;
 import com.iflytek.astron.console.hub.enums.ConfigTypeEnum;
@@ -100,6 +101,9 @@ public class BotChatServiceImpl implements BotChatService {
     @Autowired
     private PersonalityConfigService personalityConfigService;
 
+    @Autowired
+    private MessageTokenCache messageTokenCache;
+
     /**
      * Function to handle chat messages
      *
@@ -368,8 +372,8 @@ public class BotChatServiceImpl implements BotChatService {
      * @return TokenStatistics object containing token counts
      */
     private TokenStatistics calculateTokenStatistics(String prompt, String userMessage, int maxInputTokens) {
-        int systemTokens = estimateTokenCount(prompt);
-        int currentUserTokens = estimateTokenCount(userMessage);
+        int systemTokens = messageTokenCache.count(prompt);
+        int currentUserTokens = messageTokenCache.count(userMessage);
         int reservedTokens = systemTokens + currentUserTokens;
         int availableTokens = Math.max(0, maxInputTokens - reservedTokens);
 
@@ -429,10 +433,10 @@ public class BotChatServiceImpl implements BotChatService {
         messageDtoList.add(queryMessage);
 
         int totalTokens = messageDtoList.stream()
-                .mapToInt(msg -> estimateTokenCount(msg.getContent()))
+                .mapToInt(messageTokenCache::count)
                 .sum();
 
-        log.info("Message list build completed - Total messages: {}, Estimated total tokens: {}, Maximum limit: {}",
+        log.info("Message list build completed - Total messages: {}, Total tokens: {}, Maximum limit: {}",
                 messageDtoList.size(), totalTokens, maxInputTokens);
 
         return messageDtoList;
@@ -503,10 +507,10 @@ public class BotChatServiceImpl implements BotChatService {
         messageDtoList.add(queryMessage);
 
         int totalTokens = messageDtoList.stream()
-                .mapToInt(msg -> estimateTokenCount(msg.getContent()))
+                .mapToInt(messageTokenCache::count)
                 .sum();
 
-        log.info("Debug message list build completed - Total messages: {}, Estimated total tokens: {}, Maximum limit: {}",
+        log.info("Debug message list build completed - Total messages: {}, Total tokens: {}, Maximum limit: {}",
                 messageDtoList.size(), totalTokens, maxInputTokens);
 
         return messageDtoList;
@@ -543,7 +547,7 @@ public class BotChatServiceImpl implements BotChatService {
         // Traverse from back to front (keep the newest conversations)
         for (int i = historyMessages.size() - 1; i >= 0; i--) {
             SparkChatRequest.MessageDto message = historyMessages.get(i);
-            int messageTokens = estimateTokenCount(message.getContent());
+            int messageTokens = messageTokenCache.count(message);
 
             // Check if token limit is exceeded
             if (currentTokens + messageTokens > maxHistoryTokens) {
@@ -560,42 +564,6 @@ public class BotChatServiceImpl implements BotChatService {
         return result;
     }
 
-    /**
-     * Estimate token count for text (simple estimation: Chinese characters * 1.5, English words * 1.3)
-     *
-     * @param text Text content
-     * @return Estimated token count
-     */
-    private int estimateTokenCount(String text) {
-        if (StringUtils.isBlank(text)) {
-            return 0;
-        }
-
-        // Simple estimation method:
-        // - Chinese characters calculated as 1.5 tokens
-        // - English characters calculated as 1.3 tokens (considering word segmentation)
-        int chineseChars = 0;
-        int englishChars = 0;
-
-        for (char c : text.toCharArray()) {
-            if (c >= 0x4e00 && c <= 0x9fff) {
-                // Chinese character range
-                chineseChars++;
-            } else if (Character.isLetterOrDigit(c)) {
-                // English characters and numbers
-                englishChars++;
-            }
-        }
-
-        int estimatedTokens = (int) (chineseChars * 1.5 + englishChars * 1.3);
-
-        log.trace("Token estimation - Chinese characters: {}, English characters: {}, Estimated tokens: {}",
-                chineseChars, englishChars, estimatedTokens);
-
-        // At least 1 token
-        return Math.max(estimatedTokens, 1);
-    }
-
     /**
      * Utility method to build SparkChatRequest object
      *
@@ -6,6 +6,8 @@ import com.iflytek.astron.console.commons.dto.llm.SparkChatRequest;
 import com.iflytek.astron.console.commons.service.data.ChatDataService;
 import com.iflytek.astron.console.commons.service.data.ChatHistoryService;
 import com.iflytek.astron.console.commons.util.I18nUtil;
+import com.iflytek.astron.console.hub.cache.ChatContextCache;
+import com.iflytek.astron.console.hub.cache.ChatContextWindow;
 import com.iflytek.astron.console.hub.data.ReqKnowledgeRecordsDataService;
 import com.iflytek.astron.console.hub.entity.ReqKnowledgeRecords;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +33,9 @@ public class ChatHistoryServiceImpl implements ChatHistoryService {
     @Autowired
     private ReqKnowledgeRecordsDataService reqKnowledgeRecordsDataService;
 
+    @Autowired
+    private ChatContextCache chatContextCache;
+
     public static final int MAX_HISTORY_NUMBERS = 8000;
 
     /**
@@ -42,30 +47,19 @@ public class ChatHistoryServiceImpl implements ChatHistoryService {
      */
     @Override
     public List<SparkChatRequest.MessageDto> getSystemBotHistory(String uid, Long chatId, Boolean supportDocument) {
-        // Get question history
-        List<ChatReqModelDto> chatReqModelDtos = chatDataService.getReqModelBotHistoryByChatId(uid, chatId);
         List<SparkChatRequest.MessageDto> messages = new ArrayList<>();
-        if (CollectionUtils.isEmpty(chatReqModelDtos)) {
+        List<ChatContextWindow.Turn> turns = getContextWindow(uid, chatId).snapshot();
+        if (turns.isEmpty()) {
             return messages;
         }
-        // Get answer history
-        List<Long> reqIds = chatReqModelDtos.stream().map(ChatReqModelDto::getId).collect(Collectors.toList());
-        List<ChatRespModelDto> chatRespModelDtos = chatDataService.getChatRespModelBotHistoryByChatId(uid, chatId, reqIds);
-
-        // Group answer history by reqId
-        Map<Long, ChatRespModelDto> respMap = new HashMap<>();
-        if (!CollectionUtils.isEmpty(chatRespModelDtos)) {
-            for (ChatRespModelDto respDto : chatRespModelDtos) {
-                respMap.put(respDto.getReqId(), respDto);
-            }
-        }
+        List<Long> reqIds = turns.stream().map(turn -> turn.getReq().getId()).collect(Collectors.toList());
 
         // Get knowledge records to enhance ask content
         Map<Long, ReqKnowledgeRecords> knowledgeRecordsMap = reqKnowledgeRecordsDataService.findByReqIds(reqIds);
 
         // Merge conversation history in chronological order of questions
-        for (int i = chatReqModelDtos.size() - 1; i >= 0; i--) {
-            ChatReqModelDto reqDto = chatReqModelDtos.get(i);
+        for (int i = turns.size() - 1; i >= 0; i--) {
+            ChatReqModelDto reqDto = turns.get(i).getReq();
             // Add user message with knowledge enhancement
             SparkChatRequest.MessageDto userMessage = new SparkChatRequest.MessageDto();
             userMessage.setRole("user");
@@ -77,20 +71,43 @@ public class ChatHistoryServiceImpl implements ChatHistoryService {
             } else {
                 userMessage.setContent(reqDto.getMessage());
             }
+            userMessage.setMessageId("req:" + reqDto.getId());
             messages.add(userMessage);
 
             // Add corresponding assistant response
-            ChatRespModelDto respDto = respMap.get(reqDto.getId());
+            ChatRespModelDto respDto = turns.get(i).getResp();
             if (respDto != null && respDto.getMessage() != null && !respDto.getMessage().trim().isEmpty()) {
                 SparkChatRequest.MessageDto assistantMessage = new SparkChatRequest.MessageDto();
                 assistantMessage.setRole("assistant");
                 assistantMessage.setContent(respDto.getMessage());
+                assistantMessage.setMessageId("resp:" + respDto.getId());
                 messages.add(assistantMessage);
             }
         }
         return messages;
     }
 
+    /**
+     * Get history records for specified user and chat ID from the context cache
+     *
+     * @param uid User ID
+     * @param chatId Chat ID
+     * @return Merged chat history records
+     */
+    @Override
+    public ChatRequestDtoList getHistory(String uid, Long chatId) {
+        List<ChatContextWindow.Turn> turns = getContextWindow(uid, chatId).snapshot();
+        List<ChatReqModelDto> reqList = new ArrayList<>(turns.size());
+        Map<Long, ChatRespModelDto> respMap = new HashMap<>();
+        for (ChatContextWindow.Turn turn : turns) {
+            reqList.add(turn.getReq());
+            if (turn.getResp() != null) {
+                respMap.put(turn.getReq().getId(), turn.getResp());
+            }
+        }
+        return buildHistory(reqList, respMap);
+    }
+
     /**
      * Get history records for specified user and chat ID
      *
@@ -106,16 +123,55 @@ public class ChatHistoryServiceImpl implements ChatHistoryService {
         }
         List<Long> reqIdList = reqList.stream().filter(Objects::nonNull).map(ChatReqModelDto::getId).collect(Collectors.toList());
         List<ChatRespModelDto> respList = chatDataService.getChatRespModelBotHistoryByChatId(uid, chatId, reqIdList);
-        ChatRequestDtoList chatRecordList = new ChatRequestDtoList();
-        int tempLength = 0;
+        return buildHistory(reqList, groupByReqId(respList));
+    }
 
-        // Group answer history by reqId
+    /**
+     * Get the trimmed context window of a chat, loading it from the database on a cache miss
+     *
+     * @param uid User ID
+     * @param chatId Chat ID
+     * @return Context window, newest turn first
+     */
+    private ChatContextWindow getContextWindow(String uid, Long chatId) {
+        ChatContextWindow window = chatContextCache.get(uid, chatId);
+        if (window != null) {
+            return window;
+        }
+        // Get question history
+        List<ChatReqModelDto> reqList = chatDataService.getReqModelBotHistoryByChatId(uid, chatId);
+        if (CollectionUtils.isEmpty(reqList)) {
+            window = new ChatContextWindow();
+        } else {
+            // Get answer history
+            List<Long> reqIds = reqList.stream().map(ChatReqModelDto::getId).collect(Collectors.toList());
+            List<ChatRespModelDto> respList = chatDataService.getChatRespModelBotHistoryByChatId(uid, chatId, reqIds);
+            window = ChatContextWindow.of(reqList, groupByReqId(respList), chatContextCache.getMaxChars(), chatContextCache.getMaxTurns());
+        }
+        chatContextCache.put(uid, chatId, window);
+        return window;
+    }
+
+    /**
+     * Group answer history by reqId
+     */
+    private Map<Long, ChatRespModelDto> groupByReqId(List<ChatRespModelDto> respList) {
         Map<Long, ChatRespModelDto> respMap = new HashMap<>();
-        if (respList != null && !respList.isEmpty()) {
+        if (!CollectionUtils.isEmpty(respList)) {
             for (ChatRespModelDto respDto : respList) {
                 respMap.put(respDto.getReqId(), respDto);
             }
         }
+        return respMap;
+    }
+
+    /**
+     * Build model history from requests (newest first) and their answers, trimmed to
+     * MAX_HISTORY_NUMBERS characters
+     */
+    private ChatRequestDtoList buildHistory(List<ChatReqModelDto> reqList, Map<Long, ChatRespModelDto> respMap) {
+        ChatRequestDtoList chatRecordList = new ChatRequestDtoList();
+        int tempLength = 0;
 
         // Flush historical sessions to cache, will automatically scroll update to maximum range
         /*** Add question ***/
@@ -18,6 +18,7 @@ import com.iflytek.astron.console.commons.dto.chat.ChatBotListDto;
 import com.iflytek.astron.console.commons.dto.chat.ChatListCreateResponse;
 import com.iflytek.astron.console.commons.entity.chat.ChatList;
 import com.iflytek.astron.console.commons.entity.chat.ChatReqRecords;
+import com.iflytek.astron.console.hub.cache.ChatContextCache;
 import com.iflytek.astron.console.hub.service.chat.ChatListService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -49,6 +50,9 @@ public class ChatListServiceImpl implements ChatListService {
     @Autowired
     private ModelService modelService;
 
+    @Autowired
+    private ChatContextCache chatContextCache;
+
     /**
      * Create chat list for restart process
      *
@@ -344,9 +348,11 @@ public class ChatListServiceImpl implements ChatListService {
         chatListDataService.deactivateChatBotList(uid, botId);
 
         List<Long> chatIds = chatListDataService.getAllListByChildChatId(chatListId, uid).stream().map(ChatTreeIndex::getChildChatId).collect(Collectors.toList());
+        chatContextCache.invalidate(uid, chatListId);
         if (chatIds.isEmpty()) {
             return chatListDataService.deleteById(chatListId) > 0;
         }
+        chatIds.forEach(chatId -> chatContextCache.invalidate(uid, chatId));
         return chatListDataService.deleteBatchIds(chatIds) > 0;
     }
 }
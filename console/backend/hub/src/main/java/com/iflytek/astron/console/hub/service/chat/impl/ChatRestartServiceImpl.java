@@ -6,6 +6,7 @@ import com.iflytek.astron.console.commons.exception.BusinessException;
 import com.iflytek.astron.console.commons.service.data.ChatListDataService;
 import com.iflytek.astron.console.commons.dto.chat.ChatListCreateResponse;
 import com.iflytek.astron.console.commons.entity.chat.ChatTreeIndex;
+import com.iflytek.astron.console.hub.cache.ChatContextCache;
 import com.iflytek.astron.console.hub.service.chat.ChatListService;
 import com.iflytek.astron.console.hub.service.chat.ChatRestartService;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,9 @@ public class ChatRestartServiceImpl implements ChatRestartService {
     @Autowired
     private ChatListService chatListService;
 
+    @Autowired
+    private ChatContextCache chatContextCache;
+
     /**
      * @param rootChatId Root chat ID
      * @param uid User ID
@@ -57,6 +61,9 @@ public class ChatRestartServiceImpl implements ChatRestartService {
                 .uid(uid)
                 .build();
         chatListDataService.createChatTreeIndex(chatTreeIndex);
+        // The branch starts a fresh context, drop any window cached for either side of it
+        chatContextCache.invalidate(uid, chatTreeIndexLatest.getChildChatId());
+        chatContextCache.invalidate(uid, chatListCreateResponse.getId());
         return chatListCreateResponse;
     }
 }
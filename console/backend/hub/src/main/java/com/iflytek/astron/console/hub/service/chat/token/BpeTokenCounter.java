@@ -0,0 +1,112 @@
+package com.iflytek.astron.console.hub.service.chat.token;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Byte-level BPE counter. The vocabulary uses the tiktoken rank format, one {@code <base64 token>
+ * <rank>} pair per line, and text is split with the cl100k pre-tokenization pattern before merging.
+ */
+public class BpeTokenCounter implements TokenCounter {
+
+    private static final Pattern PRE_TOKENIZE = Pattern.compile(
+            "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+");
+
+    /**
+     * Token bytes are kept as ISO-8859-1 strings, which map every byte to exactly one char
+     */
+    private final Map<String, Integer> ranks;
+
+    private final String name;
+
+    public BpeTokenCounter(String name, Map<String, Integer> ranks) {
+        this.name = name;
+        this.ranks = ranks;
+    }
+
+    /**
+     * Load vocabulary from a tiktoken rank file
+     *
+     * @param name Counter name
+     * @param in Rank file stream, closed by the caller
+     * @return BPE counter
+     */
+    public static BpeTokenCounter load(String name, InputStream in) throws IOException {
+        Map<String, Integer> ranks = new HashMap<>(1 << 17);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int space = line.indexOf(' ');
+            if (space <= 0) {
+                continue;
+            }
+            byte[] token = Base64.getDecoder().decode(line.substring(0, space));
+            ranks.put(new String(token, StandardCharsets.ISO_8859_1), Integer.parseInt(line.substring(space + 1).trim()));
+        }
+        if (ranks.isEmpty()) {
+            throw new IOException("Empty BPE vocabulary: " + name);
+        }
+        return new BpeTokenCounter(name, ranks);
+    }
+
+    @Override
+    public int count(String text) {
+        if (StringUtils.isEmpty(text)) {
+            return 0;
+        }
+        int tokens = 0;
+        Matcher matcher = PRE_TOKENIZE.matcher(text);
+        while (matcher.find()) {
+            byte[] bytes = matcher.group().getBytes(StandardCharsets.UTF_8);
+            tokens += countPiece(new String(bytes, StandardCharsets.ISO_8859_1));
+        }
+        return tokens;
+    }
+
+    /**
+     * Merge the lowest ranked adjacent pair until no pair is in the vocabulary, pieces are a few bytes
+     * long so the quadratic scan is cheaper than a heap
+     */
+    private int countPiece(String piece) {
+        if (ranks.containsKey(piece)) {
+            return 1;
+        }
+        List<Integer> starts = new ArrayList<>(piece.length() + 1);
+        for (int i = 0; i <= piece.length(); i++) {
+            starts.add(i);
+        }
+        while (starts.size() > 2) {
+            int minRank = Integer.MAX_VALUE;
+            int minIndex = -1;
+            for (int i = 0; i < starts.size() - 2; i++) {
+                Integer rank = ranks.get(piece.substring(starts.get(i), starts.get(i + 2)));
+                if (rank != null && rank < minRank) {
+                    minRank = rank;
+                    minIndex = i;
+                }
+            }
+            if (minIndex < 0) {
+                break;
+            }
+            starts.remove(minIndex + 1);
+        }
+        return starts.size() - 1;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+}
@@ -0,0 +1,20 @@
+package com.iflytek.astron.console.hub.service.chat.token;
+
+/**
+ * Counts how many model tokens a piece of text occupies, used to budget prompt and history messages
+ */
+public interface TokenCounter {
+
+    /**
+     * Count tokens of text
+     *
+     * @param text Text content, may be null
+     * @return Token count, 0 for blank text
+     */
+    int count(String text);
+
+    /**
+     * Name of the counter, used in logs
+     */
+    String name();
+}
@@ -0,0 +1,25 @@
+package com.iflytek.astron.console.hub.service.notification;
+
+import com.iflytek.astron.console.hub.dto.notification.NotificationDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Pushes new notifications to the event streams of connected users on every node
+ */
+public interface NotificationStreamService {
+
+    /**
+     * Open an event stream for a user. It starts with an unread-count event and then receives a
+     * notification event for every notification sent to the user.
+     */
+    SseEmitter connect(String receiverUid);
+
+    /**
+     * Publish a notification to the streams of its receivers on all nodes
+     *
+     * @param receiverUids Receivers, null for a broadcast to every connected user
+     */
+    void publish(NotificationDto notification, List<String> receiverUids);
+}
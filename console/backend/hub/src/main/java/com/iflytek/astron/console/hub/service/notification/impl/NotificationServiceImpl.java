@@ -11,16 +11,21 @@ import com.iflytek.astron.console.hub.entity.notification.UserBroadcastRead;
 import com.iflytek.astron.console.hub.entity.notification.UserNotification;
 import com.iflytek.astron.console.hub.enums.NotificationType;
 import com.iflytek.astron.console.hub.service.notification.NotificationService;
+import com.iflytek.astron.console.hub.service.notification.NotificationStreamService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -28,6 +33,7 @@ import java.util.List;
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationDataService notificationDataService;
+    private final NotificationStreamService notificationStreamService;
 
     // Batch operation limit constants
     private static final int MAX_BATCH_SIZE = 1000;
@@ -161,6 +167,7 @@ public class NotificationServiceImpl implements NotificationService {
         // Create broadcast notification
         Notification notification = createNotificationEntity(request, NotificationType.BROADCAST);
         notification = notificationDataService.createNotification(notification);
+        pushAfterCommit(notification, null);
 
         log.info("Broadcast notification sent successfully, notificationId: {}", notification.getId());
         return notification.getId();
@@ -205,6 +212,7 @@ public class NotificationServiceImpl implements NotificationService {
         }
 
         notificationDataService.batchCreateUserNotifications(userNotifications);
+        pushAfterCommit(notification, receiverUids);
 
         log.info("{} notification sent successfully, notificationId: {}, receiverCount: {}",
                 type.getDescription(), notification.getId(), receiverUids.size());
@@ -212,6 +220,31 @@ public class NotificationServiceImpl implements NotificationService {
         return notification.getId();
     }
 
+    /**
+     * Push to connected receivers once the notification is committed, so that a client reacting to the
+     * push finds it in the list
+     *
+     * @param receiverUids Receivers, null for a broadcast
+     */
+    private void pushAfterCommit(Notification notification, List<String> receiverUids) {
+        NotificationDto dto = new NotificationDto();
+        BeanUtils.copyProperties(notification, dto);
+        dto.setType(NotificationType.fromCode(notification.getType()));
+        dto.setIsRead(false);
+        dto.setReceivedAt(notification.getCreatedAt());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notificationStreamService.publish(dto, receiverUids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationStreamService.publish(dto, receiverUids);
+            }
+        });
+    }
+
     private Notification createNotificationEntity(SendNotificationRequest request, NotificationType type) {
         Notification notification = new Notification();
 
@@ -334,7 +367,7 @@ public class NotificationServiceImpl implements NotificationService {
             description = "Lock for marking broadcast messages as read")
     private void markBroadcastMessagesAsRead(String receiverUid, List<Long> broadcastIds) {
         // Filter out broadcast messages that the user has not read
-        List<Long> readBroadcastIds = notificationDataService.getUserReadBroadcastIds(receiverUid, broadcastIds);
+        Set<Long> readBroadcastIds = notificationDataService.getUserReadBroadcastIds(receiverUid, broadcastIds);
         List<Long> unreadBroadcastIds = broadcastIds.stream()
                 .filter(id -> !readBroadcastIds.contains(id))
                 .toList();
@@ -0,0 +1,177 @@
+package com.iflytek.astron.console.hub.service.notification.impl;
+
+import com.alibaba.fastjson2.JSON;
+import com.iflytek.astron.console.hub.data.NotificationDataService;
+import com.iflytek.astron.console.hub.dto.notification.NotificationDto;
+import com.iflytek.astron.console.hub.properties.NotificationStreamProperties;
+import com.iflytek.astron.console.hub.service.notification.NotificationStreamService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the event streams of the users connected to this node. Notifications are published on a
+ * Redis channel and every node writes them to its own streams, so a sender does not need to know
+ * where its receivers are connected. Delivery is best effort, clients catch up from the list
+ * interface after a reconnect.
+ */
+@Slf4j
+@Service
+public class NotificationStreamServiceImpl implements NotificationStreamService {
+
+    private static final String PUSH_CHANNEL = "notification_push";
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private NotificationDataService notificationDataService;
+
+    @Autowired
+    private NotificationStreamProperties properties;
+
+    private final Map<String, Deque<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    /**
+     * Writes to the streams, off the Redis listener threads
+     */
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newScheduledThreadPool(2,
+                Thread.ofPlatform().name("notification-push-", 0).daemon(true).factory());
+        long heartbeat = Math.max(1, properties.getHeartbeatSeconds());
+        executor.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.SECONDS);
+        redissonClient.getTopic(PUSH_CHANNEL).addListener(String.class, (channel, msg) -> {
+            Push push = JSON.parseObject(msg, Push.class);
+            if (push != null && push.getNotification() != null) {
+                executor.execute(() -> deliver(push));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+        emitters.values().forEach(userEmitters -> userEmitters.forEach(SseEmitter::complete));
+        emitters.clear();
+    }
+
+    @Override
+    public SseEmitter connect(String receiverUid) {
+        SseEmitter emitter = newEmitter();
+        emitter.onCompletion(() -> remove(receiverUid, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(receiverUid, emitter));
+
+        List<SseEmitter> evicted = new ArrayList<>();
+        emitters.compute(receiverUid, (uid, userEmitters) -> {
+            Deque<SseEmitter> deque = userEmitters == null ? new ConcurrentLinkedDeque<>() : userEmitters;
+            deque.addLast(emitter);
+            while (deque.size() > Math.max(1, properties.getMaxConnectionsPerUser())) {
+                evicted.add(deque.pollFirst());
+            }
+            return deque;
+        });
+        evicted.forEach(SseEmitter::complete);
+
+        long unreadCount = notificationDataService.countUserUnreadNotifications(receiverUid);
+        send(receiverUid, emitter, SseEmitter.event().name("unread-count").data(unreadCount));
+        return emitter;
+    }
+
+    @Override
+    public void publish(NotificationDto notification, List<String> receiverUids) {
+        try {
+            redissonClient.getTopic(PUSH_CHANNEL).publish(JSON.toJSONString(new Push(receiverUids, notification)));
+        } catch (Exception e) {
+            // Receivers still see it on their next list or unread count query
+            log.warn("Failed to publish notification push, notificationId: {}", notification.getId(), e);
+        }
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(properties.getTimeoutMillis());
+    }
+
+    /**
+     * @return Streams open on this node
+     */
+    int connectionCount() {
+        return emitters.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    void deliver(Push push) {
+        String data = JSON.toJSONString(push.getNotification());
+        if (push.getReceiverUids() == null) {
+            emitters.forEach((uid, userEmitters) -> sendAll(uid, userEmitters, data));
+            return;
+        }
+        for (String uid : push.getReceiverUids()) {
+            Deque<SseEmitter> userEmitters = emitters.get(uid);
+            if (userEmitters != null) {
+                sendAll(uid, userEmitters, data);
+            }
+        }
+    }
+
+    private void sendAll(String uid, Deque<SseEmitter> userEmitters, String data) {
+        for (SseEmitter emitter : userEmitters) {
+            send(uid, emitter, SseEmitter.event().name("notification").data(data));
+        }
+    }
+
+    private void heartbeat() {
+        emitters.forEach((uid, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                send(uid, emitter, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    private void send(String uid, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (Exception e) {
+            // The client is gone, the container completes the emitter itself
+            log.debug("Notification stream closed, uid: {}", uid);
+            remove(uid, emitter);
+        }
+    }
+
+    private void remove(String uid, SseEmitter emitter) {
+        emitters.computeIfPresent(uid, (key, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Push {
+        /**
+         * Null for a broadcast
+         */
+        private List<String> receiverUids;
+        private NotificationDto notification;
+    }
+}
@@ -25,6 +25,7 @@ import com.iflytek.astron.console.commons.enums.ShelfStatusEnum;
 import com.iflytek.astron.console.commons.mapper.bot.ChatBotMarketMapper;
 import com.iflytek.astron.console.commons.mapper.bot.ChatBotApiMapper;
 import com.iflytek.astron.console.hub.mapper.BotConversationStatsMapper;
+import com.iflytek.astron.console.hub.mapper.BotConversationStatsRollupMapper;
 import com.iflytek.astron.console.commons.mapper.bot.ChatBotBaseMapper;
 import com.iflytek.astron.console.hub.converter.BotPublishConverter;
 import com.iflytek.astron.console.hub.converter.WorkflowVersionConverter;
@@ -33,7 +34,11 @@ import com.iflytek.astron.console.hub.service.wechat.WechatThirdpartyService;
 import com.iflytek.astron.console.commons.dto.bot.BotPublishQueryResult;
 import com.iflytek.astron.console.commons.dto.bot.ChatBotApi;
 import com.iflytek.astron.console.hub.entity.BotConversationStats;
+import com.iflytek.astron.console.hub.entity.BotConversationStatsRollup;
+import com.iflytek.astron.console.hub.util.HyperLogLog;
 import com.iflytek.astron.console.hub.service.publish.BotPublishService;
+import com.iflytek.astron.console.hub.task.BotStatsBuffer;
+import com.iflytek.astron.console.hub.task.BotStatsRollupTask;
 import com.iflytek.astron.console.commons.exception.BusinessException;
 import com.iflytek.astron.console.commons.constant.ResponseEnum;
 import com.iflytek.astron.console.commons.util.BotFileParamUtil;
@@ -48,6 +53,7 @@ import com.iflytek.astron.console.commons.dto.bot.BotQueryCondition;
 import com.iflytek.astron.console.hub.event.BotPublishStatusChangedEvent;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -81,6 +87,9 @@ public class BotPublishServiceImpl implements BotPublishService {
 
     // Statistics data related
     private final BotConversationStatsMapper botConversationStatsMapper;
+    private final BotConversationStatsRollupMapper botConversationStatsRollupMapper;
+    private final BotStatsRollupTask botStatsRollupTask;
+    private final BotStatsBuffer botStatsBuffer;
 
     // MaaS API related
     private final ChatBotApiMapper chatBotApiMapper;
@@ -220,11 +229,16 @@ public class BotPublishServiceImpl implements BotPublishService {
             throw new BusinessException(ResponseEnum.BOT_NOT_EXISTS);
         }
 
-        // 2. Query summary statistics data
-        BotSummaryStatsVO summaryStats = botConversationStatsMapper.selectSummaryStats(botId, null, null);
-        if (summaryStats == null) {
-            // If no statistics data, return default values (using primitive type long, will be 0 automatically)
-            summaryStats = new BotSummaryStatsVO();
+        // 2. Query summary statistics data, from the daily rollups once they cover all history
+        BotSummaryStatsVO summaryStats;
+        if (botStatsRollupTask.isCaughtUp(LocalDateTime.now())) {
+            summaryStats = summaryFromRollups(botId);
+        } else {
+            summaryStats = botConversationStatsMapper.selectSummaryStats(botId, null, null);
+            if (summaryStats == null) {
+                // If no statistics data, return default values (using primitive type long, will be 0 automatically)
+                summaryStats = new BotSummaryStatsVO();
+            }
         }
 
         log.info("Bot summary statistics query completed: botId={}, totalChats={}, totalUsers={}",
@@ -245,10 +259,11 @@ public class BotPublishServiceImpl implements BotPublishService {
             throw new BusinessException(ResponseEnum.BOT_NOT_EXISTS);
         }
 
-        // 2. Query time series statistics data
+        // 2. Query time series statistics data, from the daily rollups once they cover all history
         LocalDate startDate = LocalDate.now().minusDays(overviewDays);
-        List<BotTimeSeriesStatsVO> timeSeriesStats = botConversationStatsMapper.selectTimeSeriesStats(
-                botId, startDate, null, null);
+        List<BotTimeSeriesStatsVO> timeSeriesStats = botStatsRollupTask.isCaughtUp(LocalDateTime.now())
+                ? timeSeriesFromRollups(botId, startDate)
+                : botConversationStatsMapper.selectTimeSeriesStats(botId, startDate, null, null);
 
         // 3. Build time series data response
         BotTimeSeriesResponseDto timeSeries = new BotTimeSeriesResponseDto();
@@ -278,13 +293,9 @@ public class BotPublishServiceImpl implements BotPublishService {
                     .sid(sid)
                     .tokenConsumed(tokenConsumed)
                     .build();
-            int result = botConversationStatsMapper.insert(conversationStats);
-
-            if (result > 0) {
-                log.info("Conversation statistics recorded successfully: chatId={}, statsId={}", chatId, conversationStats.getId());
-
-            } else {
-                log.warn("Conversation statistics record failed: chatId={}", chatId);
+            // Written in batches by the buffer, off the chat request path
+            if (!botStatsBuffer.offer(conversationStats)) {
+                log.warn("Conversation statistics record dropped, buffer full: chatId={}", chatId);
             }
         } catch (Exception e) {
             log.error("Record conversation statistics exception: chatId={}", chatId, e);
@@ -294,6 +305,43 @@ public class BotPublishServiceImpl implements BotPublishService {
 
     // ==================== Private Helper Methods ====================
 
+    /**
+     * Summary from the daily rollups, distinct counts merge the daily sketches
+     */
+    private BotSummaryStatsVO summaryFromRollups(Integer botId) {
+        BotSummaryStatsVO summaryStats = new BotSummaryStatsVO();
+        HyperLogLog users = new HyperLogLog();
+        HyperLogLog chats = new HyperLogLog();
+        for (BotConversationStatsRollup day : botConversationStatsRollupMapper.selectDaily(botId, null)) {
+            summaryStats.setTotalMessages(summaryStats.getTotalMessages() + nullToZero(day.getMessageCount()));
+            summaryStats.setTotalTokens(summaryStats.getTotalTokens() + nullToZero(day.getTokenCount()));
+            users.merge(HyperLogLog.fromBytes(day.getUserSketch()));
+            chats.merge(HyperLogLog.fromBytes(day.getChatSketch()));
+        }
+        summaryStats.setTotalUsers(users.cardinality());
+        summaryStats.setTotalChats(chats.cardinality());
+        return summaryStats;
+    }
+
+    private List<BotTimeSeriesStatsVO> timeSeriesFromRollups(Integer botId, LocalDate startDate) {
+        return botConversationStatsRollupMapper.selectDaily(botId, startDate)
+                .stream()
+                .map(day -> new BotTimeSeriesStatsVO(
+                        day.getStatDate(),
+                        (int) HyperLogLog.fromBytes(day.getChatSketch()).cardinality(),
+                        (int) HyperLogLog.fromBytes(day.getUserSketch()).cardinality(),
+                        (int) nullToZero(day.getTokenCount()),
+                        (int) nullToZero(day.getMessageCount())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Rollup counters may be null on rows written by hand
+     */
+    private static long nullToZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
     /**
      * Validate bot permission
      */
@@ -19,7 +19,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -160,18 +163,39 @@ public class EnterpriseUserBizServiceImpl implements EnterpriseUserBizService {
 
         String uid = enterpriseService.getUidByEnterpriseId(enterpriseUser.getEnterpriseId());
         if (CollectionUtil.isNotEmpty(spaceVOS)) {
+            List<Runnable> evictions = new ArrayList<>();
             // If user is space owner, set super admin as space owner
             for (SpaceVO spaceVO : spaceVOS) {
                 if (Objects.equals(spaceVO.getUserRole(), SpaceRoleEnum.OWNER.getCode())) {
                     spaceUserService.addSpaceUser(spaceVO.getId(), uid, SpaceRoleEnum.OWNER);
+                    evictions.add(() -> enterpriseSpaceService.clearSpaceUserCache(spaceVO.getId(), uid));
                 }
+                evictions.add(() -> enterpriseSpaceService.clearSpaceUserCache(spaceVO.getId(), enterpriseUser.getUid()));
             }
             // Remove all space users
             spaceUserService.removeByUid(spaceVOS.stream()
                     .map(SpaceVO::getId)
                     .collect(Collectors.toSet()), enterpriseUser.getUid());
+            afterCommit(() -> evictions.forEach(Runnable::run));
         }
         // Delete team user
         return enterpriseUserService.removeById(enterpriseUser);
     }
+
+    /**
+     * Run once the membership changes are committed, so a concurrent read cannot cache the old rows
+     * again between the eviction and the commit
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -17,6 +17,7 @@ import com.iflytek.astron.console.commons.enums.space.EnterpriseRoleEnum;
 import com.iflytek.astron.console.commons.enums.space.EnterpriseServiceTypeEnum;
 import com.iflytek.astron.console.commons.enums.space.SpaceRoleEnum;
 import com.iflytek.astron.console.commons.enums.space.SpaceTypeEnum;
+import com.iflytek.astron.console.commons.service.space.EnterpriseSpaceService;
 import com.iflytek.astron.console.commons.service.space.EnterpriseService;
 import com.iflytek.astron.console.commons.service.space.EnterpriseUserService;
 import com.iflytek.astron.console.commons.service.space.SpaceService;
@@ -55,6 +56,8 @@ public class SpaceBizServiceImpl implements SpaceBizService {
     private ChatBotDataService chatBotDataService;
     @Autowired
     private UserInfoDataService userInfoDataService;
+    @Autowired
+    private EnterpriseSpaceService enterpriseSpaceService;
 
 
     /**
@@ -144,6 +147,7 @@ public class SpaceBizServiceImpl implements SpaceBizService {
             return ApiResult.error(ResponseEnum.SPACE_NOT_EXISTS);
         }
         if (spaceService.removeById(spaceId)) {
+            enterpriseSpaceService.clearSpaceCache(spaceId);
             try {
                 String uid = RequestContextUtil.getUID();
                 HttpServletRequest request = RequestContextUtil.getCurrentRequest();
@@ -0,0 +1,201 @@
+package com.iflytek.astron.console.hub.task;
+
+import com.iflytek.astron.console.hub.entity.BotConversationStats;
+import com.iflytek.astron.console.hub.mapper.BotConversationStatsMapper;
+import com.iflytek.astron.console.hub.properties.StatsBufferProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded buffer for bot conversation statistics rows, drained by a single writer thread into
+ * multi-row inserts. Callers never wait on the database; when the buffer is full the row is dropped
+ * and counted. Rows still buffered at shutdown are written before the context closes, rows of an
+ * instance that dies without a clean shutdown are lost.
+ */
+@Slf4j
+@Component
+public class BotStatsBuffer {
+
+    private static final long RETRY_DELAY_MILLIS = 200;
+
+    @Autowired
+    private BotConversationStatsMapper botConversationStatsMapper;
+
+    @Autowired
+    private StatsBufferProperties properties;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<BotConversationStats> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private Counter droppedCounter;
+
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, properties.getCapacity()));
+        if (meterRegistry != null) {
+            Gauge.builder("bot.stats.buffer.size", queue, BlockingQueue::size)
+                    .description("Statistics rows waiting to be written")
+                    .register(meterRegistry);
+            droppedCounter = Counter.builder("bot.stats.buffer.dropped")
+                    .description("Statistics rows dropped because the buffer was full")
+                    .register(meterRegistry);
+            failedCounter = Counter.builder("bot.stats.buffer.failed")
+                    .description("Statistics rows lost because their insert failed")
+                    .register(meterRegistry);
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "bot-stats-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        try {
+            writer.join(Math.max(1, properties.getShutdownTimeoutMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The writer did not finish in time, write what is left from here
+        List<BotConversationStats> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+    }
+
+    /**
+     * @return false if the buffer is full and the row was dropped
+     */
+    public boolean offer(BotConversationStats stats) {
+        if (queue.offer(stats)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        if (droppedCounter != null) {
+            droppedCounter.increment();
+        }
+        return false;
+    }
+
+    private void drainLoop() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, properties.getFlushIntervalMillis()));
+        List<BotConversationStats> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                BotConversationStats first = queue.poll(intervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Fill the batch until it is full or the interval since its first row has passed
+                long deadline = System.nanoTime() + intervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    BotConversationStats next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<BotConversationStats> batch) {
+        long droppedSinceLast = dropped.getAndSet(0);
+        if (droppedSinceLast > 0) {
+            log.warn("Statistics buffer full, dropped {} rows", droppedSinceLast);
+        }
+        int lost = insert(batch, true);
+        if (lost > 0 && failedCounter != null) {
+            failedCounter.increment(lost);
+        }
+    }
+
+    /**
+     * Insert rows in one statement. When the database rejects a row the rows are split in halves, so
+     * that only the offending rows are lost; a transient failure retries the whole batch once. Other
+     * failures give the rows up, statistics must not affect the chat flow.
+     *
+     * @return Rows lost
+     */
+    private int insert(List<BotConversationStats> rows, boolean retry) {
+        try {
+            botConversationStatsMapper.insertBatch(rows);
+            return 0;
+        } catch (DataIntegrityViolationException e) {
+            if (rows.size() == 1) {
+                BotConversationStats row = rows.get(0);
+                log.warn("Conversation statistics row rejected, botId: {}, chatId: {}, cause: {}",
+                        row.getBotId(), row.getChatId(), e.getMessage());
+                return 1;
+            }
+            int half = rows.size() / 2;
+            return insert(rows.subList(0, half), false) + insert(rows.subList(half, rows.size()), false);
+        } catch (TransientDataAccessException | RecoverableDataAccessException e) {
+            if (retry && pause()) {
+                return insert(rows, false);
+            }
+            log.error("Write conversation statistics failed, {} rows lost", rows.size(), e);
+            return rows.size();
+        } catch (Exception e) {
+            log.error("Write conversation statistics failed, {} rows lost", rows.size(), e);
+            return rows.size();
+        }
+    }
+
+    /**
+     * @return false if interrupted
+     */
+    private static boolean pause() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.iflytek.astron.console.hub.task;
+
+import com.google.common.collect.Lists;
+import com.iflytek.astron.console.hub.annotation.DistributedLock;
+import com.iflytek.astron.console.hub.entity.BotConversationStats;
+import com.iflytek.astron.console.hub.entity.BotConversationStatsRollup;
+import com.iflytek.astron.console.hub.mapper.BotConversationStatsRollupMapper;
+import com.iflytek.astron.console.hub.properties.StatsRollupProperties;
+import com.iflytek.astron.console.hub.util.HyperLogLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folds raw bot_conversation_stats rows into hourly rollups, and hourly rollups into daily ones, so
+ * that dashboards read one row per day instead of one row per message.
+ *
+ * <p>
+ * Every bucket is recomputed from its source and overwritten, so rerunning a bucket is harmless. Each
+ * run resumes from the hour before the latest hourly bucket, which picks up the rest of the current
+ * hour and rows that arrived late for the previous one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BotStatsRollupTask {
+
+    private static final int RAW_DELETE_BATCH = 5000;
+    private static final int MAX_RAW_DELETE_BATCHES = 100;
+
+    private final BotConversationStatsRollupMapper rollupMapper;
+    private final StatsRollupProperties properties;
+
+    @Scheduled(fixedDelayString = "${stats.rollup.interval-millis:60000}", initialDelayString = "${stats.rollup.initial-delay-millis:30000}")
+    @DistributedLock(key = "stats:rollup", waitTime = 0, leaseTime = 10, timeUnit = TimeUnit.MINUTES,
+            failStrategy = DistributedLock.FailStrategy.RETURN_NULL, enableLog = false,
+            description = "Bot conversation statistics rollup")
+    public void run() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            rollup(now);
+            purge(now);
+        } catch (Exception e) {
+            log.error("Bot conversation statistics rollup failed", e);
+        }
+    }
+
+    /**
+     * Whether every raw hour before the current one has been folded. Until then (right after an upgrade,
+     * after a long outage, or with the rollup disabled) the rollups miss part of the history and readers
+     * should use the raw rows.
+     */
+    public boolean isCaughtUp(LocalDateTime now) {
+        return isCaughtUp(rollupMapper.selectLastHourlyBucket(), now);
+    }
+
+    private boolean isCaughtUp(LocalDateTime last, LocalDateTime now) {
+        LocalDateTime pending = rollupMapper.selectFirstRawTime(last == null ? null : last.plusHours(1));
+        return pending == null || !pending.isBefore(now.truncatedTo(ChronoUnit.HOURS));
+    }
+
+    /**
+     * @return Hours folded
+     */
+    int rollup(LocalDateTime now) {
+        LocalDateTime last = rollupMapper.selectLastHourlyBucket();
+        LocalDateTime cursor = last == null ? null : last.minusHours(1);
+        LocalDateTime end = now.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+
+        // Days touched by this run and the bots in them, to refresh their daily rollups
+        Map<LocalDate, Set<Integer>> touched = new TreeMap<>();
+        int hours = 0;
+        while (hours < Math.max(1, properties.getHoursPerRun())) {
+            // Jump straight to the next hour that has rows, history may have long gaps
+            LocalDateTime first = rollupMapper.selectFirstRawTime(cursor);
+            if (first == null) {
+                break;
+            }
+            LocalDateTime hour = first.truncatedTo(ChronoUnit.HOURS);
+            if (!hour.isBefore(end)) {
+                break;
+            }
+            List<BotConversationStatsRollup> buckets = foldHour(hour);
+            for (List<BotConversationStatsRollup> batch : Lists.partition(buckets, writeBatchSize())) {
+                rollupMapper.upsertHourly(batch);
+            }
+            buckets.forEach(b -> touched.computeIfAbsent(hour.toLocalDate(), d -> new TreeSet<>()).add(b.getBotId()));
+            cursor = hour.plusHours(1);
+            hours++;
+        }
+
+        touched.forEach(this::refreshDays);
+        if (hours > 0) {
+            log.info("Bot conversation statistics rolled up: hours={}, days={}", hours, touched.size());
+        }
+        return hours;
+    }
+
+    private List<BotConversationStatsRollup> foldHour(LocalDateTime hour) {
+        Map<Integer, Bucket> byBot = new LinkedHashMap<>();
+        rollupMapper.scanRaw(hour, hour.plusHours(1), context -> {
+            BotConversationStats row = context.getResultObject();
+            byBot.computeIfAbsent(row.getBotId(), id -> new Bucket()).add(row);
+        });
+        List<BotConversationStatsRollup> rows = new ArrayList<>(byBot.size());
+        byBot.forEach((botId, bucket) -> {
+            BotConversationStatsRollup rollup = bucket.toRollup(botId);
+            rollup.setBucketHour(hour);
+            rows.add(rollup);
+        });
+        return rows;
+    }
+
+    /**
+     * Recompute the daily rollups of the given bots from their hourly rollups of that day
+     */
+    private void refreshDays(LocalDate day, Set<Integer> botIds) {
+        LocalDateTime start = day.atStartOfDay();
+        for (List<Integer> bots : Lists.partition(new ArrayList<>(botIds), writeBatchSize())) {
+            Map<Integer, Bucket> byBot = new HashMap<>();
+            for (BotConversationStatsRollup hourly : rollupMapper.selectHourly(bots, start, start.plusDays(1))) {
+                byBot.computeIfAbsent(hourly.getBotId(), id -> new Bucket()).merge(hourly);
+            }
+            List<BotConversationStatsRollup> rows = new ArrayList<>(byBot.size());
+            byBot.forEach((botId, bucket) -> {
+                BotConversationStatsRollup rollup = bucket.toRollup(botId);
+                rollup.setStatDate(day);
+                rows.add(rollup);
+            });
+            if (!rows.isEmpty()) {
+                rollupMapper.upsertDaily(rows);
+            }
+        }
+    }
+
+    void purge(LocalDateTime now) {
+        LocalDateTime last = rollupMapper.selectLastHourlyBucket();
+        if (last == null) {
+            return;
+        }
+        // The next run refolds from the hour before the latest bucket, anything before that is final
+        LocalDateTime resumeFrom = last.minusHours(1);
+        if (properties.getHourlyRetentionDays() > 0) {
+            // Keep the hours of the day a run may still refresh, it matters while catching up on history
+            LocalDateTime before = now.toLocalDate().minusDays(properties.getHourlyRetentionDays()).atStartOfDay();
+            LocalDateTime resumeDay = resumeFrom.toLocalDate().atStartOfDay();
+            rollupMapper.deleteHourlyBefore(before.isBefore(resumeDay) ? before : resumeDay);
+        }
+        // Raw rows stay complete while readers may still fall back to them
+        if (properties.getRawRetentionDays() > 0 && isCaughtUp(last, now)) {
+            LocalDateTime before = now.minusDays(properties.getRawRetentionDays());
+            if (before.isAfter(resumeFrom)) {
+                before = resumeFrom;
+            }
+            int deleted = 0;
+            for (int i = 0; i < MAX_RAW_DELETE_BATCHES; i++) {
+                int n = rollupMapper.deleteRawBefore(before, RAW_DELETE_BATCH);
+                deleted += n;
+                if (n < RAW_DELETE_BATCH) {
+                    break;
+                }
+            }
+            if (deleted > 0) {
+                log.info("Deleted {} raw bot conversation statistics rows before {}", deleted, before);
+            }
+        }
+    }
+
+    private int writeBatchSize() {
+        return Math.max(1, properties.getWriteBatchSize());
+    }
+
+    private static final class Bucket {
+        private long messages;
+        private long tokens;
+        private final HyperLogLog users = new HyperLogLog();
+        private final HyperLogLog chats = new HyperLogLog();
+
+        void add(BotConversationStats row) {
+            messages++;
+            tokens += row.getTokenConsumed() == null ? 0 : row.getTokenConsumed();
+            users.add(row.getUid());
+            chats.add(row.getChatId() == null ? null : String.valueOf(row.getChatId()));
+        }
+
+        void merge(BotConversationStatsRollup rollup) {
+            messages += rollup.getMessageCount() == null ? 0 : rollup.getMessageCount();
+            tokens += rollup.getTokenCount() == null ? 0 : rollup.getTokenCount();
+            users.merge(HyperLogLog.fromBytes(rollup.getUserSketch()));
+            chats.merge(HyperLogLog.fromBytes(rollup.getChatSketch()));
+        }
+
+        BotConversationStatsRollup toRollup(Integer botId) {
+            BotConversationStatsRollup rollup = new BotConversationStatsRollup();
+            rollup.setBotId(botId);
+            rollup.setMessageCount(messages);
+            rollup.setTokenCount(tokens);
+            rollup.setUserSketch(users.toBytes());
+            rollup.setChatSketch(chats.toBytes());
+            return rollup;
+        }
+    }
+}
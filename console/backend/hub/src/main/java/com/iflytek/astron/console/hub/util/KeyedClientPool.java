@@ -0,0 +1,141 @@
+package com.iflytek.astron.console.hub.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.iflytek.astron.console.commons.constant.ResponseEnum;
+import com.iflytek.astron.console.commons.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Pool of thread-safe client instances keyed by their connection settings. A client is built once per
+ * key and evicted after sitting idle, and every key caps the number of concurrent streams: excess
+ * streams wait up to the acquire timeout and are then rejected. The stream slots are kept apart from
+ * the evictable clients, so evicting a client while streams are still open does not reset the cap.
+ *
+ * @param <K> Client key
+ * @param <C> Client type, must be safe to share between concurrent calls
+ */
+@Slf4j
+public class KeyedClientPool<K, C> {
+
+    private final Function<K, C> factory;
+
+    private final int maxConcurrentStreams;
+
+    private final long acquireTimeoutMillis;
+
+    private final Cache<K, C> clients;
+
+    /**
+     * Stream slots per key, dropped once the client is evicted and every slot is free again
+     */
+    private final ConcurrentMap<K, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public KeyedClientPool(Function<K, C> factory, int maxConcurrentStreams, long acquireTimeoutMillis, long idleMinutes) {
+        this.factory = factory;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.clients = CacheBuilder.newBuilder()
+                .expireAfterAccess(idleMinutes, TimeUnit.MINUTES)
+                .<K, C>removalListener(notification -> dropIdleSlots(notification.getKey()))
+                .build();
+    }
+
+    /**
+     * Borrow the client of a key for one stream, the lease must be closed when the stream ends
+     *
+     * @param key Client key
+     * @return Lease holding the shared client
+     * @throws BusinessException when the key already runs the maximum number of streams
+     */
+    public Lease<C> acquire(K key) {
+        C client;
+        try {
+            client = clients.get(key, () -> factory.apply(key));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to create client for " + key, e.getCause());
+        }
+        Semaphore slots = takeSlot(key);
+        return new Lease<>(client, () -> {
+            slots.release();
+            if (!clients.asMap().containsKey(key)) {
+                dropIdleSlots(key);
+            }
+        });
+    }
+
+    /**
+     * Number of pooled clients
+     */
+    public long size() {
+        clients.cleanUp();
+        return clients.size();
+    }
+
+    private Semaphore takeSlot(K key) {
+        while (true) {
+            Semaphore slots = permits.computeIfAbsent(key, k -> new Semaphore(maxConcurrentStreams));
+            boolean acquired;
+            try {
+                acquired = slots.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                log.warn("Client pool saturated, key: {}, max concurrent streams: {}", key, maxConcurrentStreams);
+                throw new BusinessException(ResponseEnum.SPARK_API_SERVICE_BUSY);
+            }
+            if (permits.get(key) == slots) {
+                return slots;
+            }
+            // Dropped as idle before the slot was taken, take one from the current semaphore instead
+            slots.release();
+        }
+    }
+
+    /**
+     * Drop the slots of a key once every slot is free, called when its client is evicted or, if it
+     * already was, when the last stream ends. A stream that picked up the dropped semaphore retries
+     * on the current one.
+     */
+    private void dropIdleSlots(K key) {
+        permits.computeIfPresent(key, (k, slots) -> slots.availablePermits() >= maxConcurrentStreams ? null : slots);
+    }
+
+    /**
+     * Borrowed client, closing it releases the stream slot exactly once
+     */
+    public static final class Lease<C> implements AutoCloseable {
+
+        private final C client;
+
+        private final Runnable release;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(C client, Runnable release) {
+            this.client = client;
+            this.release = release;
+        }
+
+        public C client() {
+            return client;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.iflytek.astron.console.hub.util;
+
+import cn.xfyun.api.SparkChatClient;
+import cn.xfyun.config.SparkModel;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared {@link SparkChatClient} instances. Each client owns its HTTP connection pool, so reusing it
+ * per (model endpoint, credential) keeps connections to the Spark endpoint warm between turns instead
+ * of building a client and handshaking on every request.
+ */
+@Component
+public class SparkChatClientPool {
+
+    @Value("${spark.chat.client-pool.max-concurrent-streams:200}")
+    private int maxConcurrentStreams;
+
+    @Value("${spark.chat.client-pool.acquire-timeout-millis:3000}")
+    private long acquireTimeoutMillis;
+
+    @Value("${spark.chat.client-pool.idle-minutes:30}")
+    private long idleMinutes;
+
+    private KeyedClientPool<ClientKey, SparkChatClient> pool;
+
+    @PostConstruct
+    public void init() {
+        pool = new KeyedClientPool<>(
+                key -> new SparkChatClient.Builder().signatureHttp(key.apiPassword(), key.model()).build(),
+                maxConcurrentStreams, acquireTimeoutMillis, idleMinutes);
+    }
+
+    /**
+     * Borrow the client of a model for one chat stream
+     *
+     * @param apiPassword HTTP API password
+     * @param model Spark model, determines endpoint and domain
+     * @return Lease to close once the stream has finished
+     */
+    public KeyedClientPool.Lease<SparkChatClient> acquire(String apiPassword, SparkModel model) {
+        return pool.acquire(new ClientKey(model, apiPassword));
+    }
+
+    private record ClientKey(SparkModel model, String apiPassword) {
+        @Override
+        public String toString() {
+            return "ClientKey[model=" + model + "]";
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.iflytek.astron.console.hub.util;
+
+import com.alibaba.fastjson2.JSONReader;
+import lombok.Getter;
+
+/**
+ * Streaming token scanner for Spark SSE data frames.
+ * <p>
+ * Reads only the fields the relay needs (code, sid and the first choice delta) without building a
+ * JSONObject tree, so ordinary frames can be forwarded to the client as the original text.
+ *
+ * @author mingsuiyongheng
+ */
+public final class SparkFrameScanner {
+
+    private SparkFrameScanner() {}
+
+    /**
+     * Scan a single SSE data payload
+     *
+     * @param data JSON payload following the "data:" prefix
+     * @return Scan result, never null; {@link Frame#isRewriteRequired()} is true when the frame must go
+     *         through the full parse path
+     */
+    public static Frame scan(String data) {
+        Frame frame = new Frame();
+        try (JSONReader reader = JSONReader.of(data)) {
+            if (!reader.nextIfObjectStart()) {
+                frame.rewriteRequired = true;
+                return frame;
+            }
+            while (!reader.nextIfObjectEnd()) {
+                String name = reader.readFieldName();
+                if (name == null) {
+                    frame.rewriteRequired = true;
+                    return frame;
+                }
+                switch (name) {
+                    case "code" -> frame.code = reader.readInt32();
+                    case "sid" -> frame.sid = reader.readString();
+                    case "choices" -> scanChoices(reader, frame);
+                    default -> reader.skipValue();
+                }
+                if (frame.rewriteRequired) {
+                    return frame;
+                }
+            }
+        } catch (Exception e) {
+            frame.rewriteRequired = true;
+            return frame;
+        }
+        // Error frames are rewritten with fallback messages
+        if (frame.code == null || frame.code != 0) {
+            frame.rewriteRequired = true;
+        }
+        return frame;
+    }
+
+    private static void scanChoices(JSONReader reader, Frame frame) {
+        if (reader.nextIfNull()) {
+            return;
+        }
+        if (!reader.nextIfArrayStart()) {
+            frame.rewriteRequired = true;
+            return;
+        }
+        int index = 0;
+        while (!reader.nextIfArrayEnd()) {
+            if (index == 0) {
+                scanChoice(reader, frame);
+                if (frame.rewriteRequired) {
+                    return;
+                }
+            } else {
+                // Additional choices carry trace tool_calls, handled by the full parse path
+                frame.rewriteRequired = true;
+                return;
+            }
+            index++;
+        }
+    }
+
+    private static void scanChoice(JSONReader reader, Frame frame) {
+        if (!reader.nextIfObjectStart()) {
+            frame.rewriteRequired = true;
+            return;
+        }
+        while (!reader.nextIfObjectEnd()) {
+            String name = reader.readFieldName();
+            if ("delta".equals(name)) {
+                scanDelta(reader, frame);
+                if (frame.rewriteRequired) {
+                    return;
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
+    }
+
+    private static void scanDelta(JSONReader reader, Frame frame) {
+        if (reader.nextIfNull()) {
+            return;
+        }
+        if (!reader.nextIfObjectStart()) {
+            frame.rewriteRequired = true;
+            return;
+        }
+        while (!reader.nextIfObjectEnd()) {
+            String name = reader.readFieldName();
+            switch (name) {
+                case "content" -> frame.content = reader.readString();
+                case "reasoning_content" -> frame.reasoningContent = reader.readString();
+                case "tool_calls" -> {
+                    // Web search tool calls are decorated with deskToolName before sending
+                    frame.rewriteRequired = true;
+                    return;
+                }
+                default -> reader.skipValue();
+            }
+        }
+    }
+
+    /**
+     * Fields extracted from one frame
+     */
+    @Getter
+    public static final class Frame {
+        private Integer code;
+        private String sid;
+        private String content;
+        private String reasoningContent;
+        private boolean rewriteRequired;
+    }
+}
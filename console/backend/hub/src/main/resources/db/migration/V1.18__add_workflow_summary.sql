@@ -0,0 +1,11 @@
+ALTER TABLE workflow ADD io_summary text NULL COMMENT 'IO inversion of data, maintained on save';
+ALTER TABLE workflow ADD node_count int NULL COMMENT 'Node count of data, NULL until summarized';
+ALTER TABLE workflow ADD io_digest varchar(32) NULL COMMENT 'MD5 of the input/output schema';
+ALTER TABLE workflow ADD has_qa_node bit(1) NULL COMMENT 'Whether data contains a Q&A node';
+ALTER TABLE workflow ADD INDEX idx_workflow_uid_deleted (uid, deleted);
+ALTER TABLE workflow ADD INDEX idx_workflow_space_deleted (space_id, deleted);
+
+ALTER TABLE workflow_version ADD io_summary text NULL COMMENT 'IO inversion of data';
+ALTER TABLE workflow_version ADD node_count int NULL COMMENT 'Node count of data, NULL until summarized';
+ALTER TABLE workflow_version ADD io_digest varchar(32) NULL COMMENT 'MD5 of the input/output schema';
+ALTER TABLE workflow_version ADD has_qa_node bit(1) NULL COMMENT 'Whether data contains a Q&A node';
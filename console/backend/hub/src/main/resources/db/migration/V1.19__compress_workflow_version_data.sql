@@ -0,0 +1,7 @@
+-- Version protocols are stored in MySQL COMPRESS() format, read through CompressedTextTypeHandler
+ALTER TABLE workflow_version
+    MODIFY `data` mediumblob COMMENT 'Workflow protocol, COMPRESS() format',
+    MODIFY `sys_data` mediumblob COMMENT 'Core system protocol, COMPRESS() format';
+
+UPDATE workflow_version SET `data` = COMPRESS(`data`) WHERE `data` IS NOT NULL AND LENGTH(`data`) > 0;
+UPDATE workflow_version SET `sys_data` = COMPRESS(`sys_data`) WHERE `sys_data` IS NOT NULL AND LENGTH(`sys_data`) > 0;
@@ -0,0 +1,17 @@
+-- Materialised ancestor ids of each directory tree node, maintained by the application on insert
+ALTER TABLE file_directory_tree ADD ancestor_path varchar(1024) NULL COMMENT 'Ancestor ids from root to parent, e.g. /3/17/';
+
+-- Backfill: nodes whose parent does not exist in the same app are top-level
+UPDATE file_directory_tree t
+    JOIN (WITH RECURSIVE tree_path (id, app_id, ancestor_path) AS (
+              SELECT c.id, c.app_id, CAST('/' AS CHAR(1024))
+              FROM file_directory_tree c
+              WHERE NOT EXISTS (SELECT 1 FROM file_directory_tree p WHERE p.id = c.parent_id AND p.app_id = c.app_id)
+              UNION ALL
+              SELECT c.id, c.app_id, CONCAT(tp.ancestor_path, c.parent_id, '/')
+              FROM file_directory_tree c
+                       JOIN tree_path tp ON c.parent_id = tp.id AND c.app_id = tp.app_id
+              -- Bounds the depth, deeper nodes keep a NULL path and are resolved by walking parents
+              WHERE LENGTH(tp.ancestor_path) < 1000)
+          SELECT id, ancestor_path FROM tree_path) resolved ON resolved.id = t.id
+SET t.ancestor_path = resolved.ancestor_path;
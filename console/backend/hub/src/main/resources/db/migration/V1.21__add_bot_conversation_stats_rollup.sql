@@ -0,0 +1,26 @@
+-- Hourly and daily rollups of bot_conversation_stats, maintained by the rollup task. Distinct users
+-- and chats are kept as serialized HyperLogLog sketches so that buckets can be merged.
+CREATE TABLE IF NOT EXISTS `bot_conversation_stats_hourly`
+(
+    `bot_id`        int      NOT NULL COMMENT 'Agent ID',
+    `bucket_hour`   datetime NOT NULL COMMENT 'Start of the hour',
+    `message_count` bigint   NOT NULL DEFAULT '0' COMMENT 'Messages in the bucket',
+    `token_count`   bigint   NOT NULL DEFAULT '0' COMMENT 'Tokens consumed in the bucket',
+    `user_sketch`   blob COMMENT 'HyperLogLog of distinct users',
+    `chat_sketch`   blob COMMENT 'HyperLogLog of distinct chats',
+    `update_time`   datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Update time',
+    PRIMARY KEY (`bot_id`, `bucket_hour`),
+    KEY             `idx_bucket_hour` (`bucket_hour`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='Hourly bot conversation statistics';
+
+CREATE TABLE IF NOT EXISTS `bot_conversation_stats_daily`
+(
+    `bot_id`        int      NOT NULL COMMENT 'Agent ID',
+    `stat_date`     date     NOT NULL COMMENT 'Day',
+    `message_count` bigint   NOT NULL DEFAULT '0' COMMENT 'Messages in the bucket',
+    `token_count`   bigint   NOT NULL DEFAULT '0' COMMENT 'Tokens consumed in the bucket',
+    `user_sketch`   blob COMMENT 'HyperLogLog of distinct users',
+    `chat_sketch`   blob COMMENT 'HyperLogLog of distinct chats',
+    `update_time`   datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Update time',
+    PRIMARY KEY (`bot_id`, `stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='Daily bot conversation statistics';
@@ -0,0 +1,121 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.iflytek.astron.console.hub.dto.notification.BroadcastReader;
+import com.iflytek.astron.console.hub.mapper.notification.UserBroadcastReadMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBitSetAsync;
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class BroadcastReadBitmapTest {
+
+    private static final long USER = 7L;
+
+    private final RedissonClient redissonClient = mock(RedissonClient.class);
+
+    private final UserBroadcastReadMapper mapper = mock(UserBroadcastReadMapper.class);
+
+    private final RBatch batch = mock(RBatch.class);
+
+    private final Map<Long, RBitSetAsync> bitSets = new HashMap<>();
+
+    private BroadcastReadBitmap bitmap;
+
+    @BeforeEach
+    void setUp() {
+        bitmap = new BroadcastReadBitmap();
+        ReflectionTestUtils.setField(bitmap, "redissonClient", redissonClient);
+        ReflectionTestUtils.setField(bitmap, "userBroadcastReadMapper", mapper);
+        ReflectionTestUtils.setField(bitmap, "ttlDays", 30L);
+        when(redissonClient.createBatch()).thenReturn(batch);
+    }
+
+    /**
+     * Bitmap of a broadcast as the pipeline sees it, {@code loaded} is bit 0 and {@code read} the
+     * user's bit
+     */
+    private RBitSetAsync bitSet(long broadcastId, boolean loaded, boolean read) {
+        RBitSetAsync bits = mock(RBitSetAsync.class);
+        RFuture<Boolean> loadedBit = future(loaded);
+        RFuture<Boolean> userBit = future(read);
+        when(bits.getAsync(0L)).thenReturn(loadedBit);
+        when(bits.getAsync(USER)).thenReturn(userBit);
+        when(batch.getBitSet("notification:broadcast_read:" + broadcastId)).thenReturn(bits);
+        bitSets.put(broadcastId, bits);
+        return bits;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RFuture<Boolean> future(boolean value) {
+        RFuture<Boolean> future = mock(RFuture.class);
+        when(future.getNow()).thenReturn(value);
+        return future;
+    }
+
+    private static BroadcastReader reader(long broadcastId, long userId) {
+        BroadcastReader reader = new BroadcastReader();
+        reader.setNotificationId(broadcastId);
+        reader.setUserId(userId);
+        return reader;
+    }
+
+    @Test
+    void readsLoadedBitmapsWithoutTouchingTheTable() {
+        bitSet(1, true, true);
+        bitSet(2, true, false);
+
+        assertEquals(Set.of(1L), bitmap.readOf(USER, List.of(1L, 2L)));
+
+        verify(batch).execute();
+        verify(mapper, never()).selectReaders(anyList());
+    }
+
+    @Test
+    void rebuildsBitmapsWithoutLoadedMarkerInOneQuery() {
+        bitSet(1, true, true);
+        RBitSetAsync unloadedRead = bitSet(3, false, false);
+        RBitSetAsync unloadedUnread = bitSet(4, false, false);
+        when(mapper.selectReaders(List.of(3L, 4L))).thenReturn(List.of(reader(3, USER), reader(4, 9L)));
+
+        assertEquals(Set.of(1L, 3L), bitmap.readOf(USER, List.of(1L, 3L, 4L)));
+
+        verify(mapper, times(1)).selectReaders(anyList());
+        verify(unloadedRead).setAsync(USER);
+        verify(unloadedRead).setAsync(0L);
+        verify(unloadedUnread).setAsync(9L);
+        verify(unloadedUnread).setAsync(0L);
+        verify(unloadedUnread).expireAsync(any(Instant.class));
+        verify(bitSets.get(1L), never()).setAsync(anyLong());
+        // One pipeline for the lookup and one for the rebuild
+        verify(batch, times(2)).execute();
+    }
+
+    @Test
+    void marksReadInOnePipeline() {
+        RBitSetAsync first = bitSet(1, true, false);
+        RBitSetAsync second = bitSet(2, true, false);
+
+        bitmap.markRead(USER, List.of(1L, 2L));
+
+        verify(first).setAsync(USER);
+        verify(second).setAsync(USER);
+        // The TTL goes in the same pipeline, a bitmap that expired in between must not live forever
+        verify(first).expireIfNotSetAsync(any(Instant.class));
+        verify(second).expireIfNotSetAsync(any(Instant.class));
+        verify(batch).execute();
+    }
+}
@@ -0,0 +1,143 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.iflytek.astron.console.commons.dto.chat.ChatReqModelDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RListAsync;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChatContextCacheTest {
+
+    private final RedissonClient redissonClient = mock(RedissonClient.class);
+
+    private final RTopic topic = mock(RTopic.class);
+
+    private ChatContextCache cache;
+
+    private MessageListener<String> listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(redissonClient.getTopic("chat_context_invalidate")).thenReturn(topic);
+        cache = new ChatContextCache();
+        ReflectionTestUtils.setField(cache, "redissonClient", redissonClient);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxChars", 32000);
+        ReflectionTestUtils.setField(cache, "maxTurns", 500);
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "expireMinutes", 30L);
+        ReflectionTestUtils.setField(cache, "redisEnabled", false);
+        cache.init();
+
+        ArgumentCaptor<MessageListener<String>> captor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(String.class), captor.capture());
+        listener = captor.getValue();
+    }
+
+    private static ChatReqModelDto req(long id) {
+        ChatReqModelDto dto = new ChatReqModelDto();
+        dto.setId(id);
+        dto.setMessage("q" + id);
+        return dto;
+    }
+
+    @Test
+    void testAppendRequest_UncachedChatStillInvalidatesOtherNodes() {
+        cache.appendRequest("u1", 1L, req(1L));
+
+        ArgumentCaptor<String> msg = ArgumentCaptor.forClass(String.class);
+        verify(topic).publish(msg.capture());
+        assertTrue(msg.getValue().endsWith("|u1:1"));
+        verify(redissonClient, never()).getList(anyString());
+    }
+
+    @Test
+    void testAppendRequest_UpdatesLocalWindowAndBroadcasts() {
+        cache.put("u1", 1L, ChatContextWindow.of(List.of(req(1L)), Map.of(), 32000, 500));
+
+        cache.appendRequest("u1", 1L, req(2L));
+
+        assertEquals(2, cache.get("u1", 1L).size());
+        verify(topic).publish(any());
+    }
+
+    @Test
+    void testInvalidation_FromAnotherNodeDropsLocalWindow() {
+        cache.put("u1", 1L, ChatContextWindow.of(List.of(req(1L)), Map.of(), 32000, 500));
+
+        listener.onMessage("chat_context_invalidate", "other-node|u1:1");
+
+        assertNull(cache.get("u1", 1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAppendRequest_RedisTierAppendsOneTurnAndTrims() {
+        ReflectionTestUtils.setField(cache, "redisEnabled", true);
+        RBatch batch = mock(RBatch.class);
+        RListAsync<Object> list = mock(RListAsync.class);
+        RFuture<Integer> size = mock(RFuture.class);
+        when(redissonClient.createBatch()).thenReturn(batch);
+        when(batch.getList("chat_context:u1:1")).thenReturn(list);
+        when(list.sizeAsync()).thenReturn(size);
+        when(size.getNow()).thenReturn(2);
+        cache.put("u1", 1L, ChatContextWindow.of(List.of(req(1L)), Map.of(), 32000, 500));
+        clearInvocations(list);
+
+        cache.appendRequest("u1", 1L, req(2L));
+
+        verify(list).addAsync(argThat(json -> json.toString().contains("\"id\":2")));
+        verify(list).trimAsync(-2, -1);
+        verify(list, never()).deleteAsync();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAppendRequest_RedisTierRewritesAnExpiredList() {
+        ReflectionTestUtils.setField(cache, "redisEnabled", true);
+        RBatch batch = mock(RBatch.class);
+        RListAsync<Object> list = mock(RListAsync.class);
+        RFuture<Integer> size = mock(RFuture.class);
+        when(redissonClient.createBatch()).thenReturn(batch);
+        when(batch.getList("chat_context:u1:1")).thenReturn(list);
+        when(list.sizeAsync()).thenReturn(size);
+        // Only the appended turn made it, the rest of the list had expired
+        when(size.getNow()).thenReturn(1);
+        cache.put("u1", 1L, ChatContextWindow.of(List.of(req(1L)), Map.of(), 32000, 500));
+        clearInvocations(list);
+
+        cache.appendRequest("u1", 1L, req(2L));
+
+        verify(list).deleteAsync();
+        verify(list, times(3)).addAsync(any());
+    }
+
+    @Test
+    void testInvalidation_OwnMessageIsIgnored() {
+        cache.appendRequest("u1", 2L, req(1L));
+        ArgumentCaptor<String> msg = ArgumentCaptor.forClass(String.class);
+        verify(topic).publish(msg.capture());
+        cache.put("u1", 2L, ChatContextWindow.of(List.of(req(1L)), Map.of(), 32000, 500));
+
+        listener.onMessage("chat_context_invalidate", msg.getValue());
+
+        assertNotNull(cache.get("u1", 2L));
+    }
+}
@@ -0,0 +1,94 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.iflytek.astron.console.commons.dto.chat.ChatReqModelDto;
+import com.iflytek.astron.console.commons.dto.chat.ChatRespModelDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatContextWindowTest {
+
+    private static ChatReqModelDto req(long id, String message) {
+        ChatReqModelDto dto = new ChatReqModelDto();
+        dto.setId(id);
+        dto.setMessage(message);
+        return dto;
+    }
+
+    private static ChatRespModelDto resp(long reqId, String message) {
+        ChatRespModelDto dto = new ChatRespModelDto();
+        dto.setReqId(reqId);
+        dto.setMessage(message);
+        return dto;
+    }
+
+    @Test
+    void testOf_KeepsTurnCrossingBudget() {
+        Map<Long, ChatRespModelDto> respMap = new HashMap<>();
+        respMap.put(3L, resp(3L, "aaaa"));
+        respMap.put(2L, resp(2L, "bbbb"));
+        respMap.put(1L, resp(1L, "cccc"));
+
+        ChatContextWindow window = ChatContextWindow.of(
+                List.of(req(3L, "q3"), req(2L, "q2"), req(1L, "q1")), respMap, 8, 500);
+
+        // 6 + 6 crosses the budget of 8, the oldest turn is dropped
+        List<ChatContextWindow.Turn> turns = window.snapshot();
+        assertEquals(2, turns.size());
+        assertEquals(3L, turns.get(0).getReq().getId());
+        assertEquals(2L, turns.get(1).getReq().getId());
+    }
+
+    @Test
+    void testAddRequestAndAttachResponse_TrimsOldestTurns() {
+        ChatContextWindow window = new ChatContextWindow();
+        window.addRequest(req(1L, "q1"), 9, 500);
+        assertTrue(window.attachResponse(resp(1L, "answer"), 9, 500));
+        window.addRequest(req(2L, "q2"), 9, 500);
+        assertTrue(window.attachResponse(resp(2L, "answer"), 9, 500));
+        window.addRequest(req(3L, "q3"), 9, 500);
+
+        List<ChatContextWindow.Turn> turns = window.snapshot();
+        assertEquals(2, turns.size());
+        assertEquals(3L, turns.get(0).getReq().getId());
+        assertNull(turns.get(0).getResp());
+        assertEquals("answer", turns.get(1).getResp().getMessage());
+        assertEquals(10, window.getTotalWeight());
+    }
+
+    @Test
+    void testAttachResponse_UnknownRequest() {
+        ChatContextWindow window = new ChatContextWindow();
+        window.addRequest(req(1L, "q1"), 100, 500);
+
+        assertFalse(window.attachResponse(resp(9L, "answer"), 100, 500));
+    }
+
+    @Test
+    void testAddRequest_MaxTurns() {
+        ChatContextWindow window = new ChatContextWindow();
+        for (long i = 1; i <= 5; i++) {
+            window.addRequest(req(i, "q"), 1000, 3);
+        }
+
+        List<ChatContextWindow.Turn> turns = window.snapshot();
+        assertEquals(3, turns.size());
+        assertEquals(5L, turns.get(0).getReq().getId());
+    }
+
+    @Test
+    void testOfTurns_RestoresWeightAndPositions() {
+        ChatContextWindow window = ChatContextWindow.ofTurns(List.of(
+                new ChatContextWindow.Turn(req(2L, "q2"), null, 2),
+                new ChatContextWindow.Turn(req(1L, "q1"), resp(1L, "answer"), 8)));
+
+        assertEquals(10, window.getTotalWeight());
+        assertEquals(2, window.size());
+        assertEquals(1, window.indexOf(1L));
+        assertEquals(-1, window.indexOf(9L));
+    }
+}
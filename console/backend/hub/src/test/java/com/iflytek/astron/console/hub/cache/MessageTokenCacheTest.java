@@ -0,0 +1,68 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.iflytek.astron.console.commons.dto.llm.SparkChatRequest;
+import com.iflytek.astron.console.hub.service.chat.token.TokenCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageTokenCacheTest {
+
+    @Mock
+    private TokenCounter tokenCounter;
+
+    @InjectMocks
+    private MessageTokenCache messageTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(messageTokenCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(messageTokenCache, "expireHours", 1L);
+        messageTokenCache.init();
+    }
+
+    private static SparkChatRequest.MessageDto message(String messageId, String content) {
+        SparkChatRequest.MessageDto dto = new SparkChatRequest.MessageDto();
+        dto.setRole("user");
+        dto.setContent(content);
+        dto.setMessageId(messageId);
+        return dto;
+    }
+
+    @Test
+    void testCount_SameMessageTokenizedOnce() {
+        when(tokenCounter.count("hello")).thenReturn(2);
+
+        assertEquals(2, messageTokenCache.count(message("req:1", "hello")));
+        assertEquals(2, messageTokenCache.count(message("req:1", "hello")));
+
+        verify(tokenCounter, times(1)).count("hello");
+    }
+
+    @Test
+    void testCount_ChangedContentRecounted() {
+        when(tokenCounter.count("hello")).thenReturn(2);
+        when(tokenCounter.count("hello again")).thenReturn(4);
+
+        assertEquals(2, messageTokenCache.count(message("resp:1", "hello")));
+        assertEquals(4, messageTokenCache.count(message("resp:1", "hello again")));
+    }
+
+    @Test
+    void testCount_WithoutIdNotCached() {
+        when(tokenCounter.count("hello")).thenReturn(2);
+
+        messageTokenCache.count(message(null, "hello"));
+        messageTokenCache.count(message(null, "hello"));
+
+        verify(tokenCounter, times(2)).count("hello");
+    }
+}
@@ -0,0 +1,74 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.google.common.cache.CacheBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache delegate;
+
+    private TwoLevelCache cache;
+
+    private final List<String> published = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapCache("space:space_expired");
+        com.google.common.cache.Cache<String, Cache.ValueWrapper> local = CacheBuilder.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(5, TimeUnit.SECONDS)
+                .build();
+        cache = new TwoLevelCache(delegate, local, (name, key) -> published.add(name + "|" + key));
+    }
+
+    @Test
+    void testGet_ServedLocallyUntilInvalidated() {
+        delegate.put(1L, false);
+        assertEquals(false, cache.get(1L, Boolean.class));
+
+        // A change the node has not been told about is not visible yet
+        delegate.put(1L, true);
+        assertEquals(false, cache.get(1L, Boolean.class));
+
+        cache.invalidateLocal("1");
+        assertEquals(true, cache.get(1L, Boolean.class));
+    }
+
+    @Test
+    void testEvict_DropsBothTiersAndBroadcasts() {
+        cache.put("10_uid", "member");
+
+        cache.evict("10_uid");
+
+        assertNull(cache.get("10_uid"));
+        assertNull(delegate.get("10_uid"));
+        assertEquals(List.of("space:space_expired|10_uid"), published);
+    }
+
+    @Test
+    void testClear_BroadcastsNullKey() {
+        cache.put(1L, true);
+
+        cache.clear();
+
+        assertNull(cache.get(1L));
+        assertEquals(List.of("space:space_expired|null"), published);
+    }
+
+    @Test
+    void testGet_MissIsNotCachedLocally() {
+        assertNull(cache.get(2L));
+
+        delegate.put(2L, true);
+        assertEquals(true, cache.get(2L, Boolean.class));
+    }
+}
@@ -0,0 +1,120 @@
+package com.iflytek.astron.console.hub.cache;
+
+import com.iflytek.astron.console.hub.entity.notification.Notification;
+import com.iflytek.astron.console.hub.mapper.notification.UserBroadcastReadMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class UserBroadcastReadSetTest {
+
+    private static final long USER = 7L;
+
+    private static final LocalDateTime REGISTERED = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final RedissonClient redissonClient = mock(RedissonClient.class);
+
+    private final UserBroadcastReadMapper mapper = mock(UserBroadcastReadMapper.class);
+
+    private final RBatch batch = mock(RBatch.class);
+
+    @SuppressWarnings("unchecked")
+    private final RScoredSortedSetAsync<Object> reads = mock(RScoredSortedSetAsync.class);
+
+    private UserBroadcastReadSet readSet;
+
+    @BeforeEach
+    void setUp() {
+        readSet = new UserBroadcastReadSet();
+        ReflectionTestUtils.setField(readSet, "redissonClient", redissonClient);
+        ReflectionTestUtils.setField(readSet, "userBroadcastReadMapper", mapper);
+        ReflectionTestUtils.setField(readSet, "ttlDays", 30L);
+        when(redissonClient.createBatch()).thenReturn(batch);
+        when(batch.getScoredSortedSet("notification:user_broadcast_read:" + USER)).thenReturn(reads);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RFuture<T> future(T value) {
+        RFuture<T> future = mock(RFuture.class);
+        when(future.getNow()).thenReturn(value);
+        return future;
+    }
+
+    private static Notification broadcast(long id, LocalDateTime expireAt) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setExpireAt(expireAt);
+        return notification;
+    }
+
+    @Test
+    void countsLoadedSetWithoutTheLoadedMarker() {
+        RFuture<Double> loaded = future(Double.POSITIVE_INFINITY);
+        RFuture<Integer> live = future(3);
+        when(reads.getScoreAsync("loaded")).thenReturn(loaded);
+        when(reads.countAsync(anyDouble(), eq(false), eq(Double.POSITIVE_INFINITY), eq(true))).thenReturn(live);
+
+        assertEquals(2, readSet.countLive(USER, "u1", REGISTERED));
+
+        verify(mapper, never()).selectReadLiveBroadcasts(any(), any());
+        verify(batch).execute();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildsMissingSetFromTableInOneQuery() {
+        RFuture<Double> loaded = future(null);
+        RFuture<Integer> live = future(0);
+        when(reads.getScoreAsync("loaded")).thenReturn(loaded);
+        when(reads.countAsync(anyDouble(), anyBoolean(), anyDouble(), anyBoolean())).thenReturn(live);
+        when(mapper.selectReadLiveBroadcasts("u1", REGISTERED))
+                .thenReturn(List.of(broadcast(1L, null), broadcast(2L, LocalDateTime.now().plusDays(1))));
+
+        assertEquals(2, readSet.countLive(USER, "u1", REGISTERED));
+
+        ArgumentCaptor<Map<Object, Double>> members = ArgumentCaptor.forClass(Map.class);
+        verify(reads).addAllAsync(members.capture());
+        assertEquals(Double.POSITIVE_INFINITY, members.getValue().get("loaded"));
+        assertEquals(Double.POSITIVE_INFINITY, members.getValue().get("1"));
+        assertTrue(members.getValue().get("2") > System.currentTimeMillis());
+        verify(reads).expireAsync(Duration.ofDays(30));
+        // Reads marked while the query ran must survive the rebuild
+        verify(reads, never()).deleteAsync();
+        verify(batch, times(2)).execute();
+    }
+
+    @Test
+    void marksReadWithTtlInOnePipeline() {
+        readSet.markRead(USER, List.of(broadcast(1L, null)));
+
+        verify(reads).addAllAsync(Map.of("1", Double.POSITIVE_INFINITY));
+        verify(reads).removeRangeByScoreAsync(eq(Double.NEGATIVE_INFINITY), eq(true), anyDouble(), eq(true));
+        verify(reads).expireIfNotSetAsync(Duration.ofDays(30));
+        verify(batch).execute();
+    }
+
+    @Test
+    void marksNothingForNoBroadcasts() {
+        readSet.markRead(USER, List.of());
+
+        verify(redissonClient, never()).createBatch();
+        verify(reads, never()).addAllAsync(anyMap());
+    }
+}
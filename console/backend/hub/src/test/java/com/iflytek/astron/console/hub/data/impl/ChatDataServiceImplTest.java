@@ -12,6 +12,7 @@ import com.iflytek.astron.console.commons.entity.chat.*;
 import com.iflytek.astron.console.commons.exception.BusinessException;
 import com.iflytek.astron.console.commons.mapper.chat.ChatListMapper;
 import com.iflytek.astron.console.commons.mapper.chat.ChatTreeIndexMapper;
+import com.iflytek.astron.console.hub.cache.ChatContextCache;
 import com.iflytek.astron.console.hub.mapper.*;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.junit.jupiter.api.BeforeAll;
@@ -65,6 +66,9 @@ class ChatDataServiceImplTest {
     @Mock
     private BotChatFileParamMapper botChatFileParamMapper;
 
+    @Mock
+    private ChatContextCache chatContextCache;
+
     @InjectMocks
     private ChatDataServiceImpl chatDataService;
 
@@ -0,0 +1,126 @@
+package com.iflytek.astron.console.hub.data.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.iflytek.astron.console.commons.data.UserInfoDataService;
+import com.iflytek.astron.console.commons.entity.user.UserInfo;
+import com.iflytek.astron.console.hub.cache.BroadcastReadBitmap;
+import com.iflytek.astron.console.hub.cache.UserBroadcastReadSet;
+import com.iflytek.astron.console.hub.entity.notification.Notification;
+import com.iflytek.astron.console.hub.entity.notification.UserBroadcastRead;
+import com.iflytek.astron.console.hub.mapper.notification.NotificationMapper;
+import com.iflytek.astron.console.hub.mapper.notification.UserBroadcastReadMapper;
+import com.iflytek.astron.console.hub.mapper.notification.UserNotificationMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class NotificationDataServiceImplTest {
+
+    private static final String UID = "u1";
+
+    private static final LocalDateTime REGISTERED = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final NotificationMapper notificationMapper = mock(NotificationMapper.class);
+
+    private final UserNotificationMapper userNotificationMapper = mock(UserNotificationMapper.class);
+
+    private final UserBroadcastReadMapper userBroadcastReadMapper = mock(UserBroadcastReadMapper.class);
+
+    private final UserInfoDataService userInfoDataService = mock(UserInfoDataService.class);
+
+    private final BroadcastReadBitmap broadcastReadBitmap = mock(BroadcastReadBitmap.class);
+
+    private final UserBroadcastReadSet userBroadcastReadSet = mock(UserBroadcastReadSet.class);
+
+    private NotificationDataServiceImpl service;
+
+    @BeforeAll
+    static void initMybatisPlus() {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "");
+        TableInfoHelper.initTableInfo(assistant, Notification.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new NotificationDataServiceImpl(notificationMapper, userNotificationMapper, userBroadcastReadMapper,
+                mock(CacheManager.class), userInfoDataService, broadcastReadBitmap, userBroadcastReadSet);
+        UserInfo user = new UserInfo();
+        user.setId(7L);
+        user.setUid(UID);
+        user.setCreateTime(REGISTERED);
+        when(userInfoDataService.findByUid(UID)).thenReturn(Optional.of(user));
+        when(userNotificationMapper.countUnreadByUid(UID)).thenReturn(2);
+        when(notificationMapper.countBroadcastMessagesAfter(REGISTERED)).thenReturn(3L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void countsPersonalAndUnreadBroadcasts() {
+        when(userBroadcastReadSet.countLive(7L, UID, REGISTERED)).thenReturn(1L);
+
+        assertEquals(4, service.countUserUnreadNotifications(UID));
+
+        verify(broadcastReadBitmap, never()).readOf(anyLong(), anyList());
+        verify(userBroadcastReadMapper, never()).selectReadLiveBroadcasts(any(), any());
+    }
+
+    @Test
+    void fallsBackToTableWhenRedisFails() {
+        when(userBroadcastReadSet.countLive(7L, UID, REGISTERED)).thenThrow(new IllegalStateException("Redis down"));
+        when(userBroadcastReadMapper.selectReadLiveBroadcasts(UID, REGISTERED))
+                .thenReturn(List.of(broadcast(1L), broadcast(3L)));
+
+        assertEquals(3, service.countUserUnreadNotifications(UID));
+    }
+
+    @Test
+    void marksReadOnlyAfterCommit() {
+        List<Notification> visible = List.of(broadcast(1L));
+        when(notificationMapper.selectList(any())).thenReturn(visible);
+
+        TransactionSynchronizationManager.initSynchronization();
+        UserBroadcastRead read = new UserBroadcastRead();
+        read.setReceiverUid(UID);
+        read.setNotificationId(1L);
+        service.batchCreateBroadcastReadRecords(List.of(read));
+
+        // Still inside the transaction: neither the bits nor the read set are touched
+        verify(broadcastReadBitmap, never()).markRead(anyLong(), anyList());
+        verify(userBroadcastReadSet, never()).markRead(anyLong(), anyList());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        verify(broadcastReadBitmap).markRead(7L, List.of(1L));
+        verify(userBroadcastReadSet).markRead(7L, visible);
+    }
+
+    private static Notification broadcast(long id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        return notification;
+    }
+}
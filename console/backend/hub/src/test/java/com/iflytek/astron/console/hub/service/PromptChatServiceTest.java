@@ -3,6 +3,7 @@ package com.iflytek.astron.console.hub.service;
 import com.alibaba.fastjson2.JSONObject;
 import com.iflytek.astron.console.commons.entity.chat.ChatReqRecords;
 import com.iflytek.astron.console.commons.service.ChatRecordModelService;
+import com.iflytek.astron.console.commons.service.stream.impl.InMemoryStreamRegistry;
 import com.iflytek.astron.console.commons.service.data.ChatDataService;
 import com.iflytek.astron.console.commons.util.SseEmitterUtil;
 import okhttp3.*;
@@ -57,6 +58,7 @@ class PromptChatServiceTest {
         promptChatService = new PromptChatService(httpClient);
         ReflectionTestUtils.setField(promptChatService, "chatDataService", chatDataService);
         ReflectionTestUtils.setField(promptChatService, "chatRecordModelService", chatRecordModelService);
+        ReflectionTestUtils.setField(promptChatService, "streamRegistry", new InMemoryStreamRegistry());
 
         streamId = "test-stream-id";
         request = new JSONObject();
@@ -5,8 +5,10 @@ import cn.xfyun.model.sparkmodel.SparkChatParam;
 import com.iflytek.astron.console.commons.dto.llm.SparkChatRequest;
 import com.iflytek.astron.console.commons.entity.chat.ChatReqRecords;
 import com.iflytek.astron.console.commons.service.ChatRecordModelService;
+import com.iflytek.astron.console.commons.service.stream.impl.InMemoryStreamRegistry;
 import com.iflytek.astron.console.commons.service.data.ChatDataService;
 import com.iflytek.astron.console.commons.util.SseEmitterUtil;
+import com.iflytek.astron.console.hub.util.SparkChatClientPool;
 import okhttp3.*;
 import okio.Buffer;
 import okio.BufferedSource;
@@ -59,6 +61,13 @@ class SparkChatServiceTest {
         ReflectionTestUtils.setField(sparkChatService, "apiPassword", "test-api-password");
         ReflectionTestUtils.setField(sparkChatService, "chatDataService", chatDataService);
         ReflectionTestUtils.setField(sparkChatService, "chatRecordModelService", chatRecordModelService);
+        ReflectionTestUtils.setField(sparkChatService, "streamRegistry", new InMemoryStreamRegistry());
+        SparkChatClientPool sparkChatClientPool = new SparkChatClientPool();
+        ReflectionTestUtils.setField(sparkChatClientPool, "maxConcurrentStreams", 10);
+        ReflectionTestUtils.setField(sparkChatClientPool, "acquireTimeoutMillis", 0L);
+        ReflectionTestUtils.setField(sparkChatClientPool, "idleMinutes", 30L);
+        sparkChatClientPool.init();
+        ReflectionTestUtils.setField(sparkChatService, "sparkChatClientPool", sparkChatClientPool);
 
         streamId = "test-stream-id";
 
@@ -185,6 +194,30 @@ class SparkChatServiceTest {
         }
     }
 
+    @Test
+    void testChatStream_ReusesPooledClientAndReleasesSlot() {
+        try (MockedStatic<SseEmitterUtil> sseUtilMock = mockStatic(SseEmitterUtil.class);
+                MockedConstruction<SparkChatClient> clientMock = mockConstruction(SparkChatClient.class)) {
+            SparkChatClientPool pool = (SparkChatClientPool) ReflectionTestUtils.getField(sparkChatService, "sparkChatClientPool");
+            ReflectionTestUtils.setField(pool, "maxConcurrentStreams", 1);
+            pool.init();
+
+            ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+            sparkChatService.chatStream(sparkChatRequest, emitter, streamId, chatReqRecords, false, false);
+            verify(clientMock.constructed().get(0)).send(any(SparkChatParam.class), callbackCaptor.capture());
+
+            // The only slot is taken until the first stream ends
+            sparkChatService.chatStream(sparkChatRequest, emitter, streamId, chatReqRecords, false, false);
+            sseUtilMock.verify(() -> SseEmitterUtil.completeWithError(eq(emitter), contains("Failed to create chat stream")));
+
+            callbackCaptor.getValue().onFailure(call, new IOException("Connection reset"));
+            sparkChatService.chatStream(sparkChatRequest, emitter, streamId, chatReqRecords, false, false);
+
+            assertEquals(1, clientMock.constructed().size());
+            verify(clientMock.constructed().get(0), times(2)).send(any(SparkChatParam.class), any(Callback.class));
+        }
+    }
+
     // ==================== Model Selection Tests ====================
 
     @Test
@@ -343,6 +376,41 @@ class SparkChatServiceTest {
         }
     }
 
+    @Test
+    void testProcessSSEStream_PassthroughRelay_SavesScannedContent() throws Exception {
+        ReflectionTestUtils.setField(sparkChatService, "passthroughRelay", true);
+        try (MockedStatic<SseEmitterUtil> sseUtilMock = mockStatic(SseEmitterUtil.class);
+                MockedConstruction<SparkChatClient> clientMock = mockConstruction(SparkChatClient.class)) {
+
+            ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+
+            sparkChatService.chatStream(sparkChatRequest, emitter, streamId, chatReqRecords, false, false);
+
+            verify(clientMock.constructed().get(0)).send(any(SparkChatParam.class), callbackCaptor.capture());
+
+            when(response.isSuccessful()).thenReturn(true);
+            when(response.body()).thenReturn(responseBody);
+
+            Buffer buffer = new Buffer();
+            buffer.writeUtf8("data: {\"code\":0,\"sid\":\"test-sid\",\"choices\":[{\"delta\":{\"reasoning_content\":\"Think\"}}]}\n");
+            buffer.writeUtf8("data: {\"code\":0,\"sid\":\"test-sid\",\"choices\":[{\"delta\":{\"content\":\"Hello\"}}]}\n");
+            buffer.writeUtf8("data: [DONE]\n");
+            when(responseBody.source()).thenReturn(buffer);
+
+            sseUtilMock.when(() -> SseEmitterUtil.isStreamStopped(streamId)).thenReturn(false);
+
+            Callback callback = callbackCaptor.getValue();
+            callback.onResponse(call, response);
+
+            verify(emitter, atLeast(2)).send(any(SseEmitter.SseEventBuilder.class));
+            verify(chatRecordModelService).saveChatResponse(eq(chatReqRecords),
+                    argThat(result -> "Hello".contentEquals(result)),
+                    argThat(sid -> "test-sid".contentEquals(sid)), eq(false), eq(2));
+            verify(chatRecordModelService).saveThinkingResult(eq(chatReqRecords),
+                    argThat(result -> "Think".contentEquals(result)), eq(false));
+        }
+    }
+
     @Test
     void testProcessSSEStream_ErrorCode() throws Exception {
         try (MockedStatic<SseEmitterUtil> sseUtilMock = mockStatic(SseEmitterUtil.class);
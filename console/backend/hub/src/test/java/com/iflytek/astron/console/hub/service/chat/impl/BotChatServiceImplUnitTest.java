@@ -18,6 +18,7 @@ import com.iflytek.astron.console.commons.service.data.ChatDataService;
 import com.iflytek.astron.console.commons.service.data.ChatHistoryService;
 import com.iflytek.astron.console.commons.service.data.ChatListDataService;
 import com.iflytek.astron.console.commons.service.workflow.WorkflowBotChatService;
+import com.iflytek.astron.console.hub.cache.MessageTokenCache;
 import com.iflytek.astron.console.hub.data.ReqKnowledgeRecordsDataService;
 import com.iflytek.astron.console.hub.service.PromptChatService;
 import com.iflytek.astron.console.hub.service.SparkChatService;
@@ -73,6 +74,8 @@ class BotChatServiceImplUnitTest {
     private com.iflytek.astron.console.hub.util.BotPermissionUtil botPermissionUtil;
     @Mock
     private com.iflytek.astron.console.hub.service.bot.PersonalityConfigService personalityConfigService;
+    @Mock
+    private MessageTokenCache messageTokenCache;
 
     @InjectMocks
     private BotChatServiceImpl botChatService;
@@ -7,6 +7,8 @@ import com.iflytek.astron.console.commons.dto.chat.ChatRespModelDto;
 import com.iflytek.astron.console.commons.dto.llm.SparkChatRequest;
 import com.iflytek.astron.console.commons.service.data.ChatDataService;
 import com.iflytek.astron.console.commons.util.I18nUtil;
+import com.iflytek.astron.console.hub.cache.ChatContextCache;
+import com.iflytek.astron.console.hub.cache.ChatContextWindow;
 import com.iflytek.astron.console.hub.data.ReqKnowledgeRecordsDataService;
 import com.iflytek.astron.console.hub.entity.ReqKnowledgeRecords;
 import org.apache.logging.log4j.util.Base64Util;
@@ -34,6 +36,9 @@ class ChatHistoryServiceImplTest {
     @Mock
     private ReqKnowledgeRecordsDataService reqKnowledgeRecordsDataService;
 
+    @Mock
+    private ChatContextCache chatContextCache;
+
     @InjectMocks
     private ChatHistoryServiceImpl chatHistoryService;
 
@@ -49,6 +54,8 @@ class ChatHistoryServiceImplTest {
         uid = "user123";
         chatId = 100L;
         supportDocument = true;
+        lenient().when(chatContextCache.getMaxChars()).thenReturn(32000);
+        lenient().when(chatContextCache.getMaxTurns()).thenReturn(500);
 
         // Setup request DTOs
         ChatReqModelDto req1 = new ChatReqModelDto();
@@ -229,6 +236,42 @@ class ChatHistoryServiceImplTest {
         verify(chatDataService).getChatRespModelBotHistoryByChatId(uid, chatId, reqIds);
     }
 
+    @Test
+    void testGetHistory_ContextCacheHit_SkipsDatabase() {
+        // Given
+        ChatContextWindow window = new ChatContextWindow();
+        window.addRequest(reqModelDtos.get(1), 32000, 500);
+        window.attachResponse(respModelDtos.get(0), 32000, 500);
+        window.addRequest(reqModelDtos.get(0), 32000, 500);
+        window.attachResponse(respModelDtos.get(1), 32000, 500);
+        when(chatContextCache.get(uid, chatId)).thenReturn(window);
+        when(chatDataService.getChatRespModelBotHistoryByChatId(uid, chatId, Arrays.asList(2L, 1L))).thenReturn(respModelDtos);
+
+        // When
+        ChatRequestDtoList cached = chatHistoryService.getHistory(uid, chatId);
+        ChatRequestDtoList loaded = chatHistoryService.getHistory(uid, chatId, reqModelDtos);
+
+        // Then: same history as the database path, without the request query
+        assertEquals(loaded.getLength(), cached.getLength());
+        assertEquals(loaded.getMessages().size(), cached.getMessages().size());
+        verify(chatDataService, never()).getReqModelBotHistoryByChatId(anyString(), anyLong());
+        verify(chatDataService, times(1)).getChatRespModelBotHistoryByChatId(anyString(), anyLong(), anyList());
+    }
+
+    @Test
+    void testGetHistory_ContextCacheMiss_LoadsAndCachesWindow() {
+        // Given
+        when(chatDataService.getReqModelBotHistoryByChatId(uid, chatId)).thenReturn(reqModelDtos);
+        when(chatDataService.getChatRespModelBotHistoryByChatId(uid, chatId, Arrays.asList(2L, 1L))).thenReturn(respModelDtos);
+
+        // When
+        ChatRequestDtoList result = chatHistoryService.getHistory(uid, chatId);
+
+        // Then
+        assertFalse(result.getMessages().isEmpty());
+        verify(chatContextCache).put(eq(uid), eq(chatId), any(ChatContextWindow.class));
+    }
+
     @Test
     void testGetHistory_WithNullReqList_ShouldReturnEmptyList() {
         // When
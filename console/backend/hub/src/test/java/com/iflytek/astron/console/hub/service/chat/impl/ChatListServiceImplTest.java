@@ -10,6 +10,7 @@ import com.iflytek.astron.console.commons.response.ApiResult;
 import com.iflytek.astron.console.commons.service.bot.BotService;
 import com.iflytek.astron.console.commons.service.data.ChatDataService;
 import com.iflytek.astron.console.commons.service.data.ChatListDataService;
+import com.iflytek.astron.console.hub.cache.ChatContextCache;
 import com.iflytek.astron.console.toolkit.entity.vo.LLMInfoVo;
 import com.iflytek.astron.console.toolkit.service.model.ModelService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -45,6 +46,9 @@ class ChatListServiceImplTest {
     @Mock
     private ModelService modelService;
 
+    @Mock
+    private ChatContextCache chatContextCache;
+
     @Mock
     private HttpServletRequest httpServletRequest;
 
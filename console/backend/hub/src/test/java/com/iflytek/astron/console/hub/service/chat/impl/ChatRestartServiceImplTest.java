@@ -3,6 +3,7 @@ package com.iflytek.astron.console.hub.service.chat.impl;
 import com.iflytek.astron.console.commons.constant.ResponseEnum;
 import com.iflytek.astron.console.commons.exception.BusinessException;
 import com.iflytek.astron.console.commons.service.data.ChatListDataService;
+import com.iflytek.astron.console.hub.cache.ChatContextCache;
 import com.iflytek.astron.console.commons.dto.chat.ChatListCreateResponse;
 import com.iflytek.astron.console.commons.entity.chat.ChatTreeIndex;
 import com.iflytek.astron.console.hub.service.chat.ChatListService;
@@ -32,6 +33,9 @@ class ChatRestartServiceImplTest {
     @Mock
     private ChatListService chatListService;
 
+    @Mock
+    private ChatContextCache chatContextCache;
+
     @InjectMocks
     private ChatRestartServiceImpl chatRestartService;
 
@@ -0,0 +1,58 @@
+package com.iflytek.astron.console.hub.service.chat.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BpeTokenCounterTest {
+
+    private static BpeTokenCounter load(List<String> tokens) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int rank = 0; rank < tokens.size(); rank++) {
+            builder.append(Base64.getEncoder().encodeToString(tokens.get(rank).getBytes(StandardCharsets.UTF_8)))
+                    .append(' ')
+                    .append(rank)
+                    .append('\n');
+        }
+        return BpeTokenCounter.load("test", new ByteArrayInputStream(builder.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testCount_MergesLowestRankFirst() throws IOException {
+        BpeTokenCounter counter = load(List.of("h", "e", "l", "o", " ", "w", "r", "d", " w", "or", "hello"));
+
+        // "hello" is a whole token, " world" merges into " w" + "or" + "l" + "d"
+        assertEquals(5, counter.count("hello world"));
+    }
+
+    @Test
+    void testCount_UnknownBytesCountSeparately() throws IOException {
+        BpeTokenCounter counter = load(List.of("a", "b"));
+
+        // Each UTF-8 byte of an unknown character stays a token of its own
+        assertEquals(3, counter.count("中"));
+        assertEquals(0, counter.count(""));
+        assertEquals(0, counter.count(null));
+    }
+
+    @Test
+    void testLoad_EmptyVocabularyFails() {
+        assertThrows(IOException.class,
+                () -> BpeTokenCounter.load("empty", new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void testHeuristicCounter_KeepsLegacyEstimate() {
+        HeuristicTokenCounter counter = new HeuristicTokenCounter();
+
+        assertEquals(0, counter.count(" "));
+        assertEquals(3, counter.count("中文"));
+        assertEquals(1, counter.count("!"));
+    }
+}
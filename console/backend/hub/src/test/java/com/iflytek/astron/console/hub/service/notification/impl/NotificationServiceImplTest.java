@@ -5,6 +5,7 @@ import com.iflytek.astron.console.commons.exception.BusinessException;
 import com.iflytek.astron.console.hub.data.NotificationDataService;
 import com.iflytek.astron.console.hub.dto.notification.*;
 import com.iflytek.astron.console.hub.enums.NotificationType;
+import com.iflytek.astron.console.hub.service.notification.NotificationStreamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,6 +30,9 @@ class NotificationServiceImplTest {
     @Mock
     private NotificationDataService notificationDataService;
 
+    @Mock
+    private NotificationStreamService notificationStreamService;
+
     @InjectMocks
     private NotificationServiceImpl notificationService;
 
@@ -0,0 +1,99 @@
+package com.iflytek.astron.console.hub.service.notification.impl;
+
+import com.iflytek.astron.console.hub.data.NotificationDataService;
+import com.iflytek.astron.console.hub.dto.notification.NotificationDto;
+import com.iflytek.astron.console.hub.properties.NotificationStreamProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class NotificationStreamServiceImplTest {
+
+    private final RedissonClient redissonClient = mock(RedissonClient.class);
+
+    private final NotificationDataService notificationDataService = mock(NotificationDataService.class);
+
+    private NotificationStreamServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        NotificationStreamProperties properties = new NotificationStreamProperties();
+        properties.setMaxConnectionsPerUser(2);
+        service = spy(new NotificationStreamServiceImpl());
+        ReflectionTestUtils.setField(service, "redissonClient", redissonClient);
+        ReflectionTestUtils.setField(service, "notificationDataService", notificationDataService);
+        ReflectionTestUtils.setField(service, "properties", properties);
+        when(notificationDataService.countUserUnreadNotifications(any())).thenReturn(3L);
+    }
+
+    private SseEmitter connect(String uid) {
+        SseEmitter emitter = mock(SseEmitter.class);
+        doReturn(emitter).when(service).newEmitter();
+        service.connect(uid);
+        return emitter;
+    }
+
+    private static NotificationDto notification(long id) {
+        NotificationDto dto = new NotificationDto();
+        dto.setId(id);
+        dto.setTitle("title");
+        return dto;
+    }
+
+    @Test
+    void sendsUnreadCountAndClosesOldestStreamBeyondLimit() throws IOException {
+        SseEmitter first = connect("u1");
+        SseEmitter second = connect("u1");
+        SseEmitter third = connect("u1");
+
+        verify(first).complete();
+        verify(second, never()).complete();
+        verify(third).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(2, service.connectionCount());
+    }
+
+    @Test
+    void deliversToReceiversOrEveryoneOnBroadcast() throws IOException {
+        SseEmitter a = connect("a");
+        SseEmitter b = connect("b");
+
+        service.deliver(new NotificationStreamServiceImpl.Push(List.of("a", "offline"), notification(1)));
+        verify(a, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(b, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+
+        service.deliver(new NotificationStreamServiceImpl.Push(null, notification(2)));
+        verify(a, times(3)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(b, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void dropsStreamThatFailsToWrite() throws IOException {
+        SseEmitter a = connect("a");
+        doThrow(new IOException("Broken pipe")).when(a).send(any(SseEmitter.SseEventBuilder.class));
+
+        service.deliver(new NotificationStreamServiceImpl.Push(List.of("a"), notification(1)));
+
+        assertEquals(0, service.connectionCount());
+    }
+
+    @Test
+    void publishesOnSharedChannel() {
+        RTopic topic = mock(RTopic.class);
+        when(redissonClient.getTopic("notification_push")).thenReturn(topic);
+
+        service.publish(notification(7), List.of("a"));
+
+        verify(topic).publish(argThat((Object msg) -> msg.toString().contains("\"receiverUids\":[\"a\"]")));
+    }
+}
@@ -17,10 +17,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -226,6 +229,36 @@ class EnterpriseUserBizServiceImplTest {
             verify(spaceUserService).addSpaceUser(TEST_SPACE_ID, "admin-uid", SpaceRoleEnum.OWNER);
             verify(spaceUserService).removeByUid(any(Set.class), eq(TEST_UID));
             verify(enterpriseUserService).removeById(testEnterpriseUser);
+            InOrder order = inOrder(spaceUserService, enterpriseSpaceService);
+            order.verify(spaceUserService).removeByUid(any(Set.class), eq(TEST_UID));
+            order.verify(enterpriseSpaceService).clearSpaceUserCache(TEST_SPACE_ID, TEST_UID);
+            verify(enterpriseSpaceService).clearSpaceUserCache(TEST_SPACE_ID, "admin-uid");
+        }
+    }
+
+    @Test
+    @DisplayName("remove - Should evict space membership only after the transaction commits")
+    void remove_EvictsSpaceUserCacheAfterCommit() {
+        try (MockedStatic<EnterpriseInfoUtil> mockedEnterpriseInfo = mockStatic(EnterpriseInfoUtil.class)) {
+            mockedEnterpriseInfo.when(EnterpriseInfoUtil::getEnterpriseId).thenReturn(TEST_ENTERPRISE_ID);
+            when(enterpriseUserService.getEnterpriseUserByUid(TEST_ENTERPRISE_ID, TEST_UID))
+                    .thenReturn(testEnterpriseUser);
+            when(spaceService.listByEnterpriseIdAndUid(TEST_ENTERPRISE_ID, TEST_UID)).thenReturn(List.of(testSpaceVO));
+            when(enterpriseService.getUidByEnterpriseId(TEST_ENTERPRISE_ID)).thenReturn("admin-uid");
+            when(enterpriseUserService.removeById(testEnterpriseUser)).thenReturn(true);
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                enterpriseUserBizService.remove(TEST_UID);
+
+                verify(enterpriseSpaceService, never()).clearSpaceUserCache(anyLong(), anyString());
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            verify(enterpriseSpaceService).clearSpaceUserCache(TEST_SPACE_ID, TEST_UID);
+            verify(enterpriseSpaceService).clearSpaceUserCache(TEST_SPACE_ID, "admin-uid");
         }
     }
 
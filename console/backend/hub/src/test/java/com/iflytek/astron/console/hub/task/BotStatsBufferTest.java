@@ -0,0 +1,146 @@
+package com.iflytek.astron.console.hub.task;
+
+import com.iflytek.astron.console.hub.entity.BotConversationStats;
+import com.iflytek.astron.console.hub.mapper.BotConversationStatsMapper;
+import com.iflytek.astron.console.hub.properties.StatsBufferProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class BotStatsBufferTest {
+
+    private final BotConversationStatsMapper mapper = mock(BotConversationStatsMapper.class);
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BotStatsBuffer buffer;
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.destroy();
+        }
+    }
+
+    private BotStatsBuffer newBuffer(int capacity, int batchSize, long flushIntervalMillis) {
+        StatsBufferProperties properties = new StatsBufferProperties();
+        properties.setCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setFlushIntervalMillis(flushIntervalMillis);
+        properties.setShutdownTimeoutMillis(2000);
+        BotStatsBuffer created = new BotStatsBuffer();
+        ReflectionTestUtils.setField(created, "botConversationStatsMapper", mapper);
+        ReflectionTestUtils.setField(created, "properties", properties);
+        ReflectionTestUtils.setField(created, "meterRegistry", meterRegistry);
+        created.init();
+        return created;
+    }
+
+    private static BotConversationStats row(long chatId) {
+        return BotConversationStats.createBuilder().uid("u").botId(1).chatId(chatId).build();
+    }
+
+    @Test
+    void writesRowsInBoundedBatches() {
+        when(mapper.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(0);
+            batchSizes.add(rows.size());
+            return rows.size();
+        });
+        buffer = newBuffer(100, 2, 20);
+
+        for (long i = 0; i < 5; i++) {
+            assertTrue(buffer.offer(row(i)));
+        }
+
+        verify(mapper, timeout(2000).atLeast(3)).insertBatch(anyList());
+        assertEquals(5, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 2));
+    }
+
+    @Test
+    void dropsWhenFullAndFlushesOnShutdown() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mapper.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<?> rows = invocation.getArgument(0);
+            batchSizes.add(rows.size());
+            writing.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return rows.size();
+        });
+        buffer = newBuffer(2, 10, 5);
+
+        // The writer takes the first row and blocks in the insert
+        assertTrue(buffer.offer(row(0)));
+        assertTrue(writing.await(2, TimeUnit.SECONDS));
+        assertTrue(buffer.offer(row(1)));
+        assertTrue(buffer.offer(row(2)));
+        assertFalse(buffer.offer(row(3)));
+
+        release.countDown();
+        buffer.destroy();
+        buffer = null;
+
+        assertEquals(3, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void losesOnlyTheRowTheDatabaseRejects() {
+        List<Long> written = new CopyOnWriteArrayList<>();
+        when(mapper.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<BotConversationStats> rows = invocation.getArgument(0);
+            if (rows.stream().anyMatch(r -> r.getChatId() == 3L)) {
+                throw new DataIntegrityViolationException("Data too long for column 'sid'");
+            }
+            rows.forEach(r -> written.add(r.getChatId()));
+            return rows.size();
+        });
+        buffer = newBuffer(100, 8, 200);
+
+        for (long i = 0; i < 8; i++) {
+            assertTrue(buffer.offer(row(i)));
+        }
+        buffer.destroy();
+        buffer = null;
+
+        assertEquals(List.of(0L, 1L, 2L, 4L, 5L, 6L, 7L), written.stream().sorted().toList());
+        assertEquals(1.0, meterRegistry.counter("bot.stats.buffer.failed").count());
+    }
+
+    @Test
+    void retriesTheBatchOnceAfterATransientFailure() {
+        when(mapper.insertBatch(anyList()))
+                .thenThrow(new TransientDataAccessResourceException("Lock wait timeout exceeded"))
+                .thenAnswer(invocation -> {
+                    List<?> rows = invocation.getArgument(0);
+                    batchSizes.add(rows.size());
+                    return rows.size();
+                });
+        buffer = newBuffer(100, 4, 200);
+
+        for (long i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(row(i)));
+        }
+        buffer.destroy();
+        buffer = null;
+
+        assertEquals(4, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(0.0, meterRegistry.counter("bot.stats.buffer.failed").count());
+    }
+}
@@ -0,0 +1,162 @@
+package com.iflytek.astron.console.hub.task;
+
+import com.iflytek.astron.console.hub.entity.BotConversationStats;
+import com.iflytek.astron.console.hub.entity.BotConversationStatsRollup;
+import com.iflytek.astron.console.hub.mapper.BotConversationStatsRollupMapper;
+import com.iflytek.astron.console.hub.properties.StatsRollupProperties;
+import com.iflytek.astron.console.hub.util.HyperLogLog;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BotStatsRollupTaskTest {
+
+    @Mock
+    private BotConversationStatsRollupMapper rollupMapper;
+
+    private StatsRollupProperties properties;
+
+    private BotStatsRollupTask task;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StatsRollupProperties();
+        task = new BotStatsRollupTask(rollupMapper, properties);
+    }
+
+    private static BotConversationStats raw(int botId, String uid, long chatId, int tokens) {
+        return BotConversationStats.createBuilder().botId(botId).uid(uid).chatId(chatId).tokenConsumed(tokens).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubScan(LocalDateTime hour, BotConversationStats... rows) {
+        doAnswer(invocation -> {
+            ResultHandler<BotConversationStats> handler = invocation.getArgument(2);
+            for (BotConversationStats row : rows) {
+                ResultContext<BotConversationStats> context = mock(ResultContext.class);
+                when(context.getResultObject()).thenReturn(row);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(rollupMapper).scanRaw(eq(hour), eq(hour.plusHours(1)), any());
+    }
+
+    @Test
+    void foldsRawRowsIntoHourlyAndDailyRollups() {
+        LocalDateTime hour = LocalDateTime.of(2025, 3, 1, 9, 0);
+        when(rollupMapper.selectLastHourlyBucket()).thenReturn(null);
+        when(rollupMapper.selectFirstRawTime(null)).thenReturn(hour.plusMinutes(12));
+        when(rollupMapper.selectFirstRawTime(hour.plusHours(1))).thenReturn(null);
+        stubScan(hour, raw(1, "a", 1L, 10), raw(1, "a", 2L, 5), raw(2, "b", 3L, 7));
+        List<BotConversationStatsRollup> hourly = new ArrayList<>();
+        doAnswer(invocation -> {
+            hourly.addAll(invocation.getArgument(0));
+            return hourly.size();
+        }).when(rollupMapper).upsertHourly(anyList());
+        when(rollupMapper.selectHourly(anyList(), eq(hour.toLocalDate().atStartOfDay()), eq(hour.toLocalDate().plusDays(1).atStartOfDay())))
+                .thenAnswer(invocation -> hourly);
+
+        assertEquals(1, task.rollup(LocalDateTime.of(2025, 3, 1, 10, 30)));
+
+        hourly.sort(Comparator.comparing(BotConversationStatsRollup::getBotId));
+        assertEquals(2, hourly.size());
+        BotConversationStatsRollup bot1 = hourly.get(0);
+        assertEquals(hour, bot1.getBucketHour());
+        assertEquals(2L, bot1.getMessageCount());
+        assertEquals(15L, bot1.getTokenCount());
+        assertEquals(1, HyperLogLog.fromBytes(bot1.getUserSketch()).cardinality());
+        assertEquals(2, HyperLogLog.fromBytes(bot1.getChatSketch()).cardinality());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BotConversationStatsRollup>> daily = ArgumentCaptor.forClass(List.class);
+        verify(rollupMapper).upsertDaily(daily.capture());
+        BotConversationStatsRollup day1 = daily.getValue().stream().filter(r -> r.getBotId() == 1).findFirst().orElseThrow();
+        assertEquals(LocalDate.of(2025, 3, 1), day1.getStatDate());
+        assertEquals(2L, day1.getMessageCount());
+        assertEquals(15L, day1.getTokenCount());
+        assertEquals(2, HyperLogLog.fromBytes(day1.getChatSketch()).cardinality());
+    }
+
+    @Test
+    void resumesBeforeLastBucketAndSkipsGaps() {
+        properties.setHoursPerRun(2);
+        LocalDateTime last = LocalDateTime.of(2025, 1, 1, 5, 0);
+        LocalDateTime afterGap = LocalDateTime.of(2025, 2, 1, 8, 0);
+        when(rollupMapper.selectLastHourlyBucket()).thenReturn(last);
+        when(rollupMapper.selectFirstRawTime(last.minusHours(1))).thenReturn(last.minusMinutes(30));
+        when(rollupMapper.selectFirstRawTime(last)).thenReturn(afterGap.plusMinutes(10));
+
+        assertEquals(2, task.rollup(LocalDateTime.of(2025, 3, 1, 0, 0)));
+
+        verify(rollupMapper).scanRaw(eq(last.minusHours(1)), eq(last), any());
+        verify(rollupMapper).scanRaw(eq(afterGap), eq(afterGap.plusHours(1)), any());
+        verify(rollupMapper, never()).upsertHourly(anyList());
+    }
+
+    @Test
+    void purgesOnlyRowsThatWillNotBeFoldedAgain() {
+        properties.setHourlyRetentionDays(0);
+        properties.setRawRetentionDays(1);
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
+        LocalDateTime last = now.minusDays(3);
+        when(rollupMapper.selectLastHourlyBucket()).thenReturn(last);
+        when(rollupMapper.deleteRawBefore(any(), anyInt())).thenReturn(0);
+
+        task.purge(now);
+
+        verify(rollupMapper).deleteRawBefore(last.minusHours(1), 5000);
+        verify(rollupMapper, never()).deleteHourlyBefore(any());
+    }
+
+    @Test
+    void caughtUpOnceOnlyTheCurrentHourIsPending() {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 20);
+        LocalDateTime last = LocalDateTime.of(2025, 3, 10, 11, 0);
+        when(rollupMapper.selectLastHourlyBucket()).thenReturn(last);
+        when(rollupMapper.selectFirstRawTime(last.plusHours(1))).thenReturn(now.minusMinutes(5));
+
+        assertTrue(task.isCaughtUp(now));
+    }
+
+    @Test
+    void notCaughtUpWhileHistoryIsPending() {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 20);
+        when(rollupMapper.selectLastHourlyBucket()).thenReturn(null);
+        when(rollupMapper.selectFirstRawTime(null)).thenReturn(LocalDateTime.of(2024, 6, 1, 8, 0));
+
+        assertFalse(task.isCaughtUp(now));
+    }
+
+    @Test
+    void keepsRawRowsWhileCatchingUp() {
+        properties.setHourlyRetentionDays(0);
+        properties.setRawRetentionDays(1);
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
+        LocalDateTime last = now.minusDays(3);
+        when(rollupMapper.selectLastHourlyBucket()).thenReturn(last);
+        when(rollupMapper.selectFirstRawTime(last.plusHours(1))).thenReturn(last.plusHours(2));
+
+        task.purge(now);
+
+        verify(rollupMapper, never()).deleteRawBefore(any(), anyInt());
+    }
+}
@@ -0,0 +1,54 @@
+package com.iflytek.astron.console.hub.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    private static HyperLogLog of(int from, int to) {
+        HyperLogLog hll = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            hll.add("user-" + i);
+        }
+        return hll;
+    }
+
+    @Test
+    void smallCardinalityIsNearlyExact() {
+        HyperLogLog hll = of(0, 50);
+        hll.add("user-1");
+        hll.add(null);
+
+        assertEquals(50, hll.cardinality(), 1);
+    }
+
+    @Test
+    void largeCardinalityWithinErrorBound() {
+        assertEquals(100_000, of(0, 100_000).cardinality(), 100_000 * 0.05);
+    }
+
+    @Test
+    void mergeCountsTheUnion() {
+        HyperLogLog a = of(0, 6000);
+        a.merge(of(3000, 9000));
+
+        assertEquals(9000, a.cardinality(), 9000 * 0.05);
+    }
+
+    @Test
+    void roundTripsSparseAndDense() {
+        HyperLogLog sparse = of(0, 20);
+        HyperLogLog dense = of(0, 20_000);
+
+        assertTrue(sparse.toBytes().length < 100);
+        assertEquals(sparse.cardinality(), HyperLogLog.fromBytes(sparse.toBytes()).cardinality());
+        assertEquals(dense.cardinality(), HyperLogLog.fromBytes(dense.toBytes()).cardinality());
+        assertEquals(0, HyperLogLog.fromBytes(null).cardinality());
+    }
+
+    @Test
+    void rejectsCorruptedBytes() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] {9, 1, 2}));
+    }
+}
@@ -0,0 +1,115 @@
+package com.iflytek.astron.console.hub.util;
+
+import com.iflytek.astron.console.commons.exception.BusinessException;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedClientPoolTest {
+
+    private MockWebServer server;
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private OkHttpClient newClient() {
+        created.incrementAndGet();
+        return new OkHttpClient();
+    }
+
+    private void turn(OkHttpClient client) throws IOException {
+        server.enqueue(new MockResponse().setBody("data: {}\n\n"));
+        try (Response response = client.newCall(new Request.Builder().url(server.url("/v1/chat")).build()).execute()) {
+            assertEquals("data: {}\n\n", response.body().string());
+        }
+    }
+
+    @Test
+    void testAcquire_ReusesClientConnectionAcrossTurns() throws Exception {
+        KeyedClientPool<String, OkHttpClient> pool = new KeyedClientPool<>(key -> newClient(), 4, 0, 30);
+
+        for (int i = 0; i < 3; i++) {
+            try (KeyedClientPool.Lease<OkHttpClient> lease = pool.acquire("spark-x1")) {
+                turn(lease.client());
+            }
+        }
+
+        // One client built, and every later turn rides the first connection
+        assertEquals(1, created.get());
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        assertEquals(2, server.takeRequest().getSequenceNumber());
+    }
+
+    @Test
+    void testNewClientPerTurn_OpensNewConnectionEachTime() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            turn(newClient());
+        }
+
+        // Baseline: the per-turn setup is repeated and no connection is shared
+        assertEquals(3, created.get());
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+    }
+
+    @Test
+    void testAcquire_KeysAreIsolated() {
+        KeyedClientPool<String, OkHttpClient> pool = new KeyedClientPool<>(key -> newClient(), 4, 0, 30);
+
+        try (KeyedClientPool.Lease<OkHttpClient> x1 = pool.acquire("spark-x1");
+                KeyedClientPool.Lease<OkHttpClient> ultra = pool.acquire("spark-ultra")) {
+            assertNotSame(x1.client(), ultra.client());
+        }
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void testAcquire_RejectsStreamsOverCapUntilReleased() {
+        KeyedClientPool<String, OkHttpClient> pool = new KeyedClientPool<>(key -> newClient(), 1, 0, 30);
+
+        KeyedClientPool.Lease<OkHttpClient> first = pool.acquire("spark-x1");
+        assertThrows(BusinessException.class, () -> pool.acquire("spark-x1"));
+
+        // Closing twice must not hand out an extra slot
+        first.close();
+        first.close();
+        KeyedClientPool.Lease<OkHttpClient> second = pool.acquire("spark-x1");
+        assertThrows(BusinessException.class, () -> pool.acquire("spark-x1"));
+        second.close();
+    }
+
+    @Test
+    void testAcquire_CapSurvivesEvictionWithStreamsOpen() {
+        // Idle time of zero evicts the client on every access
+        KeyedClientPool<String, OkHttpClient> pool = new KeyedClientPool<>(key -> newClient(), 1, 0, 0);
+
+        KeyedClientPool.Lease<OkHttpClient> first = pool.acquire("spark-x1");
+        assertThrows(BusinessException.class, () -> pool.acquire("spark-x1"));
+        assertTrue(created.get() >= 2);
+
+        first.close();
+        pool.acquire("spark-x1").close();
+    }
+}
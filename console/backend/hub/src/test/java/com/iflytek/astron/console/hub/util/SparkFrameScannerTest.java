@@ -0,0 +1,65 @@
+package com.iflytek.astron.console.hub.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparkFrameScannerTest {
+
+    @Test
+    void testScan_ContentFrame() {
+        String data = "{\"code\":0,\"message\":\"Success\",\"sid\":\"cht000\",\"id\":\"cht000\",\"created\":1719546390,"
+                + "\"choices\":[{\"delta\":{\"role\":\"assistant\",\"content\":\"Hello \\\"world\\\"\",\"reasoning_content\":\"\"},\"index\":0}],"
+                + "\"usage\":{\"prompt_tokens\":6,\"completion_tokens\":42,\"total_tokens\":48}}";
+
+        SparkFrameScanner.Frame frame = SparkFrameScanner.scan(data);
+
+        assertFalse(frame.isRewriteRequired());
+        assertEquals(0, frame.getCode());
+        assertEquals("cht000", frame.getSid());
+        assertEquals("Hello \"world\"", frame.getContent());
+        assertEquals("", frame.getReasoningContent());
+    }
+
+    @Test
+    void testScan_NoChoices() {
+        SparkFrameScanner.Frame frame = SparkFrameScanner.scan("{\"code\":0,\"sid\":\"s1\",\"choices\":[]}");
+
+        assertFalse(frame.isRewriteRequired());
+        assertEquals("s1", frame.getSid());
+        assertNull(frame.getContent());
+    }
+
+    @Test
+    void testScan_ErrorCodeRequiresRewrite() {
+        SparkFrameScanner.Frame frame = SparkFrameScanner.scan("{\"code\":10013,\"message\":\"Violation\"}");
+
+        assertTrue(frame.isRewriteRequired());
+        assertEquals(10013, frame.getCode());
+    }
+
+    @Test
+    void testScan_MissingCodeRequiresRewrite() {
+        assertTrue(SparkFrameScanner.scan("{\"choices\":[]}").isRewriteRequired());
+    }
+
+    @Test
+    void testScan_ToolCallsRequireRewrite() {
+        String data = "{\"code\":0,\"choices\":[{\"delta\":{\"tool_calls\":[{\"type\":\"web_search\",\"web_search\":{}}]}}]}";
+
+        assertTrue(SparkFrameScanner.scan(data).isRewriteRequired());
+    }
+
+    @Test
+    void testScan_TraceChoiceRequiresRewrite() {
+        String data = "{\"code\":0,\"choices\":[{\"delta\":{\"content\":\"a\"}},{\"delta\":{\"tool_calls\":[]}}]}";
+
+        assertTrue(SparkFrameScanner.scan(data).isRewriteRequired());
+    }
+
+    @Test
+    void testScan_InvalidJsonRequiresRewrite() {
+        assertTrue(SparkFrameScanner.scan("{invalid json").isRewriteRequired());
+        assertTrue(SparkFrameScanner.scan("[1,2]").isRewriteRequired());
+    }
+}
@@ -0,0 +1,146 @@
+package com.iflytek.astron.console.toolkit.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.iflytek.astron.console.commons.entity.workflow.Workflow;
+import com.iflytek.astron.console.toolkit.entity.biz.external.app.AkSk;
+import com.iflytek.astron.console.toolkit.entity.biz.workflow.BizWorkflowData;
+import com.iflytek.astron.console.toolkit.mapper.workflow.WorkflowMapper;
+import com.iflytek.astron.console.toolkit.service.extra.AppService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsed workflow protocols and resolved app credentials used by workflow chat.
+ * <p>
+ * A protocol entry is keyed by flowId and stamped with the {@code update_time} of the row it was
+ * parsed from. Callers pass a projection of the row without {@code data}; the column is only read
+ * and parsed again when the stamp differs, and {@code update_time} is bumped by MySQL on every
+ * update, so a row changed by any writer or on another node is re-parsed on its next read. Save,
+ * publish and version restore also invalidate the entry explicitly, which covers two writes within
+ * the same second on this node. Cached protocols are shared across requests and must not be
+ * modified by callers.
+ */
+@Slf4j
+@Component
+public class WorkflowProtocolCache {
+
+    @Autowired
+    private AppService appService;
+
+    @Autowired
+    private WorkflowMapper workflowMapper;
+
+    @Value("${workflow.protocol-cache.maximum-size:2000}")
+    private long maximumSize;
+
+    @Value("${workflow.protocol-cache.expire-minutes:30}")
+    private long expireMinutes;
+
+    /**
+     * Credentials can be rotated on the app platform, so they are kept for a short period only
+     */
+    @Value("${workflow.protocol-cache.credential-expire-seconds:300}")
+    private long credentialExpireSeconds;
+
+    private Cache<String, ProtocolEntry> protocols;
+
+    private Cache<String, AkSk> credentials;
+
+    @PostConstruct
+    public void init() {
+        protocols = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireMinutes, TimeUnit.MINUTES)
+                .build();
+        credentials = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(credentialExpireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Get the parsed protocol of a workflow row
+     *
+     * @param workflow Projection of the row with id, flowId and updateTime, data is not needed
+     * @return Parsed protocol, or null if the workflow has no data
+     */
+    public BizWorkflowData getData(Workflow workflow) {
+        ProtocolEntry entry = protocols.getIfPresent(workflow.getFlowId());
+        if (entry != null && entry.stamp() == stampOf(workflow)) {
+            return entry.data();
+        }
+        // Stamp the entry with the update time read together with the data
+        Workflow row = workflowMapper.selectOne(Wrappers.lambdaQuery(Workflow.class)
+                .select(Workflow::getId, Workflow::getData, Workflow::getUpdateTime)
+                .eq(Workflow::getId, workflow.getId()));
+        if (row == null || StringUtils.isBlank(row.getData())) {
+            protocols.invalidate(workflow.getFlowId());
+            return null;
+        }
+        BizWorkflowData parsed = freeze(JSON.parseObject(row.getData(), BizWorkflowData.class));
+        protocols.put(workflow.getFlowId(), new ProtocolEntry(stampOf(row), parsed));
+        return parsed;
+    }
+
+    /**
+     * Get app credentials, calling the app platform only on a miss
+     *
+     * @param appId App ID
+     * @return Credentials of the app
+     */
+    public AkSk getAkSk(String appId) {
+        AkSk akSk;
+        try {
+            akSk = credentials.get(appId, () -> appService.remoteCallAkSk(appId));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return new AkSk(akSk.getApiKey(), akSk.getApiSecret());
+    }
+
+    /**
+     * Drop the parsed protocol of a workflow after its data changed
+     *
+     * @param flowId Flow ID
+     */
+    public void invalidate(String flowId) {
+        if (flowId != null) {
+            protocols.invalidate(flowId);
+        }
+    }
+
+    private static long stampOf(Workflow workflow) {
+        return workflow.getUpdateTime() == null ? 0L : workflow.getUpdateTime().getTime();
+    }
+
+    private static BizWorkflowData freeze(BizWorkflowData data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.getNodes() != null) {
+            data.setNodes(Collections.unmodifiableList(data.getNodes()));
+        }
+        if (data.getEdges() != null) {
+            data.setEdges(Collections.unmodifiableList(data.getEdges()));
+        }
+        return data;
+    }
+
+    private record ProtocolEntry(long stamp, BizWorkflowData data) {
+    }
+}
@@ -76,4 +76,46 @@ public class JooqBatchExecutor {
         }
         return sum;
     }
+
+    /**
+     * Execute one batch as a single multi-row statement. Retryable failures retry the whole batch; if
+     * the batch still fails, its rows are executed one by one so that only the offending rows are
+     * reported. Results are added to {@code sum}, with row indexes offset by {@code startIndex}.
+     */
+    public static void executeBatch(
+            List<Map<String, Object>> rows,
+            int startIndex,
+            int maxRetries,
+            Function<List<Map<String, Object>>, Query> batchBuilder,
+            Function<Map<String, Object>, Query> rowBuilder,
+            SqlSender sender,
+            ResultSummary sum) {
+        if (rows == null || rows.isEmpty())
+            return;
+
+        int attempts = 0;
+        while (true) {
+            try {
+                Query q = batchBuilder.apply(rows);
+                sender.send(q.getSQL(), q.getBindValues());
+                sum.success += rows.size();
+                return;
+            } catch (Throwable ex) {
+                attempts++;
+                if (attempts <= maxRetries && JooqRetry.isRetryable(ex)) {
+                    JooqRetry.sleepBackoff(attempts, 50, 1000);
+                    continue;
+                }
+                break;
+            }
+        }
+
+        // Fall back to row by row to locate the failed rows
+        ResultSummary part = executeInChunks(null, null, rows, rows.size(), maxRetries, rowBuilder, sender);
+        sum.success += part.success;
+        sum.failed += part.failed;
+        for (RowError err : part.errors) {
+            sum.errors.add(new RowError(startIndex + err.index, err.row, err.message));
+        }
+    }
 }
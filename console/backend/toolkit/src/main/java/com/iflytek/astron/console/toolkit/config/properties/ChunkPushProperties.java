@@ -0,0 +1,20 @@
+package com.iflytek.astron.console.toolkit.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task.chunk-push")
+public class ChunkPushProperties {
+    /** Chunks sent to the external knowledge base in one request */
+    private int batchSize = 200;
+    /** Worker threads shared by all pushes */
+    private int concurrency = 6;
+    /** Batches of one document that may be pushing or queued at the same time */
+    private int maxInFlightBatches = 3;
+    /** Attempts per batch, including the first one */
+    private int maxAttempts = 3;
+    private long initialBackoffMillis = 500;
+    private long maxBackoffMillis = 5000;
+    private String threadNamePrefix = "chunk-push-";
+}
@@ -0,0 +1,28 @@
+package com.iflytek.astron.console.toolkit.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task.ingestion")
+public class IngestionPipelineProperties {
+    /** Hands files over to the knowledge service, which parses and splits them in one call */
+    private StageLimit slice = new StageLimit(4, 500);
+    private StageLimit embed = new StageLimit(4, 500);
+    /** Delay before a worker waiting for an earlier stage checks again */
+    private long pollIntervalMillis = 2000;
+    /** A worker still waiting for an earlier stage after this long is dropped */
+    private long maxWaitMinutes = 60;
+    private String threadNamePrefix = "ingestion-";
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageLimit {
+        private int concurrency;
+        /** Files admitted to the stage but not yet running, across all tenants */
+        private int queueCapacity;
+    }
+}
@@ -2,6 +2,8 @@
 package com.iflytek.astron.console.toolkit.config.thread;
 
 import com.iflytek.astron.console.toolkit.config.properties.AsyncExecutorProperties;
+import com.iflytek.astron.console.toolkit.config.properties.ChunkPushProperties;
+import com.iflytek.astron.console.toolkit.config.properties.IngestionPipelineProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
@@ -21,7 +23,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 @Slf4j
 @Configuration
 @EnableAsync
-@EnableConfigurationProperties(AsyncExecutorProperties.class)
+@EnableConfigurationProperties({AsyncExecutorProperties.class, IngestionPipelineProperties.class, ChunkPushProperties.class})
 @RequiredArgsConstructor
 public class AsyncExecutorConfig implements AsyncConfigurer {
 
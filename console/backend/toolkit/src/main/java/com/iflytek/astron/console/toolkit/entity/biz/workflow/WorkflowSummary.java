@@ -0,0 +1,36 @@
+package com.iflytek.astron.console.toolkit.entity.biz.workflow;
+
+import com.iflytek.astron.console.commons.entity.workflow.Workflow;
+import com.iflytek.astron.console.toolkit.entity.table.workflow.WorkflowVersion;
+import lombok.Data;
+
+/**
+ * Denormalised summary of a workflow protocol, persisted next to data on workflow and version rows
+ */
+@Data
+public class WorkflowSummary {
+    /**
+     * IO inversion JSON, null if the protocol has no start/end node pair
+     */
+    String ioSummary;
+    Integer nodeCount;
+    /**
+     * MD5 of the inverted input and output names, types and required flags
+     */
+    String ioDigest;
+    Boolean hasQaNode;
+
+    public void applyTo(Workflow workflow) {
+        workflow.setIoSummary(ioSummary);
+        workflow.setNodeCount(nodeCount);
+        workflow.setIoDigest(ioDigest);
+        workflow.setHasQaNode(hasQaNode);
+    }
+
+    public void applyTo(WorkflowVersion version) {
+        version.setIoSummary(ioSummary);
+        version.setNodeCount(nodeCount);
+        version.setIoDigest(ioDigest);
+        version.setHasQaNode(hasQaNode);
+    }
+}
@@ -17,4 +17,15 @@ public class DbTableSelectDataDto implements Serializable {
     private Long pageNum;
 
     private Long pageSize;
+
+    /**
+     * Seek pagination: empty string for the first page, then the {@code nextCursor} of the previous
+     * page. When null, {@code pageNum} paging is used.
+     */
+    private String cursor;
+
+    /**
+     * Count the total rows. Defaults to true for {@code pageNum} paging and false for cursor paging.
+     */
+    private Boolean withTotal;
 }
@@ -40,6 +40,12 @@ public class FileDirectoryTree implements Serializable {
      */
     private Integer isFile;
 
+    /**
+     * Ids of all ancestors from the root down to the parent, e.g. /3/17/ ; / for top-level nodes, null
+     * when unresolved
+     */
+    private String ancestorPath;
+
     /**
      * Associated app ID
      */
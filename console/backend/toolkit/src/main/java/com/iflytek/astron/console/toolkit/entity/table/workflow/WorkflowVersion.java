@@ -1,18 +1,21 @@
 package com.iflytek.astron.console.toolkit.entity.table.workflow;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.iflytek.astron.console.toolkit.handler.CompressedTextTypeHandler;
 import lombok.Data;
 
 import java.util.Date;
 
 @Data
+@TableName(autoResultMap = true)
 public class WorkflowVersion {
     @TableId(type = IdType.AUTO)
     Long id;
     String botId;
     String name;
     String versionNum;
-    // Workflow protocol data
+    // Workflow protocol data, stored compressed
+    @TableField(typeHandler = CompressedTextTypeHandler.class)
     String data;
     String flowId;
     Long deleted;
@@ -20,7 +23,8 @@ public class WorkflowVersion {
     Date createdTime;
     Date updatedTime;
     Long isVersion;
-    // Core system protocol data
+    // Core system protocol data, stored compressed
+    @TableField(typeHandler = CompressedTextTypeHandler.class)
     String sysData;
     String description;
     // Publish channel
@@ -31,6 +35,13 @@ public class WorkflowVersion {
      * Advanced configuration
      */
     String advancedConfig;
+    /**
+     * Summary of data, see Workflow
+     */
+    String ioSummary;
+    Integer nodeCount;
+    String ioDigest;
+    Boolean hasQaNode;
     @TableField(exist = false)
     String flowConfig;
 }
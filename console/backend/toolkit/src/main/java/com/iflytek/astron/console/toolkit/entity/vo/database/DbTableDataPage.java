@@ -0,0 +1,30 @@
+package com.iflytek.astron.console.toolkit.entity.vo.database;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Page of table data that also carries the seek cursor of the next page
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class DbTableDataPage<T> extends Page<T> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Pass back as {@code cursor} to read the next page, null on the last page
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    /**
+     * Whether {@code total} was counted for this request
+     */
+    private boolean totalCounted;
+
+    public DbTableDataPage(long current, long size) {
+        super(current, size);
+    }
+}
@@ -0,0 +1,117 @@
+package com.iflytek.astron.console.toolkit.handler;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores large text columns zlib-compressed in the format of MySQL {@code COMPRESS()}: the
+ * uncompressed byte length as 4 bytes low byte first, followed by the zlib stream. Values stay
+ * readable with {@code UNCOMPRESS()} in SQL, and uncompressed legacy values are returned as is.
+ * Bound per field only, never registered for String globally.
+ */
+public class CompressedTextTypeHandler extends BaseTypeHandler<String> {
+
+    private static final int HEADER_LENGTH = 4;
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+        ps.setBytes(i, compress(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return decompress(rs.getBytes(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return decompress(rs.getBytes(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return decompress(cs.getBytes(columnIndex));
+    }
+
+    public static byte[] compress(String value) {
+        byte[] input = value.getBytes(StandardCharsets.UTF_8);
+        if (input.length == 0) {
+            return input;
+        }
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 4 + 64);
+            out.write(input.length & 0xFF);
+            out.write((input.length >>> 8) & 0xFF);
+            out.write((input.length >>> 16) & 0xFF);
+            out.write((input.length >>> 24) & 0x3F);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String decompress(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (!isCompressed(stored)) {
+            return new String(stored, StandardCharsets.UTF_8);
+        }
+        int length = (stored[0] & 0xFF)
+                | (stored[1] & 0xFF) << 8
+                | (stored[2] & 0xFF) << 16
+                | (stored[3] & 0x3F) << 24;
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, HEADER_LENGTH, stored.length - HEADER_LENGTH);
+            byte[] output = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(output, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                return new String(stored, StandardCharsets.UTF_8);
+            }
+            return new String(output, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            // Plain text that happens to look like a header
+            return new String(stored, StandardCharsets.UTF_8);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * A zlib header follows the length: CMF 0x78 and a check value making CMF/FLG a multiple of 31
+     */
+    private static boolean isCompressed(byte[] stored) {
+        if (stored.length < HEADER_LENGTH + 2) {
+            return false;
+        }
+        int cmf = stored[HEADER_LENGTH] & 0xFF;
+        int flg = stored[HEADER_LENGTH + 1] & 0xFF;
+        return cmf == 0x78 && ((cmf << 8) | flg) % 31 == 0;
+    }
+}
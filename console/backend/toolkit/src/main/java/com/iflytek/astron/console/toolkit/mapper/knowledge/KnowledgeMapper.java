@@ -89,4 +89,9 @@ public interface KnowledgeMapper extends BaseMapper<MysqlKnowledge> {
      * Count knowledge entries by fileId list and audit type
      */
     Long countByFileIdInAndAuditType(@Param("fileIds") List<String> fileIds, @Param("auditType") Integer auditType);
+
+    /**
+     * Batch insert knowledge entries, ids must be assigned by the caller
+     */
+    int insertBatch(@Param("list") List<MysqlKnowledge> list);
 }
@@ -37,4 +37,7 @@ public interface FileDirectoryTreeMapper extends BaseMapper<FileDirectoryTree> {
 
     Integer getModelCountByRepoIdAndFileUUIDS(@Param("repoId") String repoId, @Param("sourceId") String sourceId);
 
+    // Add each increment to the hit_count of its directory tree id in one statement
+    int incrementHitCounts(@Param("increments") Map<Long, Long> increments);
+
 }
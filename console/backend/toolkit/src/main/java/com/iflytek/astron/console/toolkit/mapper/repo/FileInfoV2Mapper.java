@@ -22,6 +22,8 @@ import java.util.List;
 public interface FileInfoV2Mapper extends BaseMapper<FileInfoV2> {
     List<FileInfoV2> listByIds(@Param("ids") List<Long> ids);
 
+    List<FileInfoV2> listByUuids(@Param("uuids") List<String> uuids);
+
     List<FileInfoV2> getFileInfoV2UUIDS(@Param("repoSourceId") String repoSourceId, @Param("sourceIds") List<String> sourceIds);
 
     List<FileInfoV2> getFileInfoV2ByNames(@Param("repoSourceId") String repoCoreId, @Param("fileNames") List<String> fileNames);
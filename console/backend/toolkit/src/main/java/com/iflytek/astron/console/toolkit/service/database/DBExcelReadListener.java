@@ -13,25 +13,30 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Read Excel -> Generate structured row data (each row Map<column name, value>), avoid SQL
  * concatenation. - Validate headers and required fields - Null values fall back to field default
- * values/type default values - Can set maximum row limit
+ * values/type default values - Can set maximum row limit - Can hand rows over in bounded batches
+ * while reading instead of keeping the whole file in memory
  */
 public class DBExcelReadListener extends AnalysisEventListener<Map<Integer, String>> {
 
-    private static final String[] SYSTEM_FIELDS = {"id", "uid", "create_time"};
+    private static final Set<String> SYSTEM_FIELDS = Set.of("id", "uid", "create_time");
     private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private final List<DbTableField> tableFields;
     private final List<Map<String, Object>> rowsSink; // Output container
     private final String uid; // Automatically add uid to each row
     private final int maxRows; // Read limit (prevent explosion)
+    private final int batchSize; // Rows per batch handed to batchConsumer
+    private final Consumer<List<Map<String, Object>>> batchConsumer; // Null: keep all rows in rowsSink
 
-    private List<String> expectedHeaders;
-    private List<String> notNullFieldsList;
+    /** Column binding by cell index, built once from the header row */
+    private List<ColumnBinding> columns;
 
     private int accepted = 0;
     private boolean headerValidated = false;
@@ -45,29 +50,54 @@ public class DBExcelReadListener extends AnalysisEventListener<Map<Integer, Stri
         this.rowsSink = Objects.requireNonNull(rowsSink);
         this.uid = uid;
         this.maxRows = Math.max(1, maxRows);
+        this.batchSize = 0;
+        this.batchConsumer = null;
+    }
+
+    /**
+     * Streaming usage: every {@code batchSize} rows are passed to {@code batchConsumer}, the remainder
+     * after the last row. The consumer owns the list it receives.
+     */
+    public DBExcelReadListener(List<DbTableField> tableFields,
+            String uid,
+            int maxRows,
+            int batchSize,
+            Consumer<List<Map<String, Object>>> batchConsumer) {
+        this.tableFields = Objects.requireNonNull(tableFields);
+        this.batchSize = Math.max(1, batchSize);
+        this.rowsSink = new ArrayList<>(this.batchSize);
+        this.uid = uid;
+        this.maxRows = Math.max(1, maxRows);
+        this.batchConsumer = Objects.requireNonNull(batchConsumer);
     }
 
     @Override
     public void invokeHeadMap(Map<Integer, String> headMap, AnalysisContext context) {
         List<String> actualHeaders = new ArrayList<>(headMap.values());
 
-        expectedHeaders = tableFields.stream()
-                .map(DbTableField::getName)
-                .filter(n -> !Arrays.asList(SYSTEM_FIELDS).contains(n))
-                .collect(Collectors.toList());
-
-        notNullFieldsList = tableFields.stream()
-                .filter(f -> !Arrays.asList(SYSTEM_FIELDS).contains(f.getName()))
-                .filter(DbTableField::getIsRequired)
+        List<String> expectedHeaders = tableFields.stream()
                 .map(DbTableField::getName)
+                .filter(n -> !SYSTEM_FIELDS.contains(n))
                 .collect(Collectors.toList());
 
         // Here requires consistent order: maintain consistency with your original logic
         if (!CollectionUtils.isEqualCollection(expectedHeaders, actualHeaders)) {
             throw new IllegalArgumentException("Header mismatch! Expected headers: " + expectedHeaders + ", Actual headers: " + actualHeaders);
-        } else {
-            expectedHeaders = actualHeaders;
         }
+
+        Map<String, DbTableField> fieldsByName = new HashMap<>();
+        for (DbTableField f : tableFields) {
+            fieldsByName.putIfAbsent(f.getName(), f);
+        }
+        List<ColumnBinding> bindings = new ArrayList<>(actualHeaders.size());
+        for (String header : actualHeaders) {
+            DbTableField meta = fieldsByName.get(header);
+            if (meta == null) {
+                throw new BusinessException(ResponseEnum.RESPONSE_FAILED, "Field " + header + " does not exist!");
+            }
+            bindings.add(new ColumnBinding(header, meta, Boolean.TRUE.equals(meta.getIsRequired()), converterFor(meta.getType())));
+        }
+        columns = bindings;
         headerValidated = true;
     }
 
@@ -83,26 +113,30 @@ public class DBExcelReadListener extends AnalysisEventListener<Map<Integer, Stri
         Map<String, Object> out = new LinkedHashMap<>();
         out.put("uid", uid);
 
-        for (int i = 0; i < expectedHeaders.size(); i++) {
-            String header = expectedHeaders.get(i);
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnBinding column = columns.get(i);
             String raw = row.get(i); // Cell raw value (may be null)
-            DbTableField meta = tableFields.stream()
-                    .filter(f -> f.getName().equals(header))
-                    .findFirst()
-                    .orElseThrow(() -> new BusinessException(ResponseEnum.RESPONSE_FAILED, "Field " + header + " does not exist!"));
 
             Object v;
             if (StringUtils.isBlank(raw)) {
                 // Null value: required -> use field default value; not required -> type default value (or null)
-                v = chooseDefault(meta, notNullFieldsList.contains(header));
+                v = chooseDefault(column.meta(), column.required());
             } else {
-                v = parseByType(raw, meta.getType());
+                try {
+                    v = column.converter().apply(raw);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Row " + (accepted + 1) + ", column " + column.name()
+                            + ": cannot convert '" + raw + "' to " + column.meta().getType(), e);
+                }
             }
-            out.put(header, v);
+            out.put(column.name(), v);
         }
 
         rowsSink.add(out);
         accepted++;
+        if (batchConsumer != null && rowsSink.size() >= batchSize) {
+            flushBatch();
+        }
     }
 
     @Override
@@ -110,27 +144,44 @@ public class DBExcelReadListener extends AnalysisEventListener<Map<Integer, Stri
         if (accepted == 0) {
             throw new IllegalArgumentException("No valid data in file, please check if excel data is correct!");
         }
+        if (batchConsumer != null && !rowsSink.isEmpty()) {
+            flushBatch();
+        }
+    }
+
+    private void flushBatch() {
+        List<Map<String, Object>> batch = new ArrayList<>(rowsSink);
+        rowsSink.clear();
+        batchConsumer.accept(batch);
     }
 
     // Helper: Parse and default values
 
-    private Object parseByType(String s, String type) {
-        String t = StringUtils.lowerCase(type);
+    private record ColumnBinding(String name, DbTableField meta, boolean required, Function<String, Object> converter) {
+    }
+
+    /** Cell converter for a field type, resolved once per column */
+    private Function<String, Object> converterFor(String type) {
+        String t = StringUtils.defaultString(StringUtils.lowerCase(type));
         switch (t) {
             case CommonConst.DBFieldType.INTEGER:
-                return Long.parseLong(s.trim());
+                return s -> Long.parseLong(s.trim());
             case CommonConst.DBFieldType.NUMBER:
-                return new BigDecimal(s.trim());
+                return s -> new BigDecimal(s.trim());
             case CommonConst.DBFieldType.BOOLEAN:
-                return parseBoolean(s);
+                return this::parseBoolean;
             case CommonConst.DBFieldType.TIME:
                 // Require standard format to avoid ambiguity in smart parsing
-                return LocalDateTime.parse(s.trim(), TS);
+                return s -> LocalDateTime.parse(s.trim(), TS);
             default:
-                return s; // String as is
+                return s -> s; // String as is
         }
     }
 
+    private Object parseByType(String s, String type) {
+        return converterFor(type).apply(s);
+    }
+
     private Object chooseDefault(DbTableField f, boolean required) {
         String t = StringUtils.lowerCase(f.getType());
         String def = f.getDefaultValue();
@@ -1,6 +1,8 @@
 package com.iflytek.astron.console.toolkit.service.database;
 
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
 import com.alibaba.fastjson2.JSONObject;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
@@ -13,6 +15,7 @@ import com.iflytek.astron.console.commons.constant.ResponseEnum;
 import com.iflytek.astron.console.commons.exception.BusinessException;
 import com.iflytek.astron.console.toolkit.common.constant.CommonConst;
 import com.iflytek.astron.console.toolkit.config.jooq.JooqBatchExecutor;
+import com.iflytek.astron.console.toolkit.config.jooq.SqlSender;
 import com.iflytek.astron.console.toolkit.config.properties.CommonConfig;
 import com.iflytek.astron.console.toolkit.entity.dto.database.*;
 import com.iflytek.astron.console.toolkit.entity.enumVo.DBOperateEnum;
@@ -34,11 +37,16 @@ import org.apache.commons.lang3.StringUtils;
 import org.jooq.*;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.Comparator;
@@ -92,6 +100,14 @@ public class DatabaseService extends ServiceImpl<DbInfoMapper, DbInfo> {
     // New additions in DatabaseService
     private static final int MAX_PAGE_SIZE = 1000; // Prevent explosion
     private static final int MAX_EXPORT_IDS = 1000; // IN clause limit
+    /** Set on an export cut off at the row limit, carries the limit */
+    static final String EXPORT_TRUNCATED_HEADER = "X-Export-Truncated";
+
+    @Value("${database.export.page-size:1000}")
+    private int exportPageSize;
+
+    @Value("${database.export.max-rows:100000}")
+    private long exportMaxRows;
 
     @Transactional
     public DbInfo create(DatabaseDto databaseDto) {
@@ -1019,21 +1035,37 @@ public class DatabaseService extends ServiceImpl<DbInfoMapper, DbInfo> {
     public Page<JSONObject> selectTableData(DbTableSelectDataDto dto) {
         dataPermissionCheckTool.checkTbBelong(dto.getTbId());
         try {
-            Page<JSONObject> page = new Page<>(dto.getPageNum(), dto.getPageSize());
+            boolean seek = dto.getCursor() != null;
+            DbTableDataPage<JSONObject> page = new DbTableDataPage<>(
+                    seek || dto.getPageNum() == null ? 1 : dto.getPageNum(),
+                    dto.getPageSize() == null ? 10 : dto.getPageSize());
             page.setSize(Math.min(page.getSize(), MAX_PAGE_SIZE));
 
             DbTable dbTable = dbTableMapper.selectById(dto.getTbId());
             DbInfo dbInfo = dbInfoMapper.selectById(dbTable.getDbId());
 
-            String table = SqlRenderer.quoteIdent(dbTable.getName());
             long limit = page.getSize();
             long offset = (page.getCurrent() - 1) * page.getSize();
             if (limit < 0 || offset < 0)
                 throw new IllegalArgumentException("Bad paging");
 
-            String dml = "SELECT * FROM " + table + " ORDER BY " +
-                    SqlRenderer.quoteIdent("create_time") + " DESC, " + SqlRenderer.quoteIdent("id") + " DESC" +
-                    " LIMIT " + limit + " OFFSET " + offset;
+            String dml;
+            if (seek) {
+                // Seek on the primary key: ids are snowflake ids, so id order follows insertion order, and
+                // the cost does not grow with the page number. One extra row tells whether there is more.
+                Field<Object> id = field(name("id"));
+                Long afterId = decodeCursor(dto.getCursor());
+                dml = dslCon.selectFrom(table(name(dbTable.getName())))
+                        .where(afterId == null ? noCondition() : id.lt(afterId))
+                        .orderBy(id.desc())
+                        .limit(limit + 1)
+                        .getSQL();
+            } else {
+                String table = SqlRenderer.quoteIdent(dbTable.getName());
+                dml = "SELECT * FROM " + table + " ORDER BY " +
+                        SqlRenderer.quoteIdent("create_time") + " DESC, " + SqlRenderer.quoteIdent("id") + " DESC" +
+                        " LIMIT " + limit + " OFFSET " + offset;
+            }
             SqlRenderer.denyMultiStmtOrComment(dml);
 
             List<JSONObject> maps = (List<JSONObject>) coreSystemService.execDML(
@@ -1044,16 +1076,33 @@ public class DatabaseService extends ServiceImpl<DbInfoMapper, DbInfo> {
                     DBOperateEnum.SELECT.getCode(),
                     dto.getExecDev());
 
-            String countDml = "SELECT COUNT(*) FROM " + table;
-            Long total = (Long) coreSystemService.execDML(
-                    countDml,
-                    UserInfoManagerHandler.getUserId(),
-                    SpaceInfoUtil.getSpaceId(),
-                    dbInfo.getDbId(),
-                    DBOperateEnum.SELECT_TOTAL_COUNT.getCode(),
-                    dto.getExecDev());
+            if (seek) {
+                page.setHasMore(maps.size() > limit);
+                if (page.isHasMore()) {
+                    maps = new ArrayList<>(maps.subList(0, (int) limit));
+                }
+                page.setNextCursor(page.isHasMore() && !maps.isEmpty()
+                        ? encodeCursor(maps.get(maps.size() - 1).getString("id"))
+                        : null);
+            }
 
-            page.setTotal(total == null ? 0 : total);
+            // COUNT(*) scans the whole table, so cursor paging only counts when asked to
+            boolean withTotal = seek ? Boolean.TRUE.equals(dto.getWithTotal()) : !Boolean.FALSE.equals(dto.getWithTotal());
+            if (withTotal) {
+                String countDml = "SELECT COUNT(*) FROM " + SqlRenderer.quoteIdent(dbTable.getName());
+                Long total = (Long) coreSystemService.execDML(
+                        countDml,
+                        UserInfoManagerHandler.getUserId(),
+                        SpaceInfoUtil.getSpaceId(),
+                        dbInfo.getDbId(),
+                        DBOperateEnum.SELECT_TOTAL_COUNT.getCode(),
+                        dto.getExecDev());
+                page.setTotal(total == null ? 0 : total);
+                page.setTotalCounted(true);
+                if (!seek) {
+                    page.setHasMore(offset + maps.size() < page.getTotal());
+                }
+            }
             page.setRecords(maps);
             return page;
         } catch (Exception ex) {
@@ -1062,7 +1111,31 @@ public class DatabaseService extends ServiceImpl<DbInfoMapper, DbInfo> {
         }
     }
 
+    /**
+     * Opaque cursor of a seek page, wrapping the id of its last row
+     */
+    static String encodeCursor(String lastId) {
+        long id = SqlRenderer.requireLong(lastId, "id");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return Id to continue after, null for the first page
+     */
+    static Long decodeCursor(String cursor) {
+        if (StringUtils.isBlank(cursor)) {
+            return null;
+        }
+        String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        return SqlRenderer.requireLong(raw, "cursor");
+    }
+
 
+    /**
+     * Import the rows of an Excel sheet. The file is read twice: the first pass converts every cell and
+     * rejects the whole file on the first bad value, the second inserts it in batches. The insert itself
+     * is not atomic, rows the database refuses are reported as failures while the others stay.
+     */
     public void importTableData(Long tbId, Integer execDev, MultipartFile file) {
         dataPermissionCheckTool.checkTbBelong(tbId);
         try {
@@ -1073,46 +1146,68 @@ public class DatabaseService extends ServiceImpl<DbInfoMapper, DbInfo> {
                     .eq(DbTableField::getTbId, tbId)
                     .orderByDesc(DbTableField::getCreateTime));
 
-            // 1) read Excel -> rows
-            List<Map<String, Object>> rows = new ArrayList<>();
+            // 1) validate and convert the whole file without writing; 2) read it again in bounded batches and
+            // send each batch as one multi-row INSERT, falling back to row by row (retry + error collection)
+            // when the batch fails
+            final int BATCH = 500, MAX_ROWS = 10_000, MAX_RETRIES = 3;
+            final String uid = UserInfoManagerHandler.getUserId();
+            EasyExcel.read(file.getInputStream(), new DBExcelReadListener(dbTableFields, uid, MAX_ROWS, BATCH, batch -> {
+            })).sheet().doRead();
+
+            final Long spaceId = SpaceInfoUtil.getSpaceId();
+            final Table<?> t = table(name(dbTable.getName()));
+            SqlSender sender = (sql, paramsIgnored) -> {
+                // Single statement security check (semicolons at the end are allowed, but multiple internal
+                // statements are rejected)
+                SqlRenderer.denyMultiStmtOrComment(sql);
+                coreSystemService.execDML(
+                        sql,
+                        uid,
+                        spaceId,
+                        dbInfo.getDbId(),
+                        DBOperateEnum.INSERT.getCode(),
+                        execDev);
+            };
+            JooqBatchExecutor.ResultSummary summary = new JooqBatchExecutor.ResultSummary();
+            int[] read = {0};
             DBExcelReadListener listener = new DBExcelReadListener(
                     dbTableFields,
-                    rows,
-                    UserInfoManagerHandler.getUserId(),
-                    10_000);
-            EasyExcel.read(file.getInputStream(), listener).sheet().doRead();
-
-            // 2) build INSERT (Bind parameters), shard execution + retry + error collection
-            final int CHUNK = 200, MAX_RETRIES = 3;
-            JooqBatchExecutor.ResultSummary summary = JooqBatchExecutor.executeInChunks(
-                    dslCon,
-                    dbTable.getName(),
-                    rows,
-                    CHUNK,
-                    MAX_RETRIES,
-                    row -> {
-                        Table<?> t = table(name(dbTable.getName()));
-                        InsertSetMoreStep<?> step = dslCon.insertInto(t).set(field(name("uid")), row.get("uid"));
-                        for (Map.Entry<String, Object> e : row.entrySet()) {
-                            if ("uid".equals(e.getKey()))
-                                continue;
-                            step = ((InsertSetStep<?>) step).set(field(name(e.getKey())), e.getValue());
-                        }
-                        return (Query) step;
-                    },
-
-                    (sql, paramsIgnored) -> {
-                        // Single statement security check (semicolons at the end are allowed, but multiple internal
-                        // statements are rejected)
-                        SqlRenderer.denyMultiStmtOrComment(sql);
-                        coreSystemService.execDML(
-                                sql,
-                                UserInfoManagerHandler.getUserId(),
-                                SpaceInfoUtil.getSpaceId(),
-                                dbInfo.getDbId(),
-                                DBOperateEnum.INSERT.getCode(),
-                                execDev);
+                    uid,
+                    MAX_ROWS,
+                    BATCH,
+                    batch -> {
+                        JooqBatchExecutor.executeBatch(
+                                batch,
+                                read[0],
+                                MAX_RETRIES,
+                                rows -> {
+                                    // Every row carries the same columns in header order
+                                    List<Field<Object>> fields = rows.get(0)
+                                            .keySet()
+                                            .stream()
+                                            .map(c -> field(name(c)))
+                                            .collect(Collectors.toList());
+                                    InsertValuesStepN<?> step = dslCon.insertInto(t, fields);
+                                    for (Map<String, Object> row : rows) {
+                                        step = step.values(row.values());
+                                    }
+                                    return step;
+                                },
+                                row -> {
+                                    InsertSetMoreStep<?> step = dslCon.insertInto(t).set(field(name("uid")), row.get("uid"));
+                                    for (Map.Entry<String, Object> e : row.entrySet()) {
+                                        if ("uid".equals(e.getKey()))
+                                            continue;
+                                        step = ((InsertSetStep<?>) step).set(field(name(e.getKey())), e.getValue());
+                                    }
+                                    return (Query) step;
+                                },
+                                sender,
+                                summary);
+                        read[0] += batch.size();
+                        log.info("importTableData progress, tbId={}, imported={}, failed={}", tbId, summary.success, summary.failed);
                     });
+            EasyExcel.read(file.getInputStream(), listener).sheet().doRead();
 
             // 3) Summary
             if (!summary.errors.isEmpty()) {
@@ -1181,15 +1276,20 @@ public class DatabaseService extends ServiceImpl<DbInfoMapper, DbInfo> {
         }
     }
 
+    /**
+     * Export table rows as an Excel download. A whole-table export stops after the configured maximum
+     * number of rows and then sets the {@value #EXPORT_TRUNCATED_HEADER} response header.
+     */
     public void exportTableData(DatabaseExportDto dto, HttpServletResponse response) {
         dataPermissionCheckTool.checkTbBelong(dto.getTbId());
+        ExcelWriter writer = null;
+        ExportOutputStream out = null;
         try {
             DbTable dbTable = dbTableMapper.selectById(dto.getTbId());
             DbInfo dbInfo = dbInfoMapper.selectById(dbTable.getDbId());
 
             String table = SqlRenderer.quoteIdent(dbTable.getName());
-            String dml = "SELECT * FROM " + table + " LIMIT 1000 OFFSET 0";
-
+            String idsDml = null;
             if (dto.getDataIds() != null && !dto.getDataIds().isEmpty()) {
                 if (dto.getDataIds().size() > MAX_EXPORT_IDS) {
                     throw new BusinessException(ResponseEnum.DATABASE_TOO_MANY_EXPORT_IDS);
@@ -1200,17 +1300,8 @@ public class DatabaseService extends ServiceImpl<DbInfoMapper, DbInfo> {
                         .map(x -> SqlRenderer.requireLong(x, "id"))
                         .collect(Collectors.toList());
                 String in = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
-                dml = "SELECT * FROM " + table + " WHERE " + SqlRenderer.quoteIdent("id") + " IN (" + in + ")";
+                idsDml = "SELECT * FROM " + table + " WHERE " + SqlRenderer.quoteIdent("id") + " IN (" + in + ")";
             }
-            SqlRenderer.denyMultiStmtOrComment(dml);
-
-            List<JSONObject> data = (List<JSONObject>) coreSystemService.execDML(
-                    dml,
-                    UserInfoManagerHandler.getUserId(),
-                    SpaceInfoUtil.getSpaceId(),
-                    dbInfo.getDbId(),
-                    DBOperateEnum.SELECT.getCode(),
-                    dto.getExecDev());
 
             List<List<String>> headList = new ArrayList<>();
             Map<String, String> fieldTypeMap = new HashMap<>(); // Store field name to type mapping
@@ -1221,47 +1312,165 @@ public class DatabaseService extends ServiceImpl<DbInfoMapper, DbInfo> {
                         fieldTypeMap.put(field.getName(), field.getType());
                     });
 
-            List<List<Object>> dataList = new ArrayList<>();
-            for (JSONObject row : data) {
-                List<Object> line = new ArrayList<>();
-                for (List<String> h : headList) {
-                    String fieldName = h.get(0);
-                    Object val = row.get(fieldName);
-
-                    // Convert boolean values to lowercase for consistency
-                    if (val != null && CommonConst.DBFieldType.BOOLEAN.equalsIgnoreCase(fieldTypeMap.get(fieldName))) {
-                        if (val instanceof Boolean) {
-                            line.add(val.toString().toLowerCase());
-                        } else if (val instanceof String) {
-                            String strVal = ((String) val).trim();
-                            if ("TRUE".equalsIgnoreCase(strVal) || "FALSE".equalsIgnoreCase(strVal)) {
-                                line.add(strVal.toLowerCase());
-                            } else {
-                                line.add(val);
-                            }
+            // Whole table: seek through it page by page on the primary key and write each page as it
+            // arrives, so memory stays at one page whatever the table size
+            int pageSize = Math.max(1, Math.min(exportPageSize, MAX_PAGE_SIZE));
+            long maxRows = Math.max(1, exportMaxRows);
+            WriteSheet sheet = EasyExcel.writerSheet("data").build();
+            Field<Object> id = field(name("id"));
+            Long afterId = null;
+            long exported = 0;
+            while (true) {
+                long remaining = maxRows - exported;
+                int limit = (int) Math.min(pageSize, remaining);
+                // The last page allowed by the row limit asks for one row more, to tell a table that was cut
+                // off from one that just fits
+                boolean lastPage = remaining <= pageSize;
+                String dml = idsDml != null
+                        ? idsDml
+                        : dslCon.selectFrom(table(name(dbTable.getName())))
+                                .where(afterId == null ? noCondition() : id.lt(afterId))
+                                .orderBy(id.desc())
+                                .limit(lastPage ? limit + 1 : limit)
+                                .getSQL();
+                SqlRenderer.denyMultiStmtOrComment(dml);
+
+                List<JSONObject> data = (List<JSONObject>) coreSystemService.execDML(
+                        dml,
+                        UserInfoManagerHandler.getUserId(),
+                        SpaceInfoUtil.getSpaceId(),
+                        dbInfo.getDbId(),
+                        DBOperateEnum.SELECT.getCode(),
+                        dto.getExecDev());
+
+                boolean truncated = idsDml == null && lastPage && data.size() > limit;
+                if (truncated) {
+                    data = data.subList(0, limit);
+                }
+
+                // The writer keeps the workbook in temporary files until finish(), nothing reaches the client
+                // before that
+                if (writer == null) {
+                    response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+                    response.setCharacterEncoding("utf-8");
+                    String fileName = URLEncoder.encode(dbTable.getName(), "UTF-8").replaceAll("\\+", "%20");
+                    response.setHeader("Content-disposition", "attachment;filename=" + fileName + ".xlsx");
+                    out = new ExportOutputStream(response.getOutputStream());
+                    writer = EasyExcel.write(out).head(headList).build();
+                }
+                writer.write(toExportLines(data, headList, fieldTypeMap), sheet);
+                exported += data.size();
+
+                if (truncated) {
+                    log.warn("export reached the row limit, tbId={}, maxRows={}", dto.getTbId(), maxRows);
+                    response.setHeader(EXPORT_TRUNCATED_HEADER, String.valueOf(maxRows));
+                    break;
+                }
+                if (idsDml != null || data.size() < limit || lastPage) {
+                    break;
+                }
+                afterId = SqlRenderer.requireLong(data.get(data.size() - 1).get("id"), "id");
+            }
+            writer.finish();
+        } catch (Exception ex) {
+            log.error("export data failed, params:{}", dto, ex);
+            if (writer != null) {
+                abortExport(writer, out, response);
+            }
+            throw new BusinessException(ResponseEnum.DATABASE_TABLE_EXPORT_FAILED);
+        }
+    }
+
+    /**
+     * Release the writer of a failed export without sending its workbook and drop the download headers,
+     * so that the client gets the error response. If the workbook was already partly sent, the download
+     * stays broken instead of being completed.
+     */
+    private static void abortExport(ExcelWriter writer, ExportOutputStream out, HttpServletResponse response) {
+        out.discard();
+        try {
+            writer.finish();
+        } catch (Exception e) {
+            log.debug("release export writer failed", e);
+        }
+        if (!response.isCommitted()) {
+            response.reset();
+        }
+    }
+
+    /**
+     * Response stream that can be cut off, writes and close become no-ops after {@link #discard()}
+     */
+    private static final class ExportOutputStream extends FilterOutputStream {
+
+        private boolean discarded;
+
+        ExportOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        void discard() {
+            discarded = true;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!discarded) {
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!discarded) {
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!discarded) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!discarded) {
+                out.close();
+            }
+        }
+    }
+
+    private List<List<Object>> toExportLines(List<JSONObject> data, List<List<String>> headList, Map<String, String> fieldTypeMap) {
+        List<List<Object>> dataList = new ArrayList<>(data.size());
+        for (JSONObject row : data) {
+            List<Object> line = new ArrayList<>();
+            for (List<String> h : headList) {
+                String fieldName = h.get(0);
+                Object val = row.get(fieldName);
+
+                // Convert boolean values to lowercase for consistency
+                if (val != null && CommonConst.DBFieldType.BOOLEAN.equalsIgnoreCase(fieldTypeMap.get(fieldName))) {
+                    if (val instanceof Boolean) {
+                        line.add(val.toString().toLowerCase());
+                    } else if (val instanceof String) {
+                        String strVal = ((String) val).trim();
+                        if ("TRUE".equalsIgnoreCase(strVal) || "FALSE".equalsIgnoreCase(strVal)) {
+                            line.add(strVal.toLowerCase());
                         } else {
                             line.add(val);
                         }
                     } else {
-                        line.add(val != null ? val : "");
+                        line.add(val);
                     }
+                } else {
+                    line.add(val != null ? val : "");
                 }
-                dataList.add(line);
             }
-
-            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-            response.setCharacterEncoding("utf-8");
-            String fileName = URLEncoder.encode(dbTable.getName(), "UTF-8").replaceAll("\\+", "%20");
-            response.setHeader("Content-disposition", "attachment;filename=" + fileName + ".xlsx");
-
-            EasyExcel.write(response.getOutputStream())
-                    .head(headList)
-                    .sheet("data")
-                    .doWrite(dataList);
-        } catch (Exception ex) {
-            log.error("export data failed, params:{}", dto, ex);
-            throw new BusinessException(ResponseEnum.DATABASE_TABLE_EXPORT_FAILED);
+            dataList.add(line);
         }
+        return dataList;
     }
 
     public List<DbTableInfoVo> getDbTableInfoList() {
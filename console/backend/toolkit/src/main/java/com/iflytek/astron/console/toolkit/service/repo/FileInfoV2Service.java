@@ -35,6 +35,7 @@ import com.iflytek.astron.console.toolkit.mapper.repo.FileInfoV2Mapper;
 import com.iflytek.astron.console.toolkit.service.common.ConfigInfoService;
 import com.iflytek.astron.console.toolkit.service.task.ExtractKnowledgeTaskService;
 import com.iflytek.astron.console.toolkit.task.EmbeddingFileTask;
+import com.iflytek.astron.console.toolkit.task.IngestionPipeline;
 import com.iflytek.astron.console.toolkit.task.SliceFileTask;
 import com.iflytek.astron.console.toolkit.tool.DataPermissionCheckTool;
 import com.iflytek.astron.console.toolkit.tool.FileUploadTool;
@@ -135,6 +136,8 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
 
     @Autowired
     private ApiUrl apiUrl;
+    @Autowired
+    private IngestionPipeline ingestionPipeline;
 
     private void ensureApiUrl() {
         if (this.apiUrl == null) {
@@ -259,17 +262,13 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
      * @return total character count including newlines
      */
     private int countChars(MultipartFile file) {
-        int charCount = 0;
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                charCount += line.length() + 1; // including newlines
-            }
+        // Decode incrementally, line-based reading would hold a binary file's whole "line" in memory
+        try (InputStream inputStream = file.getInputStream()) {
+            return CharCountUtil.countChars(inputStream);
         } catch (IOException e) {
             log.error("Failed to get file character count", e);
+            return 0;
         }
-        return charCount;
     }
 
     /**
@@ -521,53 +520,53 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
                     .map(Long::valueOf)
                     .collect(Collectors.toList());
             if (!CollectionUtils.isEmpty(fileIds)) {
-                ExecutorService executorService = Executors.newFixedThreadPool(fileIds.size());
                 List<FileInfoV2> fileInfoV2List = fileInfoV2Mapper.listByIds(fileIds);
                 List<Future<Boolean>> futures = new ArrayList<>();
-                for (FileInfoV2 fileInfoV2 : fileInfoV2List) {
-                    if (null == spaceId) {
-                        dataPermissionCheckTool.checkFileBelong(fileInfoV2);
-                    }
+                try (IngestionPipeline.Admission admission = ingestionPipeline.admit(IngestionPipeline.Stage.SLICE, fileInfoV2List.size())) {
+                    for (FileInfoV2 fileInfoV2 : fileInfoV2List) {
+                        if (null == spaceId) {
+                            dataPermissionCheckTool.checkFileBelong(fileInfoV2);
+                        }
 
-                    if (fileInfoV2.getStatus().equals(ProjectContent.FILE_PARSE_DOING)) {
-                        throw new BusinessException(ResponseEnum.REPO_KNOWLEDGE_SPLITTING);
-                    }
-                    // Check slice default values and range
-                    if (sliceFileVO.getSliceConfig().getLengthRange() != null) {
-                        if (ProjectContent.isAiuiRagCompatible(fileInfoV2.getSource())) {
-                            if (sliceFileVO.getSliceConfig().getLengthRange().get(0) < 16 || sliceFileVO.getSliceConfig().getLengthRange().get(1) > 1024) {
-                                throw new BusinessException(ResponseEnum.REPO_FILE_SLICE_RANGE_16_1024);
+                        if (fileInfoV2.getStatus().equals(ProjectContent.FILE_PARSE_DOING)) {
+                            throw new BusinessException(ResponseEnum.REPO_KNOWLEDGE_SPLITTING);
+                        }
+                        // Check slice default values and range
+                        if (sliceFileVO.getSliceConfig().getLengthRange() != null) {
+                            if (ProjectContent.isAiuiRagCompatible(fileInfoV2.getSource())) {
+                                if (sliceFileVO.getSliceConfig().getLengthRange().get(0) < 16 || sliceFileVO.getSliceConfig().getLengthRange().get(1) > 1024) {
+                                    throw new BusinessException(ResponseEnum.REPO_FILE_SLICE_RANGE_16_1024);
+                                }
                             }
                         }
-                    }
-                    Long fileId = fileInfoV2.getId();
-                    // Insert data into file_directory_tree table
-                    FileDirectoryTree fileDirectoryTree = fileDirectoryTreeService.getOnly(Wrappers.lambdaQuery(FileDirectoryTree.class)
-                            .eq(FileDirectoryTree::getAppId, fileInfoV2.getRepoId())
-                            .eq(FileDirectoryTree::getFileId, fileId));
+                        Long fileId = fileInfoV2.getId();
+                        // Insert data into file_directory_tree table
+                        FileDirectoryTree fileDirectoryTree = fileDirectoryTreeService.getOnly(Wrappers.lambdaQuery(FileDirectoryTree.class)
+                                .eq(FileDirectoryTree::getAppId, fileInfoV2.getRepoId())
+                                .eq(FileDirectoryTree::getFileId, fileId));
 
-                    if (fileDirectoryTree == null) {
-                        fileDirectoryTree = new FileDirectoryTree();
-                        fileDirectoryTree.setIsFile(1);
-                        fileDirectoryTree.setName(fileInfoV2.getName());
-                        fileDirectoryTree.setAppId(fileInfoV2.getRepoId().toString());
-                        fileDirectoryTree.setParentId(fileInfoV2.getPid());
-                        fileDirectoryTree.setFileId(fileId);
-                        fileDirectoryTree.setCreateTime(LocalDateTime.now());
-                        // Insert a record directly into database table
-                        fileDirectoryTreeMapper.insert(fileDirectoryTree);
+                        if (fileDirectoryTree == null) {
+                            fileDirectoryTree = new FileDirectoryTree();
+                            fileDirectoryTree.setIsFile(1);
+                            fileDirectoryTree.setName(fileInfoV2.getName());
+                            fileDirectoryTree.setAppId(fileInfoV2.getRepoId().toString());
+                            fileDirectoryTree.setParentId(fileInfoV2.getPid());
+                            fileDirectoryTree.setAncestorPath(childAncestorPath(fileDirectoryTree.getAppId(), fileInfoV2.getPid()));
+                            fileDirectoryTree.setFileId(fileId);
+                            fileDirectoryTree.setCreateTime(LocalDateTime.now());
+                            // Insert a record directly into database table
+                            fileDirectoryTreeMapper.insert(fileDirectoryTree);
+                        }
+                        // Update slice configuration
+                        SliceConfig sliceConfig = sliceFileVO.getSliceConfig();
+                        fileInfoV2.setSliceConfig(JSON.toJSONString(sliceConfig));
+                        fileInfoV2.setCurrentSliceConfig(JSON.toJSONString(sliceConfig));
+                        fileInfoV2.setStatus(ProjectContent.FILE_PARSE_DOING);
+                        fileInfoV2Mapper.updateById(fileInfoV2);
+                        futures.add(admission.submit(IngestionPipeline.tenantOf(fileInfoV2.getSpaceId(), fileInfoV2.getUid()),
+                                new SliceFileTask(this, fileInfoV2.getId(), sliceConfig, 0)));
                     }
-                    // Update slice configuration
-                    SliceConfig sliceConfig = sliceFileVO.getSliceConfig();
-                    fileInfoV2.setSliceConfig(JSON.toJSONString(sliceConfig));
-                    fileInfoV2.setCurrentSliceConfig(JSON.toJSONString(sliceConfig));
-                    fileInfoV2.setStatus(ProjectContent.FILE_PARSE_DOING);
-                    fileInfoV2Mapper.updateById(fileInfoV2);
-                    Future<Boolean> future = executorService.submit(new SliceFileTask(this, fileInfoV2.getId(), sliceConfig, 0));
-                    futures.add(future);
                 }
-                executorService.shutdown();
-                boolean ignoreVar = executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
                 boolean allFailed = true;
                 for (Future<Boolean> future : futures) {
                     Boolean result = future.get();
@@ -1051,52 +1050,38 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
                     .map(Long::valueOf) // Convert String to Long
                     .collect(Collectors.toList());
             if (!CollectionUtils.isEmpty(fileIds)) {
-                ExecutorService executorService = Executors.newFixedThreadPool(fileIds.size());
-                for (Long fileId : fileIds) {
-                    FileInfoV2 fileInfo = this.getById(fileId);
-                    if (fileInfo == null) {
-                        log.warn("embeddingFiles skip: file not found, id={}", fileId);
-                        continue;
-                    }
-                    if (sliceFileVO.getIsBackTask() == null) {
-                        Long spaceId = SpaceInfoUtil.getSpaceId();
-                        if (null == spaceId) {
-                            dataPermissionCheckTool.checkFileBelong(fileInfo);
-                        }
-                    }
-                    FileDirectoryTree fileDirectoryTree = fileDirectoryTreeService.getOnly(Wrappers.lambdaQuery(FileDirectoryTree.class)
-                            .eq(FileDirectoryTree::getAppId, fileInfo.getRepoId())
-                            .eq(FileDirectoryTree::getFileId, fileId));
-                    if (fileDirectoryTree == null) {
-                        ensureFileDirectoryTree(fileInfo);
-                        fileDirectoryTree = fileDirectoryTreeService.getOnly(
-                                Wrappers.lambdaQuery(FileDirectoryTree.class)
-                                        .eq(FileDirectoryTree::getAppId, fileInfo.getRepoId())
-                                        .eq(FileDirectoryTree::getFileId, fileId));
-                        if (fileDirectoryTree == null) {
-                            log.error("embeddingFiles: ensureFileDirectoryTree failed, fileId={}", fileId);
+                try (IngestionPipeline.Admission admission = ingestionPipeline.admit(IngestionPipeline.Stage.EMBED, fileIds.size())) {
+                    for (Long fileId : fileIds) {
+                        FileInfoV2 fileInfo = this.getById(fileId);
+                        if (fileInfo == null) {
+                            log.warn("embeddingFiles skip: file not found, id={}", fileId);
                             continue;
                         }
-                    }
-                    fileDirectoryTree.setStatus(1);
-                    fileDirectoryTreeMapper.updateById(fileDirectoryTree);
-                    executorService.execute(() -> {
-                        int count = 0;
-                        while (true) {
-                            FileInfoV2 fileInfoV2 = fileInfoV2Mapper.selectById(fileId);
-                            if (Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_PARSE_FAILED)) {
-                                break;
+                        if (sliceFileVO.getIsBackTask() == null) {
+                            Long spaceId = SpaceInfoUtil.getSpaceId();
+                            if (null == spaceId) {
+                                dataPermissionCheckTool.checkFileBelong(fileInfo);
                             }
-                            if (Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_PARSE_SUCCESSED)
-                                    || Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_EMBEDDING_DOING)
-                                    || Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_EMBEDDING_FAILED)
-                                    || Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_EMBEDDING_SUCCESSED)) {
-                                saveTaskAndUpdateFileStatus(fileId);
-                                new EmbeddingFileTask(this, fileId, fileInfoV2.getSpaceId()).run();
-                                break;
+                        }
+                        FileDirectoryTree fileDirectoryTree = fileDirectoryTreeService.getOnly(Wrappers.lambdaQuery(FileDirectoryTree.class)
+                                .eq(FileDirectoryTree::getAppId, fileInfo.getRepoId())
+                                .eq(FileDirectoryTree::getFileId, fileId));
+                        if (fileDirectoryTree == null) {
+                            ensureFileDirectoryTree(fileInfo);
+                            fileDirectoryTree = fileDirectoryTreeService.getOnly(
+                                    Wrappers.lambdaQuery(FileDirectoryTree.class)
+                                            .eq(FileDirectoryTree::getAppId, fileInfo.getRepoId())
+                                            .eq(FileDirectoryTree::getFileId, fileId));
+                            if (fileDirectoryTree == null) {
+                                log.error("embeddingFiles: ensureFileDirectoryTree failed, fileId={}", fileId);
+                                continue;
                             }
                         }
-                    });
+                        fileDirectoryTree.setStatus(1);
+                        fileDirectoryTreeMapper.updateById(fileDirectoryTree);
+                        admission.submitWhenReady(IngestionPipeline.tenantOf(fileInfo.getSpaceId(), fileInfo.getUid()),
+                                new EmbeddingFileTask(this, fileId, false));
+                    }
                 }
             }
         }
@@ -1118,6 +1103,46 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
         return "";
     }
 
+    /**
+     * Embed stage step: embed the file once its parsing has finished
+     *
+     * @param fileId ID of the file to be embedded
+     * @param retry whether this retries a failed embedding, which waits for parse success only and
+     *        makes the directory entry visible again
+     * @return false while the file is not ready for embedding yet, true once it was handled
+     */
+    public boolean embeddingFileIfParsed(Long fileId, boolean retry) {
+        FileInfoV2 fileInfoV2 = fileInfoV2Mapper.selectById(fileId);
+        if (fileInfoV2 == null || Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_PARSE_FAILED)) {
+            return true;
+        }
+        Integer status = fileInfoV2.getStatus();
+        boolean embeddable = retry
+                ? Objects.equals(status, ProjectContent.FILE_PARSE_SUCCESSED)
+                : Objects.equals(status, ProjectContent.FILE_PARSE_SUCCESSED)
+                        || Objects.equals(status, ProjectContent.FILE_EMBEDDING_DOING)
+                        || Objects.equals(status, ProjectContent.FILE_EMBEDDING_FAILED)
+                        || Objects.equals(status, ProjectContent.FILE_EMBEDDING_SUCCESSED);
+        if (!embeddable) {
+            return false;
+        }
+        // Save task and update file status to embedding_doing
+        saveTaskAndUpdateFileStatus(fileId);
+        if (retry) {
+            // Make directory visible
+            FileDirectoryTree tree = fileDirectoryTreeService.getOnly(
+                    Wrappers.lambdaQuery(FileDirectoryTree.class)
+                            .eq(FileDirectoryTree::getAppId, fileInfoV2.getRepoId())
+                            .eq(FileDirectoryTree::getFileId, fileId));
+            if (tree != null) {
+                tree.setStatus(1);
+                fileDirectoryTreeMapper.updateById(tree);
+            }
+        }
+        embeddingFile(fileId, fileInfoV2.getSpaceId());
+        return true;
+    }
+
     /**
      * Embed a single file to create vector representations
      *
@@ -1210,65 +1235,38 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
                     .map(Long::valueOf) // Convert String to Long
                     .collect(Collectors.toList());
             if (!CollectionUtils.isEmpty(fileIds)) {
-                ExecutorService executorService = Executors.newFixedThreadPool(fileIds.size());
-                for (Long fileId : fileIds) {
-                    FileInfoV2 fileInfo = this.getById(fileId);
-                    if (fileInfo == null) {
-                        log.warn("embeddingBack skip: file not found, id={}", fileId);
-                        continue;
-                    }
-                    if (sliceFileVO.getIsBackTask() == null) {
-                        dataPermissionCheckTool.checkFileBelong(fileInfo);
-                    }
+                try (IngestionPipeline.Admission admission = ingestionPipeline.admit(IngestionPipeline.Stage.EMBED, fileIds.size())) {
+                    for (Long fileId : fileIds) {
+                        FileInfoV2 fileInfo = this.getById(fileId);
+                        if (fileInfo == null) {
+                            log.warn("embeddingBack skip: file not found, id={}", fileId);
+                            continue;
+                        }
+                        if (sliceFileVO.getIsBackTask() == null) {
+                            dataPermissionCheckTool.checkFileBelong(fileInfo);
+                        }
 
-                    // Set file visibility
-                    FileDirectoryTree fileDirectoryTree = fileDirectoryTreeService.getOnly(
-                            Wrappers.lambdaQuery(FileDirectoryTree.class)
-                                    .eq(FileDirectoryTree::getAppId, fileInfo.getRepoId())
-                                    .eq(FileDirectoryTree::getFileId, fileId));
-                    if (fileDirectoryTree == null) {
-                        ensureFileDirectoryTree(fileInfo);
-                        fileDirectoryTree = fileDirectoryTreeService.getOnly(
+                        // Set file visibility
+                        FileDirectoryTree fileDirectoryTree = fileDirectoryTreeService.getOnly(
                                 Wrappers.lambdaQuery(FileDirectoryTree.class)
                                         .eq(FileDirectoryTree::getAppId, fileInfo.getRepoId())
                                         .eq(FileDirectoryTree::getFileId, fileId));
                         if (fileDirectoryTree == null) {
-                            log.error("embeddingBack: ensureFileDirectoryTree failed, fileId={}", fileId);
-                            continue;
-                        }
-                    }
-                    fileDirectoryTree.setStatus(1);
-                    fileDirectoryTreeMapper.updateById(fileDirectoryTree);
-                    executorService.execute(() -> {
-                        int count = 0;
-                        while (true) {
-                            FileInfoV2 fileInfoV2 = fileInfoV2Mapper.selectById(fileId);
-                            // if(Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_EMBEDDING_SUCCESSED)){
-                            // if (count > 10) {
-                            // break;
-                            // }
-                            // count++;
-                            // // Wait 3 seconds before checking again
-                            // try {
-                            // Thread.sleep(3000);
-                            // } catch (InterruptedException e) {
-                            // throw new RuntimeException(e);
-                            // }
-                            // continue;
-                            // }
-                            if (Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_PARSE_FAILED)) {
-                                break;
-                            }
-                            if (Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_PARSE_SUCCESSED)
-                                    || Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_EMBEDDING_DOING)
-                                    || Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_EMBEDDING_FAILED)
-                                    || Objects.equals(fileInfoV2.getStatus(), ProjectContent.FILE_EMBEDDING_SUCCESSED)) {
-                                saveTaskAndUpdateFileStatus(fileId);
-                                new EmbeddingFileTask(this, fileId, fileInfoV2.getSpaceId()).run();
-                                break;
+                            ensureFileDirectoryTree(fileInfo);
+                            fileDirectoryTree = fileDirectoryTreeService.getOnly(
+                                    Wrappers.lambdaQuery(FileDirectoryTree.class)
+                                            .eq(FileDirectoryTree::getAppId, fileInfo.getRepoId())
+                                            .eq(FileDirectoryTree::getFileId, fileId));
+                            if (fileDirectoryTree == null) {
+                                log.error("embeddingBack: ensureFileDirectoryTree failed, fileId={}", fileId);
+                                continue;
                             }
                         }
-                    });
+                        fileDirectoryTree.setStatus(1);
+                        fileDirectoryTreeMapper.updateById(fileDirectoryTree);
+                        admission.submitWhenReady(IngestionPipeline.tenantOf(fileInfo.getSpaceId(), fileInfo.getUid()),
+                                new EmbeddingFileTask(this, fileId, false));
+                    }
                 }
             }
         }
@@ -1298,17 +1296,20 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
         if (CollectionUtils.isEmpty(fileIds))
             return;
 
-        ExecutorService pool = Executors.newFixedThreadPool(fileIds.size());
         List<FileInfoV2> files = fileInfoV2Mapper.listByIds(fileIds);
-        for (FileInfoV2 f : files) {
-            if (Objects.equals(f.getStatus(), ProjectContent.FILE_PARSE_FAILED)) {
-                handleParseFailedRetry(f, sliceFileVO, spaceId, pool);
-            } else if (Objects.equals(f.getStatus(), ProjectContent.FILE_EMBEDDING_FAILED)) {
-                handleEmbeddingFailedRetry(f, sliceFileVO, spaceId, pool);
+        int parseFailed = (int) files.stream().filter(f -> Objects.equals(f.getStatus(), ProjectContent.FILE_PARSE_FAILED)).count();
+        int embeddingFailed = (int) files.stream().filter(f -> Objects.equals(f.getStatus(), ProjectContent.FILE_EMBEDDING_FAILED)).count();
+        try (IngestionPipeline.Admission slice = ingestionPipeline.admit(IngestionPipeline.Stage.SLICE, parseFailed);
+                IngestionPipeline.Admission embed = ingestionPipeline.admit(IngestionPipeline.Stage.EMBED, embeddingFailed)) {
+            for (FileInfoV2 f : files) {
+                if (Objects.equals(f.getStatus(), ProjectContent.FILE_PARSE_FAILED)) {
+                    handleParseFailedRetry(f, sliceFileVO, spaceId, slice);
+                } else if (Objects.equals(f.getStatus(), ProjectContent.FILE_EMBEDDING_FAILED)) {
+                    handleEmbeddingFailedRetry(f, sliceFileVO, spaceId, embed);
+                }
+                // Other statuses: No processing (consistent with original logic)
             }
-            // Other statuses: No processing (consistent with original logic)
         }
-        pool.shutdown();
     }
     /* ======================== Private Methods ======================== */
 
@@ -1356,10 +1357,10 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
      * @param file file information object
      * @param vo deal file parameters
      * @param spaceId space ID for permission checking
-     * @param pool thread pool for async execution
+     * @param slice admission to the slice stage of the ingestion pipeline
      * @throws BusinessException if file is currently being parsed or range is invalid
      */
-    private void handleParseFailedRetry(FileInfoV2 file, DealFileVO vo, Long spaceId, ExecutorService pool) {
+    private void handleParseFailedRetry(FileInfoV2 file, DealFileVO vo, Long spaceId, IngestionPipeline.Admission slice) {
         // Auto separator fallback
         ensureSeparatorDefault(vo.getSliceConfig());
 
@@ -1386,7 +1387,7 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
         fileInfoV2Mapper.updateById(file);
 
         // Execute slicing task asynchronously (with backEmbedding flag set to 1)
-        pool.execute(() -> new SliceFileTask(this, file.getId(), sc, 1).call());
+        slice.submit(IngestionPipeline.tenantOf(file.getSpaceId(), file.getUid()), new SliceFileTask(this, file.getId(), sc, 1));
     }
 
     /**
@@ -1396,9 +1397,9 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
      * @param file file information object
      * @param vo deal file parameters
      * @param spaceId space ID for permission checking
-     * @param pool thread pool for async execution
+     * @param embed admission to the embed stage of the ingestion pipeline
      */
-    private void handleEmbeddingFailedRetry(FileInfoV2 file, DealFileVO vo, Long spaceId, ExecutorService pool) {
+    private void handleEmbeddingFailedRetry(FileInfoV2 file, DealFileVO vo, Long spaceId, IngestionPipeline.Admission embed) {
         // Only validate file ownership during foreground retry (consistent with original logic)
         if (vo.getIsBackTask() == null && spaceId == null) {
             dataPermissionCheckTool.checkFileBelong(file);
@@ -1408,29 +1409,7 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
         file.setStatus(ProjectContent.FILE_PARSE_SUCCESSED);
         fileInfoV2Mapper.updateById(file);
 
-        pool.execute(() -> {
-            while (true) {
-                FileInfoV2 latest = fileInfoV2Mapper.selectById(file.getId());
-                if (Objects.equals(latest.getStatus(), ProjectContent.FILE_PARSE_FAILED))
-                    break;
-                if (Objects.equals(latest.getStatus(), ProjectContent.FILE_PARSE_SUCCESSED)) {
-                    // Save task and update file status to embedding_doing
-                    saveTaskAndUpdateFileStatus(file.getId());
-                    // Make directory visible
-                    FileDirectoryTree tree = fileDirectoryTreeService.getOnly(
-                            Wrappers.lambdaQuery(FileDirectoryTree.class)
-                                    .eq(FileDirectoryTree::getAppId, file.getRepoId())
-                                    .eq(FileDirectoryTree::getFileId, file.getId()));
-                    if (tree != null) {
-                        tree.setStatus(1);
-                        fileDirectoryTreeMapper.updateById(tree);
-                    }
-                    // Trigger embedding
-                    new EmbeddingFileTask(this, file.getId(), file.getSpaceId()).run();
-                    break;
-                }
-            }
-        });
+        embed.submitWhenReady(IngestionPipeline.tenantOf(file.getSpaceId(), file.getUid()), new EmbeddingFileTask(this, file.getId(), true));
     }
 
     /**
@@ -1482,6 +1461,7 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
             tree.setName(file.getName());
             tree.setAppId(file.getRepoId().toString());
             tree.setParentId(file.getPid());
+            tree.setAncestorPath(childAncestorPath(tree.getAppId(), file.getPid()));
             tree.setFileId(file.getId());
             tree.setCreateTime(LocalDateTime.now());
             fileDirectoryTreeMapper.insert(tree);
@@ -1853,6 +1833,7 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
         fileDirectoryTree.setName(name);
         fileDirectoryTree.setAppId(folderVO.getRepoId().toString());
         fileDirectoryTree.setParentId(parentId);
+        fileDirectoryTree.setAncestorPath(childAncestorPath(fileDirectoryTree.getAppId(), parentId));
         fileDirectoryTree.setCreateTime(LocalDateTime.now());
         fileDirectoryTree.setStatus(1);
         // Insert a record directly into database table
@@ -2019,13 +2000,15 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
 
     /* ======================== Local Branch ======================== */
     private void streamLocalSearch(SseEmitter emitter, List<FileDirectoryTree> list, Long repoId, Long pid) throws IOException {
+        // Ancestors of all results in one query instead of one per level and row
+        Map<Long, FileDirectoryTree> ancestors = loadAncestors(String.valueOf(repoId), list);
         int size = list.size();
         for (int i = 0; i <= size; i++) {
             if (i == size) {
                 sendBye(emitter);
             } else {
                 FileDirectoryTree row = list.get(i);
-                FileDirectoryTreeDto dto = buildDtoFromDirectoryRow(repoId, row, pid);
+                FileDirectoryTreeDto dto = buildDtoFromDirectoryRow(repoId, row, pid, ancestors);
                 if (dto == null) {
                     // Does not satisfy pid filter, skip current item
                     continue;
@@ -2055,20 +2038,32 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
         return dto;
     }
 
-    private FileDirectoryTreeDto buildDtoFromDirectoryRow(Long repoId, FileDirectoryTree row, Long pid) {
+    private FileDirectoryTreeDto buildDtoFromDirectoryRow(Long repoId, FileDirectoryTree row, Long pid, Map<Long, FileDirectoryTree> ancestors) {
         FileDirectoryTreeDto dto = new FileDirectoryTreeDto();
         BeanUtils.copyProperties(row, dto);
 
         Long parentId = row.getParentId();
         if (parentId != null && !parentId.equals(-1L)) {
             // Trace back parent path while filtering by pid
-            List<FileDirectoryTree> path = new ArrayList<>();
-            recursiveFindFatherPath(String.valueOf(repoId), parentId, path);
+            List<FileDirectoryTree> path;
+            if (row.getAncestorPath() != null) {
+                path = new ArrayList<>();
+                for (Long ancestorId : parseAncestorPath(row.getAncestorPath())) {
+                    FileDirectoryTree ancestor = ancestors.get(ancestorId);
+                    if (ancestor != null) {
+                        path.add(ancestor);
+                    }
+                }
+            } else {
+                // Rows without a materialised path yet
+                path = new ArrayList<>();
+                recursiveFindFatherPath(String.valueOf(repoId), parentId, path);
+                Collections.reverse(path);
+            }
             if (pid != null && pid != -1L && !containsId(path, pid)) {
                 return null; // Does not exist under specified pid, filter out
             }
             if (!CollectionUtils.isEmpty(path)) {
-                Collections.reverse(path);
                 dto.setPath(buildPathString(path));
             }
         }
@@ -2113,6 +2108,17 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
         if (fileDirectoryTree == null) {
             return fileDirectoryTreePathList;
         }
+        if (fileDirectoryTree.getAncestorPath() != null) {
+            Map<Long, FileDirectoryTree> ancestors = loadAncestors(fileDirectoryTree.getAppId(), Collections.singletonList(fileDirectoryTree));
+            for (Long ancestorId : parseAncestorPath(fileDirectoryTree.getAncestorPath())) {
+                FileDirectoryTree ancestor = ancestors.get(ancestorId);
+                if (ancestor != null) {
+                    fileDirectoryTreePathList.add(ancestor);
+                }
+            }
+            fileDirectoryTreePathList.add(fileDirectoryTree);
+            return fileDirectoryTreePathList;
+        }
         recursiveFindFatherPath(fileDirectoryTree.getAppId(), fileId, fileDirectoryTreePathList);
         Collections.reverse(fileDirectoryTreePathList);
         return fileDirectoryTreePathList;
@@ -2589,6 +2595,58 @@ public class FileInfoV2Service extends ServiceImpl<FileInfoV2Mapper, FileInfoV2>
         return fileSizeMap;
     }
 
+    /**
+     * Materialised ancestor path for a new node under the given parent. Top-level nodes, and nodes whose
+     * parent does not exist, get {@code /}; null if the parent has no path yet.
+     */
+    private String childAncestorPath(String appId, Long parentId) {
+        if (parentId == null || parentId.equals(-1L)) {
+            return "/";
+        }
+        FileDirectoryTree parent = fileDirectoryTreeService.getOnly(Wrappers.lambdaQuery(FileDirectoryTree.class).eq(FileDirectoryTree::getAppId, appId).eq(FileDirectoryTree::getId, parentId));
+        if (parent == null) {
+            return "/";
+        }
+        return parent.getAncestorPath() == null ? null : parent.getAncestorPath() + parentId + "/";
+    }
+
+    /**
+     * Ancestor ids of a materialised path, from the root down to the parent
+     */
+    private static List<Long> parseAncestorPath(String ancestorPath) {
+        List<Long> ids = new ArrayList<>();
+        if (StringUtils.isBlank(ancestorPath)) {
+            return ids;
+        }
+        for (String part : ancestorPath.split("/")) {
+            if (!part.isEmpty()) {
+                ids.add(Long.valueOf(part));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Load the ancestors of all given nodes with one query, by id
+     */
+    private Map<Long, FileDirectoryTree> loadAncestors(String appId, Collection<FileDirectoryTree> nodes) {
+        Set<Long> ids = new HashSet<>();
+        for (FileDirectoryTree node : nodes) {
+            ids.addAll(parseAncestorPath(node.getAncestorPath()));
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<FileDirectoryTree> found = fileDirectoryTreeService.list(Wrappers.lambdaQuery(FileDirectoryTree.class)
+                .eq(FileDirectoryTree::getAppId, appId)
+                .in(FileDirectoryTree::getId, ids));
+        Map<Long, FileDirectoryTree> byId = new HashMap<>();
+        for (FileDirectoryTree tree : found) {
+            byId.put(tree.getId(), tree);
+        }
+        return byId;
+    }
+
     private void recursiveFindFatherPath(String appId, Long parentId, List<FileDirectoryTree> fileDirectoryTreePathList) {
         if (parentId.equals(-1L)) {
             return;
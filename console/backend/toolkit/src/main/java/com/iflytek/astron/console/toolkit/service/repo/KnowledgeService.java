@@ -1,9 +1,10 @@
 package com.iflytek.astron.console.toolkit.service.repo;
 
-import cn.hutool.core.thread.ThreadFactoryBuilder;
 import com.alibaba.fastjson2.*;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.google.common.collect.Lists;
 import com.iflytek.astron.console.commons.constant.ResponseEnum;
 import com.iflytek.astron.console.commons.exception.BusinessException;
 import com.iflytek.astron.console.toolkit.common.constant.ProjectContent;
@@ -22,17 +23,19 @@ import com.iflytek.astron.console.toolkit.entity.vo.repo.KnowledgeVO;
 import com.iflytek.astron.console.toolkit.handler.KnowledgeV2ServiceCallHandler;
 import com.iflytek.astron.console.toolkit.mapper.repo.FileInfoV2Mapper;
 import com.iflytek.astron.console.toolkit.service.task.ExtractKnowledgeTaskService;
+import com.iflytek.astron.console.toolkit.task.ChunkPushExecutor;
 import com.iflytek.astron.console.toolkit.tool.DataPermissionCheckTool;
+import com.iflytek.astron.console.toolkit.tool.KnowledgeConverter;
+import com.iflytek.astron.console.toolkit.util.InputStreamMultipartFile;
 import com.iflytek.astron.console.toolkit.util.S3Util;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.scheduling.annotation.Async;
@@ -42,13 +45,10 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -80,6 +80,16 @@ public class KnowledgeService {
     private KnowledgeMapper knowledgeMapper;
     @Resource
     private PreviewKnowledgeMapper previewKnowledgeMapper;
+    @Resource
+    private ChunkPushExecutor chunkPushExecutor;
+
+    private static final int DEFAULT_INSERT_BATCH_SIZE = 200;
+
+    /**
+     * Rows per multi-row INSERT when persisting knowledge chunks
+     */
+    @Value("${knowledge.insert-batch-size:200}")
+    private int insertBatchSize;
 
 
     /**
@@ -139,8 +149,7 @@ public class KnowledgeService {
             }
 
             // 4. Add knowledge point - using MySQL
-            MysqlKnowledge mysqlKnowledge = new MysqlKnowledge();
-            BeanUtils.copyProperties(knowledge, mysqlKnowledge);
+            MysqlKnowledge mysqlKnowledge = KnowledgeConverter.toMysql(knowledge);
             knowledgeMapper.insert(mysqlKnowledge);
             knowledge.setId(mysqlKnowledge.getId());
 
@@ -165,8 +174,7 @@ public class KnowledgeService {
         if (mysqlKnowledge == null) {
             throw new BusinessException(ResponseEnum.REPO_KNOWLEDGE_NOT_EXIST);
         }
-        Knowledge knowledge = new Knowledge();
-        BeanUtils.copyProperties(mysqlKnowledge, knowledge);
+        Knowledge knowledge = KnowledgeConverter.toKnowledge(mysqlKnowledge);
         List<String> uuids = preCheck(knowledgeVO.getFileId());
 
         String originKnowledge = knowledge.getContent().getString("content");
@@ -203,7 +211,7 @@ public class KnowledgeService {
                 updateKnowledgeArray.add(this.convertKnowledge2Object(knowledge, knowledge.getFileId()));
             }
             // 1. Modify knowledge point - using MySQL
-            BeanUtils.copyProperties(knowledge, mysqlKnowledge);
+            KnowledgeConverter.copy(knowledge, mysqlKnowledge);
             knowledgeMapper.updateById(mysqlKnowledge);
             this.updateKnowledge(uuids.get(0), uuids.get(1), updateKnowledgeArray);
         } catch (Exception e) {
@@ -227,8 +235,7 @@ public class KnowledgeService {
         if (mysqlKnowledge == null) {
             throw new BusinessException(ResponseEnum.REPO_KNOWLEDGE_NOT_EXIST);
         }
-        Knowledge knowledge = new Knowledge();
-        BeanUtils.copyProperties(mysqlKnowledge, knowledge);
+        Knowledge knowledge = KnowledgeConverter.toKnowledge(mysqlKnowledge);
 
         Integer originEnabled = knowledge.getEnabled();
         if (Objects.equals(originEnabled, enabled)) {
@@ -276,7 +283,7 @@ public class KnowledgeService {
                 this.deleteKnowledgeChunks(uuids.getFirst(), delKbList);
             }
             // Save using MySQL
-            BeanUtils.copyProperties(knowledge, mysqlKnowledge);
+            KnowledgeConverter.copy(knowledge, mysqlKnowledge);
             knowledgeMapper.updateById(mysqlKnowledge);
             return knowledge.getId();
         } catch (Exception e) {
@@ -312,8 +319,7 @@ public class KnowledgeService {
             List<MysqlKnowledge> mysqlKnowledges = knowledgeMapper.findByFileIdAndEnabled(uuids.getFirst(), 0);
             List<Knowledge> knowledges = new ArrayList<>();
             for (MysqlKnowledge mysql : mysqlKnowledges) {
-                Knowledge knowledge = new Knowledge();
-                BeanUtils.copyProperties(mysql, knowledge);
+                Knowledge knowledge = KnowledgeConverter.toKnowledge(mysql);
                 knowledges.add(knowledge);
             }
             // 2. Convert knowledge points to the structure required by the knowledge base
@@ -337,8 +343,7 @@ public class KnowledgeService {
                         // knowledgeRepository.saveAll(updateKnowledgeList);
                         // Use MySQL update
                         for (Knowledge knowledge : updateKnowledgeList) {
-                            MysqlKnowledge mysqlKnowledge = new MysqlKnowledge();
-                            BeanUtils.copyProperties(knowledge, mysqlKnowledge);
+                            MysqlKnowledge mysqlKnowledge = KnowledgeConverter.toMysql(knowledge);
                             knowledgeMapper.updateById(mysqlKnowledge);
                         }
                     }
@@ -398,8 +403,7 @@ public class KnowledgeService {
         }
 
         // Convert to Knowledge object to maintain compatibility
-        Knowledge knowledge = new Knowledge();
-        BeanUtils.copyProperties(mysqlKnowledge, knowledge);
+        Knowledge knowledge = KnowledgeConverter.toKnowledge(mysqlKnowledge);
 
         FileInfoV2 fileInfoV2 = fileInfoV2Service.getOnly(new QueryWrapper<FileInfoV2>().eq("uuid", knowledge.getFileId()));
         if (fileInfoV2 == null) {
@@ -514,9 +518,9 @@ public class KnowledgeService {
                 updateTaskAndFileStatus(fileInfoV2, extractKnowledgeTask, "Failed to get file from S3", false);
                 return null;
             }
-            byte[] fileBytes = inputStreamToByteArray(fileStream);
-            MultipartFile multipartFile = new MockMultipartFile(
-                    "file", fileInfoV2.getName(), "application/octet-stream", fileBytes);
+            // Stream the object into the upload request instead of buffering the whole file
+            MultipartFile multipartFile = new InputStreamMultipartFile(
+                    "file", fileInfoV2.getName(), "application/octet-stream", fileStream, -1);
 
             List<String> sliceConf = sliceConfig.getSeperator();
             List<String> separator = (sliceConf != null && !sliceConf.isEmpty())
@@ -806,8 +810,7 @@ public class KnowledgeService {
         // Save using MySQL
         List<MysqlPreviewKnowledge> mysqlPreviewList = new ArrayList<>();
         for (PreviewKnowledge preview : previewKnowledgeList) {
-            MysqlPreviewKnowledge mysql = new MysqlPreviewKnowledge();
-            BeanUtils.copyProperties(preview, mysql);
+            MysqlPreviewKnowledge mysql = KnowledgeConverter.toMysql(preview);
             mysqlPreviewList.add(mysql);
         }
         previewKnowledgeMapper.insertBatch(mysqlPreviewList);
@@ -850,14 +853,10 @@ public class KnowledgeService {
             }
             // Write new knowledge points
             if (!build.knowledgeList.isEmpty()) {
-                List<MysqlKnowledge> mysqlKnowledgeList = build.knowledgeList.stream().map(knowledge -> {
-                    MysqlKnowledge mysqlKnowledge = new MysqlKnowledge();
-                    BeanUtils.copyProperties(knowledge, mysqlKnowledge);
-                    return mysqlKnowledge;
-                }).collect(Collectors.toList());
-                for (MysqlKnowledge mysqlKnowledge : mysqlKnowledgeList) {
-                    knowledgeMapper.insert(mysqlKnowledge);
-                }
+                List<MysqlKnowledge> mysqlKnowledgeList = build.knowledgeList.stream()
+                        .map(KnowledgeConverter::toMysql)
+                        .collect(Collectors.toList());
+                insertKnowledgeInBatches(mysqlKnowledgeList);
             }
             restoreManualKnowledge(uuid.get(0), uuid.get(2));
         } catch (Exception e) {
@@ -881,8 +880,7 @@ public class KnowledgeService {
 
         List<PreviewKnowledge> list = new ArrayList<>();
         for (MysqlPreviewKnowledge mysql : mysqlList) {
-            PreviewKnowledge preview = new PreviewKnowledge();
-            BeanUtils.copyProperties(mysql, preview);
+            PreviewKnowledge preview = KnowledgeConverter.toPreview(mysql);
             list.add(preview);
         }
         return list;
@@ -894,13 +892,7 @@ public class KnowledgeService {
 
         // Use MySQL query to replace MongoDB query
         List<MysqlKnowledge> mysqlList = knowledgeMapper.findByFileIdAndSource(docUuid, 0);
-        List<Knowledge> result = new ArrayList<>();
-        for (MysqlKnowledge mysql : mysqlList) {
-            Knowledge knowledge = new Knowledge();
-            BeanUtils.copyProperties(mysql, knowledge);
-            result.add(knowledge);
-        }
-        return result;
+        return KnowledgeConverter.toKnowledgeList(mysqlList);
     }
 
     private JSONArray collectEnabledKbIds(List<Knowledge> oldKnowledgeList) {
@@ -923,8 +915,7 @@ public class KnowledgeService {
     private BuildResult buildNewKnowledges(List<PreviewKnowledge> previewKnowledgeList, String docUuid) {
         BuildResult r = new BuildResult();
         for (PreviewKnowledge p : previewKnowledgeList) {
-            Knowledge k = new Knowledge();
-            BeanUtils.copyProperties(p, k);
+            Knowledge k = KnowledgeConverter.fromPreview(p);
             JSONObject content = k.getContent();
             String auditSuggest = content.getString("auditSuggest");
             if (StringUtils.isEmpty(auditSuggest) || "pass".equals(auditSuggest)) {
@@ -945,7 +936,7 @@ public class KnowledgeService {
     }
 
     private static final class PushResult {
-        final List<String> failedKnowledge = new ArrayList<>();
+        final Set<String> failedKnowledge = new HashSet<>();
         final Map<String, String> cbgKnowledgeMap = new HashMap<>();
         String source;
     }
@@ -955,65 +946,48 @@ public class KnowledgeService {
         FileInfoV2 fileInfoV2 = fileInfoV2Service.getById(fileId);
         r.source = fileInfoV2.getSource();
 
-        final int maxSaveCount = 200;
-        final int maxThreadCount = 3;
-
-        if (ProjectContent.isAiuiRagCompatible(r.source)) {
-            // Synchronous batch push
-            for (int i = 0; i < jsonArray.size(); i += maxSaveCount) {
-                int end = Math.min(i + maxSaveCount, jsonArray.size());
-                JSONArray batch = new JSONArray();
-                List<String> presetFail = new ArrayList<>();
-                for (Object o : jsonArray.subList(i, end)) {
-                    JSONObject obj = (JSONObject) o;
-                    batch.add(obj);
-                    presetFail.add(obj.getString("chunkId"));
-                }
-                try {
-                    List<String> childFailed = this.addKnowledge4AIUI(uuid.get(0), uuid.get(1), batch, r.source);
-                    if (!CollectionUtils.isEmpty(childFailed)) {
-                        r.failedKnowledge.addAll(childFailed);
-                    }
-                } catch (Exception e) {
-                    log.error("Batch insert knowledge points failed (AIUI)", e);
-                    r.failedKnowledge.addAll(presetFail);
-                }
-            }
+        boolean aiui = ProjectContent.isAiuiRagCompatible(r.source);
+        if (!aiui && !ProjectContent.isCbgRagCompatible(r.source)) {
+            // Unknown source: no external push
             return r;
         }
 
-        if (ProjectContent.isCbgRagCompatible(r.source)) {
-            // Concurrent batch push
-            ExecutorService pool = new ThreadPoolExecutor(
-                    maxThreadCount, maxThreadCount, 0L, TimeUnit.MILLISECONDS,
-                    new LinkedBlockingQueue<>(),
-                    ThreadFactoryBuilder.create().setNamePrefix("addKnowledge4CBG-").build());
-            List<Future<Map<String, String>>> futures = new ArrayList<>();
-            try {
-                for (int i = 0; i < jsonArray.size(); i += maxSaveCount) {
-                    int end = Math.min(i + maxSaveCount, jsonArray.size());
-                    JSONArray batch = new JSONArray();
-                    for (Object o : jsonArray.subList(i, end)) {
-                        batch.add((JSONObject) o);
-                    }
-                    futures.add(pool.submit(() -> this.addKnowledge4CBG(uuid.get(0), uuid.get(1), batch, r.source)));
-                }
-                for (Future<Map<String, String>> f : futures) {
-                    try {
-                        Map<String, String> m = f.get();
-                        if (!m.isEmpty())
-                            r.cbgKnowledgeMap.putAll(m);
-                    } catch (Exception e) {
-                        log.error("Failed to get CBG task result", e);
+        int batchSize = chunkPushExecutor.getBatchSize();
+        List<JSONArray> batches = new ArrayList<>();
+        for (int i = 0; i < jsonArray.size(); i += batchSize) {
+            JSONArray batch = new JSONArray();
+            batch.addAll(jsonArray.subList(i, Math.min(i + batchSize, jsonArray.size())));
+            batches.add(batch);
+        }
+
+        if (aiui) {
+            // Concurrent batch push, a batch failing after its retries counts all its chunks as failed
+            List<ChunkPushExecutor.Outcome<List<String>>> outcomes = chunkPushExecutor.pushAll(batches,
+                    batch -> this.addKnowledge4AIUI(uuid.get(0), uuid.get(1), batch, r.source));
+            for (int i = 0; i < outcomes.size(); i++) {
+                ChunkPushExecutor.Outcome<List<String>> outcome = outcomes.get(i);
+                if (outcome.failed()) {
+                    log.error("Batch insert knowledge points failed (AIUI)", outcome.error());
+                    for (Object o : batches.get(i)) {
+                        r.failedKnowledge.add(((JSONObject) o).getString("chunkId"));
                     }
+                } else if (!CollectionUtils.isEmpty(outcome.value())) {
+                    r.failedKnowledge.addAll(outcome.value());
                 }
-            } finally {
-                pool.shutdown();
             }
             return r;
         }
 
-        // Unknown source: no external push
+        // Concurrent batch push
+        List<ChunkPushExecutor.Outcome<Map<String, String>>> outcomes = chunkPushExecutor.pushAll(batches,
+                batch -> this.addKnowledge4CBG(uuid.get(0), uuid.get(1), batch, r.source));
+        for (ChunkPushExecutor.Outcome<Map<String, String>> outcome : outcomes) {
+            if (outcome.failed()) {
+                log.error("Failed to get CBG task result", outcome.error());
+            } else if (!CollectionUtils.isEmpty(outcome.value())) {
+                r.cbgKnowledgeMap.putAll(outcome.value());
+            }
+        }
         return r;
     }
 
@@ -1051,24 +1025,40 @@ public class KnowledgeService {
 
         // Use MySQL query to replace MongoDB query
         List<MysqlKnowledge> mysqlList = knowledgeMapper.findByFileIdAndSource(docUuid, 1);
-        List<Knowledge> manualList = new ArrayList<>();
-        for (MysqlKnowledge mysql : mysqlList) {
-            Knowledge knowledge = new Knowledge();
-            BeanUtils.copyProperties(mysql, knowledge);
-            manualList.add(knowledge);
-        }
+        List<Knowledge> manualList = KnowledgeConverter.toKnowledgeList(mysqlList);
 
+        List<MysqlKnowledge> restored = new ArrayList<>(manualList.size());
         for (Knowledge k : manualList) {
             k.setFileId(lastUuid);
             k.setEnabled(1);
             // knowledgeRepository.save(k);
-
-            // Save using MySQL
-            MysqlKnowledge mysqlKnowledge = new MysqlKnowledge();
-            BeanUtils.copyProperties(k, mysqlKnowledge);
-            knowledgeMapper.insert(mysqlKnowledge);
+            restored.add(KnowledgeConverter.toMysql(k));
             // Original logic commented out updateChunk, keep not updating external library
         }
+        // Save using MySQL
+        insertKnowledgeInBatches(restored);
+    }
+
+    /**
+     * Persist knowledge rows with multi-row INSERTs of at most {@code knowledge.insert-batch-size}
+     * rows each, instead of one round trip per chunk. Ids are assigned here the same way MyBatis-Plus
+     * would for a single insert.
+     *
+     * @param rows knowledge rows to insert
+     */
+    private void insertKnowledgeInBatches(List<MysqlKnowledge> rows) {
+        if (CollectionUtils.isEmpty(rows)) {
+            return;
+        }
+        for (MysqlKnowledge row : rows) {
+            if (StringUtils.isBlank(row.getId())) {
+                row.setId(IdWorker.get32UUID());
+            }
+        }
+        int batchSize = insertBatchSize > 0 ? insertBatchSize : DEFAULT_INSERT_BATCH_SIZE;
+        for (List<MysqlKnowledge> batch : Lists.partition(rows, batchSize)) {
+            knowledgeMapper.insertBatch(batch);
+        }
     }
 
 
@@ -1093,12 +1083,7 @@ public class KnowledgeService {
 
         // Use MySQL query to replace MongoDB query
         List<MysqlKnowledge> mysqlKnowledges = knowledgeMapper.findByFileIdIn(fileUuids);
-        List<Knowledge> knowledges = new ArrayList<>();
-        for (MysqlKnowledge mysql : mysqlKnowledges) {
-            Knowledge knowledge = new Knowledge();
-            BeanUtils.copyProperties(mysql, knowledge);
-            knowledges.add(knowledge);
-        }
+        List<Knowledge> knowledges = KnowledgeConverter.toKnowledgeList(mysqlKnowledges);
 
         // ClientSession session = mongoClient.startSession();
         // try {
@@ -1534,22 +1519,4 @@ public class KnowledgeService {
         }
         return jsonArray;
     }
-
-    /**
-     * Convert InputStream to byte array
-     *
-     * @param inputStream input stream
-     * @return byte array
-     * @throws IOException if read fails
-     */
-    private byte[] inputStreamToByteArray(InputStream inputStream) throws IOException {
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-        int nRead;
-        byte[] data = new byte[8192];
-        while ((nRead = inputStream.read(data, 0, data.length)) != -1) {
-            buffer.write(data, 0, nRead);
-        }
-        buffer.flush();
-        return buffer.toByteArray();
-    }
 }
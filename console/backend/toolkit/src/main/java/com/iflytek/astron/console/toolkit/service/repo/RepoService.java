@@ -35,6 +35,7 @@ import com.iflytek.astron.console.toolkit.service.bot.BotRepoRelService;
 import com.iflytek.astron.console.toolkit.service.bot.BotRepoSubscriptService;
 import com.iflytek.astron.console.toolkit.service.extra.OpenPlatformService;
 import com.iflytek.astron.console.toolkit.service.group.GroupVisibilityService;
+import com.iflytek.astron.console.toolkit.task.HitCountAccumulator;
 import com.iflytek.astron.console.toolkit.tool.DataPermissionCheckTool;
 import com.iflytek.astron.console.toolkit.util.OkHttpUtil;
 import com.iflytek.astron.console.toolkit.util.S3Util;
@@ -119,6 +120,8 @@ public class RepoService extends ServiceImpl<RepoMapper, Repo> {
     @Resource
     FileDirectoryTreeService directoryTreeService;
     @Resource
+    HitCountAccumulator hitCountAccumulator;
+    @Resource
     S3Util s3UtilClient;
     @Resource
     SparkBotMapper sparkBotMapper;
@@ -745,14 +748,17 @@ public class RepoService extends ServiceImpl<RepoMapper, Repo> {
         if (CollectionUtils.isEmpty(fileDirectoryTrees)) {
             return new JSONArray();
         }
-        boolean hasEnabledFile = false;
+        // File id -> directory tree node of this repo, used to count hits without querying per chunk
+        Map<Long, Long> treeIdByFileId = new HashMap<>();
         for (FileDirectoryTree fileDirectoryTree : fileDirectoryTrees) {
-            FileInfoV2 fileInfoV2 = fileInfoV2Service.getById(fileDirectoryTree.getFileId());
-            if (fileInfoV2 != null && fileInfoV2.getEnabled() == 1) {
-                hasEnabledFile = true;
-                break;
+            if (fileDirectoryTree.getFileId() != null) {
+                treeIdByFileId.putIfAbsent(fileDirectoryTree.getFileId(), fileDirectoryTree.getId());
             }
         }
+        boolean hasEnabledFile = !treeIdByFileId.isEmpty()
+                && fileInfoV2Mapper.listByIds(new ArrayList<>(treeIdByFileId.keySet()))
+                        .stream()
+                        .anyMatch(f -> f.getEnabled() != null && f.getEnabled() == 1);
         if (!hasEnabledFile) {
             throw new BusinessException(ResponseEnum.REPO_FILE_DISABLED);
         }
@@ -774,19 +780,24 @@ public class RepoService extends ServiceImpl<RepoMapper, Repo> {
 
         QueryRespData data = JSON.parseObject(resp.getData().toString(), QueryRespData.class);
         List<ChunkInfo> results = data.getResults();
-        Map<Long, FileDirectoryTree> processedFileIds = new HashMap<>();
         if (!CollectionUtils.isEmpty(results)) {
+            List<String> docIds = results.stream().map(ChunkInfo::getDocId).filter(Objects::nonNull).distinct().collect(Collectors.toList());
+            Map<String, FileInfoV2> fileByUuid = new HashMap<>();
+            if (!docIds.isEmpty()) {
+                for (FileInfoV2 file : fileInfoV2Mapper.listByUuids(docIds)) {
+                    fileByUuid.putIfAbsent(file.getUuid(), file);
+                }
+            }
+            Set<Long> processedFileIds = new HashSet<>();
             for (ChunkInfo info : results) {
-                String docId = info.getDocId();
-                FileInfoV2 fileInfoV2 = fileInfoV2Service.getOnly(new QueryWrapper<FileInfoV2>().eq("uuid", docId));
-                // Skip if this fileId has already been processed
-                if (!processedFileIds.containsKey(fileInfoV2.getId())) {
-                    FileDirectoryTree fileDirectoryTree = directoryTreeService.getOnly(Wrappers.lambdaQuery(FileDirectoryTree.class)
-                            .eq(FileDirectoryTree::getAppId, repo.getId())
-                            .eq(FileDirectoryTree::getFileId, fileInfoV2.getId()));
-                    fileDirectoryTree.setHitCount(fileDirectoryTree.getHitCount() + 1);
-                    directoryTreeService.updateById(fileDirectoryTree);
-                    processedFileIds.put(fileInfoV2.getId(), fileDirectoryTree);
+                FileInfoV2 fileInfoV2 = fileByUuid.get(info.getDocId());
+                if (fileInfoV2 == null) {
+                    log.warn("Hit test chunk refers to unknown document, docId:{}", info.getDocId());
+                    continue;
+                }
+                // Count each file once per hit test, written in batches by the accumulator
+                if (processedFileIds.add(fileInfoV2.getId())) {
+                    hitCountAccumulator.increment(treeIdByFileId.get(fileInfoV2.getId()));
                 }
                 if (ProjectContent.isCbgRagCompatible(repo.getTag())) {
                     JSONObject references = info.getReferences();
@@ -13,7 +13,9 @@ import com.iflytek.astron.console.commons.enums.bot.BotTypeEnum;
 import com.iflytek.astron.console.commons.exception.BusinessException;
 import com.iflytek.astron.console.commons.response.ApiResult;
 import com.iflytek.astron.console.commons.util.space.SpaceInfoUtil;
+import com.iflytek.astron.console.toolkit.cache.WorkflowProtocolCache;
 import com.iflytek.astron.console.toolkit.entity.biz.workflow.BizWorkflowData;
+import com.iflytek.astron.console.toolkit.entity.biz.workflow.WorkflowSummary;
 import com.iflytek.astron.console.toolkit.entity.core.workflow.FlowProtocol;
 import com.iflytek.astron.console.toolkit.entity.dto.WorkflowReq;
 import com.iflytek.astron.console.toolkit.entity.table.workflow.WorkflowConfig;
@@ -58,6 +60,9 @@ public class VersionService {
     @Autowired
     private WorkflowConfigMapper workflowConfigMapper;
 
+    @Autowired
+    private WorkflowProtocolCache workflowProtocolCache;
+
 
     @Value("${spring.profiles.active}")
     String env;
@@ -173,6 +178,7 @@ public class VersionService {
             workflowReq.setName(workflow.getName());
             workflowReq.setDescription(workflow.getDescription());
             workflowReq.setData(JSONObject.parseObject(workflow.getData(), BizWorkflowData.class));
+            WorkflowSummary summary = workflowService.summarize(workflowReq.getData());
             FlowProtocol flowProtocol = workflowService.buildWorkflowData(workflowReq, createDto.getFlowId());
 
             // Data setting
@@ -180,6 +186,7 @@ public class VersionService {
             workflowVersion.setVersionNum(versionNum);
             workflowVersion.setName(createDto.getName());
             workflowVersion.setData(workflow.getData());
+            summary.applyTo(workflowVersion);
             workflowVersion.setSysData(JSONObject.toJSONString(flowProtocol));
             workflowVersion.setPublishChannel(createDto.getPublishChannel());
             workflowVersion.setPublishResult(createDto.getPublishResult());
@@ -211,6 +218,7 @@ public class VersionService {
 
             }
             workflowVersionMapper.insert(workflowVersion);
+            workflowProtocolCache.invalidate(createDto.getFlowId());
 
             return ApiResult.success(new JSONObject()
                     .fluentPut("workflowVersionId", workflowVersion.getId())
@@ -468,13 +476,20 @@ public class VersionService {
      * @param data New workflow data
      */
     public void updateFlowIdWorkflow(String flowId, String data) {
+        WorkflowSummary summary = workflowService.summarize(data);
         // Build update conditions
         LambdaUpdateWrapper<Workflow> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(Workflow::getFlowId, flowId)
                 .set(Workflow::getData, data)
-                .set(Workflow::getCanPublish, false);
+                .set(Workflow::getCanPublish, false)
+                .set(Workflow::getUpdateTime, new Date())
+                .set(Workflow::getIoSummary, summary.getIoSummary())
+                .set(Workflow::getNodeCount, summary.getNodeCount())
+                .set(Workflow::getIoDigest, summary.getIoDigest())
+                .set(Workflow::getHasQaNode, summary.getHasQaNode());
         // Execute update
         workflowMapper.update(null, updateWrapper);
+        workflowProtocolCache.invalidate(flowId);
     }
 
     /**
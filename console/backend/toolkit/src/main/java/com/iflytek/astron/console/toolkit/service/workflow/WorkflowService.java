@@ -35,6 +35,7 @@ import com.iflytek.astron.console.commons.service.bot.BotMarketDataService;
 import com.iflytek.astron.console.commons.util.RequestContextUtil;
 import com.iflytek.astron.console.commons.util.SseEmitterUtil;
 import com.iflytek.astron.console.commons.util.space.SpaceInfoUtil;
+import com.iflytek.astron.console.toolkit.cache.WorkflowProtocolCache;
 import com.iflytek.astron.console.toolkit.common.Result;
 import com.iflytek.astron.console.toolkit.common.constant.CommonConst;
 import com.iflytek.astron.console.toolkit.common.constant.WorkflowConst;
@@ -127,6 +128,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
@@ -175,6 +177,27 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
     private static final String FIELD_IS_LATEST = "isLatest";
     private static final String FIELD_LATEST_VER = "latestVersion";
     private static final String FIELD_CURR_VER = "currentVersion";
+    private static final Set<String> LIST_EXCLUDED_COLUMNS = Set.of("data", "published_data");
+
+    /**
+     * Bot bound to a workflow row, taken from ext or from user_lang_chain_info when ext is blank, -1
+     * when unbound. Mirrors the lookup in {@link #fixOnStatusList}.
+     */
+    private static final String BOUND_BOT_ID_SQL = "COALESCE(IF(ext IS NULL OR TRIM(ext) = '',"
+            + " (SELECT l.bot_id FROM user_lang_chain_info l WHERE l.flow_id = workflow.flow_id LIMIT 1),"
+            + " IF(JSON_VALID(ext), CAST(JSON_UNQUOTE(JSON_EXTRACT(ext, '$.botId')) AS SIGNED), NULL)), -1)";
+
+    /**
+     * Status shown in the list, computed like {@link #fixOnStatusList} so the status filter can page in
+     * the database: bot-bound flows are published when they have a successful publish record or their
+     * bot is approved in the market, other flows keep their own status.
+     */
+    private static final String LIST_STATUS_SQL = "(CASE"
+            + " WHEN " + BOUND_BOT_ID_SQL + " = -1 THEN status"
+            + " WHEN EXISTS (SELECT 1 FROM workflow_version v WHERE v.flow_id = workflow.flow_id AND v.publish_result = {0}) THEN 1"
+            + " WHEN EXISTS (SELECT 1 FROM chat_bot_base a JOIN chat_bot_market b ON a.id = b.bot_id"
+            + " WHERE a.id = " + BOUND_BOT_ID_SQL + " AND a.is_delete = 0 AND b.bot_status = 2) THEN 1"
+            + " ELSE 0 END) = {1}";
 
     @Value("${spring.profiles.active}")
     String env;
@@ -274,10 +297,13 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
     private RpaHandler rpaHandler;
     @Autowired
     private WorkflowConfigMapper workflowConfigMapper;
+    @Autowired
+    private WorkflowProtocolCache workflowProtocolCache;
 
     /**
-     * Query workflow list with pagination (in-memory pagination, can be replaced with database
-     * pagination if needed).
+     * Query workflow list with pagination. The list never reads the data columns, it uses the
+     * summary persisted on save instead, and pages are cut by the database including the status
+     * filter.
      *
      * @param apiSpaceId Space ID from API parameter
      * @param current Current page number
@@ -336,27 +362,128 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
                 wrapper.orderByDesc(Workflow::getUpdateTime);
             }
         }
+        if (status != null && status != -1) {
+            wrapper.apply(LIST_STATUS_SQL, PUBLISH_SUCCESS, status);
+            if (flowId != null) {
+                wrapper.ne(Workflow::getFlowId, flowId);
+            }
+        }
+        // Stable order across pages
+        wrapper.orderByDesc(Workflow::getId);
+        wrapper.select(Workflow.class, f -> !LIST_EXCLUDED_COLUMNS.contains(f.getColumn()));
 
-        final List<Workflow> list = this.list(wrapper);
+        final int safeCurrent = Math.max(1, Optional.ofNullable(current).orElse(1));
+        final int safeSize = Math.max(1, Optional.ofNullable(pageSize).orElse(10));
+        final Page<Workflow> page = this.page(new Page<>(safeCurrent, safeSize), wrapper);
+        final List<Workflow> list = page.getRecords();
         final List<WorkflowVo> workflowVos = new ArrayList<>(list.size());
 
         final Map<String, String> workflowVersionMap = new HashMap<>();
         fixOnStatusList(list, workflowVersionMap);
 
-        // Filter/mapping
-        delwithResultList(status, list, workflowVos, flowId, workflowVersionMap);
-
-        final int safeCurrent = Math.max(1, Optional.ofNullable(current).orElse(1));
-        final int safeSize = Math.max(1, Optional.ofNullable(pageSize).orElse(10));
-        final int start = Math.min((safeCurrent - 1) * safeSize, workflowVos.size());
-        final int end = Math.min(start + safeSize, workflowVos.size());
+        // Mapping
+        delwithResultList(list, workflowVos, workflowVersionMap);
 
         final PageData<WorkflowVo> pageData = new PageData<>();
-        pageData.setPageData(workflowVos.subList(start, end));
-        pageData.setTotalCount((long) workflowVos.size());
+        pageData.setPageData(workflowVos);
+        pageData.setTotalCount(page.getTotal());
         return pageData;
     }
 
+    /**
+     * Latest successful publish record of a flow with its summary only, summarising legacy records
+     * that were published before the summary existed.
+     */
+    private WorkflowVersion getLatestPublishedSummary(String flowId) {
+        WorkflowVersion version = workflowVersionMapper.selectOne(
+                Wrappers.lambdaQuery(WorkflowVersion.class)
+                        .select(WorkflowVersion::getId, WorkflowVersion::getName, WorkflowVersion::getIoSummary,
+                                WorkflowVersion::getNodeCount, WorkflowVersion::getIoDigest, WorkflowVersion::getHasQaNode)
+                        .eq(WorkflowVersion::getFlowId, flowId)
+                        .eq(WorkflowVersion::getPublishResult, PUBLISH_SUCCESS)
+                        .orderByDesc(WorkflowVersion::getCreatedTime)
+                        .last("LIMIT 1"));
+        if (version == null || version.getNodeCount() != null) {
+            return version;
+        }
+        WorkflowVersion withData = workflowVersionMapper.selectOne(
+                Wrappers.lambdaQuery(WorkflowVersion.class)
+                        .select(WorkflowVersion::getId, WorkflowVersion::getData)
+                        .eq(WorkflowVersion::getId, version.getId()));
+        WorkflowSummary summary = summarize(withData == null ? null : withData.getData());
+        summary.applyTo(version);
+        workflowVersionMapper.update(null, Wrappers.lambdaUpdate(WorkflowVersion.class)
+                .eq(WorkflowVersion::getId, version.getId())
+                .set(WorkflowVersion::getIoSummary, summary.getIoSummary())
+                .set(WorkflowVersion::getNodeCount, summary.getNodeCount())
+                .set(WorkflowVersion::getIoDigest, summary.getIoDigest())
+                .set(WorkflowVersion::getHasQaNode, summary.getHasQaNode()));
+        return version;
+    }
+
+    /**
+     * Summarise a workflow saved before the summary existed and persist it, keeping update_time.
+     */
+    private void backfillSummary(Workflow workflow) {
+        Workflow withData = getOne(Wrappers.lambdaQuery(Workflow.class)
+                .select(Workflow::getId, Workflow::getData)
+                .eq(Workflow::getId, workflow.getId()));
+        WorkflowSummary summary = summarize(withData == null ? null : withData.getData());
+        summary.applyTo(workflow);
+        update(Wrappers.lambdaUpdate(Workflow.class)
+                .eq(Workflow::getId, workflow.getId())
+                .set(Workflow::getIoSummary, summary.getIoSummary())
+                .set(Workflow::getNodeCount, summary.getNodeCount())
+                .set(Workflow::getIoDigest, summary.getIoDigest())
+                .set(Workflow::getHasQaNode, summary.getHasQaNode())
+                .set(Workflow::getUpdateTime, workflow.getUpdateTime()));
+    }
+
+    /**
+     * Summarise a protocol JSON string, see {@link #summarize(BizWorkflowData)}.
+     *
+     * @param data workflow data JSON string, may be blank
+     * @return summary of the protocol
+     */
+    public WorkflowSummary summarize(String data) {
+        return summarize(StringUtils.isBlank(data) ? null : JSON.parseObject(data, BizWorkflowData.class));
+    }
+
+    /**
+     * Compute the list summary of a protocol: IO inversion, node count, IO digest and Q&A node flag.
+     *
+     * @param data parsed protocol, may be null
+     * @return summary of the protocol
+     */
+    @SuppressWarnings("unchecked")
+    public WorkflowSummary summarize(BizWorkflowData data) {
+        WorkflowSummary summary = new WorkflowSummary();
+        List<BizWorkflowNode> nodes = data == null || data.getNodes() == null ? Collections.emptyList() : data.getNodes();
+        summary.setNodeCount(nodes.size());
+        summary.setHasQaNode(nodes.stream().anyMatch(n -> n.getId() != null && n.getId().startsWith("question-answer")));
+        if (nodes.isEmpty()) {
+            return summary;
+        }
+        try {
+            JSONObject ioInv = getIoTrans(nodes);
+            StringBuilder digest = new StringBuilder();
+            for (String key : Arrays.asList("inputs", "outputs")) {
+                digest.append(key).append('[');
+                for (BizInputOutput io : (List<BizInputOutput>) ioInv.get(key)) {
+                    digest.append(io.getName()).append(':').append(io.getSchema().getType())
+                            .append(':').append(io.getRequired()).append(';');
+                }
+                digest.append(']');
+            }
+            summary.setIoSummary(ioInv.toJSONString());
+            summary.setIoDigest(DigestUtils.md5DigestAsHex(digest.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            // Protocols without a complete start/end pair have no IO inversion
+            log.warn("Summarize workflow IO failed: {}", e.getMessage());
+        }
+        return summary;
+    }
+
     /**
      * Handle search parameter: decode + escape + like name/flowId.
      */
@@ -378,30 +505,24 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
     /**
      * Filter status and map to VO.
      */
-    private void delwithResultList(Integer status,
-            List<Workflow> list,
+    private void delwithResultList(List<Workflow> list,
             List<WorkflowVo> workflowVos,
-            String flowId,
             Map<String, String> workflowVersionMap) {
         for (Workflow w : list) {
+            if (w.getNodeCount() == null) {
+                backfillSummary(w);
+            }
             WorkflowVo vo = new WorkflowVo();
-            org.springframework.beans.BeanUtils.copyProperties(w, vo, "data", "publishedData");
+            org.springframework.beans.BeanUtils.copyProperties(w, vo, "data", "publishedData", "ioSummary");
             vo.setAddress(s3Util.getS3Prefix());
             vo.setColor(w.getAvatarColor());
-            vo.setHaQaNode(checkFlowHasQaNode(w)); // Project tool method (not shown), keep original implementation if none
-            if (StringUtils.isNotBlank(w.getData())) {
-                vo.setIoInversion(getIoTrans(JSON.parseObject(w.getData(), BizWorkflowData.class).getNodes()));
+            vo.setHaQaNode(Boolean.TRUE.equals(w.getHasQaNode()));
+            if (StringUtils.isNotBlank(w.getIoSummary())) {
+                vo.setIoInversion(JSON.parseObject(w.getIoSummary()));
             }
             vo.setSourceCode(String.valueOf(CommonConst.PlatformCode.COMMON));
             vo.setVersion(workflowVersionMap.get(w.getFlowId()));
-
-            if (status != null && status != -1) {
-                if (Objects.equals(status, w.getStatus()) && !w.getFlowId().equals(flowId)) {
-                    workflowVos.add(vo);
-                }
-            } else {
-                workflowVos.add(vo);
-            }
+            workflowVos.add(vo);
         }
     }
 
@@ -426,18 +547,16 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
             }
 
             if (botId != -1) {
+                dataPermissionCheckTool.checkWorkflowBelong(workflow, SpaceInfoUtil.getSpaceId());
                 // Get publish records from publish management (success means published)
-                Long count = workflowVersionMapper.selectCount(
-                        Wrappers.lambdaQuery(WorkflowVersion.class)
-                                .eq(WorkflowVersion::getFlowId, workflow.getFlowId())
-                                .eq(WorkflowVersion::getPublishResult, PUBLISH_SUCCESS));
-                if (count > 0) {
+                WorkflowVersion published = getLatestPublishedSummary(workflow.getFlowId());
+                if (published != null) {
                     statusFlag = 1;
-                    final WorkflowVo maxVersionByFlowId = getMaxVersionByFlowId(workflow.getFlowId());
-                    if (maxVersionByFlowId != null) {
-                        workflowVersionMap.put(workflow.getFlowId(), maxVersionByFlowId.getVersion());
-                        workflow.setData(maxVersionByFlowId.getData());
-                    }
+                    workflowVersionMap.put(workflow.getFlowId(), published.getName());
+                    workflow.setIoSummary(published.getIoSummary());
+                    workflow.setNodeCount(published.getNodeCount());
+                    workflow.setIoDigest(published.getIoDigest());
+                    workflow.setHasQaNode(published.getHasQaNode());
                 }
                 // No publish record, fallback to bot status
                 if (statusFlag != 1) {
@@ -1077,6 +1196,7 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
             workflow.setAdvancedConfig(initAdvanceConfig.getValue());
         }
         workflow.setType(createReq.getFlowType());
+        summarize(workflow.getData()).applyTo(workflow);
         save(workflow);
 
         // Sync to Spark database
@@ -1134,8 +1254,10 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
         replica.setCreateTime(now);
         replica.setUpdateTime(now);
         replica.setFlowId(nFlowId);
-        if (data != null)
+        if (data != null) {
             replica.setData(JSON.toJSONString(data));
+            summarize(data).applyTo(replica);
+        }
         if (src.getPublishedData() != null) {
             replica.setPublishedData(JSON.toJSONString(handleDataClone(nFlowId, src.getPublishedData())));
         }
@@ -1215,8 +1337,10 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
         replica.setCreateTime(now);
         replica.setUpdateTime(now);
         replica.setFlowId(nFlowId);
-        if (data != null)
+        if (data != null) {
             replica.setData(JSON.toJSONString(data));
+            summarize(data).applyTo(replica);
+        }
         if (src.getPublishedData() != null) {
             replica.setPublishedData(JSON.toJSONString(handleDataClone(nFlowId, src.getPublishedData())));
         }
@@ -1840,6 +1964,7 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
         } else {
             workflow.setData(dataString);
         }
+        summarize(bizWorkflowData).applyTo(workflow);
     }
 
     // ========== 5. SSRF/URL validation ==========
@@ -1903,6 +2028,7 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
         workflow.setAppUpdatable(false);
         workflow.setEditing(true);
         updateById(workflow);
+        workflowProtocolCache.invalidate(workflow.getFlowId());
     }
 
     // ========== 7. Conditional sync prologue ==========
@@ -2672,6 +2798,7 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
         replica.setUpdateTime(new Date());
         replica.setFlowId(addResult.data());
         replica.setData(JSON.toJSONString(bizWorkflowData));
+        summarize(bizWorkflowData).applyTo(replica);
         replica.setPublishedData(JSON.toJSONString(handleDataPublicCopy(nFlowId, appId, prototype.getPublishedData())));
         replica.setAppUpdatable(false);
         replica.setOrder(0);
@@ -3075,20 +3202,24 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
             // return SseEmitterUtil.newSseAndSendMessageClose("Too fast request! Please try again later");
             // }
 
-            Workflow workflow = getOne(Wrappers.lambdaQuery(Workflow.class).eq(Workflow::getFlowId, flowId));
+            // Without data, the protocol cache reads it only when the row changed
+            Workflow workflow = getOne(Wrappers.lambdaQuery(Workflow.class)
+                    .select(Workflow::getId, Workflow::getFlowId, Workflow::getAppId, Workflow::getUpdateTime)
+                    .eq(Workflow::getFlowId, flowId));
             Assert.notNull(workflow);
-            AkSk akSk = appService.remoteCallAkSk(workflow.getAppId());
+            AkSk akSk = workflowProtocolCache.getAkSk(workflow.getAppId());
             Assert.notNull(akSk);
             Assert.notEmpty(akSk.getApiKey());
             Assert.notEmpty(akSk.getApiSecret());
 
             // Multi-round conversation validation
-            BizWorkflowData bizWorkflowData = JSON.parseObject(workflow.getData(), BizWorkflowData.class);
+            BizWorkflowData bizWorkflowData = workflowProtocolCache.getData(workflow);
             List<BizWorkflowNode> nodes = bizWorkflowData.getNodes();
+            List<String> multiRoundAliases = getMultiRoundAliases();
             boolean isEnabled = false;
             int maxRounds = 0;
             for (BizWorkflowNode node : nodes) {
-                if (isMultiRoundEnabled(node)) {
+                if (isMultiRoundEnabled(node, multiRoundAliases)) {
                     isEnabled = true;
                     maxRounds = Math.max(maxRounds, getMaxRounds(node));
                 }
@@ -3143,9 +3274,11 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
             // return SseEmitterUtil.newSseAndSendMessageClose("Too fast request! Please try again later");
             // }
             String flowId = bizReq.getFlowId();
-            Workflow workflow = getOne(Wrappers.lambdaQuery(Workflow.class).eq(Workflow::getFlowId, flowId));
+            Workflow workflow = getOne(Wrappers.lambdaQuery(Workflow.class)
+                    .select(Workflow::getId, Workflow::getAppId)
+                    .eq(Workflow::getFlowId, flowId));
             Assert.notNull(workflow);
-            AkSk akSk = appService.remoteCallAkSk(workflow.getAppId());
+            AkSk akSk = workflowProtocolCache.getAkSk(workflow.getAppId());
             Assert.notNull(akSk);
             Assert.notEmpty(akSk.getApiKey());
             Assert.notEmpty(akSk.getApiSecret());
@@ -3228,19 +3361,28 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
         sysReq.setChatId(bizReq.getChatId());
     }
 
+    /**
+     * Node type prefixes that support multi-round conversation, read once per chat instead of per node
+     *
+     * @return
+     */
+    private List<String> getMultiRoundAliases() {
+        ConfigInfo configInfo = configInfoMapper.selectOne(new LambdaQueryWrapper<ConfigInfo>()
+                .eq(ConfigInfo::getCategory, "MULTI_ROUNDS_ALIAS_NAME")
+                .eq(ConfigInfo::getIsValid, 1));
+        return Arrays.asList(configInfo.getValue().split(","));
+    }
+
     /**
      * Whether multi-round conversation is supported
      *
      * @param node
+     * @param list
      * @return
      */
-    private boolean isMultiRoundEnabled(BizWorkflowNode node) {
+    private boolean isMultiRoundEnabled(BizWorkflowNode node, List<String> list) {
         BizNodeData data = node.getData();
         String prefix = node.getId().split("::")[0];
-        ConfigInfo configInfo = configInfoMapper.selectOne(new LambdaQueryWrapper<ConfigInfo>()
-                .eq(ConfigInfo::getCategory, "MULTI_ROUNDS_ALIAS_NAME")
-                .eq(ConfigInfo::getIsValid, 1));
-        List<String> list = Arrays.asList(configInfo.getValue().split(","));
         // Currently only decision nodes and large model nodes support enabling multi-round conversation
         if (!CollUtil.contains(list, prefix)) {
             return false;
@@ -3965,6 +4107,7 @@ public class WorkflowService extends ServiceImpl<WorkflowMapper, Workflow> {
             log.info("Start copying flow, sourceFlowId{}, targetFlowId{}, targetFlow source data {}", sourceFlowId, targetFlowId, targetFlow.getData());
             targetFlow.setData(sourceFlow.getData());
             targetFlow.setUpdateTime(new Date());
+            summarize(targetFlow.getData()).applyTo(targetFlow);
             this.updateById(targetFlow);
             return true;
         } else {
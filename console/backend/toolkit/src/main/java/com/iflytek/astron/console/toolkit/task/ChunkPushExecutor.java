@@ -0,0 +1,144 @@
+package com.iflytek.astron.console.toolkit.task;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.iflytek.astron.console.toolkit.config.properties.ChunkPushProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Shared executor for pushing knowledge chunks to the external knowledge bases. All documents share
+ * a fixed number of workers, and each document keeps at most
+ * {@link ChunkPushProperties#getMaxInFlightBatches()} batches outstanding, so the next batch starts
+ * as soon as an earlier one finishes. A failed batch is retried with jittered exponential backoff
+ * without holding a worker while it waits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChunkPushExecutor {
+
+    private final ChunkPushProperties properties;
+
+    private ExecutorService workers;
+
+    private ScheduledExecutorService retryScheduler;
+
+    @PostConstruct
+    public void init() {
+        int concurrency = Math.max(1, properties.getConcurrency());
+        // The queue is bounded in practice by the in-flight limit of each caller
+        workers = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                ThreadFactoryBuilder.create().setNamePrefix(properties.getThreadNamePrefix()).build());
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix(properties.getThreadNamePrefix() + "retry-").setDaemon(true).build());
+        log.info("[chunk-push] init: concurrency={}, maxInFlightBatches={}, maxAttempts={}",
+                concurrency, properties.getMaxInFlightBatches(), properties.getMaxAttempts());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+    }
+
+    public int getBatchSize() {
+        return Math.max(1, properties.getBatchSize());
+    }
+
+    /**
+     * Push every batch and wait for all of them. A batch that still fails after the last attempt is
+     * reported in its outcome and does not stop the others.
+     *
+     * @param batches Batches to push
+     * @param pusher Sends one batch and returns the backend result, throws on failure
+     * @return One outcome per batch, in batch order
+     */
+    public <B, T> List<Outcome<T>> pushAll(List<B> batches, Function<B, T> pusher) {
+        Semaphore inFlight = new Semaphore(Math.max(1, properties.getMaxInFlightBatches()));
+        List<CompletableFuture<T>> futures = new ArrayList<>(batches.size());
+        for (B batch : batches) {
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.whenComplete((result, error) -> inFlight.release());
+            attempt(batch, pusher, 1, future);
+            futures.add(future);
+        }
+
+        List<Outcome<T>> outcomes = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                outcomes.add(new Outcome<>(future.join(), null));
+            } catch (CompletionException e) {
+                outcomes.add(new Outcome<>(null, e.getCause() != null ? e.getCause() : e));
+            }
+        }
+        return outcomes;
+    }
+
+    private <B, T> void attempt(B batch, Function<B, T> pusher, int attempt, CompletableFuture<T> result) {
+        try {
+            workers.execute(() -> {
+                try {
+                    result.complete(pusher.apply(batch));
+                } catch (Exception e) {
+                    retryOrFail(batch, pusher, attempt, result, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private <B, T> void retryOrFail(B batch, Function<B, T> pusher, int attempt, CompletableFuture<T> result, Exception error) {
+        if (attempt >= properties.getMaxAttempts()) {
+            result.completeExceptionally(error);
+            return;
+        }
+        long delay = backoffMillis(attempt);
+        log.warn("Chunk push attempt {}/{} failed, retrying in {}ms: {}", attempt, properties.getMaxAttempts(), delay, error.getMessage());
+        try {
+            retryScheduler.schedule(() -> attempt(batch, pusher, attempt + 1, result), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Exponential backoff capped at the maximum, with the upper half randomized so that batches failing
+     * together do not retry together
+     */
+    long backoffMillis(int attempt) {
+        long initial = Math.max(1, properties.getInitialBackoffMillis());
+        long cap = Math.min(Math.max(initial, properties.getMaxBackoffMillis()), initial << Math.min(attempt - 1, 20));
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap - cap / 2 + 1);
+    }
+
+    /**
+     * Result of one batch, exactly one of {@code value} and {@code error} is set unless the pusher
+     * returned null
+     */
+    public record Outcome<T>(T value, Throwable error) {
+        public boolean failed() {
+            return error != null;
+        }
+    }
+}
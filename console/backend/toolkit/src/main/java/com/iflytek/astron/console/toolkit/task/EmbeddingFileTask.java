@@ -3,19 +3,25 @@ package com.iflytek.astron.console.toolkit.task;
 
 import com.iflytek.astron.console.toolkit.service.repo.FileInfoV2Service;
 
-public class EmbeddingFileTask implements Runnable {
+import java.util.concurrent.Callable;
+
+/**
+ * Embed stage worker, returns false while the file is still being parsed so the pipeline runs it
+ * again later
+ */
+public class EmbeddingFileTask implements Callable<Boolean> {
     private final FileInfoV2Service fileInfoV2Service;
     private final Long fileId;
-    private final Long spaceId;
+    private final boolean retry;
 
-    public EmbeddingFileTask(FileInfoV2Service fileInfoV2Service, Long fileId, Long spaceId) {
+    public EmbeddingFileTask(FileInfoV2Service fileInfoV2Service, Long fileId, boolean retry) {
         this.fileInfoV2Service = fileInfoV2Service;
         this.fileId = fileId;
-        this.spaceId = spaceId;
+        this.retry = retry;
     }
 
     @Override
-    public void run() {
-        fileInfoV2Service.embeddingFile(fileId, spaceId);
+    public Boolean call() {
+        return fileInfoV2Service.embeddingFileIfParsed(fileId, retry);
     }
 }
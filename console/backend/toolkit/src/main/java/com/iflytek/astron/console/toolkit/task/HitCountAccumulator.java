@@ -0,0 +1,80 @@
+package com.iflytek.astron.console.toolkit.task;
+
+import com.google.common.collect.Iterables;
+import com.iflytek.astron.console.toolkit.mapper.repo.FileDirectoryTreeMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for file hit counts of repository hit tests. Increments are summed in memory
+ * per directory tree node and written on a schedule as {@code hit_count = hit_count + n}, so
+ * concurrent hit tests no longer overwrite each other and a hit test does not wait on the update.
+ * Counts buffered when the instance dies without a clean shutdown are lost.
+ */
+@Slf4j
+@Component
+public class HitCountAccumulator {
+
+    @Resource
+    private FileDirectoryTreeMapper fileDirectoryTreeMapper;
+
+    /**
+     * Rows updated per statement
+     */
+    @Value("${repo.hit-count.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    /**
+     * Pending increments by directory tree id. {@link ConcurrentHashMap#merge} and
+     * {@link ConcurrentHashMap#remove} are atomic per key, so an increment lands either in the current
+     * flush or in the next one.
+     */
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+
+    public void increment(Long directoryTreeId) {
+        if (directoryTreeId != null) {
+            pending.merge(directoryTreeId, 1L, Long::sum);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${repo.hit-count.flush-interval-millis:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> drained = new LinkedHashMap<>();
+        for (Long id : new ArrayList<>(pending.keySet())) {
+            Long delta = pending.remove(id);
+            if (delta != null) {
+                drained.put(id, delta);
+            }
+        }
+        int batchSize = flushBatchSize > 0 ? flushBatchSize : 500;
+        for (List<Map.Entry<Long, Long>> batch : Iterables.partition(drained.entrySet(), batchSize)) {
+            Map<Long, Long> increments = new LinkedHashMap<>();
+            batch.forEach(e -> increments.put(e.getKey(), e.getValue()));
+            try {
+                fileDirectoryTreeMapper.incrementHitCounts(increments);
+            } catch (Exception e) {
+                // Put them back for the next run
+                log.warn("Flush hit counts failed, {} rows kept for retry: {}", increments.size(), e.getMessage());
+                increments.forEach((id, delta) -> pending.merge(id, delta, Long::sum));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+}
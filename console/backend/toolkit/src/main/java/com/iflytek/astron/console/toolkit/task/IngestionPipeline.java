@@ -0,0 +1,314 @@
+package com.iflytek.astron.console.toolkit.task;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.iflytek.astron.console.commons.constant.ResponseEnum;
+import com.iflytek.astron.console.commons.exception.BusinessException;
+import com.iflytek.astron.console.toolkit.config.properties.IngestionPipelineProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Shared pipeline for knowledge-file processing. Each stage has a fixed number of workers and a
+ * bounded queue that all requests share. Queued work is kept per tenant and dispatched round-robin,
+ * so one large upload cannot starve the others. A full stage rejects new work with
+ * {@link ResponseEnum#REPO_FILE_PROCESSING_BUSY}.
+ */
+@Slf4j
+@Component
+public class IngestionPipeline {
+
+    public enum Stage {
+        SLICE, EMBED
+    }
+
+    @Autowired
+    private IngestionPipelineProperties properties;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<Stage, StageQueue> stages = new EnumMap<>(Stage.class);
+
+    private ScheduledExecutorService pollScheduler;
+
+    @PostConstruct
+    public void init() {
+        for (Stage stage : Stage.values()) {
+            IngestionPipelineProperties.StageLimit limit = stage == Stage.SLICE ? properties.getSlice() : properties.getEmbed();
+            StageQueue queue = new StageQueue(stage, limit.getConcurrency(), limit.getQueueCapacity());
+            stages.put(stage, queue);
+            if (meterRegistry != null) {
+                String tag = stage.name().toLowerCase();
+                Gauge.builder("knowledge.ingestion.queue.depth", queue, StageQueue::queued)
+                        .description("Files queued for a stage and not running yet")
+                        .tag("stage", tag)
+                        .register(meterRegistry);
+                Gauge.builder("knowledge.ingestion.waiting", queue, StageQueue::waiting)
+                        .description("Files waiting for an earlier stage to finish")
+                        .tag("stage", tag)
+                        .register(meterRegistry);
+                Gauge.builder("knowledge.ingestion.running", queue, StageQueue::running)
+                        .tag("stage", tag)
+                        .register(meterRegistry);
+                queue.rejected = Counter.builder("knowledge.ingestion.rejected")
+                        .tag("stage", tag)
+                        .register(meterRegistry);
+            }
+        }
+        pollScheduler = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix(properties.getThreadNamePrefix() + "poll-").setDaemon(true).build());
+        log.info("[ingestion-pipeline] init: slice={}, embed={}", properties.getSlice(), properties.getEmbed());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pollScheduler.shutdownNow();
+        stages.values().forEach(queue -> queue.workers.shutdown());
+    }
+
+    /**
+     * Reserve queue slots for a batch before touching any file, so a batch is admitted either whole or
+     * not at all. Slots not used by {@link Admission#submit} are released when the admission is closed.
+     *
+     * @param stage Target stage
+     * @param count Number of files in the batch
+     * @return Admission holding the reserved slots
+     * @throws BusinessException if the stage cannot queue that many files
+     */
+    public Admission admit(Stage stage, int count) {
+        StageQueue queue = stages.get(stage);
+        queue.reserve(count);
+        return new Admission(queue, count);
+    }
+
+    public <T> CompletableFuture<T> submit(Stage stage, String tenant, Callable<T> worker) {
+        try (Admission admission = admit(stage, 1)) {
+            return admission.submit(tenant, worker);
+        }
+    }
+
+    /**
+     * Tenant key used for fair scheduling, the space when the file belongs to one and the owner
+     * otherwise
+     */
+    public static String tenantOf(Long spaceId, String uid) {
+        return spaceId != null ? "space:" + spaceId : "user:" + uid;
+    }
+
+    public final class Admission implements AutoCloseable {
+        private final StageQueue queue;
+        private int remaining;
+
+        private Admission(StageQueue queue, int reserved) {
+            this.queue = queue;
+            this.remaining = reserved;
+        }
+
+        public <T> CompletableFuture<T> submit(String tenant, Callable<T> worker) {
+            take();
+            CompletableFuture<T> result = new CompletableFuture<>();
+            queue.enqueue(tenant, () -> {
+                try {
+                    result.complete(worker.call());
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            return result;
+        }
+
+        /**
+         * Submit a worker that depends on an earlier stage. The worker returns false while it cannot run
+         * yet; it then gives up its slot and is queued again after the poll interval, until
+         * max-wait-minutes has passed.
+         */
+        public CompletableFuture<Void> submitWhenReady(String tenant, Callable<Boolean> worker) {
+            take();
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(properties.getMaxWaitMinutes());
+            queue.enqueue(tenant, () -> runWhenReady(queue, tenant, worker, deadline, result));
+            return result;
+        }
+
+        private void take() {
+            if (remaining <= 0) {
+                throw new IllegalStateException("No reserved slot left in " + queue.stage + " admission");
+            }
+            remaining--;
+        }
+
+        @Override
+        public void close() {
+            queue.release(remaining);
+            remaining = 0;
+        }
+    }
+
+    private void runWhenReady(StageQueue queue, String tenant, Callable<Boolean> worker, long deadline, CompletableFuture<Void> result) {
+        try {
+            if (Boolean.TRUE.equals(worker.call())) {
+                result.complete(null);
+                return;
+            }
+        } catch (Exception e) {
+            log.error("[ingestion-pipeline] {} worker failed, tenant={}", queue.stage, tenant, e);
+            result.completeExceptionally(e);
+            return;
+        }
+        if (System.nanoTime() - deadline > 0) {
+            log.warn("[ingestion-pipeline] {} worker gave up waiting, tenant={}", queue.stage, tenant);
+            result.completeExceptionally(new TimeoutException("Waited too long for an earlier stage"));
+            return;
+        }
+        queue.park();
+        try {
+            pollScheduler.schedule(() -> queue.unpark(tenant, () -> runWhenReady(queue, tenant, worker, deadline, result)),
+                    properties.getPollIntervalMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            queue.unpark(null, null);
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Per-stage state. queued counts jobs in the tenant queues, waiting counts jobs parked until their
+     * next poll and reserved counts admitted slots not submitted yet. All three share the capacity.
+     */
+    private final class StageQueue {
+        private final Stage stage;
+        private final int concurrency;
+        private final int capacity;
+        private final ExecutorService workers;
+        private final Map<String, Deque<Runnable>> tenantQueues = new HashMap<>();
+        private final Deque<String> readyTenants = new ArrayDeque<>();
+        private int queued;
+        private int waiting;
+        private int reserved;
+        private int running;
+        private Counter rejected;
+
+        private StageQueue(Stage stage, int concurrency, int capacity) {
+            this.stage = stage;
+            this.concurrency = concurrency;
+            this.capacity = capacity;
+            this.workers = Executors.newFixedThreadPool(concurrency,
+                    ThreadFactoryBuilder.create().setNamePrefix(properties.getThreadNamePrefix() + stage.name().toLowerCase() + "-").build());
+        }
+
+        private synchronized void reserve(int count) {
+            if (queued + waiting + reserved + count > capacity) {
+                if (rejected != null) {
+                    rejected.increment(count);
+                }
+                log.warn("[ingestion-pipeline] {} rejected {} files, queued={}, waiting={}, capacity={}",
+                        stage, count, queued, waiting, capacity);
+                throw new BusinessException(ResponseEnum.REPO_FILE_PROCESSING_BUSY);
+            }
+            reserved += count;
+        }
+
+        private synchronized void release(int count) {
+            reserved -= count;
+        }
+
+        /**
+         * Queue a job on a slot reserved before
+         */
+        private synchronized void enqueue(String tenant, Runnable job) {
+            reserved--;
+            append(tenant, job);
+        }
+
+        private synchronized void park() {
+            waiting++;
+        }
+
+        /**
+         * Move a parked job back into its tenant queue, a null job only drops the parked slot
+         */
+        private synchronized void unpark(String tenant, Runnable job) {
+            waiting--;
+            if (job != null) {
+                append(tenant, job);
+            }
+        }
+
+        private void append(String tenant, Runnable job) {
+            Deque<Runnable> jobs = tenantQueues.computeIfAbsent(tenant, key -> new ArrayDeque<>());
+            if (jobs.isEmpty()) {
+                readyTenants.addLast(tenant);
+            }
+            jobs.addLast(job);
+            queued++;
+            dispatch();
+        }
+
+        /**
+         * Hand one job per tenant in turn to the workers while there are free ones
+         */
+        private void dispatch() {
+            while (running < concurrency && !readyTenants.isEmpty()) {
+                String tenant = readyTenants.pollFirst();
+                Deque<Runnable> jobs = tenantQueues.get(tenant);
+                Runnable job = jobs.pollFirst();
+                if (jobs.isEmpty()) {
+                    tenantQueues.remove(tenant);
+                } else {
+                    readyTenants.addLast(tenant);
+                }
+                queued--;
+                running++;
+                try {
+                    workers.execute(() -> {
+                        try {
+                            job.run();
+                        } finally {
+                            finished();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Only happens on shutdown
+                    running--;
+                    log.warn("[ingestion-pipeline] {} dropped a job on shutdown, tenant={}", stage, tenant);
+                }
+            }
+        }
+
+        private synchronized void finished() {
+            running--;
+            dispatch();
+        }
+
+        private synchronized int queued() {
+            return queued;
+        }
+
+        private synchronized int waiting() {
+            return waiting;
+        }
+
+        private synchronized int running() {
+            return running;
+        }
+    }
+}
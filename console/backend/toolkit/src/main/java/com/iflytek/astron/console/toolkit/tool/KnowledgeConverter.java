@@ -0,0 +1,107 @@
+package com.iflytek.astron.console.toolkit.tool;
+
+import com.iflytek.astron.console.toolkit.entity.mongo.Knowledge;
+import com.iflytek.astron.console.toolkit.entity.mongo.PreviewKnowledge;
+import com.iflytek.astron.console.toolkit.entity.table.knowledge.MysqlKnowledge;
+import com.iflytek.astron.console.toolkit.entity.table.knowledge.MysqlPreviewKnowledge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Field-by-field conversion between the knowledge documents and their MySQL rows. Replaces
+ * reflective {@code BeanUtils.copyProperties} on the chunk hot paths; a field added to one side has
+ * to be added here as well. Content objects are shared, not cloned, like the bean copy did.
+ */
+public final class KnowledgeConverter {
+
+    private KnowledgeConverter() {}
+
+    public static MysqlKnowledge toMysql(Knowledge source) {
+        MysqlKnowledge target = new MysqlKnowledge();
+        copy(source, target);
+        return target;
+    }
+
+    /**
+     * Copy every field of a knowledge point onto an existing row
+     */
+    public static void copy(Knowledge source, MysqlKnowledge target) {
+        target.setId(source.getId());
+        target.setFileId(source.getFileId());
+        target.setSeqId(source.getSeqId());
+        target.setContent(source.getContent());
+        target.setCharCount(source.getCharCount());
+        target.setEnabled(source.getEnabled());
+        target.setSource(source.getSource());
+        target.setTestHitCount(source.getTestHitCount());
+        target.setDialogHitCount(source.getDialogHitCount());
+        target.setCoreRepoName(source.getCoreRepoName());
+        target.setCreatedAt(source.getCreatedAt());
+        target.setUpdatedAt(source.getUpdatedAt());
+    }
+
+    public static Knowledge toKnowledge(MysqlKnowledge source) {
+        Knowledge target = new Knowledge();
+        target.setId(source.getId());
+        target.setFileId(source.getFileId());
+        target.setSeqId(source.getSeqId());
+        target.setContent(source.getContent());
+        target.setCharCount(source.getCharCount());
+        target.setEnabled(source.getEnabled());
+        target.setSource(source.getSource());
+        target.setTestHitCount(source.getTestHitCount());
+        target.setDialogHitCount(source.getDialogHitCount());
+        target.setCoreRepoName(source.getCoreRepoName());
+        target.setCreatedAt(source.getCreatedAt());
+        target.setUpdatedAt(source.getUpdatedAt());
+        return target;
+    }
+
+    public static List<Knowledge> toKnowledgeList(List<MysqlKnowledge> sources) {
+        List<Knowledge> targets = new ArrayList<>(sources.size());
+        for (MysqlKnowledge source : sources) {
+            targets.add(toKnowledge(source));
+        }
+        return targets;
+    }
+
+    /**
+     * Start a knowledge point from a preview chunk, only the fields both share are set
+     */
+    public static Knowledge fromPreview(PreviewKnowledge source) {
+        Knowledge target = new Knowledge();
+        target.setId(source.getId());
+        target.setFileId(source.getFileId());
+        target.setSeqId(source.getSeqId());
+        target.setContent(source.getContent());
+        target.setCharCount(source.getCharCount());
+        target.setCreatedAt(source.getCreatedAt());
+        target.setUpdatedAt(source.getUpdatedAt());
+        return target;
+    }
+
+    public static MysqlPreviewKnowledge toMysql(PreviewKnowledge source) {
+        MysqlPreviewKnowledge target = new MysqlPreviewKnowledge();
+        target.setId(source.getId());
+        target.setFileId(source.getFileId());
+        target.setSeqId(source.getSeqId());
+        target.setContent(source.getContent());
+        target.setCharCount(source.getCharCount());
+        target.setCreatedAt(source.getCreatedAt());
+        target.setUpdatedAt(source.getUpdatedAt());
+        return target;
+    }
+
+    public static PreviewKnowledge toPreview(MysqlPreviewKnowledge source) {
+        PreviewKnowledge target = new PreviewKnowledge();
+        target.setId(source.getId());
+        target.setFileId(source.getFileId());
+        target.setSeqId(source.getSeqId());
+        target.setContent(source.getContent());
+        target.setCharCount(source.getCharCount());
+        target.setCreatedAt(source.getCreatedAt());
+        target.setUpdatedAt(source.getUpdatedAt());
+        return target;
+    }
+}
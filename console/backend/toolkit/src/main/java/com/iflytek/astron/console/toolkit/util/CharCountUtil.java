@@ -0,0 +1,57 @@
+package com.iflytek.astron.console.toolkit.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Character counting over UTF-8 streams with a fixed-size buffer, so the cost does not depend on the
+ * file or line length.
+ */
+public final class CharCountUtil {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private CharCountUtil() {}
+
+    /**
+     * Count characters the way line-by-line reading does: every line counts its length plus one for
+     * the line break, where {@code \n}, {@code \r} and {@code \r\n} each end a line and a trailing
+     * break does not start another line. Malformed input is decoded to replacement characters.
+     *
+     * @param inputStream UTF-8 text, not closed by this method
+     * @return character count including one per line
+     * @throws IOException if reading fails
+     */
+    public static int countChars(InputStream inputStream) throws IOException {
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        char[] buffer = new char[BUFFER_SIZE];
+        int count = 0;
+        boolean lineOpen = false;
+        boolean afterCarriageReturn = false;
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (c == '\n') {
+                    if (!afterCarriageReturn) {
+                        count++;
+                    }
+                    lineOpen = false;
+                    afterCarriageReturn = false;
+                } else if (c == '\r') {
+                    count++;
+                    lineOpen = false;
+                    afterCarriageReturn = true;
+                } else {
+                    count++;
+                    lineOpen = true;
+                    afterCarriageReturn = false;
+                }
+            }
+        }
+        return lineOpen ? count + 1 : count;
+    }
+}
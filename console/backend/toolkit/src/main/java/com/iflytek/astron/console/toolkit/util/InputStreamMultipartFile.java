@@ -0,0 +1,75 @@
+package com.iflytek.astron.console.toolkit.util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * {@link MultipartFile} over a stream that can be read once, used to forward large objects (e.g.
+ * from S3) without holding them in memory.
+ *
+ * <p>
+ * {@link #getInputStream()} always returns the same stream, and {@link #getBytes()} drains it. The
+ * size is {@code -1} when unknown, which makes {@link OkHttpUtil} send the part with chunked
+ * encoding. The caller owns the stream and closes it.
+ * </p>
+ */
+public class InputStreamMultipartFile implements MultipartFile {
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final InputStream inputStream;
+    private final long size;
+
+    public InputStreamMultipartFile(String name, String originalFilename, String contentType, InputStream inputStream, long size) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.inputStream = inputStream;
+        this.size = size;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return inputStream.readAllBytes();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(inputStream, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -6,6 +6,9 @@ import jakarta.servlet.http.Cookie;
 import okhttp3.*;
 import okhttp3.internal.sse.RealEventSource;
 import okhttp3.sse.*;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.multipart.MultipartFile;
@@ -804,14 +807,12 @@ public class OkHttpUtil {
                 }
                 if (object instanceof MultipartFile) {
                     MultipartFile multipartFile = (MultipartFile) object;
-                    builder.addFormDataPart(key, multipartFile.getOriginalFilename(),
-                            RequestBody.create(multipartFile.getBytes(), MediaType.parse("multipart/form-data")));
+                    builder.addFormDataPart(key, multipartFile.getOriginalFilename(), multipartFileBody(multipartFile));
                 } else if (object instanceof MultipartFile[]) {
                     // Handle MultipartFile[] type
                     MultipartFile[] multipartFiles = (MultipartFile[]) object;
                     for (MultipartFile multipartFile : multipartFiles) {
-                        builder.addFormDataPart(key, multipartFile.getOriginalFilename(),
-                                RequestBody.create(multipartFile.getBytes(), MediaType.parse("multipart/form-data")));
+                        builder.addFormDataPart(key, multipartFile.getOriginalFilename(), multipartFileBody(multipartFile));
                     }
                 } else {
                     builder.addFormDataPart(key, object.toString());
@@ -825,6 +826,51 @@ public class OkHttpUtil {
         return builder.build();
     }
 
+    /**
+     * Request body that copies a {@link MultipartFile} from its input stream while the request is
+     * written, in Okio segments, instead of loading the whole file with {@code getBytes()}.
+     *
+     * <p>
+     * A negative size is sent with chunked encoding. An {@link InputStreamMultipartFile} can only be
+     * read once, so its body is one-shot and OkHttp will not retry it.
+     * </p>
+     *
+     * @param multipartFile file to stream
+     * @return streaming {@link RequestBody}
+     */
+    private static RequestBody multipartFileBody(MultipartFile multipartFile) {
+        MediaType mediaType = MediaType.parse("multipart/form-data");
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return multipartFile.getSize();
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return multipartFile instanceof InputStreamMultipartFile;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                InputStream inputStream = multipartFile.getInputStream();
+                if (multipartFile instanceof InputStreamMultipartFile) {
+                    // The owner closes a shared stream
+                    sink.writeAll(Okio.source(inputStream));
+                    return;
+                }
+                try (Source source = Okio.source(inputStream)) {
+                    sink.writeAll(source);
+                }
+            }
+        };
+    }
+
     /**
      * Concatenate all cookies of the request into a single <code>Cookie</code> header string.
      *
@@ -196,17 +196,17 @@ public class S3Util {
     /**
      * Get an object as an input stream (the caller is responsible for closing it).
      *
+     * <p>
+     * The stream reads the object body from the open S3 response as it is consumed, so large objects
+     * are never held in memory; the connection is released on close.
+     * </p>
+     *
      * @param key object key
-     * @return a new {@link ByteArrayInputStream} wrapping the full object content, or {@code null} when
-     *         any error occurs
+     * @return the object content stream, or {@code null} when any error occurs
      */
     public InputStream getObject(String key) {
         try {
-            byte[] bytes =
-                    minioClient
-                            .getObject(io.minio.GetObjectArgs.builder().bucket(bucketName).object(key).build())
-                            .readAllBytes();
-            return new ByteArrayInputStream(bytes);
+            return minioClient.getObject(io.minio.GetObjectArgs.builder().bucket(bucketName).object(key).build());
         } catch (Exception e) {
             log.error("S3 getObject error: {}", e.getMessage(), e);
             return null;
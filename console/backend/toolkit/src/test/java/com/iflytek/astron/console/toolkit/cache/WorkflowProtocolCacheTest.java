@@ -0,0 +1,143 @@
+package com.iflytek.astron.console.toolkit.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.iflytek.astron.console.commons.constant.ResponseEnum;
+import com.iflytek.astron.console.commons.entity.workflow.Workflow;
+import com.iflytek.astron.console.commons.exception.BusinessException;
+import com.iflytek.astron.console.toolkit.entity.biz.external.app.AkSk;
+import com.iflytek.astron.console.toolkit.entity.biz.workflow.BizWorkflowData;
+import com.iflytek.astron.console.toolkit.mapper.workflow.WorkflowMapper;
+import com.iflytek.astron.console.toolkit.service.extra.AppService;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WorkflowProtocolCache.
+ */
+@ExtendWith(MockitoExtension.class)
+class WorkflowProtocolCacheTest {
+
+    private static final String DATA_V1 = "{\"nodes\":[{\"id\":\"node-start::1\"}],\"edges\":[]}";
+    private static final String DATA_V2 = "{\"nodes\":[{\"id\":\"node-start::1\"},{\"id\":\"node-end::2\"}],\"edges\":[]}";
+
+    @Mock
+    private AppService appService;
+
+    @Mock
+    private WorkflowMapper workflowMapper;
+
+    @InjectMocks
+    private WorkflowProtocolCache cache;
+
+    @BeforeAll
+    static void initMybatisPlus() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Workflow.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "expireMinutes", 30L);
+        ReflectionTestUtils.setField(cache, "credentialExpireSeconds", 300L);
+        cache.init();
+    }
+
+    /**
+     * Projection passed by workflow chat, without data
+     */
+    private static Workflow stamp(long updateTime) {
+        Workflow workflow = new Workflow();
+        workflow.setId(1L);
+        workflow.setFlowId("flow-1");
+        workflow.setUpdateTime(new Date(updateTime));
+        return workflow;
+    }
+
+    private static Workflow row(String data, long updateTime) {
+        Workflow workflow = stamp(updateTime);
+        workflow.setData(data);
+        return workflow;
+    }
+
+    @Test
+    void getData_sameUpdateTime_returnsParsedInstanceWithoutReadingData() {
+        when(workflowMapper.selectOne(any())).thenReturn(row(DATA_V1, 1000L));
+
+        BizWorkflowData first = cache.getData(stamp(1000L));
+        BizWorkflowData second = cache.getData(stamp(1000L));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getNodes()).hasSize(1);
+        assertThatThrownBy(() -> first.getNodes().clear()).isInstanceOf(UnsupportedOperationException.class);
+        verify(workflowMapper, times(1)).selectOne(any());
+    }
+
+    @Test
+    void getData_changedUpdateTimeOrInvalidate_reloadsData() {
+        when(workflowMapper.selectOne(any())).thenReturn(row(DATA_V1, 1000L), row(DATA_V2, 2000L), row(DATA_V2, 2000L));
+        BizWorkflowData first = cache.getData(stamp(1000L));
+
+        // Saved by another node
+        BizWorkflowData changed = cache.getData(stamp(2000L));
+        assertThat(changed).isNotSameAs(first);
+        assertThat(changed.getNodes()).hasSize(2);
+
+        cache.invalidate("flow-1");
+        assertThat(cache.getData(stamp(2000L))).isNotSameAs(changed);
+        verify(workflowMapper, times(3)).selectOne(any());
+    }
+
+    @Test
+    void getData_stampedWithTheUpdateTimeReadWithTheData() {
+        // Saved again between the projection and the data read
+        when(workflowMapper.selectOne(any())).thenReturn(row(DATA_V2, 2000L));
+
+        BizWorkflowData first = cache.getData(stamp(1000L));
+
+        assertThat(cache.getData(stamp(2000L))).isSameAs(first);
+        verify(workflowMapper, times(1)).selectOne(any());
+    }
+
+    @Test
+    void getData_blankData_returnsNull() {
+        when(workflowMapper.selectOne(any())).thenReturn(row("", 1000L));
+
+        assertThat(cache.getData(stamp(1000L))).isNull();
+    }
+
+    @Test
+    void getAkSk_cachedPerApp() {
+        when(appService.remoteCallAkSk("app-1")).thenReturn(new AkSk("key", "secret"));
+
+        AkSk first = cache.getAkSk("app-1");
+        first.setApiKey("changed");
+        AkSk second = cache.getAkSk("app-1");
+
+        assertThat(second.getApiKey()).isEqualTo("key");
+        assertThat(second.getApiSecret()).isEqualTo("secret");
+        verify(appService, times(1)).remoteCallAkSk("app-1");
+    }
+
+    @Test
+    void getAkSk_failure_propagatesAndIsNotCached() {
+        when(appService.remoteCallAkSk("app-1"))
+                .thenThrow(new BusinessException(ResponseEnum.RESPONSE_FAILED))
+                .thenReturn(new AkSk("key", "secret"));
+
+        assertThatThrownBy(() -> cache.getAkSk("app-1")).isInstanceOf(BusinessException.class);
+        assertThat(cache.getAkSk("app-1").getApiKey()).isEqualTo("key");
+    }
+}
@@ -0,0 +1,68 @@
+package com.iflytek.astron.console.toolkit.config.jooq;
+
+import org.jooq.Query;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JooqBatchExecutorTest {
+
+    private static Query query(String sql) {
+        Query q = mock(Query.class);
+        when(q.getSQL()).thenReturn(sql);
+        when(q.getBindValues()).thenReturn(List.of());
+        return q;
+    }
+
+    private static final List<Map<String, Object>> ROWS = List.of(
+            Map.of("name", "a"),
+            Map.of("name", "b"),
+            Map.of("name", "c"));
+
+    @Test
+    void sendsWholeBatchInOneStatement() {
+        List<String> sent = new ArrayList<>();
+        JooqBatchExecutor.ResultSummary sum = new JooqBatchExecutor.ResultSummary();
+
+        JooqBatchExecutor.executeBatch(ROWS, 0, 3,
+                rows -> query("batch-" + rows.size()),
+                row -> query("row-" + row.get("name")),
+                (sql, params) -> sent.add(sql),
+                sum);
+
+        assertThat(sent).containsExactly("batch-3");
+        assertThat(sum.success).isEqualTo(3);
+        assertThat(sum.failed).isZero();
+    }
+
+    @Test
+    void fallsBackToRowsWhenBatchFails() {
+        List<String> sent = new ArrayList<>();
+        JooqBatchExecutor.ResultSummary sum = new JooqBatchExecutor.ResultSummary();
+
+        JooqBatchExecutor.executeBatch(ROWS, 500, 3,
+                rows -> query("batch"),
+                row -> query("row-" + row.get("name")),
+                (sql, params) -> {
+                    if ("batch".equals(sql) || "row-b".equals(sql)) {
+                        throw new IllegalArgumentException("bad value in " + sql);
+                    }
+                    sent.add(sql);
+                },
+                sum);
+
+        assertThat(sent).containsExactly("row-a", "row-c");
+        assertThat(sum.success).isEqualTo(2);
+        assertThat(sum.failed).isEqualTo(1);
+        assertThat(sum.errors).singleElement().satisfies(err -> {
+            assertThat(err.index).isEqualTo(501);
+            assertThat(err.message).isEqualTo("bad value in row-b");
+        });
+    }
+}
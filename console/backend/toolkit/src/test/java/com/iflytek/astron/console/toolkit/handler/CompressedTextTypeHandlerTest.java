@@ -0,0 +1,53 @@
+package com.iflytek.astron.console.toolkit.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for CompressedTextTypeHandler.
+ */
+class CompressedTextTypeHandlerTest {
+
+    private static final String PROTOCOL = "{\"nodes\":[{\"id\":\"node-start::1\",\"data\":{\"label\":\"开始\"}}],\"edges\":[]}";
+
+    @Test
+    void roundTrip_restoresText() {
+        String large = PROTOCOL.repeat(200);
+
+        byte[] stored = CompressedTextTypeHandler.compress(large);
+
+        assertThat(stored.length).isLessThan(large.length() / 5);
+        assertThat(CompressedTextTypeHandler.decompress(stored)).isEqualTo(large);
+    }
+
+    @Test
+    void decompress_readsMysqlCompressFormat() throws Exception {
+        byte[] plain = PROTOCOL.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[] {(byte) plain.length, (byte) (plain.length >>> 8), 0, 0});
+        try (DeflaterOutputStream zlib = new DeflaterOutputStream(out)) {
+            zlib.write(plain);
+        }
+
+        assertThat(CompressedTextTypeHandler.decompress(out.toByteArray())).isEqualTo(PROTOCOL);
+    }
+
+    @Test
+    void decompress_returnsLegacyPlainText() {
+        byte[] plain = PROTOCOL.getBytes(StandardCharsets.UTF_8);
+
+        assertThat(CompressedTextTypeHandler.decompress(plain)).isEqualTo(PROTOCOL);
+    }
+
+    @Test
+    void emptyAndNull_arePreserved() {
+        assertThat(CompressedTextTypeHandler.compress("")).isEmpty();
+        assertThat(CompressedTextTypeHandler.decompress(new byte[0])).isEmpty();
+        assertThat(CompressedTextTypeHandler.decompress(null)).isNull();
+    }
+}
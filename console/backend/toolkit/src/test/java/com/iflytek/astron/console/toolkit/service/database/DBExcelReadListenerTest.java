@@ -0,0 +1,125 @@
+package com.iflytek.astron.console.toolkit.service.database;
+
+import com.iflytek.astron.console.toolkit.entity.table.database.DbTableField;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class DBExcelReadListenerTest {
+
+    private static DbTableField field(String name, String type, boolean required, String defaultValue) {
+        DbTableField f = new DbTableField();
+        f.setName(name);
+        f.setType(type);
+        f.setIsRequired(required);
+        f.setDefaultValue(defaultValue);
+        return f;
+    }
+
+    private static Map<Integer, String> cells(String... values) {
+        Map<Integer, String> map = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            map.put(i, values[i]);
+        }
+        return map;
+    }
+
+    @Test
+    void bindsCellsByHeaderOrderAndType() {
+        List<DbTableField> fields = List.of(
+                field("id", "integer", true, null),
+                field("name", "string", true, null),
+                field("age", "integer", false, null),
+                field("score", "number", true, "1.5"),
+                field("active", "boolean", false, null),
+                field("born", "time", false, null));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        DBExcelReadListener listener = new DBExcelReadListener(fields, rows, "u1", 10);
+
+        // Sheet columns in a different order than the table fields
+        listener.invokeHeadMap(cells("born", "active", "score", "age", "name"), null);
+        listener.invoke(cells("2025-01-02 03:04:05", "TRUE", "", " 42 ", "alice"), null);
+        listener.doAfterAllAnalysed(null);
+
+        assertThat(rows).hasSize(1);
+        Map<String, Object> row = rows.get(0);
+        assertThat(row).containsOnlyKeys("uid", "born", "active", "score", "age", "name");
+        assertThat(row.get("uid")).isEqualTo("u1");
+        assertThat(row.get("born")).isEqualTo(LocalDateTime.of(2025, 1, 2, 3, 4, 5));
+        assertThat(row.get("active")).isEqualTo(Boolean.TRUE);
+        assertThat(row.get("score")).isEqualTo(new BigDecimal("1.5"));
+        assertThat(row.get("age")).isEqualTo(42L);
+        assertThat(row.get("name")).isEqualTo("alice");
+    }
+
+    @Test
+    void rejectsMismatchedHeaders() {
+        List<DbTableField> fields = List.of(field("name", "string", true, null));
+        DBExcelReadListener listener = new DBExcelReadListener(fields, new ArrayList<>(), "u1", 10);
+
+        assertThatThrownBy(() -> listener.invokeHeadMap(cells("nickname"), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Header mismatch");
+    }
+
+    @Test
+    void reportsRowAndColumnOfABadCell() {
+        List<DbTableField> fields = List.of(field("age", "integer", false, null));
+        List<Map<String, Object>> batches = new ArrayList<>();
+        DBExcelReadListener listener = new DBExcelReadListener(fields, "u1", 10, 1, batches::addAll);
+
+        listener.invokeHeadMap(cells("age"), null);
+        listener.invoke(cells("1"), null);
+
+        assertThatThrownBy(() -> listener.invoke(cells("one"), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Row 2, column age");
+        assertThat(batches).hasSize(1);
+    }
+
+    /**
+     * Synthetic wide sheet, 50 columns by 10,000 rows. Run with {@code -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkWideSheet() {
+        String[] types = {"string", "integer", "number", "boolean", "time"};
+        String[] samples = {"text", "12345", "3.14", "false", "2025-01-02 03:04:05"};
+        int width = 50, height = 10_000, rounds = 5;
+
+        List<DbTableField> fields = new ArrayList<>();
+        String[] header = new String[width];
+        String[] line = new String[width];
+        for (int c = 0; c < width; c++) {
+            header[c] = "col_" + c;
+            line[c] = samples[c % types.length];
+            fields.add(field(header[c], types[c % types.length], c % 3 == 0, null));
+        }
+        Map<Integer, String> headMap = cells(header);
+        Map<Integer, String> row = cells(line);
+
+        for (int round = 0; round < rounds; round++) {
+            List<Map<String, Object>> sink = new ArrayList<>(height);
+            DBExcelReadListener listener = new DBExcelReadListener(fields, sink, "u1", height);
+            long start = System.nanoTime();
+            listener.invokeHeadMap(headMap, null);
+            for (int r = 0; r < height; r++) {
+                listener.invoke(row, null);
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("round {}: {} rows x {} columns in {} ms", round, height, width, elapsedMillis);
+            assertThat(sink).hasSize(height);
+        }
+    }
+}
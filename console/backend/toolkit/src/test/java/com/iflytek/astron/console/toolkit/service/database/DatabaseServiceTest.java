@@ -0,0 +1,250 @@
+package com.iflytek.astron.console.toolkit.service.database;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.fastjson2.JSONObject;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.iflytek.astron.console.commons.exception.BusinessException;
+import com.iflytek.astron.console.commons.util.space.SpaceInfoUtil;
+import com.iflytek.astron.console.toolkit.config.jooq.JooqConfig;
+import com.iflytek.astron.console.toolkit.entity.dto.database.DatabaseExportDto;
+import com.iflytek.astron.console.toolkit.entity.enumVo.DBOperateEnum;
+import com.iflytek.astron.console.toolkit.entity.table.database.DbInfo;
+import com.iflytek.astron.console.toolkit.entity.table.database.DbTable;
+import com.iflytek.astron.console.toolkit.entity.table.database.DbTableField;
+import com.iflytek.astron.console.toolkit.handler.UserInfoManagerHandler;
+import com.iflytek.astron.console.toolkit.mapper.database.DbInfoMapper;
+import com.iflytek.astron.console.toolkit.mapper.database.DbTableFieldMapper;
+import com.iflytek.astron.console.toolkit.mapper.database.DbTableMapper;
+import com.iflytek.astron.console.toolkit.service.extra.CoreSystemService;
+import com.iflytek.astron.console.toolkit.tool.DataPermissionCheckTool;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DatabaseServiceTest {
+
+    private final DbInfoMapper dbInfoMapper = mock(DbInfoMapper.class);
+
+    private final DbTableMapper dbTableMapper = mock(DbTableMapper.class);
+
+    private final DbTableFieldMapper dbTableFieldMapper = mock(DbTableFieldMapper.class);
+
+    private final CoreSystemService coreSystemService = mock(CoreSystemService.class);
+
+    private DatabaseService service;
+
+    private MockedStatic<UserInfoManagerHandler> userMock;
+
+    private MockedStatic<SpaceInfoUtil> spaceMock;
+
+    @BeforeAll
+    static void initMybatisPlus() {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "");
+        TableInfoHelper.initTableInfo(assistant, DbTableField.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new DatabaseService();
+        ReflectionTestUtils.setField(service, "dbInfoMapper", dbInfoMapper);
+        ReflectionTestUtils.setField(service, "dbTableMapper", dbTableMapper);
+        ReflectionTestUtils.setField(service, "dbTableFieldMapper", dbTableFieldMapper);
+        ReflectionTestUtils.setField(service, "dataPermissionCheckTool", mock(DataPermissionCheckTool.class));
+        ReflectionTestUtils.setField(service, "coreSystemService", coreSystemService);
+        ReflectionTestUtils.setField(service, "dslCon", new JooqConfig().dslContext());
+
+        DbTable table = new DbTable();
+        table.setId(1L);
+        table.setDbId(2L);
+        table.setName("orders");
+        when(dbTableMapper.selectById(1L)).thenReturn(table);
+        DbInfo info = new DbInfo();
+        info.setId(2L);
+        info.setDbId(20L);
+        when(dbInfoMapper.selectById(2L)).thenReturn(info);
+        when(dbTableFieldMapper.selectList(any())).thenReturn(List.of(
+                field("id", "integer"),
+                field("name", "string"),
+                field("age", "integer")));
+
+        userMock = mockStatic(UserInfoManagerHandler.class);
+        userMock.when(UserInfoManagerHandler::getUserId).thenReturn("u1");
+        spaceMock = mockStatic(SpaceInfoUtil.class);
+        spaceMock.when(SpaceInfoUtil::getSpaceId).thenReturn(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userMock.close();
+        spaceMock.close();
+    }
+
+    private static DbTableField field(String name, String type) {
+        DbTableField f = new DbTableField();
+        f.setName(name);
+        f.setType(type);
+        f.setIsRequired(false);
+        return f;
+    }
+
+    /**
+     * Sheet with a name and an age column, {@code badRow} (1-based, 0 for none) gets an age that is
+     * not a number
+     */
+    private static MockMultipartFile sheet(int rows, int badRow) {
+        List<List<Object>> lines = new ArrayList<>(rows);
+        for (int r = 1; r <= rows; r++) {
+            lines.add(List.of("name-" + r, r == badRow ? "abc" : String.valueOf(r)));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EasyExcel.write(out).head(List.of(List.of("name"), List.of("age"))).sheet("data").doWrite(lines);
+        return new MockMultipartFile("file", "orders.xlsx", null, out.toByteArray());
+    }
+
+    private static List<JSONObject> rows(long... ids) {
+        List<JSONObject> rows = new ArrayList<>();
+        for (long id : ids) {
+            rows.add(new JSONObject().fluentPut("id", id).fluentPut("name", "name-" + id).fluentPut("age", id));
+        }
+        return rows;
+    }
+
+    private MockHttpServletResponse export(int pageSize, long maxRows) {
+        ReflectionTestUtils.setField(service, "exportPageSize", pageSize);
+        ReflectionTestUtils.setField(service, "exportMaxRows", maxRows);
+        DatabaseExportDto dto = new DatabaseExportDto();
+        dto.setTbId(1L);
+        dto.setExecDev(1);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.exportTableData(dto, response);
+        return response;
+    }
+
+    private List<String> selects(int times) {
+        ArgumentCaptor<String> dml = ArgumentCaptor.forClass(String.class);
+        verify(coreSystemService, times(times)).execDML(dml.capture(), eq("u1"), any(), eq(20L),
+                eq(DBOperateEnum.SELECT.getCode()), eq(1));
+        return dml.getAllValues();
+    }
+
+    private static int exportedRows(MockHttpServletResponse response) {
+        return EasyExcel.read(new ByteArrayInputStream(response.getContentAsByteArray())).sheet().doReadSync().size();
+    }
+
+    @Test
+    void cursorRoundTrip() {
+        String cursor = DatabaseService.encodeCursor("1952346129088716800");
+
+        assertThat(cursor).doesNotContain("1952346129088716800");
+        assertThat(DatabaseService.decodeCursor(cursor)).isEqualTo(1952346129088716800L);
+    }
+
+    @Test
+    void emptyCursorStartsFromFirstPage() {
+        assertThat(DatabaseService.decodeCursor("")).isNull();
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        String cursor = Base64.getUrlEncoder().encodeToString("1 or 1=1".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> DatabaseService.decodeCursor(cursor)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void importInsertsOneStatementPerBatch() {
+        service.importTableData(1L, 1, sheet(600, 0));
+
+        verify(coreSystemService, times(2)).execDML(anyString(), eq("u1"), any(), eq(20L),
+                eq(DBOperateEnum.INSERT.getCode()), eq(1));
+    }
+
+    @Test
+    void importWritesNothingWhenALaterBatchHasABadCell() {
+        // Row 550 sits in the second batch of 500, the first batch must not be sent either
+        assertThatThrownBy(() -> service.importTableData(1L, 1, sheet(600, 550)))
+                .isInstanceOf(BusinessException.class);
+
+        verify(coreSystemService, never()).execDML(anyString(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void exportSeeksThroughTheTableOnTheId() {
+        when(coreSystemService.execDML(anyString(), any(), any(), any(), eq(DBOperateEnum.SELECT.getCode()), any()))
+                .thenReturn(rows(5, 4), rows(3, 2), rows(1));
+
+        MockHttpServletResponse response = export(2, 100);
+
+        List<String> dml = selects(3);
+        assertThat(dml.get(0)).doesNotContain("<");
+        assertThat(dml.get(1)).contains("id < 4");
+        assertThat(dml.get(2)).contains("id < 2");
+        assertThat(exportedRows(response)).isEqualTo(5);
+        assertThat(response.getHeader(DatabaseService.EXPORT_TRUNCATED_HEADER)).isNull();
+    }
+
+    @Test
+    void exportStopsAtTheRowLimitAndFlagsTheResponse() {
+        when(coreSystemService.execDML(anyString(), any(), any(), any(), eq(DBOperateEnum.SELECT.getCode()), any()))
+                .thenReturn(rows(5, 4), rows(3, 2));
+
+        MockHttpServletResponse response = export(2, 3);
+
+        selects(2);
+        assertThat(exportedRows(response)).isEqualTo(3);
+        assertThat(response.getHeader(DatabaseService.EXPORT_TRUNCATED_HEADER)).isEqualTo("3");
+    }
+
+    @Test
+    void exportOfATableThatJustFitsIsNotFlagged() {
+        when(coreSystemService.execDML(anyString(), any(), any(), any(), eq(DBOperateEnum.SELECT.getCode()), any()))
+                .thenReturn(rows(5, 4), rows(3, 2));
+
+        MockHttpServletResponse response = export(2, 4);
+
+        selects(2);
+        assertThat(exportedRows(response)).isEqualTo(4);
+        assertThat(response.getHeader(DatabaseService.EXPORT_TRUNCATED_HEADER)).isNull();
+    }
+
+    @Test
+    void exportFailureSendsNoPartialFile() {
+        when(coreSystemService.execDML(anyString(), any(), any(), any(), eq(DBOperateEnum.SELECT.getCode()), any()))
+                .thenReturn(rows(5, 4))
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ReflectionTestUtils.setField(service, "exportPageSize", 2);
+        ReflectionTestUtils.setField(service, "exportMaxRows", 100L);
+        DatabaseExportDto dto = new DatabaseExportDto();
+        dto.setTbId(1L);
+        dto.setExecDev(1);
+
+        assertThatThrownBy(() -> service.exportTableData(dto, response)).isInstanceOf(BusinessException.class);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(response.getHeader("Content-disposition")).isNull();
+    }
+}
@@ -16,6 +16,7 @@ import com.iflytek.astron.console.toolkit.util.SpringUtils;
 import com.iflytek.astron.console.toolkit.common.Result;
 import com.iflytek.astron.console.toolkit.common.constant.ProjectContent;
 import com.iflytek.astron.console.toolkit.config.properties.ApiUrl;
+import com.iflytek.astron.console.toolkit.config.properties.IngestionPipelineProperties;
 import com.iflytek.astron.console.toolkit.entity.pojo.DealFileResult;
 import com.iflytek.astron.console.toolkit.entity.pojo.FileSummary;
 import com.iflytek.astron.console.toolkit.entity.pojo.SliceConfig;
@@ -36,6 +37,7 @@ import com.iflytek.astron.console.toolkit.mapper.repo.FileInfoV2Mapper;
 import com.iflytek.astron.console.toolkit.service.common.ConfigInfoService;
 import com.iflytek.astron.console.toolkit.service.repo.*;
 import com.iflytek.astron.console.toolkit.service.task.ExtractKnowledgeTaskService;
+import com.iflytek.astron.console.toolkit.task.IngestionPipeline;
 import com.iflytek.astron.console.toolkit.tool.DataPermissionCheckTool;
 import com.iflytek.astron.console.toolkit.tool.FileUploadTool;
 import com.iflytek.astron.console.toolkit.util.S3Util;
@@ -48,6 +50,7 @@ import java.io.ByteArrayOutputStream;
 
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -148,6 +151,7 @@ class FileInfoV2ServiceTest {
     private Repo mockRepo;
     private MultipartFile mockFile;
     private MockHttpServletRequest mockRequest;
+    private IngestionPipeline ingestionPipeline;
 
     // Static mocks for utility classes
     private MockedStatic<UserInfoManagerHandler> userInfoManagerHandlerMock;
@@ -214,6 +218,12 @@ class FileInfoV2ServiceTest {
 
         // Set field values using ReflectionTestUtils
         ReflectionTestUtils.setField(fileInfoV2Service, "cbgRagMaxCharCount", 1000000L);
+
+        // Real ingestion pipeline so batch slicing/embedding runs the submitted workers
+        ingestionPipeline = new IngestionPipeline();
+        ReflectionTestUtils.setField(ingestionPipeline, "properties", new IngestionPipelineProperties());
+        ingestionPipeline.init();
+        ReflectionTestUtils.setField(fileInfoV2Service, "ingestionPipeline", ingestionPipeline);
     }
 
     /**
@@ -231,6 +241,9 @@ class FileInfoV2ServiceTest {
         if (springUtilsMock != null) {
             springUtilsMock.close();
         }
+        if (ingestionPipeline != null) {
+            ingestionPipeline.destroy();
+        }
     }
 
     /**
@@ -1647,6 +1660,35 @@ class FileInfoV2ServiceTest {
             verify(dataPermissionCheckTool, times(1)).checkRepoBelong(mockRepo);
         }
 
+        /**
+         * Test createFolder - ancestor path extends the parent's path.
+         */
+        @Test
+        @DisplayName("Create folder - ancestor path under parent")
+        void testCreateFolder_AncestorPath() {
+            // Given
+            CreateFolderVO folderVO = new CreateFolderVO();
+            folderVO.setName("Child");
+            folderVO.setParentId(5L);
+            folderVO.setRepoId(100L);
+
+            FileDirectoryTree parent = new FileDirectoryTree();
+            parent.setId(5L);
+            parent.setAppId("100");
+            parent.setAncestorPath("/3/");
+
+            when(repoService.getById(100L)).thenReturn(mockRepo);
+            when(fileDirectoryTreeService.getOnly(any(LambdaQueryWrapper.class))).thenReturn(parent);
+
+            // When
+            fileInfoV2Service.createFolder(folderVO);
+
+            // Then
+            ArgumentCaptor<FileDirectoryTree> captor = ArgumentCaptor.forClass(FileDirectoryTree.class);
+            verify(fileDirectoryTreeMapper).insert(captor.capture());
+            assertThat(captor.getValue().getAncestorPath()).isEqualTo("/3/5/");
+        }
+
         /**
          * Test createFolder - empty name.
          */
@@ -3928,6 +3970,48 @@ class FileInfoV2ServiceTest {
             verify(fileDirectoryTreeMapper, times(1)).getModelListSearchByFileName(anyMap());
         }
 
+        /**
+         * Test searchFile - breadcrumbs of all results come from one ancestor query.
+         */
+        @Test
+        @DisplayName("Search file - resolve paths from materialised ancestors")
+        void testSearchFile_MaterialisedPaths() {
+            // Given
+            Long repoId = 100L;
+
+            FileDirectoryTree root = new FileDirectoryTree();
+            root.setId(3L);
+            root.setName("docs");
+            FileDirectoryTree folder = new FileDirectoryTree();
+            folder.setId(5L);
+            folder.setName("guides");
+
+            FileDirectoryTree tree1 = new FileDirectoryTree();
+            tree1.setId(7L);
+            tree1.setName("a.txt");
+            tree1.setIsFile(1);
+            tree1.setParentId(5L);
+            tree1.setAncestorPath("/3/5/");
+            FileDirectoryTree tree2 = new FileDirectoryTree();
+            tree2.setId(8L);
+            tree2.setName("b.txt");
+            tree2.setIsFile(1);
+            tree2.setParentId(3L);
+            tree2.setAncestorPath("/3/");
+
+            when(fileDirectoryTreeMapper.getModelListSearchByFileName(anyMap())).thenReturn(Arrays.asList(tree1, tree2));
+            when(repoService.getById(repoId)).thenReturn(mockRepo);
+            when(fileDirectoryTreeService.list(any(LambdaQueryWrapper.class))).thenReturn(Arrays.asList(root, folder));
+
+            // When
+            SseEmitter result = fileInfoV2Service.searchFile(repoId, "txt", 1, 5L, "AIUI-RAG2", 1, mockRequest);
+
+            // Then
+            assertThat(result).isNotNull();
+            verify(fileDirectoryTreeService, times(1)).list(any(LambdaQueryWrapper.class));
+            verify(fileDirectoryTreeService, never()).getOnly(any(LambdaQueryWrapper.class));
+        }
+
         /**
          * Test searchFile - with specific parent ID filter.
          */
@@ -9,6 +9,7 @@ import com.iflytek.astron.console.commons.constant.ResponseEnum;
 import com.iflytek.astron.console.commons.exception.BusinessException;
 import com.iflytek.astron.console.toolkit.common.constant.ProjectContent;
 import com.iflytek.astron.console.toolkit.config.properties.ApiUrl;
+import com.iflytek.astron.console.toolkit.config.properties.ChunkPushProperties;
 import com.iflytek.astron.console.toolkit.entity.core.knowledge.*;
 import com.iflytek.astron.console.toolkit.entity.mongo.Knowledge;
 import com.iflytek.astron.console.toolkit.entity.pojo.DealFileResult;
@@ -25,13 +26,18 @@ import com.iflytek.astron.console.toolkit.service.repo.FileInfoV2Service;
 import com.iflytek.astron.console.toolkit.service.repo.KnowledgeService;
 import com.iflytek.astron.console.toolkit.service.repo.RepoService;
 import com.iflytek.astron.console.toolkit.service.task.ExtractKnowledgeTaskService;
+import com.iflytek.astron.console.toolkit.task.ChunkPushExecutor;
 import com.iflytek.astron.console.toolkit.tool.DataPermissionCheckTool;
+import com.iflytek.astron.console.toolkit.util.InputStreamMultipartFile;
 import com.iflytek.astron.console.toolkit.util.S3Util;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
@@ -103,6 +109,7 @@ class KnowledgeServiceTest {
     private FileInfoV2 mockFileInfo;
     private Repo mockRepo;
     private ExtractKnowledgeTask mockExtractTask;
+    private ChunkPushExecutor chunkPushExecutor;
 
     /**
      * Set up test fixtures before each test method. Initializes common test data including mock
@@ -185,9 +192,24 @@ class KnowledgeServiceTest {
         mockExtractTask.setCreateTime(new Timestamp(System.currentTimeMillis()));
         mockExtractTask.setUpdateTime(new Timestamp(System.currentTimeMillis()));
 
+        // Real push executor so chunk batches go through the retry path
+        ChunkPushProperties chunkPushProperties = new ChunkPushProperties();
+        chunkPushProperties.setInitialBackoffMillis(1);
+        chunkPushProperties.setMaxBackoffMillis(5);
+        chunkPushExecutor = new ChunkPushExecutor(chunkPushProperties);
+        chunkPushExecutor.init();
+        ReflectionTestUtils.setField(knowledgeService, "chunkPushExecutor", chunkPushExecutor);
+
         // Setup common mocks
     }
 
+    @AfterEach
+    void tearDown() {
+        if (chunkPushExecutor != null) {
+            chunkPushExecutor.destroy();
+        }
+    }
+
     /**
      * Test cases for the createKnowledge method. Validates knowledge creation functionality including
      * success scenarios and error handling.
@@ -1083,14 +1105,117 @@ class KnowledgeServiceTest {
             knowledgeResponse.setData(data);
 
             when(knowledgeV2ServiceCallHandler.saveChunk(any())).thenReturn(knowledgeResponse);
-            when(knowledgeMapper.insert(any(MysqlKnowledge.class))).thenReturn(1);
+            when(knowledgeMapper.insertBatch(anyList())).thenReturn(1);
 
             // When
             Integer result = knowledgeService.embeddingKnowledgeAndStorage(fileId);
 
             // Then
             assertThat(result).isEqualTo(0);
-            verify(knowledgeMapper, atLeastOnce()).insert(any(MysqlKnowledge.class));
+            verify(knowledgeMapper, atLeastOnce()).insertBatch(anyList());
+        }
+
+        /**
+         * Test embedded chunks are written in batches of the configured size.
+         */
+        @Test
+        @DisplayName("Embed knowledge inserts chunks in batches")
+        void testEmbeddingKnowledgeAndStorage_InsertsInBatches() {
+            // Given
+            Long fileId = 1L;
+            ReflectionTestUtils.setField(knowledgeService, "insertBatchSize", 2);
+            when(fileInfoV2Service.getById(anyLong())).thenReturn(mockFileInfo);
+            when(repoService.getById(anyLong())).thenReturn(mockRepo);
+
+            List<MysqlPreviewKnowledge> previewList = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                MysqlPreviewKnowledge preview = new MysqlPreviewKnowledge();
+                preview.setFileId("file-uuid-001");
+                JSONObject content = new JSONObject();
+                content.put("content", "Preview content " + i);
+                content.put("dataIndex", String.valueOf(i));
+                preview.setContent(content);
+                preview.setCharCount(100L);
+                previewList.add(preview);
+            }
+
+            when(previewKnowledgeMapper.findByFileId(anyString())).thenReturn(previewList);
+            when(knowledgeMapper.findByFileIdAndSource(anyString(), eq(0))).thenReturn(new ArrayList<>());
+
+            KnowledgeResponse knowledgeResponse = new KnowledgeResponse();
+            knowledgeResponse.setCode(0);
+            knowledgeResponse.setData(new JSONObject());
+            when(knowledgeV2ServiceCallHandler.saveChunk(any())).thenReturn(knowledgeResponse);
+
+            List<Integer> batchSizes = new ArrayList<>();
+            when(knowledgeMapper.insertBatch(anyList())).thenAnswer(invocation -> {
+                List<MysqlKnowledge> batch = invocation.getArgument(0);
+                assertThat(batch).allSatisfy(row -> assertThat(row.getId()).isNotBlank());
+                batchSizes.add(batch.size());
+                return batch.size();
+            });
+
+            // When
+            Integer result = knowledgeService.embeddingKnowledgeAndStorage(fileId);
+
+            // Then
+            assertThat(result).isEqualTo(0);
+            assertThat(batchSizes).containsExactly(2, 2, 1);
+            verify(knowledgeMapper, never()).insert(any(MysqlKnowledge.class));
+        }
+
+        /**
+         * Test a failed push is retried and chunks reported as failed are stored disabled.
+         */
+        @Test
+        @DisplayName("Embed knowledge retries failed push and disables failed chunks")
+        void testEmbeddingKnowledgeAndStorage_RetriesAndReconcilesFailures() {
+            // Given
+            Long fileId = 1L;
+            when(fileInfoV2Service.getById(anyLong())).thenReturn(mockFileInfo);
+            when(repoService.getById(anyLong())).thenReturn(mockRepo);
+
+            List<MysqlPreviewKnowledge> previewList = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                MysqlPreviewKnowledge preview = new MysqlPreviewKnowledge();
+                preview.setId("chunk-" + i);
+                preview.setFileId("file-uuid-001");
+                JSONObject content = new JSONObject();
+                content.put("content", "Preview content " + i);
+                content.put("dataIndex", String.valueOf(i));
+                preview.setContent(content);
+                preview.setCharCount(100L);
+                previewList.add(preview);
+            }
+            when(previewKnowledgeMapper.findByFileId(anyString())).thenReturn(previewList);
+            when(knowledgeMapper.findByFileIdAndSource(anyString(), eq(0))).thenReturn(new ArrayList<>());
+
+            KnowledgeResponse busy = new KnowledgeResponse();
+            busy.setCode(1);
+            KnowledgeResponse partial = new KnowledgeResponse();
+            partial.setCode(0);
+            JSONObject failedChunk = new JSONObject();
+            failedChunk.put("chunkId", "chunk-1");
+            JSONObject data = new JSONObject();
+            data.put("failedChunk", failedChunk);
+            partial.setData(data);
+            when(knowledgeV2ServiceCallHandler.saveChunk(any())).thenReturn(busy, partial);
+
+            List<MysqlKnowledge> inserted = new ArrayList<>();
+            when(knowledgeMapper.insertBatch(anyList())).thenAnswer(invocation -> {
+                List<MysqlKnowledge> batch = invocation.getArgument(0);
+                inserted.addAll(batch);
+                return batch.size();
+            });
+
+            // When
+            Integer result = knowledgeService.embeddingKnowledgeAndStorage(fileId);
+
+            // Then
+            assertThat(result).isEqualTo(1);
+            verify(knowledgeV2ServiceCallHandler, times(2)).saveChunk(any());
+            assertThat(inserted).extracting(MysqlKnowledge::getId, MysqlKnowledge::getEnabled)
+                    .containsExactly(tuple("chunk-0", 1), tuple("chunk-1", 0), tuple("chunk-2", 1));
         }
 
         /**
@@ -1130,7 +1255,7 @@ class KnowledgeServiceTest {
             knowledgeResponse.setData(dataArray);
 
             when(knowledgeV2ServiceCallHandler.saveChunk(any())).thenReturn(knowledgeResponse);
-            when(knowledgeMapper.insert(any(MysqlKnowledge.class))).thenReturn(1);
+            when(knowledgeMapper.insertBatch(anyList())).thenReturn(1);
             when(knowledgeMapper.findByFileIdAndSource(anyString(), eq(1))).thenReturn(new ArrayList<>());
 
             // When
@@ -1138,7 +1263,7 @@ class KnowledgeServiceTest {
 
             // Then
             assertThat(result).isEqualTo(0);
-            verify(knowledgeMapper, atLeastOnce()).insert(any(MysqlKnowledge.class));
+            verify(knowledgeMapper, atLeastOnce()).insertBatch(anyList());
         }
 
         /**
@@ -1817,7 +1942,7 @@ class KnowledgeServiceTest {
          */
         @Test
         @DisplayName("Extract knowledge with CBG source")
-        void testKnowledgeExtractAsync_CBG() {
+        void testKnowledgeExtractAsync_CBG() throws Exception {
             // Given
             String contentType = "text/plain";
             String url = "http://example.com/document.txt";
@@ -1834,7 +1959,8 @@ class KnowledgeServiceTest {
             dataArray.add(JSON.parseObject(JSON.toJSONString(chunk)));
             response.setData(dataArray);
 
-            when(s3Util.getObject(anyString())).thenReturn(new java.io.ByteArrayInputStream("test".getBytes()));
+            java.io.InputStream s3Stream = new java.io.ByteArrayInputStream("test".getBytes());
+            when(s3Util.getObject(anyString())).thenReturn(s3Stream);
             when(knowledgeV2ServiceCallHandler.documentUpload(any(), any(), any(), any(), any())).thenReturn(response);
             when(fileInfoV2Service.getById(anyLong())).thenReturn(mockFileInfo);
             when(previewKnowledgeMapper.countByFileId(anyString())).thenReturn(0L);
@@ -1845,9 +1971,12 @@ class KnowledgeServiceTest {
             // When
             knowledgeService.knowledgeExtractAsync(contentType, url, mockSliceConfig, mockFileInfo, mockExtractTask);
 
-            // Then
+            // Then - the S3 stream is forwarded as is, not buffered into a byte array
+            ArgumentCaptor<MultipartFile> fileCaptor = ArgumentCaptor.forClass(MultipartFile.class);
             verify(s3Util, times(1)).getObject(anyString());
-            verify(knowledgeV2ServiceCallHandler, times(1)).documentUpload(any(), any(), any(), any(), any());
+            verify(knowledgeV2ServiceCallHandler, times(1)).documentUpload(fileCaptor.capture(), any(), any(), any(), any());
+            assertThat(fileCaptor.getValue()).isInstanceOf(InputStreamMultipartFile.class);
+            assertThat(fileCaptor.getValue().getInputStream()).isSameAs(s3Stream);
         }
 
         /**
@@ -44,6 +44,7 @@ import com.iflytek.astron.console.toolkit.service.repo.FileDirectoryTreeService;
 import com.iflytek.astron.console.toolkit.service.repo.FileInfoV2Service;
 import com.iflytek.astron.console.toolkit.service.repo.HitTestHistoryService;
 import com.iflytek.astron.console.toolkit.service.repo.RepoService;
+import com.iflytek.astron.console.toolkit.task.HitCountAccumulator;
 import com.iflytek.astron.console.toolkit.tool.DataPermissionCheckTool;
 import com.iflytek.astron.console.toolkit.util.S3Util;
 import org.junit.jupiter.api.AfterEach;
@@ -129,6 +130,9 @@ class RepoServiceTest {
     @Mock
     private FileDirectoryTreeService directoryTreeService;
 
+    @Mock
+    private HitCountAccumulator hitCountAccumulator;
+
     @Mock
     private S3Util s3UtilClient;
 
@@ -1688,6 +1692,7 @@ class RepoServiceTest {
         void testHitTest_Success() {
             // Given
             FileDirectoryTree tree1 = new FileDirectoryTree();
+            tree1.setId(10L);
             tree1.setAppId("1");
             tree1.setFileId(1L);
             tree1.setIsFile(1);
@@ -1721,12 +1726,10 @@ class RepoServiceTest {
             when(repoMapper.selectById(1L)).thenReturn(mockRepo);
             doNothing().when(dataPermissionCheckTool).checkRepoBelong(any(Repo.class));
             when(directoryTreeService.list(any(LambdaQueryWrapper.class))).thenReturn(Arrays.asList(tree1));
-            when(fileInfoV2Service.getById(1L)).thenReturn(file1);
+            when(fileInfoV2Mapper.listByIds(anyList())).thenReturn(Arrays.asList(file1));
             when(knowledgeV2ServiceCallHandler.knowledgeQuery(any(QueryRequest.class))).thenReturn(knowledgeResponse);
             when(historyService.save(any(HitTestHistory.class))).thenReturn(true);
-            when(fileInfoV2Service.getOnly(any(QueryWrapper.class))).thenReturn(file1);
-            when(directoryTreeService.getOnly(any(LambdaQueryWrapper.class))).thenReturn(tree1);
-            when(directoryTreeService.updateById(any(FileDirectoryTree.class))).thenReturn(true);
+            when(fileInfoV2Mapper.listByUuids(anyList())).thenReturn(Arrays.asList(file1));
 
             // When
             Object result = repoService.hitTest(1L, "test query", 10, true);
@@ -1735,7 +1738,7 @@ class RepoServiceTest {
             assertThat(result).isNotNull();
             assertThat(result).isInstanceOf(List.class);
             verify(historyService, times(1)).save(any(HitTestHistory.class));
-            verify(directoryTreeService, times(1)).updateById(any(FileDirectoryTree.class));
+            verify(hitCountAccumulator, times(1)).increment(10L);
         }
 
         /**
@@ -1782,6 +1785,7 @@ class RepoServiceTest {
         void testHitTest_NoEnabledFiles() {
             // Given
             FileDirectoryTree tree1 = new FileDirectoryTree();
+            tree1.setId(10L);
             tree1.setAppId("1");
             tree1.setFileId(1L);
             tree1.setIsFile(1);
@@ -1793,7 +1797,7 @@ class RepoServiceTest {
             when(repoMapper.selectById(1L)).thenReturn(mockRepo);
             doNothing().when(dataPermissionCheckTool).checkRepoBelong(any(Repo.class));
             when(directoryTreeService.list(any(LambdaQueryWrapper.class))).thenReturn(Arrays.asList(tree1));
-            when(fileInfoV2Service.getById(1L)).thenReturn(file1);
+            when(fileInfoV2Mapper.listByIds(anyList())).thenReturn(Arrays.asList(file1));
 
             // When & Then
             assertThatThrownBy(() -> repoService.hitTest(1L, "test query", 10, true))
@@ -1810,6 +1814,7 @@ class RepoServiceTest {
         void testHitTest_QueryFails() {
             // Given
             FileDirectoryTree tree1 = new FileDirectoryTree();
+            tree1.setId(10L);
             tree1.setAppId("1");
             tree1.setFileId(1L);
             tree1.setIsFile(1);
@@ -1825,7 +1830,7 @@ class RepoServiceTest {
             when(repoMapper.selectById(1L)).thenReturn(mockRepo);
             doNothing().when(dataPermissionCheckTool).checkRepoBelong(any(Repo.class));
             when(directoryTreeService.list(any(LambdaQueryWrapper.class))).thenReturn(Arrays.asList(tree1));
-            when(fileInfoV2Service.getById(1L)).thenReturn(file1);
+            when(fileInfoV2Mapper.listByIds(anyList())).thenReturn(Arrays.asList(file1));
             when(knowledgeV2ServiceCallHandler.knowledgeQuery(any(QueryRequest.class))).thenReturn(knowledgeResponse);
 
             // When & Then
@@ -1851,6 +1856,7 @@ class RepoServiceTest {
                 cbgRepo.setCoreRepoId("core-001");
 
                 FileDirectoryTree tree = new FileDirectoryTree();
+                tree.setId(10L);
                 tree.setAppId("1");
                 tree.setFileId(1L);
                 tree.setIsFile(1);
@@ -1884,13 +1890,11 @@ class RepoServiceTest {
                 when(repoMapper.selectById(1L)).thenReturn(cbgRepo);
                 doNothing().when(dataPermissionCheckTool).checkRepoBelong(any(Repo.class));
                 when(directoryTreeService.list(any(LambdaQueryWrapper.class))).thenReturn(Arrays.asList(tree));
-                when(fileInfoV2Service.getById(1L)).thenReturn(file);
+                when(fileInfoV2Mapper.listByIds(anyList())).thenReturn(Arrays.asList(file));
                 when(fileInfoV2Mapper.getFileInfoV2ByRepoId(1L)).thenReturn(Arrays.asList(file));
                 when(knowledgeV2ServiceCallHandler.knowledgeQuery(any(QueryRequest.class))).thenReturn(knowledgeResponse);
                 when(historyService.save(any())).thenReturn(true);
-                when(fileInfoV2Service.getOnly(any())).thenReturn(file);
-                when(directoryTreeService.getOnly(any(LambdaQueryWrapper.class))).thenReturn(tree);
-                when(directoryTreeService.updateById(any())).thenReturn(true);
+                when(fileInfoV2Mapper.listByUuids(anyList())).thenReturn(Arrays.asList(file));
 
                 // When
                 Object result = repoService.hitTest(1L, "test query", 10, true);
@@ -1913,6 +1917,7 @@ class RepoServiceTest {
                 userMock.when(UserInfoManagerHandler::getUserId).thenReturn("user-001");
 
                 FileDirectoryTree tree = new FileDirectoryTree();
+                tree.setId(10L);
                 tree.setAppId("1");
                 tree.setFileId(1L);
                 tree.setIsFile(1);
@@ -1945,12 +1950,10 @@ class RepoServiceTest {
                 when(repoMapper.selectById(1L)).thenReturn(mockRepo);
                 doNothing().when(dataPermissionCheckTool).checkRepoBelong(any(Repo.class));
                 when(directoryTreeService.list(any(LambdaQueryWrapper.class))).thenReturn(Arrays.asList(tree));
-                when(fileInfoV2Service.getById(1L)).thenReturn(file);
+                when(fileInfoV2Mapper.listByIds(anyList())).thenReturn(Arrays.asList(file));
                 when(knowledgeV2ServiceCallHandler.knowledgeQuery(any(QueryRequest.class))).thenReturn(knowledgeResponse);
                 when(historyService.save(any())).thenReturn(true);
-                when(fileInfoV2Service.getOnly(any())).thenReturn(file);
-                when(directoryTreeService.getOnly(any(LambdaQueryWrapper.class))).thenReturn(tree);
-                when(directoryTreeService.updateById(any())).thenReturn(true);
+                when(fileInfoV2Mapper.listByUuids(anyList())).thenReturn(Arrays.asList(file));
                 // Use lenient stubbing or anyString() to handle both null and non-null
                 lenient().when(s3UtilClient.getS3Url(anyString())).thenReturn("https://s3.example.com/file");
 
@@ -1960,7 +1963,7 @@ class RepoServiceTest {
                 // Then
                 assertThat(result).isNotNull();
                 // Hit count should only be incremented once despite multiple chunks from same file
-                verify(directoryTreeService, times(1)).updateById(any(FileDirectoryTree.class));
+                verify(hitCountAccumulator, times(1)).increment(10L);
             }
         }
     }
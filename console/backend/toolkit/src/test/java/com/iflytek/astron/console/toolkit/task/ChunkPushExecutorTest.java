@@ -0,0 +1,87 @@
+package com.iflytek.astron.console.toolkit.task;
+
+import com.iflytek.astron.console.toolkit.config.properties.ChunkPushProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkPushExecutorTest {
+
+    private ChunkPushExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    private ChunkPushExecutor newExecutor(int concurrency, int maxInFlightBatches, int maxAttempts) {
+        ChunkPushProperties properties = new ChunkPushProperties();
+        properties.setConcurrency(concurrency);
+        properties.setMaxInFlightBatches(maxInFlightBatches);
+        properties.setMaxAttempts(maxAttempts);
+        properties.setInitialBackoffMillis(1);
+        properties.setMaxBackoffMillis(5);
+        ChunkPushExecutor created = new ChunkPushExecutor(properties);
+        created.init();
+        return created;
+    }
+
+    @Test
+    void keepsInFlightBatchesWithinLimit() {
+        executor = newExecutor(8, 2, 1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<ChunkPushExecutor.Outcome<Integer>> outcomes = executor.pushAll(List.of(1, 2, 3, 4, 5, 6), batch -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return batch * 10;
+        });
+
+        assertThat(outcomes).extracting(ChunkPushExecutor.Outcome::value).containsExactly(10, 20, 30, 40, 50, 60);
+        assertThat(peak.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void retriesFailedBatchUntilAttemptsRunOut() {
+        executor = newExecutor(2, 2, 3);
+        AtomicInteger flakyCalls = new AtomicInteger();
+        AtomicInteger brokenCalls = new AtomicInteger();
+
+        List<ChunkPushExecutor.Outcome<String>> outcomes = executor.pushAll(List.of("flaky", "broken"), batch -> {
+            if ("flaky".equals(batch) && flakyCalls.incrementAndGet() < 2) {
+                throw new IllegalStateException("temporarily unavailable");
+            }
+            if ("broken".equals(batch)) {
+                brokenCalls.incrementAndGet();
+                throw new IllegalStateException("always fails");
+            }
+            return batch;
+        });
+
+        assertThat(outcomes.get(0).failed()).isFalse();
+        assertThat(outcomes.get(0).value()).isEqualTo("flaky");
+        assertThat(outcomes.get(1).failed()).isTrue();
+        assertThat(outcomes.get(1).error()).hasMessage("always fails");
+        assertThat(brokenCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void backoffStaysWithinCap() {
+        executor = newExecutor(1, 1, 3);
+        for (int attempt = 1; attempt < 40; attempt++) {
+            assertThat(executor.backoffMillis(attempt)).isBetween(0L, 5L);
+        }
+    }
+}
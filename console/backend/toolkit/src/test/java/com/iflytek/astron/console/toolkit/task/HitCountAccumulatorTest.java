@@ -0,0 +1,65 @@
+package com.iflytek.astron.console.toolkit.task;
+
+import com.iflytek.astron.console.toolkit.mapper.repo.FileDirectoryTreeMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HitCountAccumulatorTest {
+
+    @Mock
+    private FileDirectoryTreeMapper fileDirectoryTreeMapper;
+
+    @InjectMocks
+    private HitCountAccumulator accumulator;
+
+    @Test
+    void flushesAggregatedIncrementsInOneStatement() {
+        accumulator.increment(1L);
+        accumulator.increment(2L);
+        accumulator.increment(1L);
+        accumulator.increment(null);
+
+        accumulator.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(fileDirectoryTreeMapper, times(1)).incrementHitCounts(captor.capture());
+        assertThat(captor.getValue()).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 2L, 2L, 1L));
+
+        // Nothing left for the next run
+        accumulator.flush();
+        verifyNoMoreInteractions(fileDirectoryTreeMapper);
+    }
+
+    @Test
+    void keepsIncrementsWhenFlushFails() {
+        List<Map<Long, Long>> written = new ArrayList<>();
+        when(fileDirectoryTreeMapper.incrementHitCounts(anyMap()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenAnswer(invocation -> {
+                    written.add(new HashMap<>(invocation.getArgument(0)));
+                    return 1;
+                });
+
+        accumulator.increment(5L);
+        accumulator.flush();
+        accumulator.increment(5L);
+        accumulator.flush();
+
+        assertThat(written).containsExactly(Map.of(5L, 2L));
+    }
+}
@@ -0,0 +1,92 @@
+package com.iflytek.astron.console.toolkit.task;
+
+import com.iflytek.astron.console.commons.constant.ResponseEnum;
+import com.iflytek.astron.console.commons.exception.BusinessException;
+import com.iflytek.astron.console.toolkit.config.properties.IngestionPipelineProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IngestionPipelineTest {
+
+    private IngestionPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.destroy();
+        }
+    }
+
+    private IngestionPipeline newPipeline(int concurrency, int queueCapacity) {
+        IngestionPipelineProperties properties = new IngestionPipelineProperties();
+        properties.setSlice(new IngestionPipelineProperties.StageLimit(concurrency, queueCapacity));
+        properties.setEmbed(new IngestionPipelineProperties.StageLimit(concurrency, queueCapacity));
+        properties.setPollIntervalMillis(10);
+        IngestionPipeline created = new IngestionPipeline();
+        ReflectionTestUtils.setField(created, "properties", properties);
+        created.init();
+        return created;
+    }
+
+    @Test
+    void rejectsBatchLargerThanFreeCapacity() {
+        pipeline = newPipeline(1, 3);
+
+        IngestionPipeline.Admission admission = pipeline.admit(IngestionPipeline.Stage.SLICE, 2);
+        assertThatThrownBy(() -> pipeline.admit(IngestionPipeline.Stage.SLICE, 2))
+                .isInstanceOf(BusinessException.class)
+                .extracting("responseEnum")
+                .isEqualTo(ResponseEnum.REPO_FILE_PROCESSING_BUSY);
+
+        // Unused slots go back on close
+        admission.close();
+        pipeline.admit(IngestionPipeline.Stage.SLICE, 3).close();
+    }
+
+    @Test
+    void dispatchesTenantsRoundRobin() throws Exception {
+        pipeline = newPipeline(1, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<Boolean> first = pipeline.submit(IngestionPipeline.Stage.EMBED, "other", () -> blocker.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (String job : List.of("a1", "a2", "a3")) {
+            futures.add(pipeline.submit(IngestionPipeline.Stage.EMBED, "a", () -> order.add(job)));
+        }
+        futures.add(pipeline.submit(IngestionPipeline.Stage.EMBED, "b", () -> order.add("b1")));
+        blocker.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertThat(order).containsExactly("a1", "b1", "a2", "a3");
+    }
+
+    @Test
+    void requeuesWorkerUntilReady() throws Exception {
+        pipeline = newPipeline(1, 1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<Void> result;
+        try (IngestionPipeline.Admission admission = pipeline.admit(IngestionPipeline.Stage.EMBED, 1)) {
+            result = admission.submitWhenReady("a", () -> calls.incrementAndGet() >= 3);
+        }
+
+        result.get(5, TimeUnit.SECONDS);
+        assertThat(calls.get()).isEqualTo(3);
+        // The slot is free again once the worker finished
+        pipeline.admit(IngestionPipeline.Stage.EMBED, 1).close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.iflytek.astron.console.toolkit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CharCountUtilTest {
+
+    private static int count(String text) throws IOException {
+        return CharCountUtil.countChars(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static int countByLines(String text) throws IOException {
+        int charCount = 0;
+        try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                charCount += line.length() + 1;
+            }
+        }
+        return charCount;
+    }
+
+    @Test
+    void matchesLineBasedCounting() throws IOException {
+        for (String text : new String[] {"", "abc", "abc\n", "a\nb", "\n\n", "a\r\nb\r\n", "a\rb", "\r\n\r", "知识库\n文档"}) {
+            assertThat(count(text)).as("text: %s", text).isEqualTo(countByLines(text));
+        }
+    }
+
+    @Test
+    void countsAcrossBufferBoundaries() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append("行").append(i).append("\r\n");
+        }
+        assertThat(count(text.toString())).isEqualTo(countByLines(text.toString()));
+    }
+}